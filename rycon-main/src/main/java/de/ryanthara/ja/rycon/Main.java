@@ -53,7 +53,7 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.*;
  * java written editor for OpenStreetMap data.
  *
  * @author sebastian
- * @version 10
+ * @version 11
  * @since 2
  */
 public abstract class Main {
@@ -78,10 +78,6 @@ public abstract class Main {
      * The reference to the logging level for <tt>RyCON</tt>.
      */
     public static Level loggingLevel;
-    /**
-     * Contains a value for application wide count of processed file operations.
-     */
-    public static int countFileOps = -1;
     /**
      * The reference to the global application preferences handler.
      */
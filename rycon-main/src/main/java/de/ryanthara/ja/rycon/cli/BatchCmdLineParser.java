@@ -0,0 +1,356 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.cli
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.cli;
+
+import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
+import de.ryanthara.ja.rycon.gui.widgets.convert.TargetButton;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * Instances of this class parse the command line arguments of the batch mode of <tt>RyCON</tt>.
+ * <p>
+ * The first argument is the command, followed by options and at least one file, directory or glob pattern.
+ * The command 'watch' takes folders instead, which are optional.
+ * <code>
+ * --threads=[number]          number of worker threads
+ * --source=[format]           source format of the command 'convert' (e.g. GSI16 or CSV)
+ * --target=[format,...]       one or more target formats of the commands 'convert' and 'watch' (e.g. TXT,LTOP_KOO)
+ * --journal=[file]            journal of the processed files of the command 'watch'
+ * --quiet=[seconds]           time a file must not change before the command 'watch' processes it
+ * --queue=[number]            maximum number of waiting files of the command 'watch'
+ * --recursive                 directories are searched recursively
+ * --debug=[level]             logging level - level could be 'SEVERE WARNING INFO CONFIG FINE FINER FINEST'
+ * --locale=[a-zA-Z]           sets the locale to the given value in ISO 639 alpha-2 or alpha-3 language code
+ * --[switch]=[true|false]     a switch of the command (see {@link BatchCommand#getSwitches()}), '--[switch]' is true
+ * </code>
+ * <p>
+ * In difference to the {@link CmdLineInterfaceParser} of the user interface, every unknown or invalid argument
+ * throws a {@link CmdLineInterfaceException}, because a batch job must not run with wrong options.
+ *
+ * @author sebastian
+ * @version 2
+ * @see RyCONBatch
+ * @since 25
+ */
+public class BatchCmdLineParser {
+
+    private BatchCommand command;
+    private boolean isHelp;
+    private int threads;
+    private String journal;
+    private int quietPeriod;
+    private int queueCapacity;
+    private String alphaLanguageCode;
+    private Level loggingLevel;
+    private SourceButton source;
+    private final Set<TargetButton> targets;
+    private final Map<String, Boolean> switches;
+    private final List<String> inputs;
+
+    /**
+     * Constructs a new instance of this class.
+     */
+    public BatchCmdLineParser() {
+        command = null;
+        isHelp = false;
+        threads = 0;
+        journal = null;
+        quietPeriod = 0;
+        queueCapacity = 0;
+        alphaLanguageCode = null;
+        loggingLevel = null;
+        source = null;
+        targets = EnumSet.noneOf(TargetButton.class);
+        switches = new HashMap<>();
+        inputs = new ArrayList<>();
+    }
+
+    /**
+     * Returns the parsed command.
+     *
+     * @return the command
+     */
+    public BatchCommand getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns the parsed files, directories and glob patterns in the order of the command line.
+     *
+     * @return files, directories and glob patterns
+     */
+    public List<String> getInputs() {
+        return inputs;
+    }
+
+    /**
+     * Returns the parsed journal file of the command 'watch' or null, if the default journal has to be used.
+     *
+     * @return journal file
+     */
+    public String getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns the parsed logging level or null, if no level is given.
+     *
+     * @return the logging level
+     */
+    public Level getLoggingLevel() {
+        return loggingLevel;
+    }
+
+    /**
+     * Returns the parsed alpha-2 or alpha-3 language code or null, if no language code is given.
+     *
+     * @return the alpha-2 or -3 language code
+     */
+    public String getParsedLanguageCode() {
+        return alphaLanguageCode;
+    }
+
+    /**
+     * Returns the parsed maximum number of waiting files of the command 'watch' or 0, if the default has to be used.
+     *
+     * @return capacity of the work queue
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Returns the parsed quiet period in seconds of the command 'watch' or 0, if the default has to be used.
+     *
+     * @return quiet period in seconds
+     */
+    public int getQuietPeriod() {
+        return quietPeriod;
+    }
+
+    /**
+     * Returns the parsed source format of the command 'convert'.
+     *
+     * @return source format
+     */
+    public SourceButton getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the value of the given switch (e.g. 'holdStations') or the default value, if the switch is not given.
+     *
+     * @param name         name of the switch without the leading '--'
+     * @param defaultValue value of a not given switch
+     *
+     * @return value of the switch
+     */
+    public boolean getSwitch(String name, boolean defaultValue) {
+        return switches.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Returns the parsed target formats of the commands 'convert' and 'watch'.
+     *
+     * @return target formats
+     */
+    public Set<TargetButton> getTargets() {
+        return targets;
+    }
+
+    /**
+     * Returns the parsed number of worker threads or 0, if the number of the preferences has to be used.
+     *
+     * @return number of worker threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns true if the help is requested.
+     *
+     * @return true if the help is requested
+     */
+    public boolean isHelp() {
+        return isHelp;
+    }
+
+    /**
+     * Parses the command line arguments of the batch mode.
+     * <p>
+     * The options are case sensitive, the command and the format names are case insensitive.
+     *
+     * @param args the arguments to be parsed
+     *
+     * @throws CmdLineInterfaceException if an argument is unknown or invalid
+     */
+    public void parseArguments(final String... args) throws CmdLineInterfaceException {
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                isHelp = true;
+            } else if (arg.startsWith("--threads=")) {
+                threads = parseNumber(arg.substring(10), "number of threads");
+            } else if (arg.startsWith("--source=")) {
+                source = parseSource(arg.substring(9));
+            } else if (arg.startsWith("--target=")) {
+                for (String target : arg.substring(9).split(",")) {
+                    targets.add(parseTarget(target.trim()));
+                }
+            } else if (arg.startsWith("--journal=")) {
+                journal = arg.substring(10);
+            } else if (arg.startsWith("--quiet=")) {
+                quietPeriod = parseNumber(arg.substring(8), "quiet period");
+            } else if (arg.startsWith("--queue=")) {
+                queueCapacity = parseNumber(arg.substring(8), "capacity of the queue");
+            } else if (arg.startsWith("--debug=")) {
+                loggingLevel = parseLoggingLevel(arg.substring(8));
+            } else if (arg.startsWith("--locale=")) {
+                alphaLanguageCode = arg.toLowerCase().substring(9);
+            } else if (arg.startsWith("--")) {
+                parseSwitch(arg.substring(2));
+            } else if (command == null) {
+                command = BatchCommand.fromName(arg);
+
+                if (command == null) {
+                    throw new CmdLineInterfaceException("unknown command '" + arg + "'");
+                }
+            } else {
+                inputs.add(arg);
+            }
+        }
+
+        if (!isHelp) {
+            check();
+        }
+    }
+
+    /*
+     * Checks the parsed arguments for being complete and valid for the command.
+     */
+    private void check() throws CmdLineInterfaceException {
+        if (command == null) {
+            throw new CmdLineInterfaceException("no command given");
+        }
+
+        for (String name : switches.keySet()) {
+            if (!name.equals("recursive") && !command.getSwitches().contains(name)) {
+                throw new CmdLineInterfaceException("option '--" + name + "' is unknown for the command '" +
+                        command.getName() + "'");
+            }
+        }
+
+        final boolean isGSITarget = targets.contains(TargetButton.GSI8) || targets.contains(TargetButton.GSI16);
+
+        if (command == BatchCommand.CONVERT) {
+            if (source == null) {
+                throw new CmdLineInterfaceException("the command 'convert' needs a source format (--source=)");
+            }
+            if (targets.isEmpty()) {
+                throw new CmdLineInterfaceException("the command 'convert' needs at least one target format (--target=)");
+            }
+        } else if (command == BatchCommand.WATCH) {
+            if (source != null) {
+                throw new CmdLineInterfaceException("the command 'watch' takes the source format from the file suffix");
+            }
+            if (targets.isEmpty() && !getSwitch("tidyup", false)) {
+                throw new CmdLineInterfaceException("the command 'watch' needs target formats (--target=) or --tidyup");
+            }
+            // the tidy up writes the same file name as the GSI targets
+            if (isGSITarget && getSwitch("tidyup", false)) {
+                throw new CmdLineInterfaceException("the targets GSI8 and GSI16 can not be written together with --tidyup");
+            }
+        } else if (source != null || !targets.isEmpty()) {
+            throw new CmdLineInterfaceException("source and target formats are only used by the commands 'convert' and 'watch'");
+        }
+
+        // GSI8 and GSI16 are written into the same file name
+        if (targets.contains(TargetButton.GSI8) && targets.contains(TargetButton.GSI16)) {
+            throw new CmdLineInterfaceException("the targets GSI8 and GSI16 can not be written together");
+        }
+
+        if (command != BatchCommand.WATCH) {
+            if (journal != null || quietPeriod > 0 || queueCapacity > 0) {
+                throw new CmdLineInterfaceException("journal, quiet period and queue are only used by the command 'watch'");
+            }
+            if (inputs.isEmpty()) {
+                throw new CmdLineInterfaceException("no files, directories or glob patterns given");
+            }
+        }
+    }
+
+    private Level parseLoggingLevel(String value) throws CmdLineInterfaceException {
+        try {
+            return Level.parse(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new CmdLineInterfaceException("unknown logging level '" + value + "'", e);
+        }
+    }
+
+    private int parseNumber(String value, String description) throws CmdLineInterfaceException {
+        try {
+            int number = Integer.parseInt(value);
+
+            if (number < 1) {
+                throw new CmdLineInterfaceException("the " + description + " has to be at least 1");
+            }
+
+            return number;
+        } catch (NumberFormatException e) {
+            throw new CmdLineInterfaceException("invalid " + description + " '" + value + "'", e);
+        }
+    }
+
+    private SourceButton parseSource(String value) throws CmdLineInterfaceException {
+        try {
+            return SourceButton.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new CmdLineInterfaceException("unknown source format '" + value + "'", e);
+        }
+    }
+
+    private void parseSwitch(String value) throws CmdLineInterfaceException {
+        int index = value.indexOf('=');
+
+        if (index < 0) {
+            switches.put(value, true);
+        } else if (value.substring(index + 1).equalsIgnoreCase("true")) {
+            switches.put(value.substring(0, index), true);
+        } else if (value.substring(index + 1).equalsIgnoreCase("false")) {
+            switches.put(value.substring(0, index), false);
+        } else {
+            throw new CmdLineInterfaceException("invalid value of option '--" + value + "', use true or false");
+        }
+    }
+
+    private TargetButton parseTarget(String value) throws CmdLineInterfaceException {
+        try {
+            return TargetButton.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new CmdLineInterfaceException("unknown target format '" + value + "'", e);
+        }
+    }
+
+} // end of BatchCmdLineParser
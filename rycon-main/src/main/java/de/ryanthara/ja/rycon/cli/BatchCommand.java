@@ -0,0 +1,91 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.cli
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.cli;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This enumeration is used for the commands of the command line batch mode of <tt>RyCON</tt>.
+ * <p>
+ * Every command has it's name on the command line and the switches (e.g. '--holdStations'), which are
+ * allowed for it. The command 'watch' starts the {@link WatchFolderDaemon}, which combines the switches of the
+ * conversion and the tidy up.
+ *
+ * @author sebastian
+ * @version 2
+ * @see RyCONBatch
+ * @since 25
+ */
+public enum BatchCommand {
+
+    CONVERT("convert", "cadworkUseZeroHeights", "kFormatUseSimpleFormat", "ltopEliminateDuplicatePoints",
+            "ltopSortOutputFileByNumber", "overwrite", "semicolon", "sourceContainsCode", "space", "writeCodeColumn",
+            "writeCommentLine"),
+    TIDYUP("tidyup", "holdControlPoints", "holdStations"),
+    SPLIT("split", "insertCodeColumn", "writeCodeZero"),
+    LEVELLING("levelling", "holdChangePoints"),
+    WATCH("watch", "cadworkUseZeroHeights", "holdControlPoints", "holdStations", "kFormatUseSimpleFormat",
+            "ltopEliminateDuplicatePoints", "ltopSortOutputFileByNumber", "overwrite", "semicolon", "sourceContainsCode",
+            "space", "tidyup", "writeCodeColumn", "writeCommentLine");
+
+    private final String name;
+    private final List<String> switches;
+
+    BatchCommand(String name, String... switches) {
+        this.name = name;
+        this.switches = Collections.unmodifiableList(Arrays.asList(switches));
+    }
+
+    /**
+     * Returns the {@link BatchCommand} by it's name on the command line or null, if the name is unknown.
+     *
+     * @param name name of the command (case insensitive)
+     *
+     * @return batch command or null
+     */
+    public static BatchCommand fromName(String name) {
+        for (BatchCommand command : values()) {
+            if (command.name.equalsIgnoreCase(name)) {
+                return command;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the name of the command on the command line.
+     *
+     * @return name of the command
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the switches, which are allowed for the command.
+     *
+     * @return allowed switches without the leading '--'
+     */
+    public List<String> getSwitches() {
+        return switches;
+    }
+
+} // end of BatchCommand
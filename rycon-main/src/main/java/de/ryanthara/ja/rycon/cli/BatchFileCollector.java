@@ -0,0 +1,168 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.cli
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Instances of this class collect the files of a batch from files, directories and glob patterns.
+ * <p>
+ * A file is taken as it is. A directory contributes it's regular files, whose names match the file filter of
+ * the command (e.g. '*.GSI' for the levelling), and is searched recursively on request. A glob pattern
+ * (e.g. 'data/2017-*&#47;*.gsi' or 'data/**.txt') is resolved from it's fixed leading directory on. Every file
+ * is collected once and the files are sorted, so that two runs process the files in the same order.
+ *
+ * @author sebastian
+ * @version 1
+ * @see RyCONBatch
+ * @since 25
+ */
+public class BatchFileCollector {
+
+    private final PathMatcher fileFilter;
+    private final boolean isRecursive;
+    private final TreeSet<Path> files;
+    private final List<String> missingInputs;
+
+    /**
+     * Constructs a new instance of this class with the file filter for directories.
+     *
+     * @param fileFilter  filter for the file names of the directories
+     * @param isRecursive search directories recursively
+     */
+    public BatchFileCollector(PathMatcher fileFilter, boolean isRecursive) {
+        this.fileFilter = fileFilter;
+        this.isRecursive = isRecursive;
+        this.files = new TreeSet<>();
+        this.missingInputs = new ArrayList<>();
+    }
+
+    /*
+     * Returns the index of the first glob character or -1, if the input is not a glob pattern.
+     */
+    private static int indexOfGlob(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            switch (input.charAt(i)) {
+                case '*':
+                case '?':
+                case '[':
+                case '{':
+                    return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Adds the files of a file, a directory or a glob pattern. An input without files is remembered as missing
+     * input.
+     *
+     * @param input file, directory or glob pattern
+     *
+     * @throws IOException if a directory could not be read
+     */
+    public void add(String input) throws IOException {
+        final int found;
+
+        if (indexOfGlob(input) > -1) {
+            found = addGlob(input);
+        } else {
+            Path path = Paths.get(input);
+
+            if (Files.isDirectory(path)) {
+                found = addAll(path, isRecursive ? Integer.MAX_VALUE : 1,
+                        file -> fileFilter.matches(file.getFileName()));
+            } else if (Files.isRegularFile(path)) {
+                files.add(path.toAbsolutePath().normalize());
+                found = 1;
+            } else {
+                found = 0;
+            }
+        }
+
+        if (found == 0) {
+            missingInputs.add(input);
+        }
+    }
+
+    /**
+     * Returns the collected files in sorted order.
+     *
+     * @return collected files
+     */
+    public Path[] getFiles() {
+        return files.toArray(new Path[0]);
+    }
+
+    /**
+     * Returns the inputs, which did not contribute any file (e.g. a not existing file or an empty directory).
+     *
+     * @return inputs without files
+     */
+    public List<String> getMissingInputs() {
+        return missingInputs;
+    }
+
+    private int addAll(Path directory, int maxDepth, PathMatcher matcher) throws IOException {
+        int counter = 0;
+
+        try (Stream<Path> stream = Files.walk(directory, maxDepth)) {
+            for (Path path : (Iterable<Path>) stream::iterator) {
+                if (Files.isRegularFile(path) && matcher.matches(path)) {
+                    files.add(path.toAbsolutePath().normalize());
+                    counter = counter + 1;
+                }
+            }
+        }
+
+        return counter;
+    }
+
+    /*
+     * The glob pattern is split into the fixed leading directory and the pattern, which is matched against
+     * the paths relative to this directory.
+     */
+    private int addGlob(String input) throws IOException {
+        final String normalized = input.replace(File.separatorChar, '/');
+        final int lastSeparator = normalized.lastIndexOf('/', indexOfGlob(normalized));
+
+        final Path directory = lastSeparator < 0 ? Paths.get(".") : Paths.get(normalized.substring(0, lastSeparator + 1));
+        final String pattern = normalized.substring(lastSeparator + 1);
+
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        final int maxDepth = pattern.contains("**") ? Integer.MAX_VALUE : pattern.split("/").length;
+
+        return addAll(directory, maxDepth, path -> matcher.matches(directory.relativize(path)));
+    }
+
+} // end of BatchFileCollector
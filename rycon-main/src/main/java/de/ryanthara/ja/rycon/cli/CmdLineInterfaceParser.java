@@ -41,9 +41,12 @@ import java.util.logging.Logger;
  * Due to some reasons in the development cycle of <tt>RyCON</tt>, the function to parse one file name into
  * the source text field, and the possibility to select radio buttons was implemented. This functionality
  * is available for the {@link de.ryanthara.ja.rycon.gui.widgets.ConverterWidget}.
+ * <p>
+ * Files can be processed without a display by the command line batch mode ({@link RyCONBatch}), which has it's
+ * own main class and arguments.
  *
  * @author sebastian
- * @version 5
+ * @version 6
  * @since 6
  */
 public class CmdLineInterfaceParser {
@@ -170,6 +173,8 @@ public class CmdLineInterfaceParser {
         System.out.println(" --sourceBtnNumber=[number] selects the source button by a given number");
         System.out.println(" --targetBtnNumber=[number] selects the target button by a given number");
         System.out.println();
+        System.out.println("batch mode without display: java -cp RyCON_[version].jar " + RyCONBatch.class.getName() + " --help");
+        System.out.println();
     }
 
     private void printUsageAdvice() {
@@ -0,0 +1,725 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.cli
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.cli;
+
+import de.ryanthara.ja.rycon.converter.csv.BaseToolsCSV;
+import de.ryanthara.ja.rycon.converter.text.BaseToolsTXT;
+import de.ryanthara.ja.rycon.converter.zeiss.ZeissDialect;
+import de.ryanthara.ja.rycon.core.BatchOperations;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.DefaultKeys;
+import de.ryanthara.ja.rycon.data.DiagnosticsCollector;
+import de.ryanthara.ja.rycon.data.PreferenceHandler;
+import de.ryanthara.ja.rycon.data.PreferenceKeys;
+import de.ryanthara.ja.rycon.gui.widgets.convert.ConvertOperation;
+import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
+import de.ryanthara.ja.rycon.gui.widgets.convert.TargetButton;
+import de.ryanthara.ja.rycon.gui.widgets.convert.write.FanOutWriter;
+import de.ryanthara.ja.rycon.gui.widgets.convert.write.OverwriteMode;
+import de.ryanthara.ja.rycon.gui.widgets.convert.write.WriteParameter;
+import de.ryanthara.ja.rycon.io.ProcessedFileJournal;
+import de.ryanthara.ja.rycon.util.BatchExecutor;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * This class implements the command line batch mode of <tt>RyCON</tt>, which runs without a display (e.g. as
+ * nightly job on a server).
+ * <p>
+ * The batch mode is started with a separate main class and never loads the user interface classes (SWT):
+ * <code>
+ * java -cp RyCON_[version].jar de.ryanthara.ja.rycon.cli.RyCONBatch [command] [options] [files, directories or glob patterns]
+ * </code>
+ * The commands 'convert', 'tidyup', 'split' and 'levelling' use the same file operations as the widgets and
+ * process the files in parallel by a {@link BatchExecutor} with '--threads' workers. Existing output files of the
+ * command 'convert' are skipped, unless '--overwrite' is given.
+ * <p>
+ * The command 'watch' runs as daemon until it is terminated. It watches the given folders or the folders of the
+ * card reader from the settings with a {@link WatchFolderDaemon} and converts and tidies up every new or changed
+ * Leica GSI, text and Zeiss REC file once. The processed files are recorded in a journal (default
+ * 'RyCON_watch_journal.txt'), so that a restarted daemon does not process them again.
+ * <p>
+ * The messages and warnings are written to the standard error stream. The standard output stream receives exactly
+ * one line with a JSON summary of the batch (e.g. counts of files, lines and warnings), which can be read by the
+ * calling job. The daemon writes one JSON line for every processed file in addition. The exit code is 0 for
+ * success, 1 for wrong arguments and 2 if a file failed, an input is missing or the batch was cancelled.
+ * <p>
+ * A batch, which is terminated by a signal (e.g. SIGTERM of a job scheduler), finishes the running files, writes
+ * the summary and exits with 2 as cancelled batch instead of the exit code of the signal (e.g. 143). The daemon
+ * of the command 'watch' is stopped this way as usual and keeps the exit code of the signal.
+ *
+ * @author sebastian
+ * @version 2
+ * @see BatchCmdLineParser
+ * @since 25
+ */
+public class RyCONBatch {
+
+    /**
+     * Exit code of a successful batch.
+     */
+    public static final int EXIT_SUCCESS = 0;
+
+    /**
+     * Exit code of wrong command line arguments.
+     */
+    public static final int EXIT_USAGE = 1;
+
+    /**
+     * Exit code of a batch with failed files, missing inputs or a cancellation.
+     */
+    public static final int EXIT_FAILURE = 2;
+
+    private final static Logger logger = Logger.getLogger(RyCONBatch.class.getName());
+
+    // maximum time for finishing the running files after a termination signal
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+    // defaults of the command 'watch'
+    private static final String WATCH_JOURNAL = "RyCON_watch_journal.txt";
+    private static final int WATCH_QUEUE_CAPACITY = 100;
+    private static final int WATCH_QUIET_PERIOD_SECONDS = 2;
+
+    private final BatchCmdLineParser parser;
+    private final PrintStream summaryStream;
+    private final Queue<Path> failedFiles = new ConcurrentLinkedQueue<>();
+    private final Queue<Path> notWrittenFiles = new ConcurrentLinkedQueue<>();
+    private final AtomicLong lines = new AtomicLong();
+
+    private RyCONBatch(BatchCmdLineParser parser, PrintStream summaryStream) {
+        this.parser = parser;
+        this.summaryStream = summaryStream;
+    }
+
+    /**
+     * Returns the file operation for the parsed command.
+     * <p>
+     * The commands 'convert' and 'watch' write with the given {@link FanOutWriter} and do not ask before existing
+     * files are overwritten. The command 'watch' tidies up Leica GSI files and converts them, text files and Zeiss
+     * REC files into the target formats. It overwrites by default, because a changed file has to update it's
+     * output files.
+     *
+     * @param parser       parsed command line arguments
+     * @param pref         preferences of <tt>RyCON</tt>
+     * @param context      context of the conversions
+     * @param fanOutWriter writer of the target formats or null, if the command does not convert
+     *
+     * @return file operation of the command
+     */
+    public static BatchExecutor.FileOperation createFileOperation(BatchCmdLineParser parser, PreferenceHandler pref,
+                                                                  ConversionContext context, FanOutWriter fanOutWriter) {
+        switch (parser.getCommand()) {
+            case CONVERT:
+                return createConvertOperation(parser, parser.getSource(), false, pref, context, fanOutWriter);
+
+            case TIDYUP:
+                return createTidyUpOperation(parser, pref, context);
+
+            case SPLIT:
+                return BatchOperations.codeSplit(parser.getSwitch("insertCodeColumn", false),
+                        parser.getSwitch("writeCodeZero", false), context);
+
+            case LEVELLING:
+                return BatchOperations.levelling(parser.getSwitch("holdChangePoints", true), context);
+
+            case WATCH:
+                final BatchExecutor.FileOperation tidyUp = parser.getSwitch("tidyup", false) ?
+                        createTidyUpOperation(parser, pref, context) : null;
+                final Map<String, BatchExecutor.FileOperation> conversions = new HashMap<>();
+
+                if (!parser.getTargets().isEmpty()) {
+                    for (SourceButton source : new SourceButton[]{SourceButton.GSI16, SourceButton.TXT, SourceButton.ZEISS_REC}) {
+                        conversions.put(getSourceSuffix(source),
+                                createConvertOperation(parser, source, true, pref, context, fanOutWriter));
+                    }
+                }
+
+                return file -> {
+                    final String fileName = file.getFileName().toString();
+                    final String suffix = fileName.substring(fileName.lastIndexOf('.') + 1).toUpperCase(Locale.ROOT);
+
+                    int writtenFiles = 0;
+
+                    if (tidyUp != null && suffix.equals("GSI")) {
+                        writtenFiles = writtenFiles + tidyUp.process(file);
+                    }
+                    if (conversions.containsKey(suffix)) {
+                        writtenFiles = writtenFiles + conversions.get(suffix).process(file);
+                    }
+
+                    return writtenFiles;
+                };
+
+            default:
+                throw new IllegalArgumentException("unknown command " + parser.getCommand());
+        }
+    }
+
+    /**
+     * Returns the filter for the file names in directories, which depends on the command and the source format.
+     *
+     * @param parser parsed command line arguments
+     *
+     * @return file name filter
+     */
+    public static PathMatcher createFileFilter(BatchCmdLineParser parser) {
+        final String suffixes;
+
+        switch (parser.getCommand()) {
+            case CONVERT:
+                suffixes = getSourceSuffix(parser.getSource());
+                break;
+
+            case TIDYUP:
+                suffixes = "GSI|GSL";
+                break;
+
+            case SPLIT:
+                suffixes = "GSI|TXT";
+                break;
+
+            case LEVELLING:
+                suffixes = "GSI|ASC";
+                break;
+
+            case WATCH:
+                suffixes = "GSI|TXT|REC";
+                break;
+
+            default:
+                throw new IllegalArgumentException("unknown command " + parser.getCommand());
+        }
+
+        // case insensitive like the file operations
+        return FileSystems.getDefault().getPathMatcher("regex:(?iu:.+\\.(" + suffixes + "))");
+    }
+
+    /*
+     * The default values are the same as in the converter widget.
+     */
+    private static BatchExecutor.FileOperation createConvertOperation(BatchCmdLineParser parser, SourceButton source,
+                                                                      boolean overwrite, PreferenceHandler pref,
+                                                                      ConversionContext context, FanOutWriter fanOutWriter) {
+        final boolean useSemicolonAsSeparator = parser.getSwitch("semicolon", false);
+
+        String separatorCSV = useSemicolonAsSeparator ? BaseToolsCSV.SEPARATOR_SEMICOLON : BaseToolsCSV.SEPARATOR_COMMA;
+        String separatorTXT = parser.getSwitch("space", false) ? BaseToolsTXT.SEPARATOR_SPACE : BaseToolsTXT.SEPARATOR_TAB;
+        ZeissDialect dialect = ZeissDialect.valueOf(pref.getUserPreference(PreferenceKeys.CONVERTER_SETTING_ZEISS_DIALECT));
+        OverwriteMode overwriteMode = parser.getSwitch("overwrite", overwrite) ? OverwriteMode.OVERWRITE : OverwriteMode.SKIP;
+
+        WriteParameter parameter = new WriteParameter(source.ordinal(), source != SourceButton.GSI8,
+                parser.getSwitch("cadworkUseZeroHeights", false),
+                parser.getSwitch("kFormatUseSimpleFormat", true),
+                parser.getSwitch("ltopEliminateDuplicatePoints", true),
+                parser.getSwitch("ltopSortOutputFileByNumber", true),
+                parser.getSwitch("sourceContainsCode", false),
+                parser.getSwitch("writeCodeColumn", false),
+                parser.getSwitch("writeCommentLine", false),
+                separatorCSV, separatorTXT, dialect, context, overwriteMode);
+
+        return new ConvertOperation(source, parser.getTargets(), useSemicolonAsSeparator, parameter,
+                fanOutWriter, null);
+    }
+
+    private static BatchExecutor.FileOperation createTidyUpOperation(BatchCmdLineParser parser, PreferenceHandler pref,
+                                                                     ConversionContext context) {
+        return BatchOperations.tidyUp(parser.getSwitch("holdStations", false),
+                parser.getSwitch("holdControlPoints", false),
+                pref.getUserPreference(PreferenceKeys.PARAM_EDIT_STRING),
+                pref.getUserPreference(PreferenceKeys.PARAM_LTOP_STRING), context);
+    }
+
+    /*
+     * The daemon must not process it's own output files ('_[editString].[suffix]') and the log file of the
+     * instrument, which is copied by the transfer widget.
+     */
+    private static PathMatcher createWatchFileFilter(BatchCmdLineParser parser, PreferenceHandler pref) {
+        final PathMatcher fileFilter = createFileFilter(parser);
+        final Pattern outputFiles = Pattern.compile("(?iu:.+_(" +
+                Pattern.quote(DefaultKeys.PARAM_EDIT_STRING.getValue()) + "|" +
+                Pattern.quote(pref.getUserPreference(PreferenceKeys.PARAM_EDIT_STRING)) + ")\\.[^.]+)");
+
+        return file -> fileFilter.matches(file) && !outputFiles.matcher(file.toString()).matches() &&
+                !file.toString().equalsIgnoreCase("logfile.txt");
+    }
+
+    /*
+     * Returns the file suffix of a source format.
+     */
+    private static String getSourceSuffix(SourceButton source) {
+        switch (source) {
+            case GSI8:
+            case GSI16:
+                return "GSI";
+
+            case TXT:
+            case BASEL_LANDSCHAFT:
+                return "TXT";
+
+            case CSV:
+            case BASEL_STADT:
+                return "CSV";
+
+            case CAPLAN_K:
+                return "K";
+
+            case ZEISS_REC:
+                return "REC";
+
+            case CADWORK:
+                return "DAT";
+
+            case XLSX:
+                return "XLSX";
+
+            case ODS:
+                return "ODS";
+
+            default:
+                throw new IllegalArgumentException("unknown source format " + source);
+        }
+    }
+
+    /*
+     * Logs to the standard error stream, because the standard output stream is used for the summary.
+     */
+    private static void initLogging(Level level) {
+        LogManager.getLogManager().reset();
+
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+        consoleHandler.setLevel(level);
+
+        Logger rootLogger = Logger.getLogger("");
+        rootLogger.setLevel(level);
+        rootLogger.addHandler(consoleHandler);
+    }
+
+    /**
+     * Main method of the command line batch mode. Exits with the exit code of the batch.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String... args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs the command line batch mode and returns the exit code.
+     *
+     * @param args command line arguments
+     *
+     * @return exit code
+     */
+    public static int run(String... args) {
+        final PrintStream summaryStream = System.out;
+
+        // messages of the converters must not be mixed with the summary
+        System.setOut(System.err);
+
+        try {
+            BatchCmdLineParser parser = new BatchCmdLineParser();
+
+            try {
+                parser.parseArguments(args);
+            } catch (CmdLineInterfaceException e) {
+                System.err.println("RyCON batch: " + e.getMessage());
+                printHelp(System.err);
+                return EXIT_USAGE;
+            }
+
+            if (parser.isHelp()) {
+                printHelp(summaryStream);
+                return EXIT_SUCCESS;
+            }
+
+            initLogging(parser.getLoggingLevel() != null ? parser.getLoggingLevel() : Level.WARNING);
+
+            if (parser.getParsedLanguageCode() != null) {
+                String languageCode = parser.getParsedLanguageCode();
+                Locale.setDefault(new Locale(languageCode, languageCode.toUpperCase()));
+            }
+
+            RyCONBatch ryCONBatch = new RyCONBatch(parser, summaryStream);
+
+            return parser.getCommand() == BatchCommand.WATCH ? ryCONBatch.watch() : ryCONBatch.execute();
+        } finally {
+            System.setOut(summaryStream);
+        }
+    }
+
+    /**
+     * Prints the help of the command line batch mode.
+     *
+     * @param printStream stream to print on
+     */
+    public static void printHelp(PrintStream printStream) {
+        printStream.println();
+        printStream.println("usage: java -cp RyCON_[version].jar de.ryanthara.ja.rycon.cli.RyCONBatch [command] [options] [files, directories or glob patterns]");
+        printStream.println("       java -cp RyCON_[version].jar de.ryanthara.ja.rycon.cli.RyCONBatch watch [options] [folders]");
+        printStream.println();
+        printStream.println("commands:");
+        printStream.println(" convert                    converts files from the source format into one or more target formats");
+        printStream.println(" tidyup                     cleans up Leica GSI files and LTOP GSL files");
+        printStream.println(" split                      splits Leica GSI and text files by code");
+        printStream.println(" levelling                  prepares Leica GSI levelling and NIGRA files for CAD programs");
+        printStream.println(" watch                      converts and tidies up new or changed GSI, TXT and REC files in the");
+        printStream.println("                            folders (default: card reader folders of the settings) until terminated");
+        printStream.println();
+        printStream.println("options:");
+        printStream.println(" --help                     shows this help");
+        printStream.println(" --threads=[number]         number of worker threads (default: batch workers of the settings)");
+        printStream.println(" --recursive                searches the given directories recursively");
+        printStream.println(" --debug=[level]            logging level - level could be 'SEVERE WARNING INFO CONFIG FINE FINER FINEST'");
+        printStream.println(" --locale=[language code]   alpha-2 or alpha-3 language code (e.g. en or de)");
+        printStream.println(" --source=[format]          convert: " + joinNames(SourceButton.values()));
+        printStream.println(" --target=[format,...]      convert and watch: " + joinNames(TargetButton.values()));
+        printStream.println(" --journal=[file]           watch: journal of the processed files (default: " + WATCH_JOURNAL + ")");
+        printStream.println(" --quiet=[seconds]          watch: time a file must not change before it is processed (default: " +
+                WATCH_QUIET_PERIOD_SECONDS + ")");
+        printStream.println(" --queue=[number]           watch: maximum number of waiting files (default: " + WATCH_QUEUE_CAPACITY + ")");
+        printStream.println();
+        printStream.println("switches (--[switch] or --[switch]=[true|false]):");
+
+        for (BatchCommand command : BatchCommand.values()) {
+            printStream.println(" " + command.getName() + ": " + String.join(" ", command.getSwitches()));
+        }
+
+        printStream.println();
+        printStream.println("The summary is written as one JSON line to the standard output, the command 'watch' writes");
+        printStream.println("one JSON line for every processed file and the summary, when it is terminated.");
+        printStream.println("exit codes: 0 success, 1 wrong arguments, 2 failed files, missing inputs or cancelled batch");
+        printStream.println("            (also a batch, which is terminated by a signal)");
+        printStream.println();
+    }
+
+    private static String joinNames(Enum<?>[] values) {
+        StringBuilder builder = new StringBuilder();
+
+        for (Enum<?> value : values) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(value.name());
+        }
+
+        return builder.toString();
+    }
+
+    /*
+     * Appends a JSON string with the necessary escapes.
+     */
+    static void appendJSONString(StringBuilder builder, String value) {
+        builder.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+
+                case '\n':
+                    builder.append("\\n");
+                    break;
+
+                case '\r':
+                    builder.append("\\r");
+                    break;
+
+                case '\t':
+                    builder.append("\\t");
+                    break;
+
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+
+        builder.append('"');
+    }
+
+    private static void appendJSONArray(StringBuilder builder, String name, Collection<?> values) {
+        builder.append(",\"").append(name).append("\":[");
+
+        boolean isFirst = true;
+
+        for (Object value : values) {
+            if (!isFirst) {
+                builder.append(',');
+            }
+            appendJSONString(builder, value.toString());
+            isFirst = false;
+        }
+
+        builder.append(']');
+    }
+
+    /*
+     * Counts the files without output and the failed files of the file operation.
+     */
+    private BatchExecutor.FileOperation countFiles(BatchExecutor.FileOperation fileOperation) {
+        return file -> {
+            try {
+                int writtenFiles = fileOperation.process(file);
+
+                if (writtenFiles == 0) {
+                    notWrittenFiles.add(file);
+                }
+
+                return writtenFiles;
+            } catch (IOException | RuntimeException e) {
+                failedFiles.add(file);
+                throw e;
+            }
+        };
+    }
+
+    private int execute() {
+        final long startTime = System.nanoTime();
+
+        final PreferenceHandler pref = new PreferenceHandler();
+        final int threads = parser.getThreads() > 0 ? parser.getThreads() : pref.getConversionSettings().getBatchWorkers();
+
+        final BatchFileCollector fileCollector = new BatchFileCollector(createFileFilter(parser),
+                parser.getSwitch("recursive", false));
+
+        try {
+            for (String input : parser.getInputs()) {
+                fileCollector.add(input);
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "can not collect the files of the batch", e);
+            System.err.println("RyCON batch: can not collect the files (" + e.getMessage() + ")");
+            return EXIT_USAGE;
+        }
+
+        for (String missingInput : fileCollector.getMissingInputs()) {
+            logger.log(Level.WARNING, "no file found for '" + missingInput + "'");
+        }
+
+        final DiagnosticsCollector diagnostics = new DiagnosticsCollector();
+        final ConversionContext context = new ConversionContext(pref.getConversionSettings(), diagnostics,
+                lines::addAndGet);
+
+        final Path[] files = fileCollector.getFiles();
+        final CountDownLatch summaryWritten = new CountDownLatch(1);
+
+        try (FanOutWriter fanOutWriter = parser.getCommand() == BatchCommand.CONVERT ? new FanOutWriter() : null) {
+            final BatchExecutor batchExecutor = new BatchExecutor(files, threads,
+                    countFiles(createFileOperation(parser, pref, context, fanOutWriter)));
+
+            // a terminated job finishes the running files, writes the summary and exits as cancelled batch
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (!batchExecutor.isFinished()) {
+                    System.err.println("RyCON batch: terminated, running files are finished");
+                    batchExecutor.cancel();
+
+                    try {
+                        summaryWritten.await(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    // otherwise the JVM exits with the exit code of the signal
+                    Runtime.getRuntime().halt(EXIT_FAILURE);
+                }
+            }, "RyCON-batch-shutdown"));
+
+            batchExecutor.start(new BatchExecutor.Listener() {
+                @Override
+                public void finished(BatchExecutor batch) {
+                    logger.log(Level.INFO, "batch finished with " + batch.getWrittenFiles() + " written files");
+                }
+
+                @Override
+                public void progress(BatchExecutor batch) {
+                    logger.log(Level.FINE, (batch.getProcessedFiles() + batch.getSkippedFiles()) + " of " +
+                            batch.getFileCount() + " files processed");
+                }
+            });
+
+            try {
+                batchExecutor.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batchExecutor.cancel();
+            }
+
+            writeSummary(batchExecutor, threads, diagnostics, fileCollector, startTime);
+
+            boolean isSuccess = batchExecutor.getFailedFiles() == 0 && fileCollector.getMissingInputs().isEmpty() &&
+                    !batchExecutor.isCancelled() && batchExecutor.isFinished();
+
+            return isSuccess ? EXIT_SUCCESS : EXIT_FAILURE;
+        } finally {
+            summaryWritten.countDown();
+        }
+    }
+
+    /*
+     * Runs the watch folder daemon until the process is terminated.
+     */
+    private int watch() {
+        final long startTime = System.nanoTime();
+
+        final PreferenceHandler pref = new PreferenceHandler();
+        final int threads = parser.getThreads() > 0 ? parser.getThreads() : pref.getConversionSettings().getBatchWorkers();
+        final int queueCapacity = parser.getQueueCapacity() > 0 ? parser.getQueueCapacity() : WATCH_QUEUE_CAPACITY;
+        final int quietPeriod = parser.getQuietPeriod() > 0 ? parser.getQuietPeriod() : WATCH_QUIET_PERIOD_SECONDS;
+        final Path journalFile = Paths.get(parser.getJournal() != null ? parser.getJournal() : WATCH_JOURNAL);
+
+        final List<Path> directories = new ArrayList<>();
+
+        if (parser.getInputs().isEmpty()) {
+            // the same folders of the card reader as in the transfer widget
+            directories.add(Paths.get(pref.getUserPreference(PreferenceKeys.DIR_CARD_READER_DATA_FILES)));
+            directories.add(Paths.get(pref.getUserPreference(PreferenceKeys.DIR_CARD_READER_EXPORT_FILES)));
+            directories.add(Paths.get(pref.getUserPreference(PreferenceKeys.DIR_CARD_READER_JOB_FILES)));
+        } else {
+            for (String input : parser.getInputs()) {
+                directories.add(Paths.get(input));
+            }
+        }
+
+        directories.replaceAll(directory -> directory.toAbsolutePath().normalize());
+
+        for (Path directory : directories) {
+            if (!Files.isDirectory(directory)) {
+                logger.log(Level.WARNING, "folder " + directory + " does not exist and is watched, when it appears");
+            }
+        }
+
+        // the diagnostics are logged, because a collector would grow with every file of the daemon
+        final ConversionContext context = new ConversionContext(pref.getConversionSettings(),
+                ConversionContext.LOG_DIAGNOSTICS, lines::addAndGet);
+
+        final CountDownLatch summaryWritten = new CountDownLatch(1);
+
+        try (ProcessedFileJournal journal = ProcessedFileJournal.open(journalFile);
+             FanOutWriter fanOutWriter = new FanOutWriter()) {
+            final WatchFolderDaemon daemon = new WatchFolderDaemon(directories, createWatchFileFilter(parser, pref),
+                    createFileOperation(parser, pref, context, fanOutWriter), journal, quietPeriod * 1000L,
+                    queueCapacity, threads, summaryStream);
+
+            // a terminated daemon finishes the running files, the queued files are processed with the next start
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (daemon.isRunning()) {
+                    System.err.println("RyCON batch: terminated, running files are finished");
+                    daemon.stop();
+
+                    try {
+                        summaryWritten.await(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, "RyCON-batch-shutdown"));
+
+            logger.log(Level.INFO, "watch folder daemon started with " + journal.size() + " recorded files");
+
+            daemon.run();
+
+            final double seconds = (System.nanoTime() - startTime) / 1e9;
+
+            StringBuilder builder = new StringBuilder();
+
+            builder.append("{\"command\":");
+            appendJSONString(builder, parser.getCommand().getName());
+            builder.append(",\"threads\":").append(threads);
+            builder.append(",\"processed\":").append(daemon.getProcessedFiles());
+            builder.append(",\"failed\":").append(daemon.getFailedFiles());
+            builder.append(",\"journal\":").append(journal.size());
+            builder.append(",\"lines\":").append(lines.get());
+            builder.append(",\"seconds\":").append(String.format(Locale.ROOT, "%.3f", seconds));
+            appendJSONArray(builder, "folders", directories);
+            builder.append('}');
+
+            summaryStream.println(builder.toString());
+            summaryStream.flush();
+
+            return daemon.getFailedFiles() == 0 ? EXIT_SUCCESS : EXIT_FAILURE;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "can not start the watch folder daemon", e);
+            System.err.println("RyCON batch: can not start the watch folder daemon (" + e.getMessage() + ")");
+            return EXIT_FAILURE;
+        } finally {
+            summaryWritten.countDown();
+        }
+    }
+
+    private void writeSummary(BatchExecutor batch, int threads, DiagnosticsCollector diagnostics,
+                              BatchFileCollector fileCollector, long startTime) {
+        final double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        StringBuilder builder = new StringBuilder();
+
+        builder.append("{\"command\":");
+        appendJSONString(builder, parser.getCommand().getName());
+        builder.append(",\"threads\":").append(threads);
+        builder.append(",\"files\":").append(batch.getFileCount());
+        builder.append(",\"processed\":").append(batch.getProcessedFiles());
+        builder.append(",\"written\":").append(batch.getWrittenFiles());
+        builder.append(",\"notWritten\":").append(notWrittenFiles.size());
+        builder.append(",\"failed\":").append(batch.getFailedFiles());
+        builder.append(",\"skipped\":").append(batch.getSkippedFiles());
+        builder.append(",\"missing\":").append(fileCollector.getMissingInputs().size());
+        builder.append(",\"cancelled\":").append(batch.isCancelled());
+        builder.append(",\"lines\":").append(lines.get());
+        builder.append(",\"warnings\":").append(diagnostics.getWarnings().size());
+        builder.append(",\"seconds\":").append(String.format(Locale.ROOT, "%.3f", seconds));
+        appendJSONArray(builder, "failedFiles", failedFiles);
+        appendJSONArray(builder, "notWrittenFiles", notWrittenFiles);
+        appendJSONArray(builder, "missingInputs", fileCollector.getMissingInputs());
+        builder.append('}');
+
+        summaryStream.println(builder.toString());
+        summaryStream.flush();
+    }
+
+} // end of RyCONBatch
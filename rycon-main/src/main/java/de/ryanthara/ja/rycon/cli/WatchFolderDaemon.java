@@ -0,0 +1,426 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.cli
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.cli;
+
+import de.ryanthara.ja.rycon.io.ProcessedFileJournal;
+import de.ryanthara.ja.rycon.io.ProcessedFileJournal.FileVersion;
+import de.ryanthara.ja.rycon.util.BatchExecutor;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Instances of this class watch folders (e.g. the folders of a card reader or an inbox on a server) and process
+ * every new or changed file, which matches the file filter, with a file operation.
+ * <p>
+ * The folders are watched with a {@link WatchService} and scanned once after their registration, so that files
+ * which are copied while the daemon was not running are found too. A folder, which does not exist (e.g. a card
+ * reader without card), is registered as soon as it appears.
+ * <p>
+ * A file is processed, when it did not change for the quiet period, because a copied file produces a lot of
+ * events while it is written. A quiet file is put into a bounded work queue, which is processed by the worker
+ * threads. If the queue is full, the file is queued again in the next round, so a lot of new files can not
+ * exhaust the memory. Every version of a file is processed exactly once, which is recorded in a persistent
+ * {@link ProcessedFileJournal}.
+ * <p>
+ * For every processed file one JSON line with the state is written to the event stream.
+ *
+ * @author sebastian
+ * @version 1
+ * @see RyCONBatch
+ * @since 25
+ */
+public class WatchFolderDaemon {
+
+    private final static Logger logger = Logger.getLogger(WatchFolderDaemon.class.getName());
+
+    // interval of the watch loop, which checks the quiet files too
+    private static final long POLL_INTERVAL_MILLIS = 250;
+
+    // interval of the registration of not existing folders
+    private static final long REGISTER_INTERVAL_MILLIS = 5000;
+
+    private final List<Path> directories;
+    private final PathMatcher fileFilter;
+    private final BatchExecutor.FileOperation fileOperation;
+    private final ProcessedFileJournal journal;
+    private final long quietPeriodMillis;
+    private final int threads;
+    private final PrintStream eventStream;
+    private final BlockingQueue<FileVersion> workQueue;
+    private final Set<Path> queuedFiles;
+    private final Map<Path, PendingFile> pendingFiles;
+    private final Map<WatchKey, Path> watchedDirectories;
+    private final AtomicInteger processedFiles;
+    private final AtomicInteger failedFiles;
+    private final CountDownLatch stopped;
+    private volatile boolean isRunning;
+
+    /**
+     * Constructs a new instance of this class with the folders and the file operation.
+     *
+     * @param directories       folders to watch
+     * @param fileFilter        filter for the file names, which are processed
+     * @param fileOperation     operation, that processes one file
+     * @param journal           journal of the processed files
+     * @param quietPeriodMillis time in milliseconds, which a file must not change before it is processed
+     * @param queueCapacity     maximum number of files in the work queue
+     * @param threads           number of worker threads
+     * @param eventStream       stream for the JSON lines of the processed files
+     */
+    public WatchFolderDaemon(List<Path> directories, PathMatcher fileFilter, BatchExecutor.FileOperation fileOperation,
+                             ProcessedFileJournal journal, long quietPeriodMillis, int queueCapacity, int threads,
+                             PrintStream eventStream) {
+        this.directories = directories;
+        this.fileFilter = fileFilter;
+        this.fileOperation = fileOperation;
+        this.journal = journal;
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.threads = threads;
+        this.eventStream = eventStream;
+
+        workQueue = new ArrayBlockingQueue<>(queueCapacity);
+        queuedFiles = ConcurrentHashMap.newKeySet();
+        pendingFiles = new HashMap<>();
+        watchedDirectories = new HashMap<>();
+        processedFiles = new AtomicInteger();
+        failedFiles = new AtomicInteger();
+        stopped = new CountDownLatch(1);
+        isRunning = false;
+    }
+
+    /**
+     * Waits until the daemon is stopped and the running files are finished.
+     *
+     * @param timeout maximum time to wait in seconds
+     *
+     * @return true if the daemon is stopped
+     *
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public boolean awaitStopped(long timeout) throws InterruptedException {
+        return stopped.await(timeout, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns the number of failed files.
+     *
+     * @return number of failed files
+     */
+    public int getFailedFiles() {
+        return failedFiles.get();
+    }
+
+    /**
+     * Returns the number of successfully processed files.
+     *
+     * @return number of processed files
+     */
+    public int getProcessedFiles() {
+        return processedFiles.get();
+    }
+
+    /**
+     * Returns true if the daemon is running.
+     *
+     * @return true if the daemon is running
+     */
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * Watches the folders and processes the files until the daemon is stopped. The running files are finished,
+     * the queued files are processed with the next start.
+     *
+     * @throws IOException if the watch service could not be created
+     */
+    public void run() throws IOException {
+        isRunning = true;
+
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            final List<Thread> workers = startWorkers();
+            long lastRegistration = 0;
+
+            while (isRunning) {
+                if (System.currentTimeMillis() - lastRegistration >= REGISTER_INTERVAL_MILLIS) {
+                    registerDirectories(watchService);
+                    lastRegistration = System.currentTimeMillis();
+                }
+
+                try {
+                    WatchKey watchKey = watchService.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+                    while (watchKey != null) {
+                        handleEvents(watchKey);
+                        watchKey = watchService.poll();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    isRunning = false;
+                }
+
+                queueQuietFiles();
+            }
+
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } finally {
+            isRunning = false;
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Stops the daemon. The running files are finished.
+     */
+    public void stop() {
+        isRunning = false;
+    }
+
+    private void handleEvents(WatchKey watchKey) {
+        final Path directory = watchedDirectories.get(watchKey);
+
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // lost events are found by a scan of the whole folder
+                scanDirectory(directory);
+            } else {
+                touch(directory.resolve((Path) event.context()));
+            }
+        }
+
+        // the key is invalid, if the folder is deleted or unmounted (e.g. a removed card)
+        if (!watchKey.reset()) {
+            watchedDirectories.remove(watchKey);
+            logger.log(Level.INFO, "folder " + directory + " is not available anymore");
+        }
+    }
+
+    /*
+     * Processes one file and records the result in the journal. An error of the journal stops the daemon,
+     * because the processed files can not be recorded anymore.
+     */
+    private void process(FileVersion fileVersion) {
+        final long startTime = System.nanoTime();
+
+        try {
+            journal.markStarted(fileVersion);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "journal could not be written, the daemon is stopped", e);
+            stop();
+            return;
+        }
+
+        int writtenFiles = 0;
+        boolean isDone;
+
+        try {
+            writtenFiles = fileOperation.process(fileVersion.getPath());
+            isDone = true;
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "processing of file " + fileVersion.getPath() + " failed", e);
+            isDone = false;
+        }
+
+        try {
+            if (isDone) {
+                journal.markDone(fileVersion);
+                processedFiles.incrementAndGet();
+            } else {
+                journal.markFailed(fileVersion);
+                failedFiles.incrementAndGet();
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "journal could not be written, the daemon is stopped", e);
+            stop();
+        }
+
+        writeEvent(fileVersion, isDone, writtenFiles, startTime);
+    }
+
+    /*
+     * Puts the files into the work queue, which did not change for the quiet period. A file has to keep it's size
+     * and time of modification over a whole quiet period, because not every file system reports every write.
+     */
+    private void queueQuietFiles() {
+        final long now = System.currentTimeMillis();
+
+        Iterator<Map.Entry<Path, PendingFile>> iterator = pendingFiles.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Path, PendingFile> entry = iterator.next();
+            PendingFile pendingFile = entry.getValue();
+
+            if (now - pendingFile.lastEvent < quietPeriodMillis) {
+                continue;
+            }
+
+            FileVersion fileVersion;
+
+            try {
+                fileVersion = Files.isRegularFile(entry.getKey()) ? FileVersion.of(entry.getKey()) : null;
+            } catch (IOException e) {
+                fileVersion = null;
+            }
+
+            if (fileVersion == null) {
+                // deleted or renamed file
+                iterator.remove();
+            } else if (pendingFile.fileVersion == null || pendingFile.fileVersion.getSize() != fileVersion.getSize() ||
+                    pendingFile.fileVersion.getLastModified() != fileVersion.getLastModified()) {
+                pendingFile.fileVersion = fileVersion;
+                pendingFile.lastEvent = now;
+            } else if (journal.isProcessed(fileVersion)) {
+                iterator.remove();
+            } else if (queuedFiles.add(fileVersion.getPath())) {
+                if (workQueue.offer(fileVersion)) {
+                    iterator.remove();
+                } else {
+                    queuedFiles.remove(fileVersion.getPath());
+                    logger.log(Level.FINE, "work queue is full, file " + fileVersion.getPath() + " is queued later");
+                }
+            }
+            // otherwise an older version of the file is processed at the moment
+        }
+    }
+
+    private void registerDirectories(WatchService watchService) {
+        for (Path directory : directories) {
+            if (!watchedDirectories.containsValue(directory) && Files.isDirectory(directory)) {
+                try {
+                    WatchKey watchKey = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY);
+                    watchedDirectories.put(watchKey, directory);
+
+                    logger.log(Level.INFO, "watching folder " + directory);
+
+                    scanDirectory(directory);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "folder " + directory + " could not be watched", e);
+                }
+            }
+        }
+    }
+
+    private void scanDirectory(Path directory) {
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(Files::isRegularFile).forEach(this::touch);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "folder " + directory + " could not be read", e);
+        }
+    }
+
+    private List<Thread> startWorkers() {
+        final List<Thread> workers = new ArrayList<>(threads);
+
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                while (isRunning) {
+                    try {
+                        FileVersion fileVersion = workQueue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+                        if (fileVersion != null) {
+                            try {
+                                process(fileVersion);
+                            } finally {
+                                queuedFiles.remove(fileVersion.getPath());
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }, "RyCON-watch-" + (i + 1));
+
+            worker.start();
+            workers.add(worker);
+        }
+
+        return workers;
+    }
+
+    /*
+     * Every event of a file restarts it's quiet period.
+     */
+    private void touch(Path file) {
+        if (fileFilter.matches(file.getFileName())) {
+            pendingFiles.computeIfAbsent(file.toAbsolutePath().normalize(), path -> new PendingFile()).lastEvent =
+                    System.currentTimeMillis();
+        }
+    }
+
+    private void writeEvent(FileVersion fileVersion, boolean isDone, int writtenFiles, long startTime) {
+        final double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        StringBuilder builder = new StringBuilder();
+
+        builder.append("{\"file\":");
+        RyCONBatch.appendJSONString(builder, fileVersion.getPath().toString());
+        builder.append(",\"state\":\"").append(isDone ? "done" : "failed").append('"');
+        builder.append(",\"written\":").append(writtenFiles);
+        builder.append(",\"seconds\":").append(String.format(Locale.ROOT, "%.3f", seconds));
+        builder.append('}');
+
+        synchronized (eventStream) {
+            eventStream.println(builder.toString());
+            eventStream.flush();
+        }
+    }
+
+    /*
+     * A file, which is waiting for the end of it's quiet period.
+     */
+    private static class PendingFile {
+
+        private long lastEvent;
+        private FileVersion fileVersion;
+
+    } // end of PendingFile
+
+} // end of WatchFolderDaemon
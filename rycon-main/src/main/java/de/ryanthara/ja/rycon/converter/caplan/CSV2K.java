@@ -26,7 +26,7 @@ import java.util.List;
  * Instances of this class provides functions to convert comma separated (CSV) coordinate files into Caplan K files.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class CSV2K {
@@ -42,6 +42,12 @@ public class CSV2K {
         this.readCSVLines = readCSVLines;
     }
 
+    /**
+     * Constructs a new instance of this class for the conversion row by row with {@link #convertRow}.
+     */
+    public CSV2K() {
+    }
+
     /**
      * Converts a CSV file (nr;x;y(;z) or nr;code;x;y;z) into a Caplan K file.
      *
@@ -51,98 +57,125 @@ public class CSV2K {
      * @return converted K file as ArrayList<String>
      */
     public ArrayList<String> convertCSV2K(boolean useSimpleFormat, boolean writeCommentLine, boolean writeCodeColumn) {
+        ArrayList<String> result = convertCommentLines(writeCommentLine);
+
+        for (String[] stringField : readCSVLines) {
+            result.add(convertRow(stringField, useSimpleFormat, writeCodeColumn));
+        }
+        return result;
+    }
+
+    /**
+     * Prepares the comment lines of a Caplan K file, which are written before the converted rows.
+     *
+     * @param writeCommentLine option to write a comment line into the K file with basic information
+     *
+     * @return comment lines, which are empty without comment line
+     */
+    public ArrayList<String> convertCommentLines(boolean writeCommentLine) {
         ArrayList<String> result = new ArrayList<>();
 
         if (writeCommentLine) {
             BaseToolsCaplanK.writeCommentLine(result);
         }
 
-        for (String[] stringField : readCSVLines) {
-            int valencyIndicator = 0;
-
-            String valency = BaseToolsCaplanK.valency;
-            String freeSpace = BaseToolsCaplanK.freeSpace;
-            String objectTyp = BaseToolsCaplanK.objectTyp;
-            String easting = BaseToolsCaplanK.easting;
-            String northing = BaseToolsCaplanK.northing;
-            String height = BaseToolsCaplanK.height;
-
-            // point number (no '*', ',' and ';'), column 1 - 16
-            String number = BaseToolsCaplanK.cleanPointNumberString(stringField[0].replaceAll("\\s+", "").trim());
-
-            switch (stringField.length) {
-                case 3:     // contains nr x y
-                    // easting E, column 19-32
-                    easting = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[1], 4));
-
-                    // northing N, column 33-46
-                    northing = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[2], 4));
-                    valencyIndicator = 3;
-                    break;
-
-                case 4:     // contains nr x y z
-                    // easting E, column 19-32
-                    easting = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[1], 4));
-
-                    // northing N, column 33-46
-                    northing = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[2], 4));
-                    valencyIndicator = 3;
-
-                    // height (Z) is in column 5, but not always valued
-                    height = "";
-                    if (!stringField[4].equals("")) {
-                        // height H, column 47-59
-                        height = String.format("%13s", NumberFormatter.fillDecimalPlace(stringField[3], 5));
-                        Double d = Double.parseDouble(height);
-                        if (d != 0d) {
-                            valencyIndicator += 4;
-                        }
-                    }
-                    break;
+        return result;
+    }
 
-                case 5:     // contains nr code x y z
-                    // code is in column 2 and the same as object type, column 62...
-                    if (writeCodeColumn) {
-                        objectTyp = "|".concat(stringField[1]);
+    /**
+     * Converts one row of a CSV file (nr;x;y(;z) or nr;code;x;y;z) into a line of a Caplan K file, e.g. while the
+     * CSV file is read row by row. The comment line is prepared by {@link #convertCommentLines}.
+     *
+     * @param stringField     fields of the row
+     * @param useSimpleFormat option to write a reduced K file which is compatible to Z+F LaserControl
+     * @param writeCodeColumn option to write the code column
+     *
+     * @return converted line
+     */
+    public String convertRow(String[] stringField, boolean useSimpleFormat, boolean writeCodeColumn) {
+        int valencyIndicator = 0;
+
+        String valency = BaseToolsCaplanK.valency;
+        String freeSpace = BaseToolsCaplanK.freeSpace;
+        String objectTyp = BaseToolsCaplanK.objectTyp;
+        String easting = BaseToolsCaplanK.easting;
+        String northing = BaseToolsCaplanK.northing;
+        String height = BaseToolsCaplanK.height;
+
+        // point number (no '*', ',' and ';'), column 1 - 16
+        String number = BaseToolsCaplanK.cleanPointNumberString(stringField[0].replaceAll("\\s+", "").trim());
+
+        switch (stringField.length) {
+            case 3:     // contains nr x y
+                // easting E, column 19-32
+                easting = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[1], 4));
+
+                // northing N, column 33-46
+                northing = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[2], 4));
+                valencyIndicator = 3;
+                break;
+
+            case 4:     // contains nr x y z
+                // easting E, column 19-32
+                easting = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[1], 4));
+
+                // northing N, column 33-46
+                northing = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[2], 4));
+                valencyIndicator = 3;
+
+                // height (Z) is in column 4, but not always valued
+                height = "";
+                if (!stringField[3].equals("")) {
+                    // height H, column 47-59
+                    height = String.format("%13s", NumberFormatter.fillDecimalPlace(stringField[3], 5));
+                    Double d = Double.parseDouble(height);
+                    if (d != 0d) {
+                        valencyIndicator += 4;
                     }
-
-                    // easting E, column 19-32
-                    easting = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[2], 4));
-
-                    // northing N, column 33-46
-                    northing = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[3], 4));
-                    valencyIndicator = 3;
-
-                    // height (Z) is in column 5, but not always valued
-                    height = "";
-                    if (!stringField[4].equals("")) {
-                        // height H, column 47-59
-                        height = String.format("%13s", NumberFormatter.fillDecimalPlace(stringField[4], 5));
-                        Double d = Double.parseDouble(height);
-                        if (d != 0d) {
-                            valencyIndicator += 4;
-                        }
+                }
+                break;
+
+            case 5:     // contains nr code x y z
+                // code is in column 2 and the same as object type, column 62...
+                if (writeCodeColumn) {
+                    objectTyp = "|".concat(stringField[1]);
+                }
+
+                // easting E, column 19-32
+                easting = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[2], 4));
+
+                // northing N, column 33-46
+                northing = String.format("%14s", NumberFormatter.fillDecimalPlace(stringField[3], 4));
+                valencyIndicator = 3;
+
+                // height (Z) is in column 5, but not always valued
+                height = "";
+                if (!stringField[4].equals("")) {
+                    // height H, column 47-59
+                    height = String.format("%13s", NumberFormatter.fillDecimalPlace(stringField[4], 5));
+                    Double d = Double.parseDouble(height);
+                    if (d != 0d) {
+                        valencyIndicator += 4;
                     }
-                    break;
-
-                default:
-                    System.err.println("CSV2K.convertCSV2K() : line contains less or more tokens " + stringField.length);
-                    break;
+                }
+                break;
 
-            }
+            default:
+                System.err.println("CSV2K.convertRow() : line contains less or more tokens " + stringField.length);
+                break;
 
-            if (valencyIndicator > 0) {
-                valency = " ".concat(Integer.toString(valencyIndicator));
-            }
+        }
 
-            /*
-            pick up the relevant elements from the blocks from every line, check Z+F option
-            if Z+F option is checked, then use only no 7 x y z for K file
-             */
-            result.add(BaseToolsCaplanK.prepareCaplanLine(useSimpleFormat, number, valency, easting, northing, height,
-                    freeSpace, objectTyp).toString());
+        if (valencyIndicator > 0) {
+            valency = " ".concat(Integer.toString(valencyIndicator));
         }
-        return result;
+
+        /*
+        pick up the relevant elements from the blocks from every line, check Z+F option
+        if Z+F option is checked, then use only no 7 x y z for K file
+         */
+        return BaseToolsCaplanK.prepareCaplanLine(useSimpleFormat, number, valency, easting, northing, height,
+                freeSpace, objectTyp).toString();
     }
 
 } // end of CSV2K
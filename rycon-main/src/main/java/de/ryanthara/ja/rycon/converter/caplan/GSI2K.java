@@ -17,8 +17,8 @@
  */
 package de.ryanthara.ja.rycon.converter.caplan;
 
-import de.ryanthara.ja.rycon.converter.gsi.BaseToolsGSI;
-import de.ryanthara.ja.rycon.elements.GSIBlock;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
+import de.ryanthara.ja.rycon.elements.FlyweightGSIBlock;
 import de.ryanthara.ja.rycon.tools.NumberFormatter;
 
 import java.util.ArrayList;
@@ -26,24 +26,26 @@ import java.util.ArrayList;
 /**
  * Instances of this class provides functions to convert coordinate and measurement files from
  * the Leica GSI format (GSI8 and GSI16) into Caplan K formatted files.
+ * <p>
+ * The blocks are read from a {@link GSIDataset} with one reusable {@link FlyweightGSIBlock}.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class GSI2K {
 
-    private BaseToolsGSI baseToolsGSI;
+    private final GSIDataset gsiDataset;
 
     /**
-     * Constructs a new instance of this class with a parameter for read line based text files in the Leica GSI format.
+     * Constructs a new instance of this class with a parameter for a decoded file in the Leica GSI format.
      * <p>
      * The differentiation of the content is done by the called method and it's content analyze functionality.
      *
-     * @param readStringLines {@code ArrayList<String>} with lines as {@code String}
+     * @param gsiDataset decoded GSI file, which is not changed
      */
-    public GSI2K(ArrayList<String> readStringLines) {
-        baseToolsGSI = new BaseToolsGSI(readStringLines);
+    public GSI2K(GSIDataset gsiDataset) {
+        this.gsiDataset = gsiDataset;
     }
 
     /**
@@ -61,8 +63,18 @@ public class GSI2K {
             BaseToolsCaplanK.writeCommentLine(result);
         }
 
-        for (ArrayList<GSIBlock> blocksInLine : baseToolsGSI.getEncodedLinesOfGSIBlocks()) {
-            StringBuilder stringBuilder = new StringBuilder();
+        // a line of a dataset without any block is written as empty line
+        final boolean hasWordIndices = gsiDataset.getFoundWordIndices().length > 0;
+
+        FlyweightGSIBlock flyweight = new FlyweightGSIBlock();
+        StringBuilder printFormatCSV = new StringBuilder();
+        StringBuilder attr = new StringBuilder();
+
+        for (int line = 0; line < gsiDataset.getLineCount(); line++) {
+            if (!hasWordIndices) {
+                result.add("");
+                continue;
+            }
 
             // prevent wrong output with empty strings of defined length from class
             String number = "";
@@ -72,88 +84,85 @@ public class GSI2K {
             String height = BaseToolsCaplanK.height;
             String freeSpace = BaseToolsCaplanK.freeSpace;
             String objectTyp = BaseToolsCaplanK.objectTyp;
-            String attr = "";
-
-            for (int i = 0; i < baseToolsGSI.getFoundAllWordIndices().size(); i++) {
-                int valencyIndicator = 0;
-
-                for (GSIBlock block : blocksInLine) {
-                    String printFormatCSV = block.toPrintFormatCSV();
-
-                    switch (block.getWordIndex()) {
-                        case 11:        // point number (no '*', ',' and ';'), column 1 - 16
-                            number = BaseToolsCaplanK.cleanPointNumberString(printFormatCSV);
-                            break;
-
-                        case 41:        // code is the same as object type, column 62...
-                            objectTyp = "|".concat(printFormatCSV);
-                            break;
-
-                        case 71:        // comment 1, used as Attr1
-                        case 72:        // comment 2, used as Attr2
-                        case 73:        // comment 3, used as Attr3
-                        case 74:        // comment 4, used as Attr4
-                        case 75:        // comment 5, used as Attr5
-                        case 76:        // comment 6, used as Attr6
-                        case 77:        // comment 7, used as Attr7
-                        case 78:        // comment 8, used as Attr8
-                        case 79:        // comment 9, used as Attr9
-                            attr = attr.concat("|".concat(printFormatCSV));
-                            break;
-
-                        case 81:        // easting E, column 19-32
-                            easting = String.format("%14s", NumberFormatter.fillDecimalPlace(printFormatCSV, 4));
-                            valencyIndicator = 3;
-                            break;
-
-                        case 82:        // northing N, column 33-46
-                            northing = String.format("%14s", NumberFormatter.fillDecimalPlace(printFormatCSV, 4));
-                            valencyIndicator = 3;
-                            break;
-
-                        case 83:        // height H, column 47-59
-                            height = String.format("%13s", NumberFormatter.fillDecimalPlace(printFormatCSV, 5));
-                            valencyIndicator += 4;
-                            break;
-
-                        case 84:        // easting E0, column 19-32
-                            easting = String.format("%14s", NumberFormatter.fillDecimalPlace(printFormatCSV, 4));
-                            valencyIndicator = 3;
-                            break;
-
-                        case 85:        // northing N0, column 33-46
-                            northing = String.format("%14s", NumberFormatter.fillDecimalPlace(printFormatCSV, 4));
-                            valencyIndicator = 3;
-                            break;
-
-                        case 86:        // height H0, column 47-59
-                            height = String.format("%13s", NumberFormatter.fillDecimalPlace(printFormatCSV, 5));
-                            valencyIndicator += 4;
-                            break;
-
-                        default:
-                            System.err.println("GSI2K.convertGSI2K() : line contains unknown word index " + printFormatCSV);
-                    }
-
-                    if (valencyIndicator > 0) {
-                        valency = " ".concat(Integer.toString(valencyIndicator));
-                    }
+            int valencyIndicator = 0;
+
+            attr.setLength(0);
+
+            for (int block = gsiDataset.getLineStart(line); block < gsiDataset.getLineEnd(line); block++) {
+                printFormatCSV.setLength(0);
+                gsiDataset.fill(block, flyweight).appendPrintFormatCSV(printFormatCSV);
+
+                switch (flyweight.getWordIndex()) {
+                    case 11:        // point number (no '*', ',' and ';'), column 1 - 16
+                        number = BaseToolsCaplanK.cleanPointNumberString(printFormatCSV.toString());
+                        break;
+
+                    case 41:        // code is the same as object type, column 62...
+                        objectTyp = "|".concat(printFormatCSV.toString());
+                        break;
+
+                    case 71:        // comment 1, used as Attr1
+                    case 72:        // comment 2, used as Attr2
+                    case 73:        // comment 3, used as Attr3
+                    case 74:        // comment 4, used as Attr4
+                    case 75:        // comment 5, used as Attr5
+                    case 76:        // comment 6, used as Attr6
+                    case 77:        // comment 7, used as Attr7
+                    case 78:        // comment 8, used as Attr8
+                    case 79:        // comment 9, used as Attr9
+                        attr.append('|').append(printFormatCSV);
+                        break;
+
+                    case 81:        // easting E, column 19-32
+                        easting = String.format("%14s", NumberFormatter.fillDecimalPlace(printFormatCSV.toString(), 4));
+                        valencyIndicator = 3;
+                        break;
+
+                    case 82:        // northing N, column 33-46
+                        northing = String.format("%14s", NumberFormatter.fillDecimalPlace(printFormatCSV.toString(), 4));
+                        valencyIndicator = 3;
+                        break;
+
+                    case 83:        // height H, column 47-59
+                        height = String.format("%13s", NumberFormatter.fillDecimalPlace(printFormatCSV.toString(), 5));
+                        valencyIndicator += 4;
+                        break;
+
+                    case 84:        // easting E0, column 19-32
+                        easting = String.format("%14s", NumberFormatter.fillDecimalPlace(printFormatCSV.toString(), 4));
+                        valencyIndicator = 3;
+                        break;
+
+                    case 85:        // northing N0, column 33-46
+                        northing = String.format("%14s", NumberFormatter.fillDecimalPlace(printFormatCSV.toString(), 4));
+                        valencyIndicator = 3;
+                        break;
+
+                    case 86:        // height H0, column 47-59
+                        height = String.format("%13s", NumberFormatter.fillDecimalPlace(printFormatCSV.toString(), 5));
+                        valencyIndicator += 4;
+                        break;
+
+                    default:
+                        System.err.println("GSI2K.convertGSI2K() : line contains unknown word index " + printFormatCSV);
                 }
 
-                /*
-                pick up the relevant elements from the blocks from every line, check Z+F option
-                if Z+F option is checked, then use only no 7 y x z for K file
-                 */
-                stringBuilder = BaseToolsCaplanK.prepareCaplanLine(useSimpleFormat, number, valency, easting, northing, height,
-                        freeSpace, objectTyp);
-
-                if ((!useSimpleFormat) && (!attr.equals(""))) {
-                    stringBuilder.append(attr);
+                if (valencyIndicator > 0) {
+                    valency = " ".concat(Integer.toString(valencyIndicator));
                 }
+            }
+
+            /*
+            pick up the relevant elements from the blocks from every line, check Z+F option
+            if Z+F option is checked, then use only no 7 y x z for K file
+             */
+            StringBuilder stringBuilder = BaseToolsCaplanK.prepareCaplanLine(useSimpleFormat, number, valency, easting,
+                    northing, height, freeSpace, objectTyp);
 
-                // clean up some variables after line reading is finished
-                attr = "";
+            if ((!useSimpleFormat) && (attr.length() > 0)) {
+                stringBuilder.append(attr);
             }
+
             result.add(stringBuilder.toString());
         }
 
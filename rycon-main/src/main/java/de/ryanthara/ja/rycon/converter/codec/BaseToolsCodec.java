@@ -0,0 +1,156 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.codec
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.codec;
+
+/**
+ * BaseToolsCodec implements basic operations for the decoders of the {@link PointTable}.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+class BaseToolsCodec {
+
+    /**
+     * Adds the point of a line, which is given by it's tokens, to the point table.
+     * <p>
+     * The meaning of the tokens depends on their number:
+     * <ul>
+     * <li>2 tokens: number, height</li>
+     * <li>3 tokens: number, easting, northing</li>
+     * <li>4 tokens: number, easting, northing, height</li>
+     * <li>5 tokens: number, code, easting, northing, height</li>
+     * </ul>
+     * Empty tokens are not valued. Lines with an other number of tokens or with invalid numbers are skipped
+     * with a message.
+     *
+     * @param pointTable point table to fill
+     * @param tokens     tokens of the line
+     * @param caller     name of the calling decoder for the messages
+     */
+    static void addPoint(PointTable pointTable, String[] tokens, String caller) {
+        if (isEmpty(tokens)) {
+            return;
+        }
+
+        String code = null;
+        String easting = null;
+        String northing = null;
+        String height = null;
+
+        switch (tokens.length) {
+            case 2:     // no, height
+                height = tokens[1];
+                break;
+
+            case 3:     // no, easting, northing
+                easting = tokens[1];
+                northing = tokens[2];
+                break;
+
+            case 4:     // no, easting, northing, height
+                easting = tokens[1];
+                northing = tokens[2];
+                height = tokens[3];
+                break;
+
+            case 5:     // no, code, easting, northing, height
+                code = tokens[1];
+                easting = tokens[2];
+                northing = tokens[3];
+                height = tokens[4];
+                break;
+
+            default:
+                System.err.println(caller + " : line contains less or more tokens " + String.join(" ", tokens));
+                return;
+        }
+
+        addPoint(pointTable, tokens[0].trim(), code, easting, northing, height, tokens, caller);
+    }
+
+    /**
+     * Adds a point, which is given by it's already mapped fields, to the point table.
+     * <p>
+     * Fields, which are null or empty, are not valued. A line with an invalid number is skipped with a message.
+     *
+     * @param pointTable point table to fill
+     * @param number     point number
+     * @param code       code or null
+     * @param easting    easting or null
+     * @param northing   northing or null
+     * @param height     height or null
+     * @param tokens     tokens of the line for the messages
+     * @param caller     name of the calling decoder for the messages
+     */
+    static void addPoint(PointTable pointTable, String number, String code, String easting, String northing,
+                         String height, String[] tokens, String caller) {
+        double eastingValue, northingValue, heightValue;
+
+        try {
+            eastingValue = parse(easting);
+            northingValue = parse(northing);
+            heightValue = parse(height);
+        } catch (NumberFormatException e) {
+            System.err.println(caller + " : line contains an invalid number " + String.join(" ", tokens));
+            return;
+        }
+
+        String trimmedCode = code == null ? null : code.trim();
+        int mask = 0;
+
+        if (trimmedCode != null && !trimmedCode.isEmpty()) {
+            mask = mask | PointTable.CODE;
+        }
+        if (!Double.isNaN(eastingValue)) {
+            mask = mask | PointTable.EASTING;
+        }
+        if (!Double.isNaN(northingValue)) {
+            mask = mask | PointTable.NORTHING;
+        }
+        if (!Double.isNaN(heightValue)) {
+            mask = mask | PointTable.HEIGHT;
+        }
+
+        pointTable.add(number, trimmedCode, eastingValue, northingValue, heightValue, mask);
+    }
+
+    /*
+     * Parses a coordinate with '.' or ',' as decimal sign, a missing or empty string is not valued (NaN).
+     */
+    static double parse(String value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+
+        String trimmed = value.trim();
+
+        return trimmed.isEmpty() ? Double.NaN : Double.parseDouble(trimmed.replace(',', '.'));
+    }
+
+    static boolean isEmpty(String[] tokens) {
+        for (String token : tokens) {
+            if (!token.trim().isEmpty()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+} // end of BaseToolsCodec
@@ -0,0 +1,80 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.codec
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.codec;
+
+import java.util.List;
+
+/**
+ * Instances of this class decode a coordinate file (CSV format) from the geodata server Kanton Basel Stadt
+ * (Switzerland) into a {@link PointTable}.
+ * <p>
+ * The first row is a comment line. The columns are mapped like in the former CSV Basel Stadt to LTOP converter:
+ * number, code, easting, northing and height, where the height is not always valued. Further columns are ignored.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class CSVBaselStadtPointDecoder implements PointDecoder {
+
+    private final List<String[]> readCSVLines;
+
+    /**
+     * Constructs a new instance of this class with a parameter for the read line based CSV files.
+     *
+     * @param readCSVLines {@code List<String[]>} with lines as {@code String[]}
+     */
+    public CSVBaselStadtPointDecoder(List<String[]> readCSVLines) {
+        this.readCSVLines = readCSVLines;
+    }
+
+    /**
+     * Decodes the CSV file into a new point table. The read lines are not changed.
+     *
+     * @return decoded points
+     */
+    @Override
+    public PointTable decode() {
+        PointTable pointTable = new PointTable();
+
+        // skip comment line
+        for (String[] stringField : readCSVLines.subList(Math.min(1, readCSVLines.size()), readCSVLines.size())) {
+            if (BaseToolsCodec.isEmpty(stringField)) {
+                continue;
+            }
+
+            if (stringField.length < 4) {
+                System.err.println("CSVBaselStadtPointDecoder.decode() : line contains less tokens " +
+                        String.join(" ", stringField));
+                continue;
+            }
+
+            // number in column 1 without white spaces, code in column 2, easting in column 3, northing in column 4
+            String number = stringField[0].replaceAll("\\s+", "");
+
+            // height in column 5, but not always valued
+            String height = stringField.length > 4 ? stringField[4] : null;
+
+            BaseToolsCodec.addPoint(pointTable, number, stringField[1], stringField[2], stringField[3], height,
+                    stringField, "CSVBaselStadtPointDecoder.decode()");
+        }
+
+        return pointTable;
+    }
+
+} // end of CSVBaselStadtPointDecoder
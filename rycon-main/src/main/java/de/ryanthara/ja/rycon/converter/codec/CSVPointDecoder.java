@@ -0,0 +1,89 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.codec
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.codec;
+
+import java.util.List;
+
+/**
+ * Instances of this class decode a comma separated values (CSV) coordinate file into a {@link PointTable}.
+ * <p>
+ * The columns are mapped like in the former CSV to LTOP converter: number, easting, northing and an optional
+ * height. Further columns are ignored and an empty height is not valued.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class CSVPointDecoder implements PointDecoder {
+
+    private final List<String[]> readCSVLines;
+
+    /**
+     * Constructs a new instance of this class with a parameter for the read line based CSV files.
+     *
+     * @param readCSVLines {@code List<String[]>} with lines as {@code String[]}
+     */
+    public CSVPointDecoder(List<String[]> readCSVLines) {
+        this.readCSVLines = readCSVLines;
+    }
+
+    /**
+     * Decodes one row of a CSV file into the given point table, e.g. while the CSV file is read row by row. An empty
+     * row is skipped, a row without easting and northing is skipped with a message.
+     *
+     * @param pointTable  point table to fill
+     * @param stringField fields of the row
+     */
+    public static void decodeRow(PointTable pointTable, String[] stringField) {
+        if (BaseToolsCodec.isEmpty(stringField)) {
+            return;
+        }
+
+        if (stringField.length < 3) {
+            System.err.println("CSVPointDecoder.decodeRow() : line contains less tokens " + String.join(" ", stringField));
+            return;
+        }
+
+        // number in column 1 without white spaces, easting in column 2, northing in column 3
+        String number = stringField[0].replaceAll("\\s+", "");
+
+        // height in column 4, but not always valued
+        String height = stringField.length > 3 ? stringField[3] : null;
+
+        BaseToolsCodec.addPoint(pointTable, number, null, stringField[1], stringField[2], height, stringField,
+                "CSVPointDecoder.decodeRow()");
+    }
+
+    /**
+     * Decodes the CSV file into a new point table. Empty rows are skipped, rows without easting and northing
+     * are skipped with a message.
+     *
+     * @return decoded points
+     */
+    @Override
+    public PointTable decode() {
+        PointTable pointTable = new PointTable();
+
+        for (String[] stringField : readCSVLines) {
+            decodeRow(pointTable, stringField);
+        }
+
+        return pointTable;
+    }
+
+} // end of CSVPointDecoder
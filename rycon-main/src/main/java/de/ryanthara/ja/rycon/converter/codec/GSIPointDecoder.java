@@ -0,0 +1,113 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.codec
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.codec;
+
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
+import de.ryanthara.ja.rycon.elements.FlyweightGSIBlock;
+
+
+/**
+ * Instances of this class decode a Leica GSI coordinate file (GSI8 and GSI16) into a {@link PointTable}.
+ * <p>
+ * The blocks are read from the {@link GSIDataset} of the file with one
+ * {@link FlyweightGSIBlock}. In this RyCON version the WIs 11 (point number), 71 (code) and 81 till 86
+ * are supported.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class GSIPointDecoder implements PointDecoder {
+
+    private final GSIDataset gsiDataset;
+
+    /**
+     * Constructs a new instance of this class given a {@link GSIDataset} that contains the decoded GSI
+     * formatted file.
+     *
+     * @param gsiDataset decoded GSI file, which is not changed
+     */
+    public GSIPointDecoder(GSIDataset gsiDataset) {
+        this.gsiDataset = gsiDataset;
+    }
+
+    /**
+     * Decodes the GSI file into a new point table. Every line results in one point.
+     *
+     * @return decoded points
+     */
+    @Override
+    public PointTable decode() {
+        PointTable pointTable = new PointTable();
+        FlyweightGSIBlock block = new FlyweightGSIBlock();
+
+        for (int line = 0; line < gsiDataset.getLineCount(); line++) {
+            String number = "";
+            String code = null;
+            double easting = Double.NaN;
+            double northing = Double.NaN;
+            double height = Double.NaN;
+            int mask = 0;
+
+            for (int i = gsiDataset.getLineStart(line); i < gsiDataset.getLineEnd(line); i++) {
+                String s = gsiDataset.fill(i, block).toPrintFormatCSV();
+
+                try {
+                    switch (block.getWordIndex()) {
+                        case 11:        // point number
+                            number = s;
+                            break;
+
+                        case 71:        // comment 1, mostly used for code
+                            code = s;
+                            mask = mask | PointTable.CODE;
+                            break;
+
+                        case 81:        // easting E
+                        case 84:        // easting E0
+                            easting = Double.parseDouble(s);
+                            mask = mask | PointTable.EASTING;
+                            break;
+
+                        case 82:        // northing N
+                        case 85:        // northing N0
+                            northing = Double.parseDouble(s);
+                            mask = mask | PointTable.NORTHING;
+                            break;
+
+                        case 83:        // height H
+                        case 86:        // height H0
+                            height = Double.parseDouble(s);
+                            mask = mask | PointTable.HEIGHT;
+                            break;
+
+                        default:
+                            System.err.println("GSIPointDecoder.decode() : line contains unused word index " + block.toPrintFormatCSV());
+                    }
+                } catch (NumberFormatException e) {
+                    System.err.println("GSIPointDecoder.decode() : block contains an invalid number " + block.toPrintFormatCSV());
+                }
+            }
+
+            pointTable.add(number, code, easting, northing, height, mask);
+        }
+
+        return pointTable;
+    }
+
+} // end of GSIPointDecoder
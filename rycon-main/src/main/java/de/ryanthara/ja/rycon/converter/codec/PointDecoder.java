@@ -0,0 +1,39 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.codec
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.codec;
+
+/**
+ * The PointDecoder interface is implemented by the source formats, which can be read into a {@link PointTable}.
+ * <p>
+ * A decoder parses it's source once. The decoded point table can be written into every target format
+ * with a {@link PointEncoder}.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public interface PointDecoder {
+
+    /**
+     * Decodes the source into a new point table. Lines which contain no point are skipped.
+     *
+     * @return decoded points
+     */
+    PointTable decode();
+
+} // end of PointDecoder
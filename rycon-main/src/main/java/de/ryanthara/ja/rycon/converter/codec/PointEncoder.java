@@ -0,0 +1,57 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.codec
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.codec;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The PointEncoder interface is implemented by the target formats, which can be written from a {@link PointTable}.
+ * <p>
+ * An encoder doesn't change the point table, therefore several encoders can write the same point table.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public interface PointEncoder {
+
+    /**
+     * Encodes the points into the lines of the target format.
+     *
+     * @param pointTable points to encode
+     *
+     * @return encoded lines
+     */
+    ArrayList<String> encode(PointTable pointTable);
+
+    /**
+     * Encodes the points and hands over the lines of the target format in their order to the line handler (e.g.
+     * a writer or an external sorter).
+     * <p>
+     * The default implementation encodes all lines first, an encoder overrides it, if the lines can be handed
+     * over while encoding.
+     *
+     * @param pointTable  points to encode
+     * @param lineHandler handler of the encoded lines
+     */
+    default void encode(PointTable pointTable, Consumer<String> lineHandler) {
+        encode(pointTable).forEach(lineHandler);
+    }
+
+} // end of PointEncoder
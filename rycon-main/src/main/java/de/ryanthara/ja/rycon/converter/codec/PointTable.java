@@ -0,0 +1,204 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.codec
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.codec;
+
+import java.util.Arrays;
+
+/**
+ * Instances of this class hold the points of a coordinate file as intermediate representation between a
+ * {@link PointDecoder} of the source format and a {@link PointEncoder} of the target format.
+ * <p>
+ * The points are stored column by column in primitive arrays (one array for each of number, code, easting,
+ * northing and height) and a bit mask per point, which marks the given values. A source file is decoded once
+ * into a point table, which can then be written by any number of encoders.
+ * <p>
+ * At the moment, only the LTOP KOO target is written from a point table (by the
+ * {@link de.ryanthara.ja.rycon.converter.ltop.LTOPPointEncoder}). All other targets still use their own converter
+ * for every pair of source and target format.
+ * <p>
+ * At the moment, there is no thread safety implemented. A completely filled point table can be read from
+ * several threads.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class PointTable {
+
+    /**
+     * Bit of a given code.
+     */
+    public static final int CODE = 1;
+
+    /**
+     * Bit of a given easting.
+     */
+    public static final int EASTING = 2;
+
+    /**
+     * Bit of a given northing.
+     */
+    public static final int NORTHING = 4;
+
+    /**
+     * Bit of a given height.
+     */
+    public static final int HEIGHT = 8;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int size = 0;
+    private String[] numbers;
+    private String[] codes;
+    private double[] eastings;
+    private double[] northings;
+    private double[] heights;
+    private byte[] masks;
+
+    /**
+     * Constructs a new and empty point table.
+     */
+    public PointTable() {
+        numbers = new String[INITIAL_CAPACITY];
+        codes = new String[INITIAL_CAPACITY];
+        eastings = new double[INITIAL_CAPACITY];
+        northings = new double[INITIAL_CAPACITY];
+        heights = new double[INITIAL_CAPACITY];
+        masks = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a point to the table. Values, which are not marked in the mask, are ignored.
+     *
+     * @param number   point number
+     * @param code     code or null
+     * @param easting  easting (Y)
+     * @param northing northing (X)
+     * @param height   height (Z)
+     * @param mask     bits of the given values (e.g. {@code EASTING | NORTHING})
+     */
+    public void add(String number, String code, double easting, double northing, double height, int mask) {
+        if (size == numbers.length) {
+            int capacity = size * 2;
+
+            numbers = Arrays.copyOf(numbers, capacity);
+            codes = Arrays.copyOf(codes, capacity);
+            eastings = Arrays.copyOf(eastings, capacity);
+            northings = Arrays.copyOf(northings, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            masks = Arrays.copyOf(masks, capacity);
+        }
+
+        numbers[size] = number;
+        codes[size] = (mask & CODE) != 0 ? code : null;
+        eastings[size] = (mask & EASTING) != 0 ? easting : Double.NaN;
+        northings[size] = (mask & NORTHING) != 0 ? northing : Double.NaN;
+        heights[size] = (mask & HEIGHT) != 0 ? height : Double.NaN;
+        masks[size] = (byte) mask;
+
+        size = size + 1;
+    }
+
+    /**
+     * Returns the code of the point or null, if the point has no code.
+     *
+     * @param index index of the point
+     *
+     * @return code
+     */
+    public String getCode(int index) {
+        return codes[index];
+    }
+
+    /**
+     * Returns the easting (Y) of the point or NaN, if the point has no easting.
+     *
+     * @param index index of the point
+     *
+     * @return easting
+     */
+    public double getEasting(int index) {
+        return eastings[index];
+    }
+
+    /**
+     * Returns the height (Z) of the point or NaN, if the point has no height.
+     *
+     * @param index index of the point
+     *
+     * @return height
+     */
+    public double getHeight(int index) {
+        return heights[index];
+    }
+
+    /**
+     * Returns the bit mask of the given values of the point.
+     *
+     * @param index index of the point
+     *
+     * @return bit mask
+     */
+    public int getMask(int index) {
+        return masks[index];
+    }
+
+    /**
+     * Returns the northing (X) of the point or NaN, if the point has no northing.
+     *
+     * @param index index of the point
+     *
+     * @return northing
+     */
+    public double getNorthing(int index) {
+        return northings[index];
+    }
+
+    /**
+     * Returns the number of the point.
+     *
+     * @param index index of the point
+     *
+     * @return point number
+     */
+    public String getNumber(int index) {
+        return numbers[index];
+    }
+
+    /**
+     * Returns true if the point has all of the given values.
+     *
+     * @param index index of the point
+     * @param bits  bits of the values (e.g. {@code HEIGHT})
+     *
+     * @return true if all values are given
+     */
+    public boolean has(int index, int bits) {
+        return (masks[index] & bits) == bits;
+    }
+
+    /**
+     * Returns the number of points.
+     *
+     * @return number of points
+     */
+    public int size() {
+        return size;
+    }
+
+} // end of PointTable
@@ -0,0 +1,67 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.codec
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.codec;
+
+import java.util.ArrayList;
+
+/**
+ * Instances of this class decode a text formatted coordinate file (space or tabulator separated) into
+ * a {@link PointTable}.
+ * <p>
+ * The lines can contain number and height, number, easting and northing, number, easting, northing and height or
+ * number, code, easting, northing and height.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class TXTPointDecoder implements PointDecoder {
+
+    private final ArrayList<String> readStringLines;
+
+    /**
+     * Constructs a new instance of this class given an {@code ArrayList<String>} that contains
+     * the read txt formatted coordinate file.
+     *
+     * @param readStringLines read lines
+     */
+    public TXTPointDecoder(ArrayList<String> readStringLines) {
+        this.readStringLines = readStringLines;
+    }
+
+    /**
+     * Decodes the text file into a new point table. Empty lines are skipped.
+     *
+     * @return decoded points
+     */
+    @Override
+    public PointTable decode() {
+        PointTable pointTable = new PointTable();
+
+        for (String line : readStringLines) {
+            String trimmed = line.trim();
+
+            if (!trimmed.isEmpty()) {
+                BaseToolsCodec.addPoint(pointTable, trimmed.split("\\s+"), "TXTPointDecoder.decode()");
+            }
+        }
+
+        return pointTable;
+    }
+
+} // end of TXTPointDecoder
@@ -39,4 +39,38 @@ public class BaseToolsCSV {
      */
     public static final String SEPARATOR_SEMICOLON = ";";
 
+    private static final char QUOTE = '"';
+
+    /**
+     * Joins the fields of a row with the separator sign into a line of a CSV file.
+     * <p>
+     * A field, which contains the separator sign, a double quote or a line break, is enclosed in double quotes and
+     * it's double quotes are written twice. Therefore the line is read into the same fields again.
+     *
+     * @param row       fields of the row
+     * @param separator separator sign
+     *
+     * @return line of the CSV file
+     */
+    public static String joinRow(String[] row, String separator) {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                builder.append(separator);
+            }
+
+            String field = row[i];
+
+            if (field.contains(separator) || field.indexOf(QUOTE) > -1 || field.indexOf('\n') > -1 ||
+                    field.indexOf('\r') > -1) {
+                builder.append(QUOTE).append(field.replace("\"", "\"\"")).append(QUOTE);
+            } else {
+                builder.append(field);
+            }
+        }
+
+        return builder.toString();
+    }
+
 } // end of BaseToolsCSV
@@ -17,14 +17,12 @@
  */
 package de.ryanthara.ja.rycon.converter.csv;
 
-import de.ryanthara.ja.rycon.converter.gsi.BaseToolsGSI;
-import de.ryanthara.ja.rycon.elements.GSIBlock;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
+import de.ryanthara.ja.rycon.elements.FlyweightGSIBlock;
 import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
 import de.ryanthara.ja.rycon.i18n.WordIndices;
 
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.TreeSet;
 
 import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WORDINDICES;
 
@@ -33,20 +31,20 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WORDINDICES;
  * into a comma separated values (csv) file.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class GSI2CSV {
 
-    private BaseToolsGSI baseToolsGSI;
+    private final GSIDataset gsiDataset;
 
     /**
-     * Class constructor for read line based text files in Leica GSI format (GSI8 or GSI16).
+     * Class constructor for a decoded file in Leica GSI format (GSI8 or GSI16).
      *
-     * @param readStringLines {@code ArrayList<String>} with lines in text format
+     * @param gsiDataset decoded GSI file, which is not changed
      */
-    public GSI2CSV(ArrayList<String> readStringLines) {
-        baseToolsGSI = new BaseToolsGSI(readStringLines);
+    public GSI2CSV(GSIDataset gsiDataset) {
+        this.gsiDataset = gsiDataset;
     }
 
     /**
@@ -61,51 +59,43 @@ public class GSI2CSV {
      */
     public ArrayList<String> convertGSI2CSV(String separator, boolean writeCommentLine) {
         ArrayList<String> result = new ArrayList<>();
-        TreeSet<Integer> foundWordIndices = baseToolsGSI.getFoundAllWordIndices();
+        int[] foundWordIndices = gsiDataset.getFoundWordIndices();
 
         // prepare comment line if necessary
         if (writeCommentLine) {
             StringBuilder builder = new StringBuilder();
 
-            int counter = 0;
+            for (int i = 0; i < foundWordIndices.length; i++) {
+                builder.append(ResourceBundleUtils.getLangString(WORDINDICES, WordIndices.valueOf("WI" + foundWordIndices[i])));
 
-            for (Integer wordIndex : foundWordIndices) {
-                builder.append(ResourceBundleUtils.getLangString(WORDINDICES, WordIndices.valueOf("WI"+wordIndex)));
-
-                if (counter < foundWordIndices.size() - 1) {
+                if (i < foundWordIndices.length - 1) {
                     builder.append(separator);
                 }
-
-                counter = counter + 1;
             }
 
             result.add(0, builder.toString());
         }
 
-        for (ArrayList<GSIBlock> blocksInLine : baseToolsGSI.getEncodedLinesOfGSIBlocks()) {
-            String newLine = "";
+        FlyweightGSIBlock flyweight = new FlyweightGSIBlock();
+        StringBuilder stringBuilder = new StringBuilder();
 
-            Iterator<Integer> it = foundWordIndices.iterator();
+        for (int line = 0; line < gsiDataset.getLineCount(); line++) {
+            stringBuilder.setLength(0);
 
-            for (int i = 0; i < foundWordIndices.size(); i++) {
-                Integer wordIndex = it.next();
-                String intern = "";
+            for (int i = 0; i < foundWordIndices.length; i++) {
+                int block = gsiDataset.indexOf(line, foundWordIndices[i]);
 
-                for (GSIBlock block : blocksInLine) {
-                    // check the WI and fill in an empty block of spaces if WI doesn't match to 'column'
-                    if (wordIndex == block.getWordIndex()) {
-                        intern = block.toPrintFormatCSV();
-                        break; // important if else statement will be added!!!
-                    }
+                // an empty 'column' is used if the WI doesn't exist in the line
+                if (block != GSIDataset.NOT_FOUND) {
+                    gsiDataset.fill(block, flyweight).appendPrintFormatCSV(stringBuilder);
                 }
 
-                newLine = newLine.concat(intern);
-
-                if (i < foundWordIndices.size() - 1) {
-                    newLine = newLine.concat(separator);
+                if (i < foundWordIndices.length - 1) {
+                    stringBuilder.append(separator);
                 }
             }
-            result.add(newLine);
+
+            result.add(stringBuilder.toString());
         }
 
         return result;
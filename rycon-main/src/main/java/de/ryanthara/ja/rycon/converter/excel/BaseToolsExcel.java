@@ -17,11 +17,17 @@
  */
 package de.ryanthara.ja.rycon.converter.excel;
 
+import de.ryanthara.ja.rycon.data.ConversionSettings;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
 /**
- * This class provides static access to members to distinguish between XLS (true) and XLSX (false) output files.
+ * This class provides static access to members to distinguish between XLS (true) and XLSX (false) output files
+ * and to create the matching workbook.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class BaseToolsExcel {
@@ -40,4 +46,24 @@ public class BaseToolsExcel {
      */
     public static final boolean isXLSX = false;
 
+    /**
+     * Creates a new and empty workbook for the XLS or XLSX file format.
+     * <p>
+     * XLSX files are written with a streaming workbook, which holds only the row window of the
+     * {@link ConversionSettings} in memory and flushes older rows to a temporary file.
+     * Written rows can't be accessed anymore, therefore the sheet should be filled with an {@link ExcelSheetWriter}.
+     *
+     * @param isXLS    selector to distinguish between XLS and XLSX file format
+     * @param settings snapshot of the conversion settings
+     *
+     * @return new workbook
+     */
+    public static Workbook createWorkbook(boolean isXLS, ConversionSettings settings) {
+        if (isXLS) {
+            return new HSSFWorkbook();
+        } else {
+            return new SXSSFWorkbook(settings.getExcelRowWindow());
+        }
+    }
+
 } // end of BaseToolsExcel
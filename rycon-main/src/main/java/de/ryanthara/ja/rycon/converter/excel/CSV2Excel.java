@@ -17,13 +17,9 @@
  */
 package de.ryanthara.ja.rycon.converter.excel;
 
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.Cell;
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.WorkbookUtil;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.util.List;
 
@@ -33,16 +29,30 @@ import java.util.List;
  */
 public class CSV2Excel {
 
+    private final ConversionContext context;
     private List<String[]> readCSVLines;
     private Workbook workbook;
+    private ExcelSheetWriter sheetWriter;
 
     /**
      * Class constructor for read line based CSV files.
      *
      * @param readCSVLines {@code List<String[]>} with lines as {@code String[]}
+     * @param context      context of the conversion
      */
-    public CSV2Excel(List<String[]> readCSVLines) {
+    public CSV2Excel(List<String[]> readCSVLines, ConversionContext context) {
         this.readCSVLines = readCSVLines;
+        this.context = context;
+    }
+
+    /**
+     * Class constructor for the conversion row by row with {@link #startWorkbook}, {@link #convertRow} and
+     * {@link #finishWorkbook}.
+     *
+     * @param context context of the conversion
+     */
+    public CSV2Excel(ConversionContext context) {
+        this.context = context;
     }
 
     /**
@@ -54,45 +64,42 @@ public class CSV2Excel {
      * @return success conversion success
      */
     public boolean convertCSV2Excel(boolean isXLS, String sheetName) {
-        // general preparation of the workbook
-        if (isXLS) {
-            workbook = new HSSFWorkbook();
-        } else {
-            workbook = new XSSFWorkbook();
-        }
-
-        String safeName = WorkbookUtil.createSafeSheetName(sheetName);
-        Sheet sheet = workbook.createSheet(safeName);
-        Row row;
-        Cell cell;
-
-        short rowNumber = 0;
-        short cellNumber;
-        short countColumns = 0;
+        startWorkbook(isXLS, sheetName);
 
         for (String[] csvLine : readCSVLines) {
-            row = sheet.createRow(rowNumber);
-            rowNumber++;
+            convertRow(csvLine);
+        }
+
+        return finishWorkbook();
+    }
 
-            cellNumber = 0;
+    /**
+     * Converts one row of a CSV file element by element into a row of the started workbook, e.g. while the
+     * CSV file is read row by row.
+     *
+     * @param csvLine fields of the row
+     */
+    public void convertRow(String[] csvLine) {
+        Row row = sheetWriter.createRow();
 
-            for (String element : csvLine) {
-                cell = row.createCell(cellNumber);
-                cellNumber++;
-                cell.setCellValue(element);
-            }
+        int cellNumber = 0;
 
-            if (cellNumber > countColumns) {
-                countColumns = cellNumber;
-            }
+        for (String element : csvLine) {
+            sheetWriter.writeCell(row, cellNumber, element);
+            cellNumber++;
         }
+    }
 
+    /**
+     * Finishes the started workbook after the last converted row.
+     *
+     * @return success conversion success
+     */
+    public boolean finishWorkbook() {
         // adjust column width to fit the content
-        for (int i = 0; i < countColumns; i++) {
-            sheet.autoSizeColumn((short) i);
-        }
+        sheetWriter.adjustColumnWidths();
 
-        return rowNumber > 1;
+        return sheetWriter.getCountRows() > 1;
     }
 
     /**
@@ -104,4 +111,16 @@ public class CSV2Excel {
         return this.workbook;
     }
 
+    /**
+     * Starts a new workbook with one sheet for the conversion row by row.
+     *
+     * @param isXLS     selector to distinguish between XLS and XLSX file extension
+     * @param sheetName name of the sheet (file name from input file)
+     */
+    public void startWorkbook(boolean isXLS, String sheetName) {
+        // general preparation of the workbook
+        workbook = BaseToolsExcel.createWorkbook(isXLS, context.getSettings());
+        sheetWriter = new ExcelSheetWriter(workbook, sheetName);
+    }
+
 } // end of CSV2Excel
@@ -17,10 +17,9 @@
  */
 package de.ryanthara.ja.rycon.converter.excel;
 
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.ss.util.WorkbookUtil;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
 
 import java.util.List;
 
@@ -29,11 +28,12 @@ import java.util.List;
  * into Microsoft Excel (XLS and XLSX) files.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class CSVBaselStadt2Excel {
 
+    private final ConversionContext context;
     private List<String[]> readCSVLines;
     private Workbook workbook = null;
 
@@ -41,9 +41,11 @@ public class CSVBaselStadt2Excel {
      * Class constructor for read line based CSV files from the geodata server Basel Stadt (Switzerland).
      *
      * @param readCSVLines {@code List<String[]>} with lines as {@code String[]}
+     * @param context      context of the conversion
      */
-    public CSVBaselStadt2Excel(List<String[]> readCSVLines) {
+    public CSVBaselStadt2Excel(List<String[]> readCSVLines, ConversionContext context) {
         this.readCSVLines = readCSVLines;
+        this.context = context;
     }
 
     /**
@@ -58,33 +60,21 @@ public class CSVBaselStadt2Excel {
      */
     public boolean convertCSVBaselStadt2Excel(boolean isXLS, String sheetName, boolean writeCommentRow) {
         // general preparation of the workbook
-        if (isXLS) {
-            workbook = new HSSFWorkbook();
-        } else {
-            workbook = new XSSFWorkbook();
-        }
+        workbook = BaseToolsExcel.createWorkbook(isXLS, context.getSettings());
 
-        String safeName = WorkbookUtil.createSafeSheetName(sheetName);
-        Sheet sheet = workbook.createSheet(safeName);
+        ExcelSheetWriter sheetWriter = new ExcelSheetWriter(workbook, sheetName);
         Row row;
-        Cell cell;
-        CellStyle cellStyle;
-
-        DataFormat format = workbook.createDataFormat();
 
-        short rowNumber = 0;
-        short cellNumber = 0;
+        int cellNumber = 0;
 
         if (writeCommentRow) {
-            row = sheet.createRow(rowNumber);
-            rowNumber++;
+            row = sheetWriter.createRow();
 
             String[] commentLine = readCSVLines.get(0);
 
             for (String description : commentLine) {
-                cell = row.createCell(cellNumber);
+                sheetWriter.writeCell(row, cellNumber, description);
                 cellNumber++;
-                cell.setCellValue(description);
             }
         }
 
@@ -92,32 +82,22 @@ public class CSVBaselStadt2Excel {
         readCSVLines.remove(0);
 
         for (String[] csvLine : readCSVLines) {
-            row = sheet.createRow(rowNumber);
-            rowNumber++;
-
-            cellNumber = 0;
+            row = sheetWriter.createRow();
 
             for (int i = 0; i < csvLine.length; i++) {
-                cell = row.createCell(cellNumber);
-                cellNumber++;
-
                 switch (i) {
                     case 0:
                     case 1:
-                        cell.setCellValue(csvLine[i]);
+                        sheetWriter.writeCell(row, i, csvLine[i]);
                         break;
                     case 2:
                     case 3:
                     case 4:
                     case 5:
                         if (csvLine[i].equalsIgnoreCase("")) {
-                            cell.setCellValue(csvLine[i]);
+                            sheetWriter.writeCell(row, i, csvLine[i]);
                         } else {
-                            cell.setCellValue(Double.parseDouble(csvLine[i]));
-                            cellStyle = workbook.createCellStyle();
-                            cellStyle.setDataFormat(format.getFormat("#,##0.000"));
-                            cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                            cell.setCellStyle(cellStyle);
+                            sheetWriter.writeCell(row, i, Double.parseDouble(csvLine[i]), "#,##0.000");
                         }
                         break;
                     case 6:
@@ -125,7 +105,7 @@ public class CSVBaselStadt2Excel {
                     case 8:
                     case 9:
                     case 10:
-                        cell.setCellValue(csvLine[i]);
+                        sheetWriter.writeCell(row, i, csvLine[i]);
                         break;
 
                     default:
@@ -135,11 +115,9 @@ public class CSVBaselStadt2Excel {
         }
 
         // adjust column width to fit the content
-        for (int i = 0; i < readCSVLines.get(0).length; i++) {
-            sheet.autoSizeColumn((short) i);
-        }
+        sheetWriter.adjustColumnWidths();
 
-        return rowNumber > 1;
+        return sheetWriter.getCountRows() > 1;
     }
 
     /**
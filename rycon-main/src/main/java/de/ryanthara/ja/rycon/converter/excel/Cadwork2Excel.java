@@ -17,13 +17,9 @@
  */
 package de.ryanthara.ja.rycon.converter.excel;
 
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.Cell;
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.WorkbookUtil;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.util.ArrayList;
 
@@ -32,11 +28,12 @@ import java.util.ArrayList;
  * in XLS or XLSX format.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class Cadwork2Excel {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
     private Workbook workbook;
 
@@ -44,9 +41,11 @@ public class Cadwork2Excel {
      * Class constructor for read line based text files from Cadwork CAD program in node.dat file format.
      *
      * @param readStringLines {@code ArrayList<String>} with read lines from node.dat file
+     * @param context         context of the conversion
      */
-    public Cadwork2Excel(ArrayList<String> readStringLines) {
+    public Cadwork2Excel(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -59,20 +58,13 @@ public class Cadwork2Excel {
      */
     public boolean convertCadwork2Excel(boolean isXLS, String sheetName, boolean writeCommentRow) {
         // general preparation of the workbook
-        if (isXLS) {
-            workbook = new HSSFWorkbook();
-        } else {
-            workbook = new XSSFWorkbook();
-        }
+        workbook = BaseToolsExcel.createWorkbook(isXLS, context.getSettings());
 
-        String safeName = WorkbookUtil.createSafeSheetName(sheetName);
+        ExcelSheetWriter sheetWriter = new ExcelSheetWriter(workbook, sheetName);
         String[] lineSplit;
-        Sheet sheet = workbook.createSheet(safeName);
         Row row;
-        Cell cell;
 
-        short rowNumber = 0;
-        short cellNumber = 0;
+        int cellNumber = 0;
 
         // remove not needed headlines
         for (int i = 0; i < 3; i++) {
@@ -80,15 +72,13 @@ public class Cadwork2Excel {
         }
 
         if (writeCommentRow) {
-            row = sheet.createRow(rowNumber);
-            rowNumber++;
+            row = sheetWriter.createRow();
 
             lineSplit = readStringLines.get(0).trim().split("\\s+", -1);
 
             for (String description : lineSplit) {
-                cell = row.createCell(cellNumber);
+                sheetWriter.writeCell(row, cellNumber, description);
                 cellNumber++;
-                cell.setCellValue(description);
             }
         }
 
@@ -96,43 +86,22 @@ public class Cadwork2Excel {
         readStringLines.remove(0);
 
         for (String line : readStringLines) {
-            row = sheet.createRow(rowNumber);
-            rowNumber++;
-
-            cellNumber = 0;
+            row = sheetWriter.createRow();
 
             lineSplit = line.trim().split("\\t", -1);
 
-            cell = row.createCell(cellNumber);      // No
-            cell.setCellValue(lineSplit[0]);
-            cellNumber++;
-
-            cell = row.createCell(cellNumber);      // X
-            cell.setCellValue(lineSplit[1]);
-            cellNumber++;
-
-            cell = row.createCell(cellNumber);      // Y
-            cell.setCellValue(lineSplit[2]);
-            cellNumber++;
-
-            cell = row.createCell(cellNumber);      // Z
-            cell.setCellValue(lineSplit[3]);
-            cellNumber++;
-
-            cell = row.createCell(cellNumber);      // Code
-            cell.setCellValue(lineSplit[4]);
-            cellNumber++;
-
-            cell = row.createCell(cellNumber);      // Name
-            cell.setCellValue(lineSplit[5]);
+            sheetWriter.writeCell(row, 0, lineSplit[0]);      // No
+            sheetWriter.writeCell(row, 1, lineSplit[1]);      // X
+            sheetWriter.writeCell(row, 2, lineSplit[2]);      // Y
+            sheetWriter.writeCell(row, 3, lineSplit[3]);      // Z
+            sheetWriter.writeCell(row, 4, lineSplit[4]);      // Code
+            sheetWriter.writeCell(row, 5, lineSplit[5]);      // Name
         }
 
         // adjust column width to fit the content
-        for (int i = 0; i < 5; i++) {
-            sheet.autoSizeColumn((short) i);
-        }
+        sheetWriter.adjustColumnWidths();
 
-        return rowNumber > 1;
+        return sheetWriter.getCountRows() > 1;
     }
 
     /**
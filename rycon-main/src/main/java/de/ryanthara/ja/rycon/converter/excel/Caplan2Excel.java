@@ -17,13 +17,12 @@
  */
 package de.ryanthara.ja.rycon.converter.excel;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import de.ryanthara.ja.rycon.elements.CaplanBlock;
 import de.ryanthara.ja.rycon.i18n.Columns;
 import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.ss.util.WorkbookUtil;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
 
 import java.util.ArrayList;
 
@@ -34,11 +33,12 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.COLUMNS;
  * into a Microsoft Excel file.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class Caplan2Excel {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
     private Workbook workbook;
 
@@ -46,9 +46,11 @@ public class Caplan2Excel {
      * Constructs a new instance of this class with the read Caplan K file {@link ArrayList} string as parameter.
      *
      * @param readStringLines {@code ArrayList<String>} with lines in Caplan K format
+     * @param context         context of the conversion
      */
-    public Caplan2Excel(ArrayList<String> readStringLines) {
+    public Caplan2Excel(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -62,142 +64,86 @@ public class Caplan2Excel {
      */
     public boolean convertCaplan2Excel(boolean isXLS, String sheetName, boolean writeCommentRow) {
         // general preparation of the workbook
-        if (isXLS) {
-            workbook = new HSSFWorkbook();
-        } else {
-            workbook = new XSSFWorkbook();
-        }
+        workbook = BaseToolsExcel.createWorkbook(isXLS, context.getSettings());
 
-        String safeName = WorkbookUtil.createSafeSheetName(sheetName);
-        Sheet sheet = workbook.createSheet(safeName);
+        ExcelSheetWriter sheetWriter = new ExcelSheetWriter(workbook, sheetName);
         Row row;
-        Cell cell;
-        CellStyle cellStyle;
-
-        DataFormat format = workbook.createDataFormat();
 
-        short rowNumber = 0;
-        short cellNumber = 0;
-        short countColumns = 0;
+        int cellNumber;
 
         if (writeCommentRow) {
-            row = sheet.createRow(rowNumber);
-            rowNumber++;
-
-            cell = row.createCell(cellNumber);
-            cell.setCellValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.pointNumber));
-            cellNumber++;
-
-            cell = row.createCell(cellNumber);
-            cell.setCellValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.easting));
-            cellNumber++;
-
-            cell = row.createCell(cellNumber);
-            cell.setCellValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.northing));
-            cellNumber++;
-
-            cell = row.createCell(cellNumber);
-            cell.setCellValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.height));
-            cellNumber++;
-
-            cell = row.createCell(cellNumber);
-            cell.setCellValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.object));
-            cellNumber++;
-
-            cell = row.createCell(cellNumber);
-            cell.setCellValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.attribute));
+            row = sheetWriter.createRow();
+
+            sheetWriter.writeCell(row, 0, ResourceBundleUtils.getLangString(COLUMNS, Columns.pointNumber));
+            sheetWriter.writeCell(row, 1, ResourceBundleUtils.getLangString(COLUMNS, Columns.easting));
+            sheetWriter.writeCell(row, 2, ResourceBundleUtils.getLangString(COLUMNS, Columns.northing));
+            sheetWriter.writeCell(row, 3, ResourceBundleUtils.getLangString(COLUMNS, Columns.height));
+            sheetWriter.writeCell(row, 4, ResourceBundleUtils.getLangString(COLUMNS, Columns.object));
+            sheetWriter.writeCell(row, 5, ResourceBundleUtils.getLangString(COLUMNS, Columns.attribute));
         }
 
         for (String line : readStringLines) {
             // skip empty lines directly after reading
             if (!line.trim().isEmpty()) {
-                row = sheet.createRow(rowNumber);
-                rowNumber++;
+                row = sheetWriter.createRow();
 
                 cellNumber = 0;
 
                 CaplanBlock caplanBlock = new CaplanBlock(line);
 
                 if (caplanBlock.getNumber() != null) {
-                    cell = row.createCell(cellNumber);
-                    cell.setCellValue(caplanBlock.getNumber());
+                    sheetWriter.writeCell(row, cellNumber, caplanBlock.getNumber());
                     cellNumber++;
                 }
 
                 if (caplanBlock.getEasting() != null) {
-                    cell = row.createCell(cellNumber);
-
                     if (!caplanBlock.getEasting().equals("")) {
-                        cell.setCellValue(Double.parseDouble(caplanBlock.getEasting()));
-                        cellStyle = workbook.createCellStyle();
-                        cellStyle.setDataFormat(format.getFormat("#,##0.0000"));
-                        cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                        cell.setCellStyle(cellStyle);
+                        sheetWriter.writeCell(row, cellNumber, Double.parseDouble(caplanBlock.getEasting()), "#,##0.0000");
                     } else {
-                        cell.setCellValue("");
+                        sheetWriter.writeCell(row, cellNumber, "");
                     }
 
                     cellNumber++;
                 }
 
                 if (caplanBlock.getNorthing() != null) {
-                    cell = row.createCell(cellNumber);
-
                     if (!caplanBlock.getNorthing().equals("")) {
-                        cell.setCellValue(Double.parseDouble(caplanBlock.getNorthing()));
-                        cellStyle = workbook.createCellStyle();
-                        cellStyle.setDataFormat(format.getFormat("#,##0.0000"));
-                        cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                        cell.setCellStyle(cellStyle);
+                        sheetWriter.writeCell(row, cellNumber, Double.parseDouble(caplanBlock.getNorthing()), "#,##0.0000");
                     } else {
-                        cell.setCellValue("");
+                        sheetWriter.writeCell(row, cellNumber, "");
                     }
 
                     cellNumber++;
                 }
 
                 if (caplanBlock.getHeight() != null) {
-                    cell = row.createCell(cellNumber);
-
                     if (!caplanBlock.getHeight().equals("")) {
-                        cell.setCellValue(Double.parseDouble(caplanBlock.getHeight()));
-                        cellStyle = workbook.createCellStyle();
-                        cellStyle.setDataFormat(format.getFormat("#,##0.0000"));
-                        cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                        cell.setCellStyle(cellStyle);
+                        sheetWriter.writeCell(row, cellNumber, Double.parseDouble(caplanBlock.getHeight()), "#,##0.0000");
                     } else {
-                        cell.setCellValue("");
+                        sheetWriter.writeCell(row, cellNumber, "");
                     }
 
                     cellNumber++;
                 }
 
                 if (caplanBlock.getCode() != null) {
-                    cell = row.createCell(cellNumber);
-                    cell.setCellValue(caplanBlock.getCode());
+                    sheetWriter.writeCell(row, cellNumber, caplanBlock.getCode());
                     cellNumber++;
 
                     if (caplanBlock.getAttributes().size() > 0) {
                         for (String attribute : caplanBlock.getAttributes()) {
-                            cell = row.createCell(cellNumber);
-                            cell.setCellValue(attribute);
+                            sheetWriter.writeCell(row, cellNumber, attribute);
                             cellNumber++;
                         }
                     }
                 }
-
-                if (cellNumber > countColumns) {
-                    countColumns = cellNumber;
-                }
             }
         }
 
         // adjust column width to fit the content
-        for (int i = 0; i < countColumns; i++) {
-            sheet.autoSizeColumn((short) i);
-        }
+        sheetWriter.adjustColumnWidths();
 
-        return rowNumber > 1;
+        return sheetWriter.getCountRows() > 1;
     }
 
     /**
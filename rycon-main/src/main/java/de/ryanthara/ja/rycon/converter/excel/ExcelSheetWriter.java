@@ -0,0 +1,216 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.excel
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.excel;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Instances of this class provides functions to fill one sheet of a Microsoft Excel workbook row by row.
+ * <p>
+ * The writer is made for the streaming workbook of the XLSX format (see
+ * {@link BaseToolsExcel#createWorkbook(boolean, de.ryanthara.ja.rycon.data.ConversionSettings)}), where only a
+ * window of rows is held in memory. Therefore nothing is read back from written rows:
+ * <ul>
+ * <li>one cell style is created for every number format and shared between all cells with this format,
+ * so the style limit of Excel is never reached</li>
+ * <li>the maximum number of characters of every column is tracked while the cells are written and used for the
+ * column widths, instead of measuring every cell again with {@code Sheet.autoSizeColumn()}</li>
+ * </ul>
+ * <p>
+ * At the moment, there is no thread safety implemented.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class ExcelSheetWriter {
+
+    private static final int MAX_COLUMN_WIDTH = 255;
+
+    private final Workbook workbook;
+    private final Sheet sheet;
+    private final DataFormat dataFormat;
+    private final HashMap<String, CellStyle> cellStyles;
+    private int[] columnLengths;
+    private int countColumns = 0;
+    private int rowNumber = 0;
+
+    /**
+     * Constructs a new instance of this class with a new sheet in the given workbook.
+     *
+     * @param workbook  workbook to fill
+     * @param sheetName name of the sheet (file name from input file)
+     */
+    public ExcelSheetWriter(Workbook workbook, String sheetName) {
+        this.workbook = workbook;
+        this.sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(sheetName));
+        this.dataFormat = workbook.createDataFormat();
+        this.cellStyles = new HashMap<>();
+        this.columnLengths = new int[16];
+    }
+
+    /*
+     * Returns the number of characters of a number in the given format (e.g. '#,##0.000') without formatting it.
+     */
+    private static int getFormattedLength(double value, String format) {
+        int point = format.indexOf('.');
+        int decimals = point < 0 ? 0 : format.length() - point - 1;
+        int digits = Long.toString((long) Math.abs(value)).length();
+        int length = digits + (decimals > 0 ? decimals + 1 : 0);
+
+        if (format.indexOf(',') > -1) {
+            length = length + (digits - 1) / 3;
+        }
+
+        return value < 0 ? length + 1 : length;
+    }
+
+    /**
+     * Sets the width of all written columns to the tracked number of characters.
+     * <p>
+     * This method should be called once after the last row is written.
+     */
+    public void adjustColumnWidths() {
+        for (int i = 0; i < countColumns; i++) {
+            // two characters as margin, in units of 1/256th of a character width
+            int width = Math.min(MAX_COLUMN_WIDTH, columnLengths[i] + 2);
+
+            sheet.setColumnWidth(i, width * 256);
+        }
+    }
+
+    /**
+     * Creates the next row of the sheet.
+     *
+     * @return created row
+     */
+    public Row createRow() {
+        Row row = sheet.createRow(rowNumber);
+        rowNumber = rowNumber + 1;
+
+        return row;
+    }
+
+    /**
+     * Returns the number of written columns.
+     *
+     * @return number of written columns
+     */
+    public int getCountColumns() {
+        return countColumns;
+    }
+
+    /**
+     * Returns the number of written rows.
+     *
+     * @return number of written rows
+     */
+    public int getCountRows() {
+        return rowNumber;
+    }
+
+    /**
+     * Writes a text cell into the row.
+     *
+     * @param row    row to write into
+     * @param column column of the cell
+     * @param value  text of the cell
+     *
+     * @return written cell
+     */
+    public Cell writeCell(Row row, int column, String value) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+
+        trackLength(column, value.length());
+
+        return cell;
+    }
+
+    /**
+     * Writes a number cell with the given number format (e.g. '#,##0.000') into the row. All cells with the same
+     * number format share one cell style.
+     *
+     * @param row    row to write into
+     * @param column column of the cell
+     * @param value  number of the cell
+     * @param format number format of the cell
+     *
+     * @return written cell
+     */
+    public Cell writeCell(Row row, int column, double value, String format) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        cell.setCellStyle(getCellStyle(format));
+
+        trackLength(column, getFormattedLength(value, format));
+
+        return cell;
+    }
+
+    /**
+     * Writes a number cell without number format into the row.
+     *
+     * @param row    row to write into
+     * @param column column of the cell
+     * @param value  number of the cell
+     *
+     * @return written cell
+     */
+    public Cell writeCell(Row row, int column, double value) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+
+        trackLength(column, Double.toString(value).length());
+
+        return cell;
+    }
+
+    private CellStyle getCellStyle(String format) {
+        CellStyle cellStyle = cellStyles.get(format);
+
+        if (cellStyle == null) {
+            cellStyle = workbook.createCellStyle();
+            cellStyle.setDataFormat(dataFormat.getFormat(format));
+            cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
+
+            cellStyles.put(format, cellStyle);
+        }
+
+        return cellStyle;
+    }
+
+    private void trackLength(int column, int length) {
+        if (column >= columnLengths.length) {
+            columnLengths = Arrays.copyOf(columnLengths, Math.max(column + 1, columnLengths.length * 2));
+        }
+
+        if (length > columnLengths[column]) {
+            columnLengths[column] = length;
+        }
+
+        if (column >= countColumns) {
+            countColumns = column + 1;
+        }
+    }
+
+} // end of ExcelSheetWriter
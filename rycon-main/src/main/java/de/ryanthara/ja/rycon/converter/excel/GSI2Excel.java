@@ -17,16 +17,13 @@
  */
 package de.ryanthara.ja.rycon.converter.excel;
 
-import de.ryanthara.ja.rycon.converter.gsi.BaseToolsGSI;
-import de.ryanthara.ja.rycon.elements.GSIBlock;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.elements.FlyweightGSIBlock;
 import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
 import de.ryanthara.ja.rycon.i18n.WordIndices;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.ss.util.WorkbookUtil;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-
-import java.util.ArrayList;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
 
 import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WORDINDICES;
 
@@ -35,21 +32,24 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WORDINDICES;
  * into Microsoft Excel (XLS and XLSX) files.
  *
  * @author sebastian
- * @version 1
+ * @version 4
  * @since 12
  */
 public class GSI2Excel {
 
-    private BaseToolsGSI baseToolsGSI;
+    private final ConversionContext context;
+    private final GSIDataset gsiDataset;
     private Workbook workbook;
 
     /**
-     * Class constructor for read line based text files in different formats.
+     * Class constructor for a decoded Leica GSI file.
      *
-     * @param readStringLines {@code ArrayList<String>} with lines in text format
+     * @param gsiDataset decoded GSI file, which is not changed
+     * @param context    context of the conversion
      */
-    public GSI2Excel(ArrayList<String> readStringLines) {
-        baseToolsGSI = new BaseToolsGSI(readStringLines);
+    public GSI2Excel(GSIDataset gsiDataset, ConversionContext context) {
+        this.gsiDataset = gsiDataset;
+        this.context = context;
     }
 
     /**
@@ -62,45 +62,32 @@ public class GSI2Excel {
      */
     public boolean convertGSI2Excel(boolean isXLS, String sheetName, boolean writeCommentRow) {
         // general preparation of the workbook
-        if (isXLS) {
-            workbook = new HSSFWorkbook();
-        } else {
-            workbook = new XSSFWorkbook();
-        }
+        workbook = BaseToolsExcel.createWorkbook(isXLS, context.getSettings());
 
-        String safeName = WorkbookUtil.createSafeSheetName(sheetName);
-        Sheet sheet = workbook.createSheet(safeName);
+        ExcelSheetWriter sheetWriter = new ExcelSheetWriter(workbook, sheetName);
         Row row;
-        Cell cell;
-        CellStyle cellStyle;
-
-        DataFormat format = workbook.createDataFormat();
 
-        short rowNumber = 0;
-        short cellNumber = 0;
+        int cellNumber = 0;
 
         if (writeCommentRow) {
-            row = sheet.createRow(rowNumber);
-            rowNumber++;
+            row = sheetWriter.createRow();
 
-            for (int wordIndex : baseToolsGSI.getFoundAllWordIndices()) {
-                cell = row.createCell(cellNumber);
+            for (int wordIndex : gsiDataset.getFoundAllWordIndices()) {
+                sheetWriter.writeCell(row, cellNumber, ResourceBundleUtils.getLangString(WORDINDICES, WordIndices.valueOf("WI"+wordIndex)));
                 cellNumber++;
-
-                cell.setCellValue(ResourceBundleUtils.getLangString(WORDINDICES, WordIndices.valueOf("WI"+wordIndex)));
             }
         }
 
+        FlyweightGSIBlock block = new FlyweightGSIBlock();
+
         // fill gsi content into rows and cells
-        for (ArrayList<GSIBlock> blocksInLine : baseToolsGSI.getEncodedLinesOfGSIBlocks()) {
-            row = sheet.createRow(rowNumber);
-            rowNumber++;
+        for (int line = 0; line < gsiDataset.getLineCount(); line++) {
+            row = sheetWriter.createRow();
 
             cellNumber = 0;
 
-            for (GSIBlock block : blocksInLine) {
-                cell = row.createCell(cellNumber);
-                cellNumber++;
+            for (int i = gsiDataset.getLineStart(line); i < gsiDataset.getLineEnd(line); i++) {
+                gsiDataset.fill(i, block);
 
                 switch (block.getWordIndex()) {
                     // GENERAL
@@ -109,21 +96,21 @@ public class GSI2Excel {
                     case 13:    // Instrument type
                     case 18:    // Time format 1: pos. 8-9 year, 10-11 sec, 12-14 msec
                     case 19:    // Time format 2 : pos, 8-9 month 10-11 day, 12-13 hour, 14-15 min
-                        cell.setCellValue(block.toPrintFormatCSV());
+                        sheetWriter.writeCell(row, cellNumber, block.toPrintFormatCSV());
                         break;
 
                     // ANGLES
                     case 21:    // Horizontal Circle (Hz)
                     case 22:    // Vertical Angle (V)
                     case 25:    // Horizontal circle difference (Hz0-Hz)
-                        cell.setCellValue(Double.parseDouble(block.toPrintFormatCSV()));
+                        sheetWriter.writeCell(row, cellNumber, Double.parseDouble(block.toPrintFormatCSV()));
                         break;
 
                     // DISTANCE
                     case 31:    // Slope Distance
                     case 32:    // Horizontal Distance
                     case 33:    // Height Difference
-                        cell.setCellValue(Double.parseDouble(block.toPrintFormatCSV()));
+                        sheetWriter.writeCell(row, cellNumber, Double.parseDouble(block.toPrintFormatCSV()));
                         break;
 
                     // CODE BLOCK
@@ -136,7 +123,7 @@ public class GSI2Excel {
                     case 47:    // Information 6
                     case 48:    // Information 7
                     case 49:    // Information 8
-                        cell.setCellValue(block.toPrintFormatCSV());
+                        sheetWriter.writeCell(row, cellNumber, block.toPrintFormatCSV());
                         break;
 
                     // DISTANCE (additional information)
@@ -145,7 +132,7 @@ public class GSI2Excel {
                     case 53:    // Deviation
                     case 58:    // Signal strength
                     case 59:    // Reflector constant (1/10 mm)ppm
-                        cell.setCellValue(block.toPrintFormatCSV());
+                        sheetWriter.writeCell(row, cellNumber, block.toPrintFormatCSV());
                         break;
 
                     // POINT CODING
@@ -158,7 +145,7 @@ public class GSI2Excel {
                     case 77:    // Attribute 6
                     case 78:    // Attribute 7
                     case 79:    // Attribute 8
-                        cell.setCellValue(block.toPrintFormatCSV());
+                        sheetWriter.writeCell(row, cellNumber, block.toPrintFormatCSV());
                         break;
 
                     // COORDINATES
@@ -168,35 +155,27 @@ public class GSI2Excel {
                     case 84:    // Station Easting (E0)
                     case 85:    // Station Northing (N0)
                     case 86:    // Station Elevation (H0)
-                        cell.setCellValue(Double.parseDouble(block.toPrintFormatCSV()));
-                        cellStyle = workbook.createCellStyle();
-                        cellStyle.setDataFormat(format.getFormat("#,##0.0000"));
-                        cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                        cell.setCellStyle(cellStyle);
+                        sheetWriter.writeCell(row, cellNumber, Double.parseDouble(block.toPrintFormatCSV()), "#,##0.0000");
                         break;
 
                     case 87:    // Reflector height (above ground)
                     case 88:    // Instrument height (above ground)
-                        cell.setCellValue(Double.parseDouble(block.toPrintFormatCSV()));
-                        cellStyle = workbook.createCellStyle();
-                        cellStyle.setDataFormat(format.getFormat("#,##0.000"));
-                        cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                        cell.setCellStyle(cellStyle);
+                        sheetWriter.writeCell(row, cellNumber, Double.parseDouble(block.toPrintFormatCSV()), "#,##0.000");
                         break;
 
                     default:
                         System.err.println("GSI2Excel.convertGSI2Excel() : line contains unknown word index " + block.toPrintFormatCSV());
                 }
+
+                cellNumber++;
             }
         }
 
         // adjust column width to fit the content
-        for (int i = 0; i < baseToolsGSI.getEncodedLinesOfGSIBlocks().size(); i++) {
-            sheet.autoSizeColumn((short) i);
-        }
+        sheetWriter.adjustColumnWidths();
 
         // check number of written lines
-        return rowNumber > 1;
+        return sheetWriter.getCountRows() > 1;
     }
 
     /**
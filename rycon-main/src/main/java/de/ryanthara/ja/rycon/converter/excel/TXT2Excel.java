@@ -17,13 +17,9 @@
  */
 package de.ryanthara.ja.rycon.converter.excel;
 
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.Cell;
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.WorkbookUtil;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.util.ArrayList;
 
@@ -32,11 +28,12 @@ import java.util.ArrayList;
  * into Microsoft Excel (XLS and XLSX) files.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class TXT2Excel {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
     private Workbook workbook;
 
@@ -44,9 +41,11 @@ public class TXT2Excel {
      * Class constructor for read line based text files in different formats.
      *
      * @param readStringLines {@code ArrayList<String>} with lines in text format
+     * @param context         context of the conversion
      */
-    public TXT2Excel(ArrayList<String> readStringLines) {
+    public TXT2Excel(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -59,46 +58,30 @@ public class TXT2Excel {
      */
     public boolean convertTXT2Excel(boolean isXLS, String sheetName) {
         // general preparation of the workbook
-        if (isXLS) {
-            workbook = new HSSFWorkbook();
-        } else {
-            workbook = new XSSFWorkbook();
-        }
+        workbook = BaseToolsExcel.createWorkbook(isXLS, context.getSettings());
 
-        String safeName = WorkbookUtil.createSafeSheetName(sheetName);
-        Sheet sheet = workbook.createSheet(safeName);
+        ExcelSheetWriter sheetWriter = new ExcelSheetWriter(workbook, sheetName);
         Row row;
-        Cell cell;
 
-        short rowNumber = 0;
-        short cellNumber;
-        short countColumns = 0;
+        int cellNumber;
 
         for (String line : readStringLines) {
             String[] lineSplit = line.trim().split("\\s+");
 
-            row = sheet.createRow(rowNumber);
-            rowNumber++;
+            row = sheetWriter.createRow();
 
             cellNumber = 0;
 
             for (String element : lineSplit) {
-                cell = row.createCell(cellNumber);
+                sheetWriter.writeCell(row, cellNumber, element);
                 cellNumber++;
-                cell.setCellValue(element);
-                if (cellNumber > countColumns) {
-                    countColumns = cellNumber;
-                }
-
             }
         }
 
         // adjust column width to fit the content
-        for (int i = 0; i < countColumns; i++) {
-            sheet.autoSizeColumn((short) i);
-        }
+        sheetWriter.adjustColumnWidths();
 
-        return rowNumber > 1;
+        return sheetWriter.getCountRows() > 1;
     }
 
     /**
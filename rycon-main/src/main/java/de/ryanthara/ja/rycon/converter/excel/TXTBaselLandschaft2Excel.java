@@ -17,10 +17,9 @@
  */
 package de.ryanthara.ja.rycon.converter.excel;
 
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.ss.util.WorkbookUtil;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
 
 import java.util.ArrayList;
 
@@ -29,11 +28,12 @@ import java.util.ArrayList;
  * into Microsoft Excel (XLS and XLSX) files.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class TXTBaselLandschaft2Excel {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
     private Workbook workbook;
 
@@ -41,9 +41,11 @@ public class TXTBaselLandschaft2Excel {
      * Class constructor for read line based text files in different formats.
      *
      * @param readStringLines {@code ArrayList<String>} with lines in text format
+     * @param context         context of the conversion
      */
-    public TXTBaselLandschaft2Excel(ArrayList<String> readStringLines) {
+    public TXTBaselLandschaft2Excel(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -57,34 +59,21 @@ public class TXTBaselLandschaft2Excel {
      */
     public boolean convertTXTBaselLand2Excel(boolean isXLS, String sheetName, boolean writeCommentRow) {
         // general preparation of the workbook
-        if (isXLS) {
-            workbook = new HSSFWorkbook();
-        } else {
-            workbook = new XSSFWorkbook();
-        }
+        workbook = BaseToolsExcel.createWorkbook(isXLS, context.getSettings());
 
-        String safeName = WorkbookUtil.createSafeSheetName(sheetName);
-        Sheet sheet = workbook.createSheet(safeName);
+        ExcelSheetWriter sheetWriter = new ExcelSheetWriter(workbook, sheetName);
         Row row;
-        Cell cell;
-        CellStyle cellStyle;
-
-        DataFormat format = workbook.createDataFormat();
 
-        short rowNumber = 0;
-        short cellNumber = 0;
-        short countColumns = 0;
+        int cellNumber = 0;
 
         if (writeCommentRow) {
-            row = sheet.createRow(rowNumber);
-            rowNumber++;
+            row = sheetWriter.createRow();
 
             String[] lineSplit = readStringLines.get(0).trim().split("\\t", -1);
 
             for (String description : lineSplit) {
-                cell = row.createCell(cellNumber);
+                sheetWriter.writeCell(row, cellNumber, description);
                 cellNumber++;
-                cell.setCellValue(description);
             }
         }
 
@@ -92,94 +81,36 @@ public class TXTBaselLandschaft2Excel {
         readStringLines.remove(0);
 
         for (String line : readStringLines) {
-            row = sheet.createRow(rowNumber);
-            rowNumber++;
+            row = sheetWriter.createRow();
 
             String[] lineSplit = line.trim().split("\\t", -1);
 
-            cellNumber = 0;
-
             switch (lineSplit.length) {
                 case 5:     // HFP file
-                    cell = row.createCell(cellNumber);      // Art
-                    cell.setCellValue(lineSplit[0]);
-                    cellNumber++;
-
-                    cell = row.createCell(cellNumber);      // Number
-                    cell.setCellValue(lineSplit[1]);
-                    cellNumber++;
-
-                    cell = row.createCell(cellNumber);      // X
-                    cell.setCellValue(Double.parseDouble(lineSplit[2]));
-                    cellStyle = workbook.createCellStyle();
-                    cellStyle.setDataFormat(format.getFormat("#,##0.000"));
-                    cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                    cell.setCellStyle(cellStyle);
-                    cellNumber++;
-
-                    cell = row.createCell(cellNumber);      // Y
-                    cell.setCellValue(Double.parseDouble(lineSplit[3]));
-                    cellStyle = workbook.createCellStyle();
-                    cellStyle.setDataFormat(format.getFormat("#,##0.000"));
-                    cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                    cell.setCellStyle(cellStyle);
-                    cellNumber++;
-
-                    cell = row.createCell(cellNumber);      // Z
-                    if (lineSplit[4].equalsIgnoreCase("NULL")) {
-                        cell.setCellValue("NULL");
+                    sheetWriter.writeCell(row, 0, lineSplit[0]);                                    // Art
+                    sheetWriter.writeCell(row, 1, lineSplit[1]);                                    // Number
+                    sheetWriter.writeCell(row, 2, Double.parseDouble(lineSplit[2]), "#,##0.000");   // X
+                    sheetWriter.writeCell(row, 3, Double.parseDouble(lineSplit[3]), "#,##0.000");   // Y
+
+                    if (lineSplit[4].equalsIgnoreCase("NULL")) {                                    // Z
+                        sheetWriter.writeCell(row, 4, "NULL");
                     } else {
-                        cell.setCellValue(Double.parseDouble(lineSplit[4]));
-                        cellStyle = workbook.createCellStyle();
-                        cellStyle.setDataFormat(format.getFormat("#,##0.000"));
-                        cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                        cell.setCellStyle(cellStyle);
+                        sheetWriter.writeCell(row, 4, Double.parseDouble(lineSplit[4]), "#,##0.000");
                     }
-
-                    countColumns = 5;
                     break;
 
                 case 6:     // LFP file
-                    cell = row.createCell(cellNumber);      // Art
-                    cell.setCellValue(lineSplit[0]);
-                    cellNumber++;
-
-                    cell = row.createCell(cellNumber);      // Number
-                    cell.setCellValue(lineSplit[1]);
-                    cellNumber++;
-
-                    cell = row.createCell(cellNumber);      // VArt
-                    cell.setCellValue(lineSplit[2]);
-                    cellNumber++;
-
-                    cell = row.createCell(cellNumber);      // X
-                    cell.setCellValue(Double.parseDouble(lineSplit[3]));
-                    cellStyle = workbook.createCellStyle();
-                    cellStyle.setDataFormat(format.getFormat("#,##0.000"));
-                    cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                    cell.setCellStyle(cellStyle);
-                    cellNumber++;
-
-                    cell = row.createCell(cellNumber);      // Y
-                    cell.setCellValue(Double.parseDouble(lineSplit[4]));
-                    cellStyle = workbook.createCellStyle();
-                    cellStyle.setDataFormat(format.getFormat("#,##0.000"));
-                    cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                    cell.setCellStyle(cellStyle);
-                    cellNumber++;
-
-                    cell = row.createCell(cellNumber);      // Z
-                    if (lineSplit[5].equalsIgnoreCase("NULL")) {
-                        cell.setCellValue("NULL");
+                    sheetWriter.writeCell(row, 0, lineSplit[0]);                                    // Art
+                    sheetWriter.writeCell(row, 1, lineSplit[1]);                                    // Number
+                    sheetWriter.writeCell(row, 2, lineSplit[2]);                                    // VArt
+                    sheetWriter.writeCell(row, 3, Double.parseDouble(lineSplit[3]), "#,##0.000");   // X
+                    sheetWriter.writeCell(row, 4, Double.parseDouble(lineSplit[4]), "#,##0.000");   // Y
+
+                    if (lineSplit[5].equalsIgnoreCase("NULL")) {                                    // Z
+                        sheetWriter.writeCell(row, 5, "NULL");
                     } else {
-                        cell.setCellValue(Double.parseDouble(lineSplit[5]));
-                        cellStyle = workbook.createCellStyle();
-                        cellStyle.setDataFormat(format.getFormat("#,##0.000"));
-                        cellStyle.setVerticalAlignment(CellStyle.ALIGN_RIGHT);
-                        cell.setCellStyle(cellStyle);
+                        sheetWriter.writeCell(row, 5, Double.parseDouble(lineSplit[5]), "#,##0.000");
                     }
-
-                    countColumns = 6;
                     break;
 
                 default:
@@ -188,11 +119,9 @@ public class TXTBaselLandschaft2Excel {
         }
 
         // adjust column width to fit the content
-        for (int i = 0; i < countColumns; i++) {
-            sheet.autoSizeColumn((short) i);
-        }
+        sheetWriter.adjustColumnWidths();
 
-        return rowNumber > 1;
+        return sheetWriter.getCountRows() > 1;
     }
 
     /**
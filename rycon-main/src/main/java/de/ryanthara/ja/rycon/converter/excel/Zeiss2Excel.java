@@ -18,14 +18,10 @@
 package de.ryanthara.ja.rycon.converter.excel;
 
 import de.ryanthara.ja.rycon.converter.zeiss.ZeissDecoder;
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import de.ryanthara.ja.rycon.elements.ZeissBlock;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.WorkbookUtil;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.util.ArrayList;
 
@@ -34,11 +30,12 @@ import java.util.ArrayList;
  * and it's dialects (R4, R5, REC500 and M5) into Microsoft Excel (XLS and XLSX) files.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class Zeiss2Excel {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
     private Workbook workbook = null;
 
@@ -46,9 +43,11 @@ public class Zeiss2Excel {
      * Class constructor for read line based text files in different formats.
      *
      * @param readStringLines {@code ArrayList<String>} with lines in text format
+     * @param context         context of the conversion
      */
-    public Zeiss2Excel(ArrayList<String> readStringLines) {
+    public Zeiss2Excel(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -62,23 +61,12 @@ public class Zeiss2Excel {
      */
     public boolean convertZeiss2Excel(boolean isXLS, String sheetName, boolean writeCommentRow) {
         // general preparation of the workbook
-        if (isXLS) {
-            workbook = new HSSFWorkbook();
-        } else {
-            workbook = new XSSFWorkbook();
-        }
+        workbook = BaseToolsExcel.createWorkbook(isXLS, context.getSettings());
 
-        String safeName = WorkbookUtil.createSafeSheetName(sheetName);
-        Sheet sheet = workbook.createSheet(safeName);
+        ExcelSheetWriter sheetWriter = new ExcelSheetWriter(workbook, sheetName);
         Row row;
-        Cell cell;
-//        CellStyle cellStyle;
-
-//        DataFormat format = workbook.createDataFormat();
 
-        short rowNumber = 0;
-        short cellNumber = 0;
-        short countColumns = 0;
+        int cellNumber;
 
         // TODO implement comment row and multi line stored values
 
@@ -116,32 +104,23 @@ public class Zeiss2Excel {
 
             // skip empty lines directly after reading
             if (!line.trim().isEmpty()) {
-                row = sheet.createRow(rowNumber);
-                rowNumber++;
+                row = sheetWriter.createRow();
 
                 cellNumber = 0;
 
                 ZeissDecoder decoder = new ZeissDecoder();
 
                 for (ZeissBlock zeissBlock : decoder.getZeissBlocks()) {
-                    cell = row.createCell(cellNumber);
-                    cell.setCellValue(zeissBlock.getValue());
+                    sheetWriter.writeCell(row, cellNumber, zeissBlock.getValue());
                     cellNumber++;
-                    countColumns++;
-                }
-
-                if (cellNumber > countColumns) {
-                    countColumns = cellNumber;
                 }
             }
         }
 
         // adjust column width to fit the content
-        for (int i = 0; i < countColumns; i++) {
-            sheet.autoSizeColumn((short) i);
-        }
+        sheetWriter.adjustColumnWidths();
 
-        return rowNumber > 1;
+        return sheetWriter.getCountRows() > 1;
     }
 
     /**
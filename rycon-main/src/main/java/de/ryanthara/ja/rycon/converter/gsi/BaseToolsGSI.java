@@ -17,14 +17,14 @@
  */
 package de.ryanthara.ja.rycon.converter.gsi;
 
-import de.ryanthara.ja.rycon.Main;
+import de.ryanthara.ja.rycon.data.ConversionSettings;
 import de.ryanthara.ja.rycon.data.PreferenceKeys;
 import de.ryanthara.ja.rycon.elements.GSIBlock;
 import de.ryanthara.ja.rycon.tools.SortHelper;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.TreeSet;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Instances of this class implements several basic operations on Leica GSI files.
@@ -38,11 +38,13 @@ import java.util.TreeSet;
  * starts every line with a <code>*</code> sign.
  *
  * @author sebastian
- * @version 2
+ * @version 5
  * @since 12
  */
 public class BaseToolsGSI {
 
+    private static final int MIN_CHUNK_SIZE = 1024;
+
     private ArrayList<ArrayList<GSIBlock>> encodedBlocks;
     private ArrayList<String> readStringLines;
     private TreeSet<Integer> foundAllWordIndices;
@@ -51,11 +53,25 @@ public class BaseToolsGSI {
      * Constructs a new instance of this class with a parameter for the read line based Leica GSI8 or GSI16 file.
      *
      * @param readStringLines {@code ArrayList<String>} with lines as {@code String}
+     * @param settings        snapshot of the conversion settings
      */
-    public BaseToolsGSI(ArrayList<String> readStringLines) {
+    public BaseToolsGSI(ArrayList<String> readStringLines, ConversionSettings settings) {
         this.readStringLines = readStringLines;
         this.foundAllWordIndices = new TreeSet<>();
-        this.encodedBlocks = blockEncoder(readStringLines);
+        this.encodedBlocks = blockEncoder(readStringLines, settings.getParallelThreshold());
+    }
+
+    /**
+     * Encodes one read GSI string line into an ArrayList of GSIBlocks, which is sorted by word index (WI).
+     * <p>
+     * This method is used for line by line processing, where the file is not read into the memory.
+     *
+     * @param line read string line with GSI content
+     *
+     * @return encoded and sorted GSIBlocks
+     */
+    public static ArrayList<GSIBlock> encodeLine(String line) {
+        return encodeLine(line, null);
     }
 
     /**
@@ -91,17 +107,56 @@ public class BaseToolsGSI {
     /**
      * Checks a valid Leica GSI formatted string line for being a target line (three times the coordinate is zero)
      * or for being a free station line.
+     * <p>
+     * The line is scanned once for the zero pattern (8 or 16 zeros) without regular expressions. The result is the
+     * same as splitting the line at the zero pattern and checking for four parts, where empty parts at the end of
+     * the line are not counted.
      *
      * @param line line to be checked
      *
      * @return true if line is a target line
      */
     public static boolean isTargetLine(String line) {
-        if (line.startsWith("*")) {
-            return (line.split("0000000000000000").length - 1) == 3;
-        } else {
-            return (line.split("00000000").length - 1) == 3;
+        final int patternLength = line.startsWith("*") ? 16 : 8;
+        final int length = line.length();
+
+        int countMatches = 0;
+        int countAdjacentMatches = 0;
+        int adjacentStart = -1;
+        int lastMatchEnd = -1;
+        int countZeros = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(i) == '0') {
+                countZeros = countZeros + 1;
+
+                if (countZeros == patternLength) {
+                    int matchStart = i + 1 - patternLength;
+
+                    if (matchStart == lastMatchEnd) {
+                        countAdjacentMatches = countAdjacentMatches + 1;
+                    } else {
+                        countAdjacentMatches = 1;
+                        adjacentStart = matchStart;
+                    }
+
+                    countMatches = countMatches + 1;
+                    lastMatchEnd = i + 1;
+                    countZeros = 0;
+                }
+            } else {
+                countZeros = 0;
+            }
         }
+
+        int countParts = countMatches + 1;
+
+        // empty parts at the end are dropped, if the line ends with the pattern
+        if (countMatches > 0 && lastMatchEnd == length) {
+            countParts = countParts - countAdjacentMatches - (adjacentStart == 0 ? 1 : 0);
+        }
+
+        return countParts == 4;
     }
 
     /**
@@ -110,53 +165,65 @@ public class BaseToolsGSI {
      *
      * @param isGSI16          distinguish between GSI8 or GSI16 output format
      * @param encodedGSIBlocks ArrayList<ArrayList<GSIBlock>> of encoded GSIBlocks
+     * @param settings         snapshot of the conversion settings
      *
      * @return transformed string line with GSI content
      */
-    static ArrayList<String> lineTransformation(boolean isGSI16, ArrayList<ArrayList<GSIBlock>> encodedGSIBlocks) {
+    static ArrayList<String> lineTransformation(boolean isGSI16, ArrayList<ArrayList<GSIBlock>> encodedGSIBlocks,
+                                                ConversionSettings settings) {
         ArrayList<String> result = new ArrayList<>();
 
         for (ArrayList<GSIBlock> blocksInLines : encodedGSIBlocks) {
-            String newLine = "";
+            result.add(transformLine(isGSI16, blocksInLines, settings));
+        }
 
-            if (isGSI16) {
-                newLine = "*";
-            }
+        return result;
+    }
 
-            int counter = 0;
+    /**
+     * Transforms one line of encoded {@code GSIBlock}s into a string line, e.g. while a file is converted row by row.
+     *
+     * @param isGSI16       distinguish between GSI8 or GSI16 output format
+     * @param blocksInLines encoded GSIBlocks of the line
+     * @param settings      snapshot of the conversion settings
+     *
+     * @return transformed string line with GSI content
+     */
+    static String transformLine(boolean isGSI16, ArrayList<GSIBlock> blocksInLines, ConversionSettings settings) {
+        String newLine = "";
 
-            for (GSIBlock block : blocksInLines) {
-                newLine = newLine.concat(block.toString(isGSI16));
+        if (isGSI16) {
+            newLine = "*";
+        }
 
-                if (counter < blocksInLines.size()) {
-                    newLine = newLine.concat(" ");
-                }
+        int counter = 0;
 
-                counter = counter + 1;
-            }
+        for (GSIBlock block : blocksInLines) {
+            newLine = newLine.concat(block.toString(isGSI16));
 
-            newLine = prepareLineEnding(newLine);
+            if (counter < blocksInLines.size()) {
+                newLine = newLine.concat(" ");
+            }
 
-            result.add(newLine);
+            counter = counter + 1;
         }
 
-        return result;
+        return prepareLineEnding(newLine, settings);
     }
 
     /**
-     * Prepares the line ending with an additional white space character.
+     * Prepares the line ending with an additional white space character with the given settings.
      * <p>
      * For some reasons (e.g. self written Autocad VBA tools) it is necessary to add an additional white space
      * at the end of a line. This is done with this helper.
      *
      * @param stringToPrepare string to prepare with line ending
+     * @param settings        snapshot of the conversion settings
      *
      * @return prepared string
      */
-    public static String prepareLineEnding(String stringToPrepare) {
-        boolean concatBlankAtLineEnding = Boolean.parseBoolean(Main.pref.getUserPreference(PreferenceKeys.GSI_SETTING_LINE_ENDING_WITH_BLANK));
-
-        if (concatBlankAtLineEnding) {
+    public static String prepareLineEnding(String stringToPrepare, ConversionSettings settings) {
+        if (settings.isLineEndingWithBlank()) {
             if (!stringToPrepare.endsWith(" ")) {
                 stringToPrepare = stringToPrepare.concat(" ");
             }
@@ -189,47 +256,124 @@ public class BaseToolsGSI {
         return foundAllWordIndices;
     }
 
+    /*
+     * Encodes one read GSI string line into a sorted ArrayList of GSIBlocks and collects the found word indices,
+     * if the set is not null.
+     */
+    private static ArrayList<GSIBlock> encodeLine(String line, Set<Integer> foundWordIndices) {
+        ArrayList<GSIBlock> blocks = new ArrayList<>();
+
+        int size = BaseToolsGSI.getBlockSize(line);
+
+        if (size == 24) {
+            line = line.substring(1, line.length());
+        }
+
+        // split read line into separate Strings
+        List<String> lineSplit = new ArrayList<>((line.length() + size - 1) / size);
+        for (int i = 0; i < line.length(); i += size) {
+            lineSplit.add(line.substring(i, Math.min(line.length(), i + size)));
+        }
+
+        // used instead of 'deprecated' StringTokenizer here
+        for (String blockAsString : lineSplit) {
+            GSIBlock block = new GSIBlock(blockAsString);
+            blocks.add(block);
+
+            if (foundWordIndices != null) {
+                foundWordIndices.add(block.getWordIndex());
+            }
+        }
+
+        // sort every 'line' of GSI blocks by word index (WI)
+        SortHelper.sortByWordIndex(blocks);
+
+        return blocks;
+    }
+
     /**
      * Encodes a read GSI string line into an ArrayList of GSIBlocks.
+     * <p>
+     * GSI lines are independent from each other. Therefore large files with at least
+     * {@link PreferenceKeys#CONVERTER_SETTING_PARALLEL_THRESHOLD} lines are split into chunks of lines, that are
+     * encoded in parallel on the common {@link ForkJoinPool}. The order of the lines is kept.
      *
-     * @param lines read string lines with GSI content
+     * @param lines             read string lines with GSI content
+     * @param parallelThreshold minimum number of lines for the parallel encoding
      *
      * @return encoded ArrayList of GSIBlocks
      */
-    private ArrayList<ArrayList<GSIBlock>> blockEncoder(ArrayList<String> lines) {
-        ArrayList<GSIBlock> blocks;
-        ArrayList<ArrayList<GSIBlock>> blocksInLines = new ArrayList<>();
+    private ArrayList<ArrayList<GSIBlock>> blockEncoder(ArrayList<String> lines, int parallelThreshold) {
+        final int parallelism = ForkJoinPool.getCommonPoolParallelism();
 
-        for (String line : lines) {
-            blocks = new ArrayList<>();
+        if (parallelism > 1 && lines.size() >= parallelThreshold) {
+            // every line gets it's own slot, therefore the order of the lines is kept
+            ArrayList<ArrayList<GSIBlock>> blocksInLines = new ArrayList<>(Collections.nCopies(lines.size(), null));
 
-            int size = BaseToolsGSI.getBlockSize(line);
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, lines.size() / (parallelism * 4));
 
-            if (size == 24) {
-                line = line.substring(1, line.length());
-            }
+            foundAllWordIndices.addAll(ForkJoinPool.commonPool().invoke(
+                    new BlockEncoderTask(lines, blocksInLines, 0, lines.size(), chunkSize)));
 
-            // split read line into separate Strings
-            List<String> lineSplit = new ArrayList<>((line.length() + size - 1) / size);
-            for (int i = 0; i < line.length(); i += size) {
-                lineSplit.add(line.substring(i, Math.min(line.length(), i + size)));
-            }
+            return blocksInLines;
+        } else {
+            ArrayList<ArrayList<GSIBlock>> blocksInLines = new ArrayList<>(lines.size());
 
-            // used instead of 'deprecated' StringTokenizer here
-            for (String blockAsString : lineSplit) {
-                GSIBlock block = new GSIBlock(blockAsString);
-                blocks.add(block);
-                foundAllWordIndices.add(block.getWordIndex());
+            for (String line : lines) {
+                // fill in the sorted 'line' of blocks into an array
+                blocksInLines.add(encodeLine(line, foundAllWordIndices));
             }
 
-            // sort every 'line' of GSI blocks by word index (WI)
-            SortHelper.sortByWordIndex(blocks);
+            return blocksInLines;
+        }
+    }
+
+    /*
+     * Encodes a range of lines and returns the found word indices of this range. Ranges larger than the chunk size
+     * are split into two halves at a line boundary.
+     */
+    private static class BlockEncoderTask extends RecursiveTask<TreeSet<Integer>> {
+
+        private static final long serialVersionUID = 1L;
 
-            // fill in the sorted 'line' of blocks into an array
-            blocksInLines.add(blocks);
+        private final ArrayList<String> lines;
+        private final ArrayList<ArrayList<GSIBlock>> blocksInLines;
+        private final int start, end, chunkSize;
+
+        private BlockEncoderTask(ArrayList<String> lines, ArrayList<ArrayList<GSIBlock>> blocksInLines,
+                                 int start, int end, int chunkSize) {
+            this.lines = lines;
+            this.blocksInLines = blocksInLines;
+            this.start = start;
+            this.end = end;
+            this.chunkSize = chunkSize;
         }
 
-        return blocksInLines;
-    }
+        @Override
+        protected TreeSet<Integer> compute() {
+            if (end - start <= chunkSize) {
+                TreeSet<Integer> foundWordIndices = new TreeSet<>();
+
+                for (int i = start; i < end; i++) {
+                    blocksInLines.set(i, encodeLine(lines.get(i), foundWordIndices));
+                }
+
+                return foundWordIndices;
+            } else {
+                int middle = (start + end) >>> 1;
+
+                BlockEncoderTask first = new BlockEncoderTask(lines, blocksInLines, start, middle, chunkSize);
+                BlockEncoderTask second = new BlockEncoderTask(lines, blocksInLines, middle, end, chunkSize);
+
+                first.fork();
+
+                TreeSet<Integer> foundWordIndices = second.compute();
+                foundWordIndices.addAll(first.join());
+
+                return foundWordIndices;
+            }
+        }
+
+    } // end of BlockEncoderTask
 
 } // end of BaseToolsGSI
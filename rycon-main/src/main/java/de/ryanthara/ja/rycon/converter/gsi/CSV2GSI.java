@@ -17,6 +17,9 @@
  */
 package de.ryanthara.ja.rycon.converter.gsi;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.elements.GSIBlock;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,20 +28,59 @@ import java.util.List;
  * a Leica GSI8 or GSI16 files.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class CSV2GSI {
 
+    private final ArrayList<String> tokens = new ArrayList<>();
+    private final ConversionContext context;
     private List<String[]> readCSVLines = null;
+    private int lineCounter = 1;
 
     /**
      * Constructs a new instance of this class with a parameter for the read line based CSV files.
      *
      * @param readCSVLines {@code List<String[]>} with lines as {@code String[]}
+     * @param context      context of the conversion
      */
-    public CSV2GSI(List<String[]> readCSVLines) {
+    public CSV2GSI(List<String[]> readCSVLines, ConversionContext context) {
         this.readCSVLines = readCSVLines;
+        this.context = context;
+    }
+
+    /**
+     * Constructs a new instance of this class for the conversion row by row with {@link #convertRow}.
+     *
+     * @param context context of the conversion
+     */
+    public CSV2GSI(ConversionContext context) {
+        this.context = context;
+    }
+
+    /*
+     * Adds the whitespace separated tokens of a CSV field with '.' as decimal sign.
+     */
+    private static void addTokens(ArrayList<String> tokens, String field) {
+        int start = -1;
+
+        for (int i = 0; i <= field.length(); i++) {
+            if (i == field.length() || isWhitespace(field.charAt(i))) {
+                if (start > -1) {
+                    tokens.add(field.substring(start, i).replace(',', '.'));
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+    }
+
+    /*
+     * Same characters as the regex '\s'.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
     /**
@@ -46,6 +88,9 @@ public class CSV2GSI {
      * <p>
      * The format of the GSI file is controlled with a parameter. The separator
      * sign is automatically detected.
+     * <p>
+     * The tokens of every row are taken directly from the CSV fields and handed over to the same block
+     * preparation as text files, without joining and splitting the row again.
      *
      * @param isGSI16                  control if GSI8 or GSI16 format is written
      * @param sourceContainsCodeColumn if source file contains a code column
@@ -55,27 +100,51 @@ public class CSV2GSI {
     public ArrayList<String> convertCSV2GSI(boolean isGSI16, boolean sourceContainsCodeColumn) {
         ArrayList<String> result = new ArrayList<>();
 
-        // convert the List<String[]> into an ArrayList<String> and use known stuff (-:
         for (String[] stringField : readCSVLines) {
-            String line = "";
+            String line = convertRow(stringField, isGSI16, sourceContainsCodeColumn);
 
-            for (String s : stringField) {
-                line = line.concat(s);
-                line = line.concat(" ");
+            if (line != null) {
+                result.add(line);
             }
+        }
 
-            line = line.trim();
-            line = line.replace(',', '.');
+        return result;
+    }
 
-            // skip empty lines
-            if (!line.equals("")) {
-                result.add(line);
-            }
+    /**
+     * Converts one row of a CSV file into a line of a GSI file, e.g. while the CSV file is read row by row.
+     * <p>
+     * The lines are numbered continuously over all converted rows of the instance.
+     *
+     * @param stringField              fields of the row
+     * @param isGSI16                  control if GSI8 or GSI16 format is written
+     * @param sourceContainsCodeColumn if source file contains a code column
+     *
+     * @return converted line or null, if the row contains no values
+     */
+    public String convertRow(String[] stringField, boolean isGSI16, boolean sourceContainsCodeColumn) {
+        tokens.clear();
+
+        for (String s : stringField) {
+            addTokens(tokens, s);
+        }
+
+        // skip empty lines
+        if (tokens.isEmpty()) {
+            return null;
+        }
+
+        ArrayList<GSIBlock> blocks = TXT2GSI.prepareBlocks(isGSI16, sourceContainsCodeColumn, lineCounter,
+                tokens.toArray(new String[0]));
+
+        // check for at least one or more added elements to prevent writing empty lines
+        if (blocks.size() == 0) {
+            return null;
         }
 
-        TXT2GSI txt2GSI = new TXT2GSI(result);
+        lineCounter = lineCounter + 1;
 
-        return txt2GSI.convertTXT2GSI(isGSI16, sourceContainsCodeColumn);
+        return BaseToolsGSI.transformLine(isGSI16, blocks, context.getSettings());
     }
 
 } // end of CSV2GSI
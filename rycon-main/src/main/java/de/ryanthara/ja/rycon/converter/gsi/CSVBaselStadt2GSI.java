@@ -1,5 +1,7 @@
 package de.ryanthara.ja.rycon.converter.gsi;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,11 +10,12 @@ import java.util.List;
  * Basel Stadt (Switzerland) into a Leica GSI8 or GSI16 file.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class CSVBaselStadt2GSI {
 
+    private final ConversionContext context;
     private List<String[]> readCSVLines = null;
 
     /**
@@ -20,9 +23,11 @@ public class CSVBaselStadt2GSI {
      * geodata server Basel Stadt (Switzerland).
      *
      * @param readCSVLines {@code List<String[]>} with lines as {@code String[]}
+     * @param context      context of the conversion
      */
-    public CSVBaselStadt2GSI(List<String[]> readCSVLines) {
+    public CSVBaselStadt2GSI(List<String[]> readCSVLines, ConversionContext context) {
         this.readCSVLines = readCSVLines;
+        this.context = context;
     }
 
     /**
@@ -66,7 +71,7 @@ public class CSVBaselStadt2GSI {
             result.add(line.trim());
         }
 
-        TXT2GSI txt2GSI = new TXT2GSI(result);
+        TXT2GSI txt2GSI = new TXT2GSI(result, context);
 
         return txt2GSI.convertTXT2GSI(isGSI16, sourceContainsCodeColumn);
     }
@@ -17,6 +17,7 @@
  */
 package de.ryanthara.ja.rycon.converter.gsi;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import de.ryanthara.ja.rycon.elements.GSIBlock;
 
 import java.util.ArrayList;
@@ -25,11 +26,12 @@ import java.util.ArrayList;
  * Instances of this class provides functions to convert coordinate files from Cadwork CAD program into Leica GSI files.
  *
  * @author sebastian
- * @version 2
+ * @version 3
  * @since 12
  */
 public class Cadwork2GSI {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
 
     /**
@@ -37,9 +39,11 @@ public class Cadwork2GSI {
      * text files from Cadwork CAD program (node.dat).
      *
      * @param readStringLines ArrayList<String> with read lines from node.dat file
+     * @param context         context of the conversion
      */
-    public Cadwork2GSI(ArrayList<String> readStringLines) {
+    public Cadwork2GSI(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -97,7 +101,7 @@ public class Cadwork2GSI {
             }
         }
 
-        return BaseToolsGSI.lineTransformation(isGSI16, blocksInLines);
+        return BaseToolsGSI.lineTransformation(isGSI16, blocksInLines, context.getSettings());
     }
 
 } // end of Cadwork2GSI
@@ -17,6 +17,7 @@
  */
 package de.ryanthara.ja.rycon.converter.gsi;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import de.ryanthara.ja.rycon.elements.CaplanBlock;
 import de.ryanthara.ja.rycon.elements.GSIBlock;
 
@@ -27,20 +28,23 @@ import java.util.ArrayList;
  * into Leica GSI8 or GSI16 formatted files.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class Caplan2GSI {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
 
     /**
      * Constructs a new instance of this class with a parameter for the read Caplan K file {@link ArrayList} string.
      *
      * @param readStringLines {@code ArrayList<String>} with lines in Caplan K format
+     * @param context         context of the conversion
      */
-    public Caplan2GSI(ArrayList<String> readStringLines) {
+    public Caplan2GSI(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -105,7 +109,7 @@ public class Caplan2GSI {
             }
         }
 
-        return BaseToolsGSI.lineTransformation(isGSI16, blocksInLines);
+        return BaseToolsGSI.lineTransformation(isGSI16, blocksInLines, context.getSettings());
     }
 
 } // end of Caplan2GSI
@@ -17,26 +17,213 @@
  */
 package de.ryanthara.ja.rycon.converter.gsi;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Instances of this class provides functions to convert between Leica GSI8 and GSI16 vice versa.
+ * <p>
+ * The conversion is a positional rewrite of the fixed width blocks. The '*' at the beginning of a GSI16 line
+ * is stripped or added and the data field is filled up with leading zeros or cut to the last eight characters.
+ * Within a line the blocks are ordered by word index. No {@link de.ryanthara.ja.rycon.elements.GSIBlock}
+ * objects are created, the bytes are copied directly from the read to the write buffer.
+ * <p>
+ * Whole files can be transcoded with {@link #transcode(Path, Path, boolean, ConversionContext)} from channel to
+ * channel in one pass, without reading the file into the memory. The target file is only replaced, if the whole
+ * file is transcoded.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class GSI8vsGSI16 {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
 
     /**
      * Constructs a new instance of this class with a parameter for the read line based GSI formatted files.
      *
      * @param readStringLines {@code ArrayList<String>} with lines as {@code String}
+     * @param context         context of the conversion
      */
-    public GSI8vsGSI16(ArrayList<String> readStringLines) {
+    public GSI8vsGSI16(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
+    }
+
+    /**
+     * Transcodes a GSI8 formatted file into a GSI16 formatted file and vise versa.
+     * <p>
+     * Blank lines are skipped in the same way as the {@link de.ryanthara.ja.rycon.io.LineReader} does. The written
+     * lines are separated with the line separator of the system.
+     * <p>
+     * The lines are written into a temporary file in the folder of the target, which is moved to the target when
+     * the whole file is transcoded. If the transcoding fails (e.g. by an invalid block), the temporary file is
+     * deleted and an existing target file is left untouched.
+     *
+     * @param source  path of the GSI file to read
+     * @param target  path of the GSI file to write, an existing file will be replaced
+     * @param isGSI16 output file is GSI16 formatted
+     * @param context context of the conversion
+     *
+     * @return number of written lines
+     *
+     * @throws IOException if one of the files could not be read or written or a line contains an invalid block
+     */
+    public static int transcode(Path source, Path target, boolean isGSI16, ConversionContext context) throws IOException {
+        final Path tempFile = Files.createTempFile(target.toAbsolutePath().getParent(),
+                target.getFileName().toString(), ".tmp");
+
+        try {
+            int countWrittenLines;
+
+            try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+                 FileChannel targetChannel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                countWrittenLines = transcode(sourceChannel, targetChannel, isGSI16, context);
+            }
+
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            return countWrittenLines;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Transcodes GSI8 formatted lines from a channel into GSI16 formatted lines and vise versa.
+     * <p>
+     * The channels are not closed.
+     *
+     * @param source  channel to read the GSI lines from
+     * @param target  channel to write the GSI lines to
+     * @param isGSI16 output is GSI16 formatted
+     * @param context context of the conversion
+     *
+     * @return number of written lines
+     *
+     * @throws IOException if one of the channels could not be read or written or a line contains an invalid block
+     */
+    public static int transcode(ReadableByteChannel source, WritableByteChannel target, boolean isGSI16,
+                                ConversionContext context) throws IOException {
+        Transcoder transcoder = new Transcoder(isGSI16, context.getSettings().isLineEndingWithBlank());
+        ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE);
+
+        int countReadLines = 0;
+        int countWrittenLines = 0;
+        boolean isEndOfInput = false;
+        boolean isCarriageReturn = false;
+
+        while (!isEndOfInput) {
+            isEndOfInput = source.read(input) < 0;
+
+            byte[] bytes = input.array();
+            int limit = input.position();
+            int lineStart = 0;
+
+            for (int i = 0; i < limit; i++) {
+                // lines are terminated by CR, LF or CR/LF, the last line has not to be terminated
+                boolean isTerminator = bytes[i] == '\r' || bytes[i] == '\n';
+                boolean isLastLine = isEndOfInput && i == limit - 1 && !isTerminator;
+
+                if (isTerminator || isLastLine) {
+                    int lineEnd = isLastLine ? limit : i;
+
+                    // the LF of a CR/LF terminator does not end another line
+                    if (lineEnd > lineStart || bytes[i] != '\n' || !isCarriageReturn) {
+                        countReadLines = countReadLines + 1;
+                    }
+
+                    isCarriageReturn = bytes[i] == '\r';
+
+                    if (!isBlank(bytes, lineStart, lineEnd)) {
+                        int length = transcoder.transcodeLine(bytes, lineStart, lineEnd);
+
+                        if (length < 0) {
+                            throw new IOException("Line " + countReadLines + " contains an invalid GSI block.");
+                        }
+
+                        output = write(target, output, transcoder.getLine(), length);
+                        output = write(target, output, LINE_SEPARATOR, LINE_SEPARATOR.length);
+                        countWrittenLines = countWrittenLines + 1;
+                    }
+
+                    lineStart = i + 1;
+                } else {
+                    isCarriageReturn = false;
+                }
+            }
+
+            // keep the unfinished line for the next read
+            input.position(lineStart);
+            input.limit(limit);
+            input.compact();
+
+            if (!input.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(input.capacity() * 2);
+                input.flip();
+                larger.put(input);
+                input = larger;
+            }
+        }
+
+        output.flip();
+
+        while (output.hasRemaining()) {
+            target.write(output);
+        }
+
+        context.getProgress().processed(countReadLines);
+
+        return countWrittenLines;
+    }
+
+    private static boolean isBlank(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if ((bytes[i] & 0xFF) > ' ') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static ByteBuffer write(WritableByteChannel target, ByteBuffer output, byte[] bytes, int length) throws IOException {
+        if (output.remaining() < length) {
+            output.flip();
+
+            while (output.hasRemaining()) {
+                target.write(output);
+            }
+
+            output.clear();
+
+            if (output.capacity() < length) {
+                output = ByteBuffer.allocate(length);
+            }
+        }
+
+        output.put(bytes, 0, length);
+
+        return output;
     }
 
     /**
@@ -47,8 +234,165 @@ public class GSI8vsGSI16 {
      * @return converted GSI file
      */
     public ArrayList<String> convertGSI8vsGSI16(boolean isGSI16) {
-        BaseToolsGSI baseToolsGSI = new BaseToolsGSI(readStringLines);
-        return BaseToolsGSI.lineTransformation(isGSI16, baseToolsGSI.getEncodedLinesOfGSIBlocks());
+        ArrayList<String> result = new ArrayList<>(readStringLines.size());
+        Transcoder transcoder = new Transcoder(isGSI16, context.getSettings().isLineEndingWithBlank());
+
+        for (String line : readStringLines) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            int length = transcoder.transcodeLine(bytes, 0, bytes.length);
+
+            if (length < 0) {
+                throw new IllegalArgumentException("Line '" + line + "' contains an invalid GSI block.");
+            }
+
+            result.add(new String(transcoder.getLine(), 0, length, StandardCharsets.UTF_8));
+        }
+
+        context.getProgress().processed(readStringLines.size());
+
+        return result;
     }
 
+    /**
+     * Rewrites single GSI lines into a reused byte array.
+     */
+    private static class Transcoder {
+
+        private final boolean isGSI16;
+        private final boolean isLineEndingWithBlank;
+        private int[] blockStarts = new int[16];
+        private int[] blockEnds = new int[16];
+        private int[] wordIndices = new int[16];
+        private byte[] line = new byte[256];
+
+        private Transcoder(boolean isGSI16, boolean isLineEndingWithBlank) {
+            this.isGSI16 = isGSI16;
+            this.isLineEndingWithBlank = isLineEndingWithBlank;
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+
+        private byte[] getLine() {
+            return line;
+        }
+
+        /*
+         * Returns the length of the transcoded line or -1 if the line contains an invalid block.
+         */
+        private int transcodeLine(byte[] bytes, int start, int end) {
+            int blockCount = 0;
+            int size = 16;
+            int position = start;
+
+            if (end > start && bytes[start] == '*') {
+                size = 24;
+                position = start + 1;
+            }
+
+            // split the line into blocks of fixed width and cut off the white spaces
+            for (; position < end; position += size) {
+                int blockStart = position;
+                int blockEnd = Math.min(end, position + size);
+
+                while (blockStart < blockEnd && (bytes[blockStart] & 0xFF) <= ' ') {
+                    blockStart = blockStart + 1;
+                }
+
+                while (blockEnd > blockStart && (bytes[blockEnd - 1] & 0xFF) <= ' ') {
+                    blockEnd = blockEnd - 1;
+                }
+
+                if (blockStart == blockEnd) {
+                    continue;
+                }
+
+                int dataLength = blockEnd - blockStart - 7;
+
+                if (dataLength < 0 || (!isGSI16 && dataLength < 8)
+                        || !isDigit(bytes[blockStart]) || !isDigit(bytes[blockStart + 1])) {
+                    return -1;
+                }
+
+                if (blockCount == wordIndices.length) {
+                    blockStarts = Arrays.copyOf(blockStarts, blockCount * 2);
+                    blockEnds = Arrays.copyOf(blockEnds, blockCount * 2);
+                    wordIndices = Arrays.copyOf(wordIndices, blockCount * 2);
+                }
+
+                blockStarts[blockCount] = blockStart;
+                blockEnds[blockCount] = blockEnd;
+                wordIndices[blockCount] = (bytes[blockStart] - '0') * 10 + (bytes[blockStart + 1] - '0');
+
+                // keep the blocks of a line sorted by word index (WI)
+                for (int i = blockCount; i > 0 && wordIndices[i - 1] > wordIndices[i]; i--) {
+                    swap(i - 1, i);
+                }
+
+                blockCount = blockCount + 1;
+            }
+
+            // every block grows at most by 9 characters ('*', leading zeros and white space)
+            int capacity = (end - start) + blockCount * 9 + 2;
+
+            if (line.length < capacity) {
+                line = new byte[capacity];
+            }
+
+            int length = 0;
+
+            if (isGSI16) {
+                line[length++] = '*';
+            }
+
+            for (int i = 0; i < blockCount; i++) {
+                int blockStart = blockStarts[i];
+                int dataLength = blockEnds[i] - blockStart - 7;
+
+                // word index, information and sign
+                System.arraycopy(bytes, blockStart, line, length, 7);
+                length = length + 7;
+
+                if (isGSI16 && dataLength == 8) {
+                    for (int j = 0; j < 8; j++) {
+                        line[length++] = '0';
+                    }
+                    System.arraycopy(bytes, blockStart + 7, line, length, 8);
+                    length = length + 8;
+                } else if (!isGSI16 && dataLength != 8) {
+                    System.arraycopy(bytes, blockEnds[i] - 8, line, length, 8);
+                    length = length + 8;
+                } else {
+                    System.arraycopy(bytes, blockStart + 7, line, length, dataLength);
+                    length = length + dataLength;
+                }
+
+                line[length++] = ' ';
+            }
+
+            // same behaviour as BaseToolsGSI.prepareLineEnding()
+            if (isLineEndingWithBlank && (length == 0 || line[length - 1] != ' ')) {
+                line[length++] = ' ';
+            }
+
+            return length;
+        }
+
+        private void swap(int i, int j) {
+            int start = blockStarts[i];
+            int end = blockEnds[i];
+            int wordIndex = wordIndices[i];
+
+            blockStarts[i] = blockStarts[j];
+            blockEnds[i] = blockEnds[j];
+            wordIndices[i] = wordIndices[j];
+
+            blockStarts[j] = start;
+            blockEnds[j] = end;
+            wordIndices[j] = wordIndex;
+        }
+
+    } // end of Transcoder
+
 } // end of GSI8vsGSI16
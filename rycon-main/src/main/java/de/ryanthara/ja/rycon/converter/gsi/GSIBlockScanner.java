@@ -0,0 +1,511 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.gsi
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.gsi;
+
+import de.ryanthara.ja.rycon.elements.FlyweightGSIBlock;
+import de.ryanthara.ja.rycon.elements.GSIBlock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Instances of this class implements a scanner for Leica GSI8 and GSI16 files, that walks through the
+ * fixed width blocks directly in a memory mapped file.
+ * <p>
+ * The scanner does not create a {@code String} for a line or a block. Instead the word index, the information
+ * field, the sign and the data of every block in the current line are given back as primitive values. Large files
+ * are mapped window by window, so that GSI archives of several GB can be scanned.
+ * <p>
+ * The scanner is used like a cursor over the lines of the file.
+ * <pre>
+ * try (GSIBlockScanner scanner = GSIBlockScanner.open(path)) {
+ *     while (scanner.nextLine()) {
+ *         for (int i = 0; i &lt; scanner.getBlockCount(); i++) {
+ *             int wordIndex = scanner.getWordIndex(i);
+ *             ...
+ *         }
+ *     }
+ * }
+ * </pre>
+ * Blank lines are skipped in the same way as the {@link de.ryanthara.ja.rycon.io.LineReader} does. The bytes are
+ * read as ISO 8859-1 characters, therefore a line with a byte beyond the ASCII range (e.g. an UTF-8 encoded 'ä' in a
+ * code block) is marked by {@link #isASCII()} and can be decoded as UTF-8 by {@link #getLine()}.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class GSIBlockScanner implements Closeable {
+
+    /**
+     * Default size of a mapped window in bytes.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private MappedByteBuffer buffer;
+    private long windowPosition = 0;
+    private int position = 0;
+    private int blockCount = 0;
+    private int blockSize = 16;
+    private int blocksStart = 0;
+    private int lineStart = 0;
+    private int lineEnd = 0;
+    private boolean isASCII = true;
+    private int countLines = 0;
+
+    private GSIBlockScanner(FileChannel channel, int windowSize) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+
+        map(0);
+    }
+
+    /**
+     * Opens a scanner for the given Leica GSI file with the default window size.
+     *
+     * @param path file to scan
+     *
+     * @return opened scanner
+     *
+     * @throws IOException if the file could not be opened or mapped
+     */
+    public static GSIBlockScanner open(Path path) throws IOException {
+        return open(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Opens a scanner for the given Leica GSI file with a given window size.
+     *
+     * @param path       file to scan
+     * @param windowSize size of a mapped window in bytes
+     *
+     * @return opened scanner
+     *
+     * @throws IOException if the file could not be opened or mapped
+     */
+    public static GSIBlockScanner open(Path path, int windowSize) throws IOException {
+        if (windowSize < 1024) {
+            throw new IllegalArgumentException("window size must be at least 1024 bytes: " + windowSize);
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            return new GSIBlockScanner(channel, windowSize);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the packed information field (pos 3-6) as readable {@code String}.
+     *
+     * @param information packed information field
+     *
+     * @return information field as {@code String}
+     */
+    public static String informationToString(int information) {
+        char[] chars = new char[4];
+
+        chars[0] = (char) ((information >>> 24) & 0xFF);
+        chars[1] = (char) ((information >>> 16) & 0xFF);
+        chars[2] = (char) ((information >>> 8) & 0xFF);
+        chars[3] = (char) (information & 0xFF);
+
+        return new String(chars);
+    }
+
+    /**
+     * Closes the scanner and the underlying file channel.
+     *
+     * @throws IOException if the channel could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+    /**
+     * Appends the data (pos 8-15 or 8-23) of the block with the given index in the current line to a
+     * {@code StringBuilder}. Leading zeros are not removed.
+     *
+     * @param index         index of the block in the current line
+     * @param stringBuilder builder to append to
+     *
+     * @return the given builder
+     */
+    public StringBuilder appendData(int index, StringBuilder stringBuilder) {
+        int start = getDataStart(index);
+        int end = getDataEnd(index);
+
+        for (int i = start; i < end; i++) {
+            stringBuilder.append((char) (buffer.get(i) & 0xFF));
+        }
+
+        return stringBuilder;
+    }
+
+    /**
+     * Returns the number of blocks in the current line.
+     *
+     * @return number of blocks
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Returns the block size (number of characters) of the current line (GSI8 = 16, GSI16 = 24).
+     *
+     * @return block size
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Returns the number of scanned (not blank) lines up to now.
+     *
+     * @return number of scanned lines
+     */
+    public int getCountLines() {
+        return countLines;
+    }
+
+    /**
+     * Returns the current line decoded as UTF-8 {@code String} without trailing white spaces.
+     * <p>
+     * This is used for lines, which are not {@link #isASCII()}, and creates a new object.
+     *
+     * @return current line
+     */
+    public String getLine() {
+        byte[] bytes = new byte[lineEnd - lineStart];
+
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(lineStart + i);
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the data of the block with the given index in the current line as long value.
+     * <p>
+     * The sign is not included. Use {@link #isDataNumeric(int)} to check if the data field contains only digits,
+     * because point numbers and codes could contain letters.
+     *
+     * @param index index of the block in the current line
+     *
+     * @return data as long value
+     *
+     * @throws NumberFormatException if the data field contains not only digits
+     */
+    public long getData(int index) {
+        int start = getDataStart(index);
+        int end = getDataEnd(index);
+        long value = 0;
+
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("GSI data field contains not only digits at block " + index);
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the length of the data field of the block with the given index in the current line.
+     *
+     * @param index index of the block in the current line
+     *
+     * @return length of the data field (8 or 16)
+     */
+    public int getDataLength(int index) {
+        return getDataEnd(index) - getDataStart(index);
+    }
+
+    /**
+     * Returns the information field (pos 3-6) of the block with the given index in the current line.
+     * <p>
+     * The four ASCII characters are packed into one int value, first character in the highest byte.
+     *
+     * @param index index of the block in the current line
+     *
+     * @return packed information field
+     *
+     * @see #informationToString(int)
+     */
+    public int getInformation(int index) {
+        int start = getBlockStart(index) + 2;
+
+        return ((buffer.get(start) & 0xFF) << 24) | ((buffer.get(start + 1) & 0xFF) << 16)
+                | ((buffer.get(start + 2) & 0xFF) << 8) | (buffer.get(start + 3) & 0xFF);
+    }
+
+    /**
+     * Returns the word index (WI) of the block with the given index in the current line.
+     *
+     * @param index index of the block in the current line
+     *
+     * @return word index
+     */
+    public int getWordIndex(int index) {
+        int start = getBlockStart(index);
+
+        return (buffer.get(start) - '0') * 10 + (buffer.get(start + 1) - '0');
+    }
+
+    /**
+     * Returns true if the current line contains only ASCII characters. Otherwise the blocks of the line are not
+     * valid as single bytes and the line has to be decoded by {@link #getLine()}.
+     *
+     * @return true if the current line contains only ASCII characters
+     */
+    public boolean isASCII() {
+        return isASCII;
+    }
+
+    /**
+     * Returns true if the data field of the block with the given index contains only digits.
+     *
+     * @param index index of the block in the current line
+     *
+     * @return true if the data field is numeric
+     */
+    public boolean isDataNumeric(int index) {
+        int start = getDataStart(index);
+        int end = getDataEnd(index);
+
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+
+            if (b < '0' || b > '9') {
+                return false;
+            }
+        }
+
+        return start < end;
+    }
+
+    /**
+     * Returns true if the current line is GSI16 formatted.
+     *
+     * @return true if the current line is GSI16 formatted
+     */
+    public boolean isGSI16() {
+        return blockSize == 24;
+    }
+
+    /**
+     * Returns true if the sign (pos 7) of the block with the given index in the current line is a '-'.
+     *
+     * @param index index of the block in the current line
+     *
+     * @return true if the value is negative
+     */
+    public boolean isNegative(int index) {
+        return buffer.get(getBlockStart(index) + 6) == '-';
+    }
+
+    /**
+     * Moves the scanner to the next not blank line and returns true if there is one.
+     *
+     * @return true if the scanner is positioned on a line
+     *
+     * @throws IOException if the next window could not be mapped
+     */
+    public boolean nextLine() throws IOException {
+        while (true) {
+            int limit = buffer.limit();
+            int end = position;
+            boolean ascii = true;
+
+            while (end < limit) {
+                byte b = buffer.get(end);
+
+                if (b == '\n' || b == '\r') {
+                    break;
+                } else if (b < 0) {
+                    // byte beyond 0x7F
+                    ascii = false;
+                }
+
+                end = end + 1;
+            }
+
+            if (end == limit && windowPosition + limit < fileSize) {
+                // the line exceeds the current window
+                if (position == 0) {
+                    throw new IOException("GSI line is longer than the window size of " + windowSize + " bytes");
+                }
+
+                map(windowPosition + position);
+                continue;
+            }
+
+            if (position >= limit) {
+                blockCount = 0;
+                return false;
+            }
+
+            int start = position;
+
+            // skip the line terminator (CR, LF or CR/LF)
+            position = end;
+
+            if (position < limit && buffer.get(position) == '\r') {
+                position = position + 1;
+            }
+            if (position < limit && buffer.get(position) == '\n') {
+                position = position + 1;
+            }
+
+            // ignore trailing white spaces and blank lines
+            while (end > start && isWhiteSpace(buffer.get(end - 1))) {
+                end = end - 1;
+            }
+
+            if (end > start) {
+                isASCII = ascii;
+                prepareLine(start, end);
+                countLines = countLines + 1;
+
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Fills the block with the given index of the current line into a reusable {@link FlyweightGSIBlock}.
+     *
+     * @param index     index of the block in the current line
+     * @param flyweight block to fill
+     *
+     * @return the given block
+     */
+    public FlyweightGSIBlock fill(int index, FlyweightGSIBlock flyweight) {
+        int start = getDataStart(index);
+        int end = Math.min(getDataEnd(index), start + 16);
+
+        if (isDataNumeric(index)) {
+            return flyweight.set(end - getBlockStart(index) == 23, getWordIndex(index), getInformation(index),
+                    isNegative(index), true, getData(index), 0L, end - start);
+        } else {
+            // pack the characters, eight of them in one long value
+            long first = 0L;
+            long second = 0L;
+
+            for (int i = start; i < end; i++) {
+                long c = buffer.get(i) & 0xFF;
+                int position = i - start;
+
+                if (position < 8) {
+                    first = first | (c << (56 - 8 * position));
+                } else {
+                    second = second | (c << (56 - 8 * (position - 8)));
+                }
+            }
+
+            return flyweight.set(end - getBlockStart(index) == 23, getWordIndex(index), getInformation(index),
+                    isNegative(index), false, first, second, end - start);
+        }
+    }
+
+    /**
+     * Returns the block with the given index of the current line as {@link GSIBlock}.
+     * <p>
+     * This is a bridge to the object based converters and creates new objects.
+     *
+     * @param index index of the block in the current line
+     *
+     * @return block as {@link GSIBlock}
+     */
+    public GSIBlock toGSIBlock(int index) {
+        int start = getBlockStart(index);
+        int end = getDataEnd(index);
+        StringBuilder stringBuilder = new StringBuilder(end - start);
+
+        for (int i = start; i < end; i++) {
+            stringBuilder.append((char) (buffer.get(i) & 0xFF));
+        }
+
+        return new GSIBlock(stringBuilder.toString());
+    }
+
+    private int getBlockStart(int index) {
+        if (index < 0 || index >= blockCount) {
+            throw new IndexOutOfBoundsException("block index " + index + " for " + blockCount + " blocks");
+        }
+
+        return blocksStart + index * blockSize;
+    }
+
+    private int getDataEnd(int index) {
+        int end = getBlockStart(index) + blockSize - 1;
+
+        return Math.min(end, lineEnd);
+    }
+
+    private int getDataStart(int index) {
+        return getBlockStart(index) + 7;
+    }
+
+    private boolean isWhiteSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private void map(long newPosition) throws IOException {
+        long size = Math.min(windowSize, fileSize - newPosition);
+
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, newPosition, size);
+        windowPosition = newPosition;
+        position = 0;
+    }
+
+    private void prepareLine(int start, int end) {
+        if (buffer.get(start) == '*') {
+            blockSize = 24;
+            blocksStart = start + 1;
+        } else {
+            blockSize = 16;
+            blocksStart = start;
+        }
+
+        lineStart = start;
+        lineEnd = end;
+        blockCount = (end - blocksStart + blockSize - 1) / blockSize;
+    }
+
+} // end of GSIBlockScanner
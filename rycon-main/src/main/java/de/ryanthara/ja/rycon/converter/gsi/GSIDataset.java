@@ -0,0 +1,496 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.gsi
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.gsi;
+
+import de.ryanthara.ja.rycon.elements.FlyweightGSIBlock;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * Instances of this class holds a complete Leica GSI file in a columnar (struct of arrays) form.
+ * <p>
+ * Instead of an {@code ArrayList<ArrayList<GSIBlock>>} with one object per block, the dataset stores the blocks
+ * of all lines in parallel primitive arrays: word indices, packed information fields, signs and the data as
+ * {@code long}. Only blocks with a character beyond U+00FF keep their characters from the information field on as
+ * {@code String} (see {@link FlyweightGSIBlock#getWideText()}). The blocks of line i are stored from
+ * {@link #getLineStart(int)} till {@link #getLineEnd(int)} and are sorted by word index (WI).
+ * <p>
+ * For every found word index a column with the block index per line is build. With this column it is possible
+ * to fetch for example "the WI 83 of line i" or "all eastings" without searching.
+ * <p>
+ * To print a block, it is filled into a reusable {@link FlyweightGSIBlock}. A built dataset is not changed
+ * anymore, therefore one dataset can be read by the converters of several targets at the same time, as long as
+ * every thread uses it's own flyweight.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class GSIDataset {
+
+    /**
+     * Block index for a word index that is not in a line.
+     */
+    public static final int NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final byte FLAG_NEGATIVE = 1;
+    private static final byte FLAG_NUMERIC = 2;
+    private static final byte FLAG_GSI16 = 4;
+
+    private final int[][] columns = new int[100][];
+    private int blockCount = 0;
+    private int lineCount = 0;
+    private byte[] dataLengths;
+    private byte[] flags;
+    private byte[] wordIndices;
+    private int[] information;
+    private int[] lineOffsets;
+    private long[] data;
+    private long[] dataExtensions;
+    private String[] wideTexts;
+
+    private GSIDataset() {
+        dataLengths = new byte[INITIAL_CAPACITY];
+        flags = new byte[INITIAL_CAPACITY];
+        wordIndices = new byte[INITIAL_CAPACITY];
+        information = new int[INITIAL_CAPACITY];
+        data = new long[INITIAL_CAPACITY];
+        lineOffsets = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Builds a dataset from read Leica GSI8 or GSI16 formatted lines.
+     * <p>
+     * The lines could come from an {@code ArrayList<String>} or a {@link de.ryanthara.ja.rycon.io.LineSource}.
+     *
+     * @param readStringLines lines with GSI content
+     *
+     * @return build dataset
+     */
+    public static GSIDataset build(Iterable<String> readStringLines) {
+        GSIDataset dataset = new GSIDataset();
+        FlyweightGSIBlock flyweight = new FlyweightGSIBlock();
+
+        for (String line : readStringLines) {
+            dataset.addLine(line, flyweight);
+        }
+
+        dataset.finishBuild();
+
+        return dataset;
+    }
+
+    /**
+     * Builds a dataset directly from a Leica GSI8 or GSI16 file with a {@link GSIBlockScanner}.
+     * <p>
+     * The blocks of ASCII lines are taken from the mapped file without a {@code String} per line. The rare lines
+     * with other characters are decoded as UTF-8 like the {@link de.ryanthara.ja.rycon.io.LineReader} does.
+     *
+     * @param path file to read
+     *
+     * @return build dataset
+     *
+     * @throws IOException if the file could not be read
+     */
+    public static GSIDataset build(Path path) throws IOException {
+        GSIDataset dataset = new GSIDataset();
+        FlyweightGSIBlock flyweight = new FlyweightGSIBlock();
+
+        try (GSIBlockScanner scanner = GSIBlockScanner.open(path)) {
+            while (scanner.nextLine()) {
+                if (scanner.isASCII()) {
+                    for (int i = 0; i < scanner.getBlockCount(); i++) {
+                        dataset.add(scanner.fill(i, flyweight));
+                    }
+
+                    dataset.finishLine();
+                } else {
+                    dataset.addLine(scanner.getLine(), flyweight);
+                }
+            }
+        }
+
+        dataset.finishBuild();
+
+        return dataset;
+    }
+
+    /**
+     * Fills the block with the given index into a reusable {@link FlyweightGSIBlock}.
+     *
+     * @param block     index of the block
+     * @param flyweight block to fill
+     *
+     * @return the given block
+     */
+    public FlyweightGSIBlock fill(int block, FlyweightGSIBlock flyweight) {
+        byte flag = flags[block];
+
+        return flyweight.set((flag & FLAG_GSI16) != 0, wordIndices[block], information[block],
+                (flag & FLAG_NEGATIVE) != 0, (flag & FLAG_NUMERIC) != 0, data[block],
+                dataExtensions == null ? 0L : dataExtensions[block], dataLengths[block],
+                wideTexts == null ? null : wideTexts[block]);
+    }
+
+    /**
+     * Returns the number of blocks in the dataset.
+     *
+     * @return number of blocks
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Returns the column of a word index. The column contains the block index for every line or
+     * {@link #NOT_FOUND} if the line doesn't contain the word index.
+     * <p>
+     * The returned array is not a copy and must not be changed.
+     *
+     * @param wordIndex word index of the column
+     *
+     * @return block index per line
+     */
+    public int[] getColumn(int wordIndex) {
+        if (wordIndex < 0 || wordIndex >= columns.length || columns[wordIndex] == null) {
+            int[] empty = new int[lineCount];
+            Arrays.fill(empty, NOT_FOUND);
+
+            return empty;
+        }
+
+        return columns[wordIndex];
+    }
+
+    /**
+     * Returns the data of the block with the given index as long value without sign.
+     *
+     * @param block index of the block
+     *
+     * @return data as long value
+     *
+     * @see #isNumeric(int)
+     */
+    public long getData(int block) {
+        return data[block];
+    }
+
+    /**
+     * Returns all found word indices (WI) as one {@code TreeSet<Integer>} without duplicates.
+     *
+     * @return all found word indices
+     */
+    public TreeSet<Integer> getFoundAllWordIndices() {
+        TreeSet<Integer> foundAllWordIndices = new TreeSet<>();
+
+        for (int wordIndex = 0; wordIndex < columns.length; wordIndex++) {
+            if (columns[wordIndex] != null) {
+                foundAllWordIndices.add(wordIndex);
+            }
+        }
+
+        return foundAllWordIndices;
+    }
+
+    /**
+     * Returns all found word indices (WI) as sorted int array.
+     *
+     * @return all found word indices
+     */
+    public int[] getFoundWordIndices() {
+        int count = 0;
+
+        for (int[] column : columns) {
+            if (column != null) {
+                count = count + 1;
+            }
+        }
+
+        int[] foundWordIndices = new int[count];
+        int position = 0;
+
+        for (int wordIndex = 0; wordIndex < columns.length; wordIndex++) {
+            if (columns[wordIndex] != null) {
+                foundWordIndices[position++] = wordIndex;
+            }
+        }
+
+        return foundWordIndices;
+    }
+
+    /**
+     * Returns the packed information field (pos 3-6) of the block with the given index.
+     *
+     * @param block index of the block
+     *
+     * @return packed information field
+     */
+    public int getInformation(int block) {
+        return information[block];
+    }
+
+    /**
+     * Returns the number of lines in the dataset.
+     *
+     * @return number of lines
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Returns the index after the last block of a line.
+     *
+     * @param line index of the line
+     *
+     * @return index after the last block
+     */
+    public int getLineEnd(int line) {
+        return lineOffsets[line + 1];
+    }
+
+    /**
+     * Returns the index of the first block of a line.
+     *
+     * @param line index of the line
+     *
+     * @return index of the first block
+     */
+    public int getLineStart(int line) {
+        return lineOffsets[line];
+    }
+
+    /**
+     * Returns the word index of the block with the given index.
+     *
+     * @param block index of the block
+     *
+     * @return word index
+     */
+    public int getWordIndex(int block) {
+        return wordIndices[block];
+    }
+
+    /**
+     * Returns the index of the block with the given word index in a line or {@link #NOT_FOUND}.
+     *
+     * @param line      index of the line
+     * @param wordIndex word index to look for
+     *
+     * @return block index or {@link #NOT_FOUND}
+     */
+    public int indexOf(int line, int wordIndex) {
+        if (wordIndex < 0 || wordIndex >= columns.length || columns[wordIndex] == null) {
+            return NOT_FOUND;
+        }
+
+        return columns[wordIndex][line];
+    }
+
+    /**
+     * Returns true if the block with the given index is GSI16 formatted.
+     *
+     * @param block index of the block
+     *
+     * @return true if the block is GSI16 formatted
+     */
+    public boolean isGSI16(int block) {
+        return (flags[block] & FLAG_GSI16) != 0;
+    }
+
+    /**
+     * Returns true if the sign of the block with the given index is a '-'.
+     *
+     * @param block index of the block
+     *
+     * @return true if the value is negative
+     */
+    public boolean isNegative(int block) {
+        return (flags[block] & FLAG_NEGATIVE) != 0;
+    }
+
+    /**
+     * Returns true if the data field of the block with the given index contains only digits.
+     *
+     * @param block index of the block
+     *
+     * @return true if the data field is numeric
+     */
+    public boolean isNumeric(int block) {
+        return (flags[block] & FLAG_NUMERIC) != 0;
+    }
+
+    private void add(FlyweightGSIBlock flyweight) {
+        if (blockCount == data.length) {
+            int capacity = data.length * 2;
+
+            dataLengths = Arrays.copyOf(dataLengths, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            wordIndices = Arrays.copyOf(wordIndices, capacity);
+            information = Arrays.copyOf(information, capacity);
+            data = Arrays.copyOf(data, capacity);
+
+            if (dataExtensions != null) {
+                dataExtensions = Arrays.copyOf(dataExtensions, capacity);
+            }
+            if (wideTexts != null) {
+                wideTexts = Arrays.copyOf(wideTexts, capacity);
+            }
+        }
+
+        byte flag = 0;
+
+        if (flyweight.isNegative()) {
+            flag = (byte) (flag | FLAG_NEGATIVE);
+        }
+        if (flyweight.isNumeric()) {
+            flag = (byte) (flag | FLAG_NUMERIC);
+        }
+        if (flyweight.isGSI16()) {
+            flag = (byte) (flag | FLAG_GSI16);
+        }
+
+        // the extension is only needed for long point numbers or codes with letters
+        if (flyweight.getDataExtension() != 0L && dataExtensions == null) {
+            dataExtensions = new long[data.length];
+        }
+        if (dataExtensions != null) {
+            dataExtensions[blockCount] = flyweight.getDataExtension();
+        }
+
+        // the characters are only kept for the rare blocks, which can not be packed
+        if (flyweight.getWideText() != null && wideTexts == null) {
+            wideTexts = new String[data.length];
+        }
+        if (wideTexts != null) {
+            wideTexts[blockCount] = flyweight.getWideText();
+        }
+
+        dataLengths[blockCount] = (byte) flyweight.getDataLength();
+        flags[blockCount] = flag;
+        wordIndices[blockCount] = (byte) flyweight.getWordIndex();
+        information[blockCount] = flyweight.getInformation();
+        data[blockCount] = flyweight.getData();
+
+        blockCount = blockCount + 1;
+    }
+
+    private void addLine(String line, FlyweightGSIBlock flyweight) {
+        int size = BaseToolsGSI.getBlockSize(line);
+        int start = size == 24 ? 1 : 0;
+
+        for (int i = start; i < line.length(); i += size) {
+            add(flyweight.set(line, i, Math.min(line.length(), i + size)));
+        }
+
+        finishLine();
+    }
+
+    private void finishBuild() {
+        dataLengths = Arrays.copyOf(dataLengths, blockCount);
+        flags = Arrays.copyOf(flags, blockCount);
+        wordIndices = Arrays.copyOf(wordIndices, blockCount);
+        information = Arrays.copyOf(information, blockCount);
+        data = Arrays.copyOf(data, blockCount);
+        lineOffsets = Arrays.copyOf(lineOffsets, lineCount + 1);
+
+        if (dataExtensions != null) {
+            dataExtensions = Arrays.copyOf(dataExtensions, blockCount);
+        }
+        if (wideTexts != null) {
+            wideTexts = Arrays.copyOf(wideTexts, blockCount);
+        }
+
+        // build the columns with the first block of every word index in a line
+        for (int line = 0; line < lineCount; line++) {
+            for (int block = lineOffsets[line]; block < lineOffsets[line + 1]; block++) {
+                int wordIndex = wordIndices[block];
+
+                if (wordIndex < 0 || wordIndex >= columns.length) {
+                    continue;
+                }
+
+                if (columns[wordIndex] == null) {
+                    columns[wordIndex] = new int[lineCount];
+                    Arrays.fill(columns[wordIndex], NOT_FOUND);
+                }
+
+                if (columns[wordIndex][line] == NOT_FOUND) {
+                    columns[wordIndex][line] = block;
+                }
+            }
+        }
+    }
+
+    private void finishLine() {
+        int start = lineOffsets[lineCount];
+
+        // sort the blocks of the line by word index (insertion sort, stable and a line has only a few blocks)
+        for (int i = start + 1; i < blockCount; i++) {
+            for (int j = i; j > start && wordIndices[j - 1] > wordIndices[j]; j--) {
+                swap(j - 1, j);
+            }
+        }
+
+        if (lineCount + 2 > lineOffsets.length) {
+            lineOffsets = Arrays.copyOf(lineOffsets, lineOffsets.length * 2);
+        }
+
+        lineCount = lineCount + 1;
+        lineOffsets[lineCount] = blockCount;
+    }
+
+    private void swap(int i, int j) {
+        byte dataLength = dataLengths[i];
+        dataLengths[i] = dataLengths[j];
+        dataLengths[j] = dataLength;
+
+        byte flag = flags[i];
+        flags[i] = flags[j];
+        flags[j] = flag;
+
+        byte wordIndex = wordIndices[i];
+        wordIndices[i] = wordIndices[j];
+        wordIndices[j] = wordIndex;
+
+        int info = information[i];
+        information[i] = information[j];
+        information[j] = info;
+
+        long value = data[i];
+        data[i] = data[j];
+        data[j] = value;
+
+        if (dataExtensions != null) {
+            long extension = dataExtensions[i];
+            dataExtensions[i] = dataExtensions[j];
+            dataExtensions[j] = extension;
+        }
+
+        if (wideTexts != null) {
+            String wideText = wideTexts[i];
+            wideTexts[i] = wideTexts[j];
+            wideTexts[j] = wideText;
+        }
+    }
+
+} // end of GSIDataset
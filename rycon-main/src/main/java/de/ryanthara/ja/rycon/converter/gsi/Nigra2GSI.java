@@ -17,6 +17,7 @@
  */
 package de.ryanthara.ja.rycon.converter.gsi;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import de.ryanthara.ja.rycon.elements.GSIBlock;
 
 import java.util.ArrayList;
@@ -26,20 +27,23 @@ import java.util.StringTokenizer;
  * Instances of this class provides functions to convert a Nigra height file into Leica GSI8 or GSI16 formatted files.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class Nigra2GSI {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
 
     /**
      * Constructs a new instance of this class with a parameter for the {@code ArrayList<String>}  from Nigra or NigraWin.
      *
      * @param readStringLines read lines
+     * @param context         context of the conversion
      */
-    public Nigra2GSI(ArrayList<String> readStringLines) {
+    public Nigra2GSI(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -83,7 +87,7 @@ public class Nigra2GSI {
             }
         }
 
-        return BaseToolsGSI.lineTransformation(isGSI16, blocksInLines);
+        return BaseToolsGSI.lineTransformation(isGSI16, blocksInLines, context.getSettings());
     }
 
 } // end of Nigra2GSI
@@ -17,6 +17,7 @@
  */
 package de.ryanthara.ja.rycon.converter.gsi;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import de.ryanthara.ja.rycon.elements.GSIBlock;
 
 import java.util.ArrayList;
@@ -26,11 +27,12 @@ import java.util.ArrayList;
  * Leica GSI8 and GSI16 formatted files.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class TXT2GSI {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
 
     /**
@@ -38,9 +40,11 @@ public class TXT2GSI {
      * the read txt formatted coordinate file.
      *
      * @param readStringLines read lines
+     * @param context         context of the conversion
      */
-    public TXT2GSI(ArrayList<String> readStringLines) {
+    public TXT2GSI(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -62,51 +66,8 @@ public class TXT2GSI {
         int lineCounter = 1;
 
         for (String line : readStringLines) {
-            blocks = new ArrayList<>();
-
             String[] lineSplit = line.trim().split("\\s+");
-            switch (lineSplit.length) {
-                case 1:     // prevent fall through
-                    break;
-
-                case 2:     // no, height
-                    blocks.add(new GSIBlock(isGSI16, 11, lineCounter, lineSplit[0]));
-                    blocks.add(new GSIBlock(isGSI16, 83, lineSplit[1]));
-                    break;
-
-                case 3:     // no, code, height or no, easting, northing
-                    blocks.add(new GSIBlock(isGSI16, 11, lineCounter, lineSplit[0]));
-                    if (sourceContainsCodeColumn) {
-                        blocks.add(new GSIBlock(isGSI16, 71, lineSplit[1]));
-                        blocks.add(new GSIBlock(isGSI16, 83, lineSplit[2]));
-                    } else {
-                        blocks.add(new GSIBlock(isGSI16, 81, lineSplit[1]));
-                        blocks.add(new GSIBlock(isGSI16, 82, lineSplit[2]));
-                    }
-                    break;
-
-                case 4:     // no, easting, northing, height
-                    blocks.add(new GSIBlock(isGSI16, 11, lineCounter, lineSplit[0]));
-                    blocks.add(new GSIBlock(isGSI16, 81, lineSplit[1]));
-                    blocks.add(new GSIBlock(isGSI16, 82, lineSplit[2]));
-
-                    // necessary because of Basel Stadt CSV distinguish between points without height
-                    if (!lineSplit[3].equals("-9999")) {
-                        blocks.add(new GSIBlock(isGSI16, 83, lineSplit[3]));
-                    }
-                    break;
-
-                case 5:     // no, code, easting, northing, height
-                    blocks.add(new GSIBlock(isGSI16, 11, lineCounter, lineSplit[0]));
-                    blocks.add(new GSIBlock(isGSI16, 71, lineSplit[1]));
-                    blocks.add(new GSIBlock(isGSI16, 81, lineSplit[2]));
-                    blocks.add(new GSIBlock(isGSI16, 82, lineSplit[3]));
-                    blocks.add(new GSIBlock(isGSI16, 83, lineSplit[4]));
-                    break;
-
-                default:
-                    System.err.println("TXT2GSI.convertTXT2GSI() : line contains less or more tokens " + line);
-            }
+            blocks = prepareBlocks(isGSI16, sourceContainsCodeColumn, lineCounter, lineSplit);
 
             // check for at least one or more added elements to prevent writing empty lines
             if (blocks.size() > 0) {
@@ -115,7 +76,69 @@ public class TXT2GSI {
             }
         }
 
-        return BaseToolsGSI.lineTransformation(isGSI16, blocksInLines);
+        return BaseToolsGSI.lineTransformation(isGSI16, blocksInLines, context.getSettings());
+    }
+
+    /**
+     * Returns the GSI blocks of one line, which is given by it's tokens (e.g. no, code, easting, northing, height).
+     * <p>
+     * This method is used for text files and for the fields of CSV files.
+     *
+     * @param isGSI16                  decision which GSI format is used
+     * @param sourceContainsCodeColumn if source file contains a code column
+     * @param lineCounter              number of the line for the word index
+     * @param lineSplit                tokens of the line
+     *
+     * @return GSI blocks of the line, empty if the number of tokens doesn't fit
+     */
+    static ArrayList<GSIBlock> prepareBlocks(boolean isGSI16, boolean sourceContainsCodeColumn, int lineCounter,
+                                             String[] lineSplit) {
+        ArrayList<GSIBlock> blocks = new ArrayList<>();
+
+        switch (lineSplit.length) {
+            case 1:     // prevent fall through
+                break;
+
+            case 2:     // no, height
+                blocks.add(new GSIBlock(isGSI16, 11, lineCounter, lineSplit[0]));
+                blocks.add(new GSIBlock(isGSI16, 83, lineSplit[1]));
+                break;
+
+            case 3:     // no, code, height or no, easting, northing
+                blocks.add(new GSIBlock(isGSI16, 11, lineCounter, lineSplit[0]));
+                if (sourceContainsCodeColumn) {
+                    blocks.add(new GSIBlock(isGSI16, 71, lineSplit[1]));
+                    blocks.add(new GSIBlock(isGSI16, 83, lineSplit[2]));
+                } else {
+                    blocks.add(new GSIBlock(isGSI16, 81, lineSplit[1]));
+                    blocks.add(new GSIBlock(isGSI16, 82, lineSplit[2]));
+                }
+                break;
+
+            case 4:     // no, easting, northing, height
+                blocks.add(new GSIBlock(isGSI16, 11, lineCounter, lineSplit[0]));
+                blocks.add(new GSIBlock(isGSI16, 81, lineSplit[1]));
+                blocks.add(new GSIBlock(isGSI16, 82, lineSplit[2]));
+
+                // necessary because of Basel Stadt CSV distinguish between points without height
+                if (!lineSplit[3].equals("-9999")) {
+                    blocks.add(new GSIBlock(isGSI16, 83, lineSplit[3]));
+                }
+                break;
+
+            case 5:     // no, code, easting, northing, height
+                blocks.add(new GSIBlock(isGSI16, 11, lineCounter, lineSplit[0]));
+                blocks.add(new GSIBlock(isGSI16, 71, lineSplit[1]));
+                blocks.add(new GSIBlock(isGSI16, 81, lineSplit[2]));
+                blocks.add(new GSIBlock(isGSI16, 82, lineSplit[3]));
+                blocks.add(new GSIBlock(isGSI16, 83, lineSplit[4]));
+                break;
+
+            default:
+                System.err.println("TXT2GSI.convertTXT2GSI() : line contains less or more tokens " + String.join(" ", lineSplit));
+        }
+
+        return blocks;
     }
 
 } // end of TXT2GSI
@@ -17,6 +17,7 @@
  */
 package de.ryanthara.ja.rycon.converter.gsi;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import de.ryanthara.ja.rycon.elements.GSIBlock;
 
 import java.util.ArrayList;
@@ -26,11 +27,12 @@ import java.util.ArrayList;
  * Basel Landschaft (Switzerland) into Leica GSI8 and GSI16 formatted files.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class TXTBaselLandschaft2GSI {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
 
     /**
@@ -40,9 +42,11 @@ public class TXTBaselLandschaft2GSI {
      * The differentiation of the content is done by the called method.
      *
      * @param readStringLines read coordinate file
+     * @param context         context of the conversion
      */
-    public TXTBaselLandschaft2GSI(ArrayList<String> readStringLines) {
+    public TXTBaselLandschaft2GSI(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -116,7 +120,7 @@ public class TXTBaselLandschaft2GSI {
             }
         }
 
-        return BaseToolsGSI.lineTransformation(isGSI16, blocksInLines);
+        return BaseToolsGSI.lineTransformation(isGSI16, blocksInLines, context.getSettings());
     }
 
 } // end of TXTBaselLandschaft2GSI
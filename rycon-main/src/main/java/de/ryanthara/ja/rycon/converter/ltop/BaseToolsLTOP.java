@@ -17,15 +17,16 @@
  */
 package de.ryanthara.ja.rycon.converter.ltop;
 
-import de.ryanthara.ja.rycon.Main;
-import de.ryanthara.ja.rycon.data.PreferenceKeys;
+import de.ryanthara.ja.rycon.data.ConversionSettings;
 import de.ryanthara.ja.rycon.data.Version;
 import de.ryanthara.ja.rycon.elements.RyPoint;
 import de.ryanthara.ja.rycon.i18n.Labels;
 import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
+import de.ryanthara.ja.rycon.util.SpatialHashGrid;
 
 import java.text.DateFormat;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
 
@@ -66,70 +67,71 @@ class BaseToolsLTOP {
     /**
      * Eliminates duplicate points from an ArrayList<String>.
      * <p>
-     * Points are identical if the 3D distance is less than 3cm and the point number is the same. The point number is
-     * used for find wrong numbered points.
+     * Points are identical if the 3D distance is less than the point identical distance (default 3cm) and the
+     * point number is the same. The point numbers are compared trimmed and case insensitive.
+     * <p>
+     * The points are looked up in a {@link SpatialHashGrid} with the point identical distance as cell size, so
+     * that only points in the neighbouring cells are compared. The first point of identical points is kept and
+     * the order of the points is not changed. Points without a height are never identical.
      *
      * @param arrayList unsorted ArrayList<String>
+     * @param settings  snapshot of the conversion settings with the point identical distance
      *
-     * @return sorted ArrayList<String>
+     * @return ArrayList<String> without duplicate points
      */
-    static ArrayList<String> eliminateDuplicatePoints(ArrayList<RyPoint> arrayList) {
-        ArrayList<String> result = new ArrayList<>();
+    static ArrayList<String> eliminateDuplicatePoints(ArrayList<RyPoint> arrayList, ConversionSettings settings) {
+        ArrayList<String> result = new ArrayList<>(arrayList.size());
 
-        // set minDistance to default value and try to parse the settings value
-        double d = 0.03;
+        eliminateDuplicatePoints(arrayList, settings, result::add);
 
-        try {
-            d = Double.parseDouble(Main.pref.getUserPreference(PreferenceKeys.CONVERTER_SETTING_POINT_IDENTICAL_DISTANCE));
-        } catch (NumberFormatException e) {
-            System.err.println("Can't convert maximum distance to double in eliminateDuplicatePoints()");
-            e.printStackTrace();
-        }
+        return result;
+    }
 
-        final double minDistance = d;
+    /**
+     * Eliminates duplicate points like {@link #eliminateDuplicatePoints(ArrayList, ConversionSettings)} and hands
+     * over the print lines of the kept points in their order to the line handler.
+     *
+     * @param arrayList   unsorted ArrayList<String>
+     * @param settings    snapshot of the conversion settings with the point identical distance
+     * @param lineHandler handler of the print lines without duplicate points
+     */
+    static void eliminateDuplicatePoints(ArrayList<RyPoint> arrayList, ConversionSettings settings,
+                                         Consumer<String> lineHandler) {
+        final double minDistance = settings.getPointIdenticalDistance();
 
-        // sort the tree set of RyPoints
-        TreeSet<RyPoint> set = new TreeSet<>(new Comparator<RyPoint>() {
-            @Override
-            //public int compare(ArrayList<RyPoint> p1, ArrayList<RyPoint> p2) {
-            public int compare(RyPoint pt1, RyPoint pt2) {
-                /*
-                Compare at the three distances x, y and z before calculating the slope distance because of reducing
-                calculation time and therefore increase the speed.
-
-                Points are equal if they are in a slope distance of 'maxDistance' and have the same number!
-                 */
-                if ((pt1.getSlopeDistance(pt2) < minDistance) && (pt1.getNumber().equalsIgnoreCase(pt2.getNumber()))) {
-                    return 0;
-                } else {
-                    return 1;
-                }
+        // without a positive distance there are no identical points
+        SpatialHashGrid grid = minDistance > 0d ? new SpatialHashGrid(minDistance) : null;
+
+        for (RyPoint ryPoint : arrayList) {
+            if (ryPoint.getPrintLine().trim().equalsIgnoreCase("")) {
+                continue;
             }
-        });
 
-        // add the ArrayList anc check for duplicate points
-        set.addAll(arrayList);
+            if (grid != null) {
+                String key = ryPoint.getNumber().trim().toUpperCase(Locale.ENGLISH);
 
-        // bring back the points into an ArrayList<String>
-        for (RyPoint ryPoint : set) {
-            if (!ryPoint.getPrintLine().trim().equalsIgnoreCase("")) {
-                result.add(ryPoint.getPrintLine());
+                if (grid.getIdenticalPoint(key, ryPoint) != null) {
+                    continue;
+                }
+
+                grid.add(key, ryPoint);
             }
-        }
 
-        return result;
+            lineHandler.accept(ryPoint.getPrintLine());
+        }
     }
 
     /**
      * Fills the ArrayList<RyPoint> with ryPoint objects.
      *
      * @param ryPoints   the ArrayList<RyPoint>
+     * @param number     point number
      * @param easting    easting value
      * @param northing   northing value
      * @param height     height value
      * @param resultLine result line as string
      */
-    static void fillRyPoints(ArrayList<RyPoint> ryPoints, String easting, String northing, String height, String resultLine) {
+    static void fillRyPoints(ArrayList<RyPoint> ryPoints, String number, String easting, String northing, String height, String resultLine) {
         double x = Double.NaN, y = Double.NaN, z = Double.NaN;
 
         try {
@@ -162,15 +164,16 @@ class BaseToolsLTOP {
      * @param geoid             the geoid
      * @param eta               the eta
      * @param xi                the xi
+     * @param settings          snapshot of the conversion settings
      *
      * @return prepared result string
      */
     static String prepareStringForKOO(String number, String pointType, String toleranceCategory,
                                       String easting, String northing, String height,
-                                      String geoid, String eta, String xi) {
+                                      String geoid, String eta, String xi, ConversionSettings settings) {
 
         // check for null coordinate
-        if (Boolean.parseBoolean(Main.pref.getUserPreference(PreferenceKeys.CONVERTER_SETTING_ELIMINATE_ZERO_COORDINATE))) {
+        if (settings.isEliminateZeroCoordinate()) {
             String xyz = northing.trim().concat(easting.trim()).concat(height.trim());
             xyz = xyz.replace('.', '0');
 
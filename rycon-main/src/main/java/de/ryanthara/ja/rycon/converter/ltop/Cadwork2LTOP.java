@@ -17,6 +17,8 @@
  */
 package de.ryanthara.ja.rycon.converter.ltop;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.ConversionSettings;
 import de.ryanthara.ja.rycon.elements.RyPoint;
 import de.ryanthara.ja.rycon.tools.NumberFormatter;
 
@@ -26,20 +28,23 @@ import java.util.ArrayList;
  * This class provides functions to convert coordinate files from Cadwork CAD program into KOO files for LTOP.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class Cadwork2LTOP {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
 
     /**
      * Class constructor for read line based text files from Cadwork CAD program in node.dat file format.
      *
      * @param readStringLines {@code ArrayList<String>} with read lines from node.dat file
+     * @param context         context of the conversion
      */
-    public Cadwork2LTOP(ArrayList<String> readStringLines) {
+    public Cadwork2LTOP(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -57,6 +62,7 @@ public class Cadwork2LTOP {
         ArrayList<RyPoint> ryPoints = new ArrayList<>();
         String number, pointType, toleranceCategory, easting, northing, height, geoid, eta, xi;
         String resultLine;
+        ConversionSettings settings = context.getSettings();
 
         // remove not needed headlines
         for (int i = 0; i < 3; i++) {
@@ -98,10 +104,10 @@ public class Cadwork2LTOP {
 
                 // pick up the relevant elements from the blocks from every line
                 resultLine = BaseToolsLTOP.prepareStringForKOO(number, pointType, toleranceCategory, easting, northing,
-                        height, geoid, eta, xi);
+                        height, geoid, eta, xi, settings);
                 // fill elements in a special object structure for duplicate elimination
                 if (eliminateDuplicates) {
-                    BaseToolsLTOP.fillRyPoints(ryPoints, easting, northing, height, resultLine);
+                    BaseToolsLTOP.fillRyPoints(ryPoints, number, easting, northing, height, resultLine);
                 }
 
                 if (!resultLine.isEmpty()) {
@@ -110,7 +116,7 @@ public class Cadwork2LTOP {
             }
         }
 
-        result = eliminateDuplicates ? BaseToolsLTOP.eliminateDuplicatePoints(ryPoints) : result;
+        result = eliminateDuplicates ? BaseToolsLTOP.eliminateDuplicatePoints(ryPoints, settings) : result;
 
         return sortOutputFile ? BaseToolsLTOP.sortResult(result) : result;
     }
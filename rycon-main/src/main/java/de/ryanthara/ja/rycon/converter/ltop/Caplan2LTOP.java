@@ -17,6 +17,8 @@
  */
 package de.ryanthara.ja.rycon.converter.ltop;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.ConversionSettings;
 import de.ryanthara.ja.rycon.elements.CaplanBlock;
 import de.ryanthara.ja.rycon.elements.RyPoint;
 import de.ryanthara.ja.rycon.tools.NumberFormatter;
@@ -28,20 +30,23 @@ import java.util.ArrayList;
  * into a LTOP coordinate file.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class Caplan2LTOP {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
 
     /**
      * Constructs a new instance of this class with the read Caplan K file {@link ArrayList} string as parameter.
      *
      * @param readStringLines {@code ArrayList<String>} with lines in Caplan K format
+     * @param context         context of the conversion
      */
-    public Caplan2LTOP(ArrayList<String> readStringLines) {
+    public Caplan2LTOP(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -57,6 +62,7 @@ public class Caplan2LTOP {
         ArrayList<RyPoint> ryPoints = new ArrayList<>();
         String number, pointType, toleranceCategory, easting, northing, height, geoid, eta, xi;
         String resultLine;
+        ConversionSettings settings = context.getSettings();
 
         BaseToolsLTOP.writeCommendLine(result, BaseToolsLTOP.cartesianCoordsIdentifier);
 
@@ -94,11 +100,11 @@ public class Caplan2LTOP {
 
                 // pick up the relevant elements from the blocks from every line
                 resultLine = BaseToolsLTOP.prepareStringForKOO(number, pointType, toleranceCategory, easting, northing,
-                        height, geoid, eta, xi);
+                        height, geoid, eta, xi, settings);
 
                 // fill elements in a special object structure for duplicate elimination
                 if (eliminateDuplicates) {
-                    BaseToolsLTOP.fillRyPoints(ryPoints, easting, northing, height, resultLine);
+                    BaseToolsLTOP.fillRyPoints(ryPoints, number, easting, northing, height, resultLine);
                 }
 
                 if (!resultLine.isEmpty()) {
@@ -107,7 +113,7 @@ public class Caplan2LTOP {
             }
         }
 
-        result = eliminateDuplicates ? BaseToolsLTOP.eliminateDuplicatePoints(ryPoints) : result;
+        result = eliminateDuplicates ? BaseToolsLTOP.eliminateDuplicatePoints(ryPoints, settings) : result;
 
         return sortOutputFile ? BaseToolsLTOP.sortResult(result) : result;
     }
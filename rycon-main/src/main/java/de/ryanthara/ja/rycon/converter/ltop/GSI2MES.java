@@ -17,8 +17,8 @@
  */
 package de.ryanthara.ja.rycon.converter.ltop;
 
-import de.ryanthara.ja.rycon.converter.gsi.BaseToolsGSI;
-import de.ryanthara.ja.rycon.elements.GSIBlock;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
+import de.ryanthara.ja.rycon.elements.FlyweightGSIBlock;
 import de.ryanthara.ja.rycon.tools.NumberFormatter;
 
 import java.util.ArrayList;
@@ -30,20 +30,20 @@ import java.util.ArrayList;
  * With a little 'intelligence' it is possible to create the needed measurement file.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class GSI2MES {
 
-    private BaseToolsGSI baseToolsGSI;
+    private final GSIDataset gsiDataset;
 
     /**
-     * Class constructor for read line based text files.
+     * Class constructor for a decoded Leica GSI file.
      *
-     * @param readStringLines {@code ArrayList<String>} with lines as {@code String}
+     * @param gsiDataset decoded GSI file, which is not changed
      */
-    public GSI2MES(ArrayList<String> readStringLines) {
-        baseToolsGSI = new BaseToolsGSI(readStringLines);
+    public GSI2MES(GSIDataset gsiDataset) {
+        this.gsiDataset = gsiDataset;
     }
 
     /**
@@ -68,7 +68,11 @@ public class GSI2MES {
 
         BaseToolsLTOP.writeCommendLine(result, BaseToolsLTOP.measurementLineIdentifier);
 
-        for (ArrayList<GSIBlock> blocksAsLine : baseToolsGSI.getEncodedLinesOfGSIBlocks()) {
+        FlyweightGSIBlock block = new FlyweightGSIBlock();
+
+        for (int line = 0; line < gsiDataset.getLineCount(); line++) {
+            final int start = gsiDataset.getLineStart(line);
+
             /*
             110001+0000FS01 84..16+61720467 85..16+23483343 86..16+02593776 88..16+00000000
             110002+00009004 21.322+21956015 22.322+09463619 31..06+00253959 51..1.+0005+344 87..16+00000000
@@ -84,7 +88,7 @@ public class GSI2MES {
             DSBG15                      30.90180      5          0.000
             */
 
-            switch (blocksAsLine.size()) {
+            switch (gsiDataset.getLineEnd(line) - start) {
                 case 5:     // line contains free station
                     /*
                     110001+0000FS01 84..16+61720467 85..16+23483343 86..16+02593776 88..16+00000000
@@ -104,8 +108,8 @@ public class GSI2MES {
                     KA<--PUNKT-><TY>        <--WETTER--><-MF-><GR><-IH-><F-BUCH><-VERANTW.+DATUM->      <ZENT>
                     */
 
-                    stationNumber = String.format("%-10s", blocksAsLine.get(0).toPrintFormatCSV());
-                    instrumentHeight = String.format("%6s", blocksAsLine.get(4).toPrintFormatCSV());
+                    stationNumber = String.format("%-10s", gsiDataset.fill(start, block).toPrintFormatCSV());
+                    instrumentHeight = String.format("%6s", gsiDataset.fill(start + 4, block).toPrintFormatCSV());
 
                     String stationLine = "ST".concat(stationNumber).concat("                                  ").concat(instrumentHeight);
 
@@ -151,10 +155,10 @@ public class GSI2MES {
                     KA<--PUNKT-><TY>        <-MESSWERT-><-MF-><GR><-IH-><-SH->  <ZENT>
 
                     */
-                    number = String.format("%-10s", blocksAsLine.get(0).toPrintFormatCSV());
-                    hzAngle = String.format("%12s", NumberFormatter.fillDecimalPlace(blocksAsLine.get(1).toPrintFormatCSV(), 5));
+                    number = String.format("%-10s", gsiDataset.fill(start, block).toPrintFormatCSV());
+                    hzAngle = String.format("%12s", NumberFormatter.fillDecimalPlace(gsiDataset.fill(start + 1, block).toPrintFormatCSV(), 5));
 
-                    verticalAngle = blocksAsLine.get(2).toPrintFormatCSV();
+                    verticalAngle = gsiDataset.fill(start + 2, block).toPrintFormatCSV();
 
                     Double d = Double.parseDouble(verticalAngle);
 
@@ -165,16 +169,16 @@ public class GSI2MES {
                         verticalAngle = String.format("%12s", NumberFormatter.fillDecimalPlace(Double.toString(heightAngle), 5));
                     }
 
-                    slopeDistance = String.format("%12s", NumberFormatter.fillDecimalPlace(blocksAsLine.get(3).toPrintFormatCSV(), 5));
+                    slopeDistance = String.format("%12s", NumberFormatter.fillDecimalPlace(gsiDataset.fill(start + 3, block).toPrintFormatCSV(), 5));
 
                     // differ target foil and prism
-                    if (blocksAsLine.get(4).toString().trim().endsWith("344")) {
+                    if (gsiDataset.fill(start + 4, block).toString().trim().endsWith("344")) {
                         ppmAndPrismConstant = "5";
-                    } else if (blocksAsLine.get(4).toString().trim().endsWith("000")) {
+                    } else if (gsiDataset.fill(start + 4, block).toString().trim().endsWith("000")) {
                         ppmAndPrismConstant = "4";
                     }
 
-                    targetHeight = String.format("%6s", NumberFormatter.fillDecimalPlace(blocksAsLine.get(5).toPrintFormatCSV(), 3));
+                    targetHeight = String.format("%6s", NumberFormatter.fillDecimalPlace(gsiDataset.fill(start + 5, block).toPrintFormatCSV(), 3));
 
                     /*
                     KA<--PUNKT-><TY>        <-MESSWERT-><-MF-><GR><-IH-><-SH->  <ZENT>
@@ -0,0 +1,151 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.ltop
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.ltop;
+
+import de.ryanthara.ja.rycon.converter.codec.PointEncoder;
+import de.ryanthara.ja.rycon.converter.codec.PointTable;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.ConversionSettings;
+import de.ryanthara.ja.rycon.elements.RyPoint;
+import de.ryanthara.ja.rycon.tools.NumberFormatter;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Instances of this class encode a {@link PointTable} into a LTOP KOO file.
+ * <p>
+ * The encoder replaces the former converters from GSI, text, CSV and CSV Basel Stadt files into KOO files,
+ * which are now decoded by the {@link de.ryanthara.ja.rycon.converter.codec.PointDecoder} of the source format.
+ *
+ * @author sebastian
+ * @version 2
+ * @since 25
+ */
+public class LTOPPointEncoder implements PointEncoder {
+
+    private final ConversionContext context;
+    private final boolean eliminateDuplicates;
+    private final boolean sortOutputFile;
+
+    /**
+     * Constructs a new instance of this class with the parameters for the KOO file output.
+     *
+     * @param eliminateDuplicates eliminate duplicate coordinates within 3cm radius
+     * @param sortOutputFile      sort an output file by point number
+     * @param context             context of the conversion
+     */
+    public LTOPPointEncoder(boolean eliminateDuplicates, boolean sortOutputFile, ConversionContext context) {
+        this.eliminateDuplicates = eliminateDuplicates;
+        this.sortOutputFile = sortOutputFile;
+        this.context = context;
+    }
+
+    /**
+     * Encodes the points into a KOO file for LTOP.
+     *
+     * @param pointTable points to encode
+     *
+     * @return converted KOO file
+     */
+    @Override
+    public ArrayList<String> encode(PointTable pointTable) {
+        ArrayList<String> result = new ArrayList<>();
+
+        encodeLines(pointTable, result::add);
+
+        return sortOutputFile ? BaseToolsLTOP.sortResult(result) : result;
+    }
+
+    /**
+     * Encodes the points into a KOO file for LTOP and hands over the lines to the line handler.
+     * <p>
+     * Without sorting the lines are handed over while encoding, therefore no list of the lines is held. Only the
+     * duplicate elimination holds the points until the last point is encoded.
+     *
+     * @param pointTable  points to encode
+     * @param lineHandler handler of the KOO lines
+     */
+    @Override
+    public void encode(PointTable pointTable, Consumer<String> lineHandler) {
+        if (sortOutputFile) {
+            encode(pointTable).forEach(lineHandler);
+        } else {
+            encodeLines(pointTable, lineHandler);
+        }
+    }
+
+    /*
+     * Encodes the points unsorted. With duplicate elimination only the kept points are handed over, without the
+     * comment line.
+     */
+    private void encodeLines(PointTable pointTable, Consumer<String> lineHandler) {
+        ArrayList<RyPoint> ryPoints = new ArrayList<>();
+
+        String number, easting, northing, height;
+        String resultLine;
+        ConversionSettings settings = context.getSettings();
+
+        if (!eliminateDuplicates) {
+            ArrayList<String> commentLine = new ArrayList<>(1);
+            BaseToolsLTOP.writeCommendLine(commentLine, BaseToolsLTOP.cartesianCoordsIdentifier);
+            commentLine.forEach(lineHandler);
+        }
+
+        for (int i = 0; i < pointTable.size(); i++) {
+            // prevent wrong output with empty strings of defined length from class
+            easting = BaseToolsLTOP.easting;
+            northing = BaseToolsLTOP.northing;
+            height = BaseToolsLTOP.height;
+
+            // point number, column 1-10, aligned left
+            number = String.format("%-10s", pointTable.getNumber(i).replaceAll("\\s+", ""));
+
+            // easting E, column 33-44
+            if (pointTable.has(i, PointTable.EASTING)) {
+                easting = String.format("%12s", NumberFormatter.fillDecimalPlace(pointTable.getEasting(i), 4));
+            }
+
+            // northing N, column 45-56
+            if (pointTable.has(i, PointTable.NORTHING)) {
+                northing = String.format("%12s", NumberFormatter.fillDecimalPlace(pointTable.getNorthing(i), 4));
+            }
+
+            // height H, column 61-70, not always valued
+            if (pointTable.has(i, PointTable.HEIGHT)) {
+                height = String.format("%10s", NumberFormatter.fillDecimalPlace(pointTable.getHeight(i), 4));
+            }
+
+            resultLine = BaseToolsLTOP.prepareStringForKOO(number, BaseToolsLTOP.pointType,
+                    BaseToolsLTOP.toleranceCategory, easting, northing, height, BaseToolsLTOP.geoid,
+                    BaseToolsLTOP.eta, BaseToolsLTOP.xi, settings);
+
+            // fill elements in a special object structure for duplicate elimination
+            if (eliminateDuplicates) {
+                BaseToolsLTOP.fillRyPoints(ryPoints, number, easting, northing, height, resultLine);
+            } else if (!resultLine.isEmpty()) {
+                lineHandler.accept(resultLine);
+            }
+        }
+
+        if (eliminateDuplicates) {
+            BaseToolsLTOP.eliminateDuplicatePoints(ryPoints, settings, lineHandler);
+        }
+    }
+
+} // end of LTOPPointEncoder
@@ -17,6 +17,8 @@
  */
 package de.ryanthara.ja.rycon.converter.ltop;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.ConversionSettings;
 import de.ryanthara.ja.rycon.elements.RyPoint;
 import de.ryanthara.ja.rycon.tools.NumberFormatter;
 
@@ -27,20 +29,23 @@ import java.util.ArrayList;
  * into LTOP KOO files.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class TXTBaselLandschaft2LTOP {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
 
     /**
      * Class constructor for read line based text files.
      *
      * @param readStringLines {@code ArrayList<String>} with lines as {@code String}
+     * @param context         context of the conversion
      */
-    public TXTBaselLandschaft2LTOP(ArrayList<String> readStringLines) {
+    public TXTBaselLandschaft2LTOP(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -57,6 +62,7 @@ public class TXTBaselLandschaft2LTOP {
 
         String number, pointType, toleranceCategory, easting, northing, height, geoid, eta, xi;
         String resultLine;
+        ConversionSettings settings = context.getSettings();
 
         BaseToolsLTOP.writeCommendLine(result, BaseToolsLTOP.cartesianCoordsIdentifier);
 
@@ -104,11 +110,11 @@ public class TXTBaselLandschaft2LTOP {
 
                 // pick up the relevant elements from the blocks from every line
                 resultLine = BaseToolsLTOP.prepareStringForKOO(number, pointType, toleranceCategory, easting, northing,
-                        height, geoid, eta, xi);
+                        height, geoid, eta, xi, settings);
 
                 // fill elements in a special object structure for duplicate elimination
                 if (eliminateDuplicates) {
-                    BaseToolsLTOP.fillRyPoints(ryPoints, easting, northing, height, resultLine);
+                    BaseToolsLTOP.fillRyPoints(ryPoints, number, easting, northing, height, resultLine);
                 }
 
                 if (!resultLine.isEmpty()) {
@@ -117,7 +123,7 @@ public class TXTBaselLandschaft2LTOP {
             }
         }
 
-        result = eliminateDuplicates ? BaseToolsLTOP.eliminateDuplicatePoints(ryPoints) : result;
+        result = eliminateDuplicates ? BaseToolsLTOP.eliminateDuplicatePoints(ryPoints, settings) : result;
 
         return sortOutputFile ? BaseToolsLTOP.sortResult(result) : result;
     }
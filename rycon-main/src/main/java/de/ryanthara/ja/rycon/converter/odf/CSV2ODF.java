@@ -18,9 +18,8 @@
 package de.ryanthara.ja.rycon.converter.odf;
 
 import org.odftoolkit.simple.SpreadsheetDocument;
-import org.odftoolkit.simple.table.Cell;
-import org.odftoolkit.simple.table.Table;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 
@@ -29,13 +28,15 @@ import java.util.List;
  * into an Open Document Format spreadsheet file.
  *
  * @author sebastian
- * @version 2
+ * @version 3
  * @since 12
  */
 public class CSV2ODF {
 
     private List<String[]> readCSVLines;
     private SpreadsheetDocument spreadsheetDocument;
+    private SpreadsheetWriter writer;
+    private int rowIndex = 0;
 
     /**
      * Constructs a new instance of this class with a parameter for read line based CSV files.
@@ -46,6 +47,13 @@ public class CSV2ODF {
         this.readCSVLines = readCSVLines;
     }
 
+    /**
+     * Constructs a new instance of this class for the conversion row by row with {@link #startTable},
+     * {@link #convertRow} and {@link #finishTable}.
+     */
+    public CSV2ODF() {
+    }
+
     /**
      * Convert a CSV file element by element into an Open Document Format spreadsheet file.
      *
@@ -54,32 +62,62 @@ public class CSV2ODF {
      * @return success conversion success
      */
     public boolean convertCSV2ODS(Path sheetName) {
-        int colIndex;
-        int rowIndex = 0;
+        DocumentSpreadsheetWriter documentWriter = new DocumentSpreadsheetWriter();
 
-        try {
-            // prepare spreadsheet document
-            spreadsheetDocument = SpreadsheetDocument.newSpreadsheetDocument();
-            spreadsheetDocument.getTableByName("Sheet1").remove();
+        boolean success = convertCSV2ODS(documentWriter, sheetName);
+        spreadsheetDocument = documentWriter.getSpreadsheetDocument();
 
-            Table table = Table.newTable(spreadsheetDocument);
-            table.setTableName(sheetName.toString());
+        return success;
+    }
 
-            Cell cell;
+    /**
+     * Convert a CSV file element by element into an Open Document Format spreadsheet file.
+     * <p>
+     * The cells are written into the given {@link SpreadsheetWriter}, which holds the table in memory or
+     * streams it directly into a file.
+     *
+     * @param writer    target of the cells
+     * @param sheetName name of the sheet (file name from input file)
+     *
+     * @return success conversion success
+     */
+    public boolean convertCSV2ODS(SpreadsheetWriter writer, Path sheetName) {
+        try {
+            startTable(writer, sheetName);
 
             for (String[] csvLine : readCSVLines) {
-                colIndex = 0;
-                for (String element : csvLine) {
-                    cell = table.getCellByPosition(colIndex, rowIndex);
-                    cell.setStringValue(element);
-                    colIndex = colIndex + 1;
-                }
-                rowIndex = rowIndex + 1;
+                convertRow(csvLine);
             }
         } catch (Exception e) {
             System.err.println("ERROR: unable to create spreadsheet document object.");
         }
 
+        return finishTable();
+    }
+
+    /**
+     * Converts one row of a CSV file element by element into a row of the started table, e.g. while the
+     * CSV file is read row by row.
+     *
+     * @param csvLine fields of the row
+     */
+    public void convertRow(String[] csvLine) {
+        int colIndex = 0;
+
+        for (String element : csvLine) {
+            writer.setStringValue(colIndex, rowIndex, element);
+            colIndex = colIndex + 1;
+        }
+
+        rowIndex = rowIndex + 1;
+    }
+
+    /**
+     * Finishes the started table after the last converted row.
+     *
+     * @return success conversion success
+     */
+    public boolean finishTable() {
         return rowIndex > 1;
     }
 
@@ -92,4 +130,19 @@ public class CSV2ODF {
         return this.spreadsheetDocument;
     }
 
+    /**
+     * Starts a new table in the given {@link SpreadsheetWriter} for the conversion row by row.
+     *
+     * @param writer    target of the cells
+     * @param sheetName name of the sheet (file name from input file)
+     *
+     * @throws IOException if the table could not be started
+     */
+    public void startTable(SpreadsheetWriter writer, Path sheetName) throws IOException {
+        this.writer = writer;
+        this.rowIndex = 0;
+
+        writer.startTable(sheetName.toString());
+    }
+
 } // end of CSV2ODF
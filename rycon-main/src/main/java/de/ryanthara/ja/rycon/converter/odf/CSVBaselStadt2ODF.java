@@ -18,8 +18,6 @@
 package de.ryanthara.ja.rycon.converter.odf;
 
 import org.odftoolkit.simple.SpreadsheetDocument;
-import org.odftoolkit.simple.table.Cell;
-import org.odftoolkit.simple.table.Table;
 
 import java.nio.file.Path;
 import java.util.Arrays;
@@ -30,7 +28,7 @@ import java.util.List;
  * Basel Stadt (Switzerland) into an Open Document Format spreadsheet file.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class CSVBaselStadt2ODF {
@@ -56,25 +54,38 @@ public class CSVBaselStadt2ODF {
      * @return success conversion success
      */
     public boolean convertCSVBaselStadt2ODS(Path sheetName, boolean writeCommentRow) {
+        DocumentSpreadsheetWriter documentWriter = new DocumentSpreadsheetWriter();
+
+        boolean success = convertCSVBaselStadt2ODS(documentWriter, sheetName, writeCommentRow);
+        spreadsheetDocument = documentWriter.getSpreadsheetDocument();
+
+        return success;
+    }
+
+    /**
+     * Convert a CSV file from the geodata server Basel Stadt (Switzerland) into an Open Document Format spreadsheet file.
+     * <p>
+     * The cells are written into the given {@link SpreadsheetWriter}, which holds the table in memory or
+     * streams it directly into a file.
+     *
+     * @param writer          target of the cells
+     * @param sheetName       name of the sheet (file name from input file)
+     * @param writeCommentRow write comment row
+     *
+     * @return success conversion success
+     */
+    public boolean convertCSVBaselStadt2ODS(SpreadsheetWriter writer, Path sheetName, boolean writeCommentRow) {
         int colIndex = 0;
         int rowIndex = 0;
 
         try {
-            // prepare spreadsheet document
-            spreadsheetDocument = SpreadsheetDocument.newSpreadsheetDocument();
-            spreadsheetDocument.getTableByName("Sheet1").remove();
-
-            Table table = Table.newTable(spreadsheetDocument);
-            table.setTableName(sheetName.toString());
-
-            Cell cell;
+            writer.startTable(sheetName.toString());
 
             if (writeCommentRow) {
                 String[] commentLine = readCSVLines.get(0);
 
                 for (String description : commentLine) {
-                    cell = table.getCellByPosition(colIndex, rowIndex);
-                    cell.setStringValue(description);
+                    writer.setStringValue(colIndex, rowIndex, description);
                     colIndex = colIndex + 1;
                 }
                 rowIndex = rowIndex + 1;
@@ -87,12 +98,11 @@ public class CSVBaselStadt2ODF {
                 colIndex = 0;
 
                 for (int i = 0; i < csvLine.length; i++) {
-                    cell = table.getCellByPosition(colIndex, rowIndex);
 
                     switch (i) {
                         case 0:
                         case 1:
-                            cell.setStringValue(csvLine[i]);
+                            writer.setStringValue(colIndex, rowIndex, csvLine[i]);
                             break;
 
                         case 2:
@@ -100,10 +110,9 @@ public class CSVBaselStadt2ODF {
                         case 4:
                         case 5:
                             if (csvLine[i].equalsIgnoreCase("")) {
-                                cell.setStringValue(csvLine[i]);
+                                writer.setStringValue(colIndex, rowIndex, csvLine[i]);
                             } else {
-                                cell.setDoubleValue(Double.parseDouble(csvLine[i]));
-                                cell.setFormatString("#,##0.000");
+                                writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(csvLine[i]), "#,##0.000");
                             }
                             break;
 
@@ -112,7 +121,7 @@ public class CSVBaselStadt2ODF {
                         case 8:
                         case 9:
                         case 10:
-                            cell.setStringValue(csvLine[i]);
+                            writer.setStringValue(colIndex, rowIndex, csvLine[i]);
                             break;
 
                         default:
@@ -18,8 +18,6 @@
 package de.ryanthara.ja.rycon.converter.odf;
 
 import org.odftoolkit.simple.SpreadsheetDocument;
-import org.odftoolkit.simple.table.Cell;
-import org.odftoolkit.simple.table.Table;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -29,7 +27,7 @@ import java.util.ArrayList;
  * an OpenDocument spreadsheet file.
  *
  * @author sebastian
- * @version 2
+ * @version 3
  * @since 12
  */
 public class Cadwork2ODF {
@@ -58,19 +56,35 @@ public class Cadwork2ODF {
      * @return success conversion
      */
     public boolean convertCadwork2ODS(Path sheetName, boolean writeCommentRow) {
+        DocumentSpreadsheetWriter documentWriter = new DocumentSpreadsheetWriter();
+
+        boolean success = convertCadwork2ODS(documentWriter, sheetName, writeCommentRow);
+        spreadsheetDocument = documentWriter.getSpreadsheetDocument();
+
+        return success;
+    }
+
+    /**
+     * Converts a coordinate file from Cadwork (node.dat) into an Open Document Format spreadsheet file.
+     * <p>
+     * Cadwork node.dat files are tab separated.
+     * <p>
+     * The cells are written into the given {@link SpreadsheetWriter}, which holds the table in memory or
+     * streams it directly into a file.
+     *
+     * @param writer          target of the cells
+     * @param sheetName       name of the sheet (file name from input file)
+     * @param writeCommentRow write comment row
+     *
+     * @return success conversion
+     */
+    public boolean convertCadwork2ODS(SpreadsheetWriter writer, Path sheetName, boolean writeCommentRow) {
         int rowIndex = 0;
         int colIndex = 0;
         String[] lineSplit;
 
         try {
-            // prepare spreadsheet document
-            spreadsheetDocument = SpreadsheetDocument.newSpreadsheetDocument();
-            spreadsheetDocument.getTableByName("Sheet1").remove();
-
-            Table table = Table.newTable(spreadsheetDocument);
-            table.setTableName(sheetName.toString());
-
-            Cell cell;
+            writer.startTable(sheetName.toString());
 
             // remove not needed headlines
             for (int i = 0; i < 3; i++) {
@@ -81,8 +95,7 @@ public class Cadwork2ODF {
                 lineSplit = readStringLines.get(0).trim().split("\\s+", -1);
 
                 for (String description : lineSplit) {
-                    cell = table.getCellByPosition(colIndex, rowIndex);
-                    cell.setStringValue(description);
+                    writer.setStringValue(colIndex, rowIndex, description);
                     colIndex = colIndex + 1;
                 }
                 rowIndex = rowIndex + 1;
@@ -96,28 +109,22 @@ public class Cadwork2ODF {
 
                 lineSplit = line.trim().split("\\t", -1);
 
-                cell = table.getCellByPosition(colIndex, rowIndex);      // No
-                cell.setStringValue(lineSplit[0]);
+                writer.setStringValue(colIndex, rowIndex, lineSplit[0]);      // No
                 colIndex = colIndex + 1;
 
-                cell = table.getCellByPosition(colIndex, rowIndex);      // X
-                cell.setStringValue(lineSplit[1]);
+                writer.setStringValue(colIndex, rowIndex, lineSplit[1]);      // X
                 colIndex = colIndex + 1;
 
-                cell = table.getCellByPosition(colIndex, rowIndex);      // Y
-                cell.setStringValue(lineSplit[2]);
+                writer.setStringValue(colIndex, rowIndex, lineSplit[2]);      // Y
                 colIndex = colIndex + 1;
 
-                cell = table.getCellByPosition(colIndex, rowIndex);      // Z
-                cell.setStringValue(lineSplit[3]);
+                writer.setStringValue(colIndex, rowIndex, lineSplit[3]);      // Z
                 colIndex = colIndex + 1;
 
-                cell = table.getCellByPosition(colIndex, rowIndex);      // Code
-                cell.setStringValue(lineSplit[4]);
+                writer.setStringValue(colIndex, rowIndex, lineSplit[4]);      // Code
                 colIndex = colIndex + 1;
 
-                cell = table.getCellByPosition(colIndex, rowIndex);      // Name
-                cell.setStringValue(lineSplit[5]);
+                writer.setStringValue(colIndex, rowIndex, lineSplit[5]);      // Name
                 rowIndex = rowIndex + 1;
             }
         } catch (RuntimeException e) {
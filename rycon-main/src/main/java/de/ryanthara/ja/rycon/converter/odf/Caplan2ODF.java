@@ -21,8 +21,6 @@ import de.ryanthara.ja.rycon.elements.CaplanBlock;
 import de.ryanthara.ja.rycon.i18n.Columns;
 import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
 import org.odftoolkit.simple.SpreadsheetDocument;
-import org.odftoolkit.simple.table.Cell;
-import org.odftoolkit.simple.table.Table;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -34,7 +32,7 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.COLUMNS;
  * into an OpenDocument spreadsheet file.
  *
  * @author sebastian
- * @version 2
+ * @version 3
  * @since 12
  */
 public class Caplan2ODF {
@@ -60,42 +58,50 @@ public class Caplan2ODF {
      * @return success conversion success
      */
     public boolean convertCaplan2ODS(Path sheetName, boolean writeCommentRow) {
+        DocumentSpreadsheetWriter documentWriter = new DocumentSpreadsheetWriter();
+
+        boolean success = convertCaplan2ODS(documentWriter, sheetName, writeCommentRow);
+        spreadsheetDocument = documentWriter.getSpreadsheetDocument();
+
+        return success;
+    }
+
+    /**
+     * Converts a K file element by element into an Open Document Format spreadsheet file.
+     * <p>
+     * The cells are written into the given {@link SpreadsheetWriter}, which holds the table in memory or
+     * streams it directly into a file.
+     *
+     * @param writer          target of the cells
+     * @param sheetName       name of the sheet (file name from input file)
+     * @param writeCommentRow write comment row
+     *
+     * @return success conversion success
+     */
+    public boolean convertCaplan2ODS(SpreadsheetWriter writer, Path sheetName, boolean writeCommentRow) {
         int rowIndex = 0;
         int colIndex = 0;
 
         try {
-            // prepare spreadsheet document
-            spreadsheetDocument = SpreadsheetDocument.newSpreadsheetDocument();
-            spreadsheetDocument.getTableByName("Sheet1").remove();
-
-            Table table = Table.newTable(spreadsheetDocument);
-            table.setTableName(sheetName.toString());
-
-            Cell cell;
+            writer.startTable(sheetName.toString());
 
             if (writeCommentRow) {
-                cell = table.getCellByPosition(colIndex, rowIndex);
-                cell.setStringValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.pointNumber));
+                writer.setStringValue(colIndex, rowIndex, ResourceBundleUtils.getLangString(COLUMNS, Columns.pointNumber));
                 colIndex = colIndex + 1;
 
-                cell = table.getCellByPosition(colIndex, rowIndex);
-                cell.setStringValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.easting));
+                writer.setStringValue(colIndex, rowIndex, ResourceBundleUtils.getLangString(COLUMNS, Columns.easting));
                 colIndex = colIndex + 1;
 
-                cell = table.getCellByPosition(colIndex, rowIndex);
-                cell.setStringValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.northing));
+                writer.setStringValue(colIndex, rowIndex, ResourceBundleUtils.getLangString(COLUMNS, Columns.northing));
                 colIndex = colIndex + 1;
 
-                cell = table.getCellByPosition(colIndex, rowIndex);
-                cell.setStringValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.height));
+                writer.setStringValue(colIndex, rowIndex, ResourceBundleUtils.getLangString(COLUMNS, Columns.height));
                 colIndex = colIndex + 1;
 
-                cell = table.getCellByPosition(colIndex, rowIndex);
-                cell.setStringValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.object));
+                writer.setStringValue(colIndex, rowIndex, ResourceBundleUtils.getLangString(COLUMNS, Columns.object));
                 colIndex = colIndex + 1;
 
-                cell = table.getCellByPosition(colIndex, rowIndex);
-                cell.setStringValue(ResourceBundleUtils.getLangString(COLUMNS, Columns.attribute));
+                writer.setStringValue(colIndex, rowIndex, ResourceBundleUtils.getLangString(COLUMNS, Columns.attribute));
 
                 rowIndex = rowIndex + 1;
             }
@@ -108,19 +114,15 @@ public class Caplan2ODF {
                     CaplanBlock caplanBlock = new CaplanBlock(line);
 
                     if (caplanBlock.getNumber() != null) {
-                        cell = table.getCellByPosition(colIndex, rowIndex);
-                        cell.setStringValue(caplanBlock.getNumber());
+                        writer.setStringValue(colIndex, rowIndex, caplanBlock.getNumber());
                         colIndex = colIndex + 1;
                     }
 
                     if (caplanBlock.getEasting() != null) {
                         if (!caplanBlock.getEasting().equals("")) {
-                            cell = table.getCellByPosition(colIndex, rowIndex);
-                            cell.setDoubleValue(Double.parseDouble(caplanBlock.getEasting()));
-                            cell.setFormatString("#,##0.0000");
+                            writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(caplanBlock.getEasting()), "#,##0.0000");
                         } else {
-                            cell = table.getCellByPosition(colIndex, rowIndex);
-                            cell.setStringValue("");
+                            writer.setStringValue(colIndex, rowIndex, "");
                         }
 
                         colIndex = colIndex + 1;
@@ -128,12 +130,9 @@ public class Caplan2ODF {
 
                     if (caplanBlock.getNorthing() != null) {
                         if (!caplanBlock.getNorthing().equals("")) {
-                            cell = table.getCellByPosition(colIndex, rowIndex);
-                            cell.setDoubleValue(Double.parseDouble(caplanBlock.getNorthing()));
-                            cell.setFormatString("#,##0.0000");
+                            writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(caplanBlock.getNorthing()), "#,##0.0000");
                         } else {
-                            cell = table.getCellByPosition(colIndex, rowIndex);
-                            cell.setStringValue("");
+                            writer.setStringValue(colIndex, rowIndex, "");
                         }
 
                         colIndex = colIndex + 1;
@@ -141,26 +140,21 @@ public class Caplan2ODF {
 
                     if (caplanBlock.getHeight() != null) {
                         if (!caplanBlock.getHeight().equals("")) {
-                            cell = table.getCellByPosition(colIndex, rowIndex);
-                            cell.setDoubleValue(Double.parseDouble(caplanBlock.getHeight()));
-                            cell.setFormatString("#,##0.0000");
+                            writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(caplanBlock.getHeight()), "#,##0.0000");
                         } else {
-                            cell = table.getCellByPosition(colIndex, rowIndex);
-                            cell.setStringValue("");
+                            writer.setStringValue(colIndex, rowIndex, "");
                         }
 
                         colIndex = colIndex + 1;
                     }
 
                     if (caplanBlock.getCode() != null) {
-                        cell = table.getCellByPosition(colIndex, rowIndex);
-                        cell.setStringValue(caplanBlock.getCode());
+                        writer.setStringValue(colIndex, rowIndex, caplanBlock.getCode());
                         colIndex = colIndex + 1;
 
                         if (caplanBlock.getAttributes().size() > 0) {
                             for (String attribute : caplanBlock.getAttributes()) {
-                                cell = table.getCellByPosition(colIndex, rowIndex);
-                                cell.setStringValue(attribute);
+                                writer.setStringValue(colIndex, rowIndex, attribute);
                                 colIndex = colIndex + 1;
                             }
                         }
@@ -0,0 +1,111 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.odf
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.odf;
+
+import org.odftoolkit.simple.SpreadsheetDocument;
+import org.odftoolkit.simple.table.Cell;
+import org.odftoolkit.simple.table.Table;
+
+import java.io.IOException;
+
+/**
+ * Instances of this class fill a {@link SpreadsheetDocument} of the Simple ODF object model, which is held
+ * completely in memory and written with {@link de.ryanthara.ja.rycon.file.FileToolsODF#writeODS(String)}.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class DocumentSpreadsheetWriter implements SpreadsheetWriter {
+
+    private SpreadsheetDocument spreadsheetDocument;
+    private Table table;
+
+    /**
+     * Returns the filled SpreadsheetDocument for writing it to a file.
+     *
+     * @return SpreadsheetDocument or null if no table was started
+     */
+    public SpreadsheetDocument getSpreadsheetDocument() {
+        return spreadsheetDocument;
+    }
+
+    /**
+     * Sets a float value into the cell at the given position.
+     *
+     * @param colIndex column of the cell
+     * @param rowIndex row of the cell
+     * @param value    value to set
+     */
+    @Override
+    public void setDoubleValue(int colIndex, int rowIndex, double value) {
+        table.getCellByPosition(colIndex, rowIndex).setDoubleValue(value);
+    }
+
+    /**
+     * Sets a float value with a number format (e.g. '#,##0.000') into the cell at the given position.
+     *
+     * @param colIndex column of the cell
+     * @param rowIndex row of the cell
+     * @param value    value to set
+     * @param format   number format of the cell
+     */
+    @Override
+    public void setDoubleValue(int colIndex, int rowIndex, double value, String format) {
+        Cell cell = table.getCellByPosition(colIndex, rowIndex);
+        cell.setDoubleValue(value);
+        cell.setFormatString(format);
+    }
+
+    /**
+     * Sets a string value into the cell at the given position.
+     *
+     * @param colIndex column of the cell
+     * @param rowIndex row of the cell
+     * @param value    value to set
+     */
+    @Override
+    public void setStringValue(int colIndex, int rowIndex, String value) {
+        table.getCellByPosition(colIndex, rowIndex).setStringValue(value);
+    }
+
+    /**
+     * Starts a new table. The first table creates the spreadsheet document, it's default table is removed.
+     *
+     * @param tableName name of the table (file name from input file)
+     *
+     * @throws IOException if the spreadsheet document could not be created
+     */
+    @Override
+    public void startTable(String tableName) throws IOException {
+        if (spreadsheetDocument == null) {
+            try {
+                spreadsheetDocument = SpreadsheetDocument.newSpreadsheetDocument();
+                spreadsheetDocument.getTableByName("Sheet1").remove();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("unable to create spreadsheet document", e);
+            }
+        }
+
+        table = Table.newTable(spreadsheetDocument);
+        table.setTableName(tableName);
+    }
+
+} // end of DocumentSpreadsheetWriter
@@ -17,16 +17,13 @@
  */
 package de.ryanthara.ja.rycon.converter.odf;
 
-import de.ryanthara.ja.rycon.converter.gsi.BaseToolsGSI;
-import de.ryanthara.ja.rycon.elements.GSIBlock;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
+import de.ryanthara.ja.rycon.elements.FlyweightGSIBlock;
 import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
 import de.ryanthara.ja.rycon.i18n.WordIndices;
 import org.odftoolkit.simple.SpreadsheetDocument;
-import org.odftoolkit.simple.table.Cell;
-import org.odftoolkit.simple.table.Table;
 
 import java.nio.file.Path;
-import java.util.ArrayList;
 
 import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WORDINDICES;
 
@@ -35,21 +32,21 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WORDINDICES;
  * (GSI8 and GSI16) into an Open Document Format spreadsheet file.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class GSI2ODF {
 
-    private BaseToolsGSI baseToolsGSI;
+    private final GSIDataset gsiDataset;
     private SpreadsheetDocument spreadsheetDocument;
 
     /**
-     * Constructs a new instance of this class for read Leica GSI files as parameter.
+     * Constructs a new instance of this class for a decoded Leica GSI file as parameter.
      *
-     * @param readStringLines {@code ArrayList<String>} with lines in text format
+     * @param gsiDataset decoded GSI file, which is not changed
      */
-    public GSI2ODF(ArrayList<String> readStringLines) {
-        baseToolsGSI = new BaseToolsGSI(readStringLines);
+    public GSI2ODF(GSIDataset gsiDataset) {
+        this.gsiDataset = gsiDataset;
     }
 
     /**
@@ -60,34 +57,48 @@ public class GSI2ODF {
      * @return success conversion success
      */
     public boolean convertGSI2ODS(Path sheetName, boolean writeCommentRow) {
+        DocumentSpreadsheetWriter documentWriter = new DocumentSpreadsheetWriter();
+
+        boolean success = convertGSI2ODS(documentWriter, sheetName, writeCommentRow);
+        spreadsheetDocument = documentWriter.getSpreadsheetDocument();
+
+        return success;
+    }
+
+    /**
+     * Converts a Leica GSI file element by element into an Open Document Format spreadsheet file.
+     * <p>
+     * The cells are written into the given {@link SpreadsheetWriter}, which holds the table in memory or
+     * streams it directly into a file.
+     *
+     * @param writer          target of the cells
+     * @param sheetName       name of the sheet (file name from input file)
+     * @param writeCommentRow write comment row
+     *
+     * @return success conversion success
+     */
+    public boolean convertGSI2ODS(SpreadsheetWriter writer, Path sheetName, boolean writeCommentRow) {
         int rowIndex = 0;
         int colIndex = 0;
 
         try {
-            // prepare spreadsheet document
-            spreadsheetDocument = SpreadsheetDocument.newSpreadsheetDocument();
-            spreadsheetDocument.getTableByName("Sheet1").remove();
-
-            Table table = Table.newTable(spreadsheetDocument);
-            table.setTableName(sheetName.toString());
-
-            Cell cell;
+            writer.startTable(sheetName.toString());
 
             if (writeCommentRow) {
-                for (int wordIndex : baseToolsGSI.getFoundAllWordIndices()) {
-                    cell = table.getCellByPosition(colIndex, 0);
+                for (int wordIndex : gsiDataset.getFoundAllWordIndices()) {
+                    writer.setStringValue(colIndex, 0, ResourceBundleUtils.getLangString(WORDINDICES, WordIndices.valueOf("WI"+wordIndex)));
                     colIndex = colIndex + 1;
-
-                    cell.setStringValue(ResourceBundleUtils.getLangString(WORDINDICES, WordIndices.valueOf("WI"+wordIndex)));
                 }
                 rowIndex = rowIndex + 1;
             }
 
+            FlyweightGSIBlock block = new FlyweightGSIBlock();
+
             // fill gsi content into rows and cells
-            for (ArrayList<GSIBlock> blocksInLine : baseToolsGSI.getEncodedLinesOfGSIBlocks()) {
+            for (int line = 0; line < gsiDataset.getLineCount(); line++) {
                 colIndex = 0;
-                for (GSIBlock block : blocksInLine) {
-                    cell = table.getCellByPosition(colIndex, rowIndex);
+                for (int i = gsiDataset.getLineStart(line); i < gsiDataset.getLineEnd(line); i++) {
+                    gsiDataset.fill(i, block);
 
                     switch (block.getWordIndex()) {
                         // GENERAL
@@ -96,21 +107,21 @@ public class GSI2ODF {
                         case 13:    // Instrument type
                         case 18:    // Time format 1: pos. 8-9 year, 10-11 sec, 12-14 msec
                         case 19:    // Time format 2 : pos, 8-9 month 10-11 day, 12-13 hour, 14-15 min
-                            cell.setStringValue(block.toPrintFormatCSV());
+                            writer.setStringValue(colIndex, rowIndex, block.toPrintFormatCSV());
                             break;
 
                         // ANGLES
                         case 21:    // Horizontal Circle (Hz)
                         case 22:    // Vertical Angle (V)
                         case 25:    // Horizontal circle difference (Hz0-Hz)
-                            cell.setDoubleValue(Double.parseDouble(block.toPrintFormatCSV()));
+                            writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(block.toPrintFormatCSV()));
                             break;
 
                         // DISTANCE
                         case 31:    // Slope Distance
                         case 32:    // Horizontal Distance
                         case 33:    // Height Difference
-                            cell.setDoubleValue(Double.parseDouble(block.toPrintFormatCSV()));
+                            writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(block.toPrintFormatCSV()));
                             break;
 
                         // CODE BLOCK
@@ -123,7 +134,7 @@ public class GSI2ODF {
                         case 47:    // Information 6
                         case 48:    // Information 7
                         case 49:    // Information 8
-                            cell.setStringValue(block.toPrintFormatCSV());
+                            writer.setStringValue(colIndex, rowIndex, block.toPrintFormatCSV());
                             break;
 
                         // DISTANCE (additional information)
@@ -132,7 +143,7 @@ public class GSI2ODF {
                         case 53:    // Deviation
                         case 58:    // Signal strength
                         case 59:    // Reflector constant (1/10 mm)ppm
-                            cell.setStringValue(block.toPrintFormatCSV());
+                            writer.setStringValue(colIndex, rowIndex, block.toPrintFormatCSV());
                             break;
 
                         // POINT CODING
@@ -145,7 +156,7 @@ public class GSI2ODF {
                         case 77:    // Attribute 6
                         case 78:    // Attribute 7
                         case 79:    // Attribute 8
-                            cell.setStringValue(block.toPrintFormatCSV());
+                            writer.setStringValue(colIndex, rowIndex, block.toPrintFormatCSV());
                             break;
 
                         // COORDINATES
@@ -155,14 +166,12 @@ public class GSI2ODF {
                         case 84:    // Station Easting (E0)
                         case 85:    // Station Northing (N0)
                         case 86:    // Station Elevation (H0)
-                            cell.setDoubleValue(Double.parseDouble(block.toPrintFormatCSV()));
-                            cell.setFormatString("#,##0.0000");
+                            writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(block.toPrintFormatCSV()), "#,##0.0000");
                             break;
 
                         case 87:    // Reflector height (above ground)
                         case 88:    // Instrument height (above ground)
-                            cell.setDoubleValue(Double.parseDouble(block.toPrintFormatCSV()));
-                            cell.setFormatString("#,##0.000");
+                            writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(block.toPrintFormatCSV()), "#,##0.000");
                             break;
 
                         default:
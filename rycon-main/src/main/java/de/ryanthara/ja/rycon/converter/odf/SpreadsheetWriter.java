@@ -0,0 +1,72 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.converter.odf
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.converter.odf;
+
+import java.io.IOException;
+
+/**
+ * The SpreadsheetWriter interface is the target of the Open Document Format converters.
+ * <p>
+ * The converters fill the cells row by row and from the left to the right. Therefore an implementation can hold
+ * the whole table in memory (see {@link DocumentSpreadsheetWriter}) or can write every cell directly to the
+ * file (see {@link de.ryanthara.ja.rycon.file.ODSStreamWriter}).
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public interface SpreadsheetWriter {
+
+    /**
+     * Starts a new table. All following cells are written into this table.
+     *
+     * @param tableName name of the table (file name from input file)
+     *
+     * @throws IOException if the table could not be created
+     */
+    void startTable(String tableName) throws IOException;
+
+    /**
+     * Sets a float value into the cell at the given position.
+     *
+     * @param colIndex column of the cell
+     * @param rowIndex row of the cell
+     * @param value    value to set
+     */
+    void setDoubleValue(int colIndex, int rowIndex, double value);
+
+    /**
+     * Sets a float value with a number format (e.g. '#,##0.000') into the cell at the given position.
+     *
+     * @param colIndex column of the cell
+     * @param rowIndex row of the cell
+     * @param value    value to set
+     * @param format   number format of the cell
+     */
+    void setDoubleValue(int colIndex, int rowIndex, double value, String format);
+
+    /**
+     * Sets a string value into the cell at the given position.
+     *
+     * @param colIndex column of the cell
+     * @param rowIndex row of the cell
+     * @param value    value to set
+     */
+    void setStringValue(int colIndex, int rowIndex, String value);
+
+} // end of SpreadsheetWriter
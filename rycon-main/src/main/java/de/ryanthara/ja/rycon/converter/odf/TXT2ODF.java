@@ -18,8 +18,6 @@
 package de.ryanthara.ja.rycon.converter.odf;
 
 import org.odftoolkit.simple.SpreadsheetDocument;
-import org.odftoolkit.simple.table.Cell;
-import org.odftoolkit.simple.table.Table;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -29,7 +27,7 @@ import java.util.ArrayList;
  * into an Open Document Format spreadsheet file.
  *
  * @author sebastian
- * @version 2
+ * @version 3
  * @since 12
  */
 public class TXT2ODF {
@@ -54,25 +52,37 @@ public class TXT2ODF {
      * @return success conversion success
      */
     public boolean convertTXT2ODS(Path sheetName) {
+        DocumentSpreadsheetWriter documentWriter = new DocumentSpreadsheetWriter();
+
+        boolean success = convertTXT2ODS(documentWriter, sheetName);
+        spreadsheetDocument = documentWriter.getSpreadsheetDocument();
+
+        return success;
+    }
+
+    /**
+     * Converts a TXT file element by element into an Open Document Format spreadsheet file.
+     * <p>
+     * The cells are written into the given {@link SpreadsheetWriter}, which holds the table in memory or
+     * streams it directly into a file.
+     *
+     * @param writer    target of the cells
+     * @param sheetName name of the sheet (file name from input file)
+     *
+     * @return success conversion success
+     */
+    public boolean convertTXT2ODS(SpreadsheetWriter writer, Path sheetName) {
         int rowIndex = 0;
         int colIndex;
 
         try {
-            // prepare spreadsheet document
-            spreadsheetDocument = SpreadsheetDocument.newSpreadsheetDocument();
-            spreadsheetDocument.getTableByName("Sheet1").remove();
-
-            Table table = Table.newTable(spreadsheetDocument);
-            table.setTableName(sheetName.toString());
-
-            Cell cell;
+            writer.startTable(sheetName.toString());
 
             for (String line : readStringLines) {
                 String[] lineSplit = line.trim().split("\\s+");
                 colIndex = 0;
                 for (String element : lineSplit) {
-                    cell = table.getCellByPosition(colIndex, rowIndex);
-                    cell.setStringValue(element);
+                    writer.setStringValue(colIndex, rowIndex, element);
                     colIndex = colIndex + 1;
                 }
                 rowIndex = rowIndex + 1;
@@ -18,8 +18,6 @@
 package de.ryanthara.ja.rycon.converter.odf;
 
 import org.odftoolkit.simple.SpreadsheetDocument;
-import org.odftoolkit.simple.table.Cell;
-import org.odftoolkit.simple.table.Table;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -29,7 +27,7 @@ import java.util.ArrayList;
  * into an Open Document Format spreadsheet file.
  *
  * @author sebastian
- * @version 2
+ * @version 3
  * @since 12
  */
 public class TXTBaselLandschaft2ODF {
@@ -56,25 +54,39 @@ public class TXTBaselLandschaft2ODF {
      * @return success conversion success
      */
     public boolean convertTXTBaselLandschaft2ODS(Path sheetName, boolean writeCommentRow) {
+        DocumentSpreadsheetWriter documentWriter = new DocumentSpreadsheetWriter();
+
+        boolean success = convertTXTBaselLandschaft2ODS(documentWriter, sheetName, writeCommentRow);
+        spreadsheetDocument = documentWriter.getSpreadsheetDocument();
+
+        return success;
+    }
+
+    /**
+     * Converts a txt file from the geodata server Basel Landschaft (Switzerland) element by element into an
+     * Open Document Format spreadsheet file.
+     * <p>
+     * The cells are written into the given {@link SpreadsheetWriter}, which holds the table in memory or
+     * streams it directly into a file.
+     *
+     * @param writer          target of the cells
+     * @param sheetName       name of the sheet (file name from input file)
+     * @param writeCommentRow write comment row
+     *
+     * @return success conversion success
+     */
+    public boolean convertTXTBaselLandschaft2ODS(SpreadsheetWriter writer, Path sheetName, boolean writeCommentRow) {
         int rowIndex = 0;
         int colIndex = 0;
 
         try {
-            // prepare spreadsheet document
-            spreadsheetDocument = SpreadsheetDocument.newSpreadsheetDocument();
-            spreadsheetDocument.getTableByName("Sheet1").remove();
-
-            Table table = Table.newTable(spreadsheetDocument);
-            table.setTableName(sheetName.toString());
-
-            Cell cell;
+            writer.startTable(sheetName.toString());
 
             if (writeCommentRow) {
                 String[] lineSplit = readStringLines.get(0).trim().split("\\t", -1);
 
                 for (String description : lineSplit) {
-                    cell = table.getCellByPosition(colIndex, rowIndex);
-                    cell.setStringValue(description);
+                    writer.setStringValue(colIndex, rowIndex, description);
                     colIndex = colIndex + 1;
                 }
                 rowIndex = rowIndex + 1;
@@ -90,62 +102,45 @@ public class TXTBaselLandschaft2ODF {
 
                 switch (lineSplit.length) {
                     case 5:     // HFP file
-                        cell = table.getCellByPosition(colIndex, rowIndex);      // Art
-                        cell.setStringValue(lineSplit[0]);
+                        writer.setStringValue(colIndex, rowIndex, lineSplit[0]);      // Art
                         colIndex = colIndex + 1;
 
-                        cell = table.getCellByPosition(colIndex, rowIndex);      // Number
-                        cell.setStringValue(lineSplit[1]);
+                        writer.setStringValue(colIndex, rowIndex, lineSplit[1]);      // Number
                         colIndex = colIndex + 1;
 
-                        cell = table.getCellByPosition(colIndex, rowIndex);      // X
-                        cell.setDoubleValue(Double.parseDouble(lineSplit[2]));
-                        cell.setFormatString("#,##0.000");
+                        writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(lineSplit[2]), "#,##0.000");      // X
                         colIndex = colIndex + 1;
 
-                        cell = table.getCellByPosition(colIndex, rowIndex);      // Y
-                        cell.setDoubleValue(Double.parseDouble(lineSplit[3]));
-                        cell.setFormatString("#,##0.000");
+                        writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(lineSplit[3]), "#,##0.000");      // Y
                         colIndex = colIndex + 1;
 
-                        cell = table.getCellByPosition(colIndex, rowIndex);      // Z
-                        if (lineSplit[4].equalsIgnoreCase("NULL")) {
-                            cell.setStringValue("NULL");
+                        if (lineSplit[4].equalsIgnoreCase("NULL")) {      // Z
+                            writer.setStringValue(colIndex, rowIndex, "NULL");
                         } else {
-                            cell.setDoubleValue(Double.parseDouble(lineSplit[4]));
-                            cell.setFormatString("#,##0.000");
+                            writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(lineSplit[4]), "#,##0.000");
                         }
                         break;
 
                     case 6:     // LFP file
-                        cell = table.getCellByPosition(colIndex, rowIndex);      // Art
-                        cell.setStringValue(lineSplit[0]);
+                        writer.setStringValue(colIndex, rowIndex, lineSplit[0]);      // Art
                         colIndex = colIndex + 1;
 
-                        cell = table.getCellByPosition(colIndex, rowIndex);      // Number
-                        cell.setStringValue(lineSplit[1]);
+                        writer.setStringValue(colIndex, rowIndex, lineSplit[1]);      // Number
                         colIndex = colIndex + 1;
 
-                        cell = table.getCellByPosition(colIndex, rowIndex);      // VArt
-                        cell.setStringValue(lineSplit[2]);
+                        writer.setStringValue(colIndex, rowIndex, lineSplit[2]);      // VArt
                         colIndex = colIndex + 1;
 
-                        cell = table.getCellByPosition(colIndex, rowIndex);      // X
-                        cell.setDoubleValue(Double.parseDouble(lineSplit[3]));
-                        cell.setFormatString("#,##0.000");
+                        writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(lineSplit[3]), "#,##0.000");      // X
                         colIndex = colIndex + 1;
 
-                        cell = table.getCellByPosition(colIndex, rowIndex);      // Y
-                        cell.setDoubleValue(Double.parseDouble(lineSplit[4]));
-                        cell.setFormatString("#,##0.000");
+                        writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(lineSplit[4]), "#,##0.000");      // Y
                         colIndex = colIndex + 1;
 
-                        cell = table.getCellByPosition(colIndex, rowIndex);      // Z
-                        if (lineSplit[5].equalsIgnoreCase("NULL")) {
-                            cell.setStringValue("NULL");
+                        if (lineSplit[5].equalsIgnoreCase("NULL")) {      // Z
+                            writer.setStringValue(colIndex, rowIndex, "NULL");
                         } else {
-                            cell.setDoubleValue(Double.parseDouble(lineSplit[5]));
-                            cell.setFormatString("#,##0.000");
+                            writer.setDoubleValue(colIndex, rowIndex, Double.parseDouble(lineSplit[5]), "#,##0.000");
                         }
                         break;
 
@@ -20,8 +20,6 @@ package de.ryanthara.ja.rycon.converter.odf;
 import de.ryanthara.ja.rycon.converter.zeiss.ZeissDecoder;
 import de.ryanthara.ja.rycon.elements.ZeissBlock;
 import org.odftoolkit.simple.SpreadsheetDocument;
-import org.odftoolkit.simple.table.Cell;
-import org.odftoolkit.simple.table.Table;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -31,7 +29,7 @@ import java.util.ArrayList;
  * and it's dialects (R4, R5, REC500 and M5) into OpenDocument spreadsheet files.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class Zeiss2ODF {
@@ -60,18 +58,34 @@ public class Zeiss2ODF {
      * @return success conversion success
      */
     public boolean convertZeiss2ODS(Path sheetName) {
+        DocumentSpreadsheetWriter documentWriter = new DocumentSpreadsheetWriter();
+
+        boolean success = convertZeiss2ODS(documentWriter, sheetName);
+        spreadsheetDocument = documentWriter.getSpreadsheetDocument();
+
+        return success;
+    }
+
+    /**
+     * Converts a Zeiss REC file (R4, R5, M5 or REC500) into a text formatted file.
+     * <p>
+     * This method can differ between different Zeiss REC dialects because of the
+     * different structure and line length.
+     * <p>
+     * The cells are written into the given {@link SpreadsheetWriter}, which holds the table in memory or
+     * streams it directly into a file.
+     *
+     * @param writer    target of the cells
+     * @param sheetName name of the sheet (file name from input file)
+     *
+     * @return success conversion success
+     */
+    public boolean convertZeiss2ODS(SpreadsheetWriter writer, Path sheetName) {
         int rowIndex = 0;
         int colIndex;
 
         try {
-            // prepare spreadsheet document
-            spreadsheetDocument = SpreadsheetDocument.newSpreadsheetDocument();
-            spreadsheetDocument.getTableByName("Sheet1").remove();
-
-            Table table = Table.newTable(spreadsheetDocument);
-            table.setTableName(sheetName.toString());
-
-            Cell cell;
+            writer.startTable(sheetName.toString());
 
             for (String line : readStringLines) {
 
@@ -81,8 +95,7 @@ public class Zeiss2ODF {
                     ZeissDecoder decoder = new ZeissDecoder();
 
                     for (ZeissBlock zeissBlock : decoder.getZeissBlocks()) {
-                        cell = table.getCellByPosition(colIndex, rowIndex);
-                        cell.setStringValue(zeissBlock.getValue());
+                        writer.setStringValue(colIndex, rowIndex, zeissBlock.getValue());
                         colIndex = colIndex + 1;
                     }
                 }
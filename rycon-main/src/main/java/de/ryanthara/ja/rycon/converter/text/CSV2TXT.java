@@ -24,11 +24,12 @@ import java.util.List;
  * This class provides functions to convert a CSV formatted measurement or coordinate file into a text formatted file.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class CSV2TXT {
 
+    private final StringBuilder builder = new StringBuilder();
     private List<String[]> readCSVLines;
 
     /**
@@ -40,6 +41,12 @@ public class CSV2TXT {
         this.readCSVLines = readCSVLines;
     }
 
+    /**
+     * Constructs a new instance of this class for the conversion row by row with {@link #convertRow}.
+     */
+    public CSV2TXT() {
+    }
+
     /**
      * Converts a CSV file into a TXT file with a given separator sign.
      * <p>
@@ -52,24 +59,35 @@ public class CSV2TXT {
     public ArrayList<String> convertCSV2TXT(String separator) {
         ArrayList<String> result = new ArrayList<>();
 
-        // convert the List<String[]> into an ArrayList<String> and use known stuff (-:
         for (String[] stringField : readCSVLines) {
-            String line = "";
+            String line = convertRow(stringField, separator);
 
-            for (String s : stringField) {
-                line = line.concat(s);
-                line = line.concat(separator);
-            }
-
-            line = line.trim();
-            line = line.replace(',', '.');
-
-            // skip empty lines
-            if (!line.equals("")) {
+            if (line != null) {
                 result.add(line);
             }
         }
         return result;
     }
 
+    /**
+     * Converts one row of a CSV file into a line of a TXT file, e.g. while the CSV file is read row by row.
+     *
+     * @param stringField fields of the row
+     * @param separator   separator sign to use for conversion
+     *
+     * @return converted line or null, if the row is empty
+     */
+    public String convertRow(String[] stringField, String separator) {
+        builder.setLength(0);
+
+        for (String s : stringField) {
+            builder.append(s).append(separator);
+        }
+
+        String line = builder.toString().trim().replace(',', '.');
+
+        // skip empty lines
+        return line.equals("") ? null : line;
+    }
+
 } // end of CSV2TXT
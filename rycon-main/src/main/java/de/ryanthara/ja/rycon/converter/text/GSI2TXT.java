@@ -17,32 +17,30 @@
  */
 package de.ryanthara.ja.rycon.converter.text;
 
-import de.ryanthara.ja.rycon.converter.gsi.BaseToolsGSI;
-import de.ryanthara.ja.rycon.elements.GSIBlock;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
+import de.ryanthara.ja.rycon.elements.FlyweightGSIBlock;
 
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.TreeSet;
 
 /**
  * This class provides functions to convert Leica GSI formatted files into
  * a text formatted measurement or coordinate file.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class GSI2TXT {
 
-    private BaseToolsGSI baseToolsGSI;
+    private final GSIDataset gsiDataset;
 
     /**
-     * Class constructor for read line based GSI files.
+     * Class constructor for a decoded GSI file.
      *
-     * @param readStringLines {@code ArrayList<String>} with lines as {@code String}
+     * @param gsiDataset decoded GSI file, which is not changed
      */
-    public GSI2TXT(ArrayList<String> readStringLines) {
-        baseToolsGSI = new BaseToolsGSI(readStringLines);
+    public GSI2TXT(GSIDataset gsiDataset) {
+        this.gsiDataset = gsiDataset;
     }
 
     /**
@@ -62,7 +60,7 @@ public class GSI2TXT {
 
         String sep = separator.equals(" ") ? "    " : separator;
 
-        TreeSet<Integer> foundWordIndices = baseToolsGSI.getFoundAllWordIndices();
+        int[] foundWordIndices = gsiDataset.getFoundWordIndices();
 
         if (writeCommentLine) {
             int length;
@@ -72,16 +70,13 @@ public class GSI2TXT {
             String format = "%" + length + "." + length + "s";
             String s;
 
-            int counter = 0;
-
-            for (Integer wordIndex : foundWordIndices) {
-                s = String.format(format, wordIndex.toString());
+            for (int i = 0; i < foundWordIndices.length; i++) {
+                s = String.format(format, Integer.toString(foundWordIndices[i]));
                 commentLine = commentLine.concat(s);
 
-                if (counter < foundWordIndices.size() - 1) {
+                if (i < foundWordIndices.length - 1) {
                     commentLine = commentLine.concat(sep);
                 }
-                counter = counter + 1;
             }
 
             StringBuilder builder = new StringBuilder(commentLine);
@@ -90,41 +85,28 @@ public class GSI2TXT {
             result.add(0, commentLine);
         }
 
-        for (ArrayList<GSIBlock> blocksInLine : baseToolsGSI.getEncodedLinesOfGSIBlocks()) {
-            String newLine = "";
-
-            Iterator<Integer> it = foundWordIndices.iterator();
-
-            for (int i = 0; i < foundWordIndices.size(); i++) {
-                Integer wordIndex = it.next();
+        FlyweightGSIBlock flyweight = new FlyweightGSIBlock();
+        StringBuilder stringBuilder = new StringBuilder();
+        String emptyBlock = isGSI16 ? "                " : "        ";
 
-                String intern = "";
+        for (int line = 0; line < gsiDataset.getLineCount(); line++) {
+            stringBuilder.setLength(0);
 
-                for (GSIBlock block : blocksInLine) {
-                    // check the WI and fill in an empty block of spaces if WI doesn't match to 'column'
-                    if (wordIndex == block.getWordIndex()) {
-                        intern = block.toPrintFormatTXT();
-                        break; // important!!!
-                    } else {
-                        String emptyBlock;
+            for (int i = 0; i < foundWordIndices.length; i++) {
+                int block = gsiDataset.indexOf(line, foundWordIndices[i]);
 
-                        if (isGSI16) {
-                            emptyBlock = "                ";
-                        } else {
-                            emptyBlock = "        ";
-                        }
-
-                        intern = emptyBlock;
-                    }
+                // check the WI and fill in an empty block of spaces if WI doesn't match to 'column'
+                if (block != GSIDataset.NOT_FOUND) {
+                    gsiDataset.fill(block, flyweight).appendPrintFormatTXT(stringBuilder);
+                } else {
+                    stringBuilder.append(emptyBlock);
                 }
 
-                newLine = newLine.concat(intern);
-
-                if (i < foundWordIndices.size() - 1) {
-                    newLine = newLine.concat(sep);
+                if (i < foundWordIndices.length - 1) {
+                    stringBuilder.append(sep);
                 }
             }
-            result.add(newLine);
+            result.add(stringBuilder.toString());
         }
         return result;
     }
@@ -28,6 +28,7 @@ import java.util.List;
 public class CSV2Zeiss {
 
     private List<String[]> readCSVLines = null;
+    private int lineNumber = 0;
 
     /**
      * Constructs a new instance of this class with a parameter for read line based CSV files.
@@ -38,6 +39,12 @@ public class CSV2Zeiss {
         this.readCSVLines = readCSVLines;
     }
 
+    /**
+     * Constructs a new instance of this class for the conversion row by row with {@link #convertRow}.
+     */
+    public CSV2Zeiss() {
+    }
+
     /**
      * Converts a CSV file (nr;x;y;z or nr;code;x;y;z) into a Zeiss REC formatted file.
      *
@@ -48,45 +55,58 @@ public class CSV2Zeiss {
     public ArrayList<String> convertCSV2REC(ZeissDialect dialect) {
         ArrayList<String> result = new ArrayList<>();
 
-        int lineNumber = 0;
-
         for (String[] stringField : readCSVLines) {
-            String code = "";
-            String easting = "";
-            String northing = "";
-            String height = "";
-
-            String number = stringField[0];
-
-            lineNumber = lineNumber + 1;
-
-            switch (stringField.length) {
-                case 3:     // contains nr x y
-                    easting = stringField[1];
-                    northing = stringField[2];
-                    break;
-
-                case 4:     // contains nr x y z
-                    easting = stringField[1];
-                    northing = stringField[2];
-                    height = stringField[3];
-                    break;
-
-                case 5:     // contains nr code x y z
-                    code = stringField[1];
-                    easting = stringField[2];
-                    northing = stringField[3];
-                    height = stringField[4];
-                    break;
-
-                default:
-                    System.err.println("CSV2Zeiss.convertCSV2REC() : line contains less or more tokens " + Arrays.toString(stringField));
-            }
-
-            result.add(BaseToolsZeiss.prepareLineOfCoordinates(dialect, number, code, easting, northing, height, lineNumber));
+            result.add(convertRow(stringField, dialect));
         }
 
         return result;
     }
 
+    /**
+     * Converts one row of a CSV file (nr;x;y;z or nr;code;x;y;z) into a line of a Zeiss REC formatted file, e.g.
+     * while the CSV file is read row by row.
+     * <p>
+     * The lines are numbered continuously over all converted rows of the instance.
+     *
+     * @param stringField fields of the row
+     * @param dialect     dialect of the target file
+     *
+     * @return converted line
+     */
+    public String convertRow(String[] stringField, ZeissDialect dialect) {
+        String code = "";
+        String easting = "";
+        String northing = "";
+        String height = "";
+
+        String number = stringField[0];
+
+        lineNumber = lineNumber + 1;
+
+        switch (stringField.length) {
+            case 3:     // contains nr x y
+                easting = stringField[1];
+                northing = stringField[2];
+                break;
+
+            case 4:     // contains nr x y z
+                easting = stringField[1];
+                northing = stringField[2];
+                height = stringField[3];
+                break;
+
+            case 5:     // contains nr code x y z
+                code = stringField[1];
+                easting = stringField[2];
+                northing = stringField[3];
+                height = stringField[4];
+                break;
+
+            default:
+                System.err.println("CSV2Zeiss.convertRow() : line contains less or more tokens " + Arrays.toString(stringField));
+        }
+
+        return BaseToolsZeiss.prepareLineOfCoordinates(dialect, number, code, easting, northing, height, lineNumber);
+    }
+
 } // end of CSV2Zeiss
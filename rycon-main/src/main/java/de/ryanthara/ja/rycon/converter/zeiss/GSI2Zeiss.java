@@ -17,8 +17,8 @@
  */
 package de.ryanthara.ja.rycon.converter.zeiss;
 
-import de.ryanthara.ja.rycon.converter.gsi.BaseToolsGSI;
-import de.ryanthara.ja.rycon.elements.GSIBlock;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
+import de.ryanthara.ja.rycon.elements.FlyweightGSIBlock;
 
 import java.util.ArrayList;
 
@@ -28,17 +28,15 @@ import java.util.ArrayList;
  */
 public class GSI2Zeiss {
 
-    private BaseToolsGSI baseToolsGSI;
+    private final GSIDataset gsiDataset;
 
     /**
-     * Constructs a new instance of this class given an {@code ArrayList<String>} with
-     * the read GSI lines as {@code String}.
-     * <p>
+     * Constructs a new instance of this class given a {@link GSIDataset} with the decoded GSI file.
      *
-     * @param readStringLines read GSI lines
+     * @param gsiDataset decoded GSI file, which is not changed
      */
-    public GSI2Zeiss(ArrayList<String> readStringLines) {
-        baseToolsGSI = new BaseToolsGSI(readStringLines);
+    public GSI2Zeiss(GSIDataset gsiDataset) {
+        this.gsiDataset = gsiDataset;
     }
 
     /**
@@ -52,7 +50,9 @@ public class GSI2Zeiss {
         ArrayList<String> result = new ArrayList<>();
         int lineNumber = 0;
 
-        for (ArrayList<GSIBlock> blocksInLine : baseToolsGSI.getEncodedLinesOfGSIBlocks()) {
+        FlyweightGSIBlock block = new FlyweightGSIBlock();
+
+        for (int line = 0; line < gsiDataset.getLineCount(); line++) {
             lineNumber = lineNumber + 1;
 
             boolean isStationLine = false;
@@ -62,8 +62,8 @@ public class GSI2Zeiss {
             String horizontalAngle = "", verticalAngle = "", slopeDistance = "", targetHeight = "";
 
             // grab all the information from one line and fill them into place holders
-            for (GSIBlock block : blocksInLine) {
-                int wordIndex = block.getWordIndex();
+            for (int i = gsiDataset.getLineStart(line); i < gsiDataset.getLineEnd(line); i++) {
+                int wordIndex = gsiDataset.fill(i, block).getWordIndex();
 
                 switch (wordIndex) {
                     case 11:
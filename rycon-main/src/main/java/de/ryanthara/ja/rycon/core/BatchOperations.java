@@ -0,0 +1,224 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.core
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.core;
+
+import de.ryanthara.ja.rycon.converter.gsi.Nigra2GSI;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.DefaultKeys;
+import de.ryanthara.ja.rycon.io.CodeSplitWriter;
+import de.ryanthara.ja.rycon.io.LineReader;
+import de.ryanthara.ja.rycon.io.LineSource;
+import de.ryanthara.ja.rycon.io.LineWriter;
+import de.ryanthara.ja.rycon.util.BatchExecutor;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/**
+ * This class implements static factories for the file operations of the tidy up, the code splitter and the
+ * levelling of <tt>RyCON</tt>, which are processed file by file by a {@link BatchExecutor}.
+ * <p>
+ * The operations neither use the user interface nor the static fields of {@link de.ryanthara.ja.rycon.Main}.
+ * They are used by the widgets and the command line batch mode, which runs without a display. Every
+ * operation returns the number of written files and writes it's output file next to the read file.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public final class BatchOperations {
+
+    // file name matchers are case insensitive
+    private static final PathMatcher MATCHER_GSI = FileSystems.getDefault().getPathMatcher("regex:(?iu:.+\\.GSI)");
+    private static final PathMatcher MATCHER_GSL = FileSystems.getDefault().getPathMatcher("regex:(?iu:.+\\.GSL)");
+    private static final PathMatcher MATCHER_TXT = FileSystems.getDefault().getPathMatcher("regex:(?iu:.+\\.TXT)");
+
+    private BatchOperations() {
+    }
+
+    /**
+     * Returns the file operation, that splits Leica GSI and text files by their code into one file per code.
+     *
+     * @param insertCodeColumn      insert a code column into the text files
+     * @param writeFileWithCodeZero write a file for the code '0'
+     * @param context               context of the conversion
+     *
+     * @return file operation of the code splitter
+     */
+    public static BatchExecutor.FileOperation codeSplit(boolean insertCodeColumn, boolean writeFileWithCodeZero,
+                                                        ConversionContext context) {
+        final int maxOpenFiles = context.getSettings().getMaxOpenFiles();
+
+        return path -> {
+            if (!Files.isRegularFile(path) || !Files.isReadable(path)) {
+                System.err.println("File " + path.getFileName() + " could not be read.");
+                return 0;
+            }
+
+            final boolean isGSI = MATCHER_GSI.matches(path);
+
+            if (!isGSI && !MATCHER_TXT.matches(path)) {
+                System.err.println("File format of " + path.getFileName() + " are not supported.");
+                return 0;
+            }
+
+            final String suffix = isGSI ? ".GSI" : ".TXT";
+
+            // every line is written to the file of it's code while reading, the file is not held in memory
+            try (LineSource lineSource = LineSource.open(path);
+                 CodeSplitWriter codeSplitWriter = new CodeSplitWriter(code -> getCodeFile2Write(path, code, suffix), maxOpenFiles)) {
+                if (isGSI) {
+                    GSICodeSplit gsiCodeSplit = new GSICodeSplit(lineSource, context);
+                    gsiCodeSplit.processCodeSplit(codeSplitWriter, insertCodeColumn, writeFileWithCodeZero);
+                } else {
+                    TextCodeSplit textCodeSplit = new TextCodeSplit(lineSource, context);
+                    textCodeSplit.processCodeSplit(codeSplitWriter, insertCodeColumn, writeFileWithCodeZero);
+                }
+
+                return codeSplitWriter.getCountWrittenFiles();
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("File " + path.getFileName() + " could not be split.");
+                e.printStackTrace();
+            }
+
+            return 0;
+        };
+    }
+
+    /**
+     * Returns the file operation, that converts Leica GSI levelling files and NIGRA files (.ASC) into a levelling
+     * file for CAD programs ('_LEVEL.GSI').
+     *
+     * @param holdChangePoints hold the change points
+     * @param context          context of the conversion
+     *
+     * @return file operation of the levelling
+     */
+    public static BatchExecutor.FileOperation levelling(boolean holdChangePoints, ConversionContext context) {
+        return file2read -> {
+            LineReader lineReader = new LineReader(file2read);
+
+            if (lineReader.readFile()) {
+                ArrayList<String> readFile = lineReader.getLines();
+
+                String[] fileNameAndSuffix = file2read.getFileName().toString().split("\\.(?=[^.]+$)");
+
+                ArrayList<String> writeFile;
+
+                if (fileNameAndSuffix.length < 2) {
+                    System.err.println("File " + file2read.getFileName() + " is not supported (yet).");
+                    return 0;
+                } else if (fileNameAndSuffix[1].equalsIgnoreCase("GSI")) {
+                    GSILevelling2Cad gsiLevelling2Cad = new GSILevelling2Cad(readFile, context);
+                    writeFile = gsiLevelling2Cad.processLevelling2Cad(holdChangePoints);
+                } else if (fileNameAndSuffix[1].equalsIgnoreCase("ASC")) {
+                    // levelling files are written in GSI16 format
+                    Nigra2GSI nigra2GSI = new Nigra2GSI(readFile, context);
+                    writeFile = nigra2GSI.convertNIGRA2GSI(true);
+                } else {
+                    System.err.println("File " + file2read.getFileName() + " is not supported (yet).");
+                    return 0;
+                }
+
+                String file2write = file2read.toString().substring(0, file2read.toString().length() - 4) + "_LEVEL.GSI";
+
+                LineWriter lineWriter = new LineWriter(file2write);
+
+                if (lineWriter.writeFile(writeFile)) {
+                    return 1;
+                }
+            } else {
+                System.err.println("File " + file2read.getFileName() + " could not be read.");
+            }
+
+            return 0;
+        };
+    }
+
+    /**
+     * Returns the file operation, that cleans up Leica GSI files and LTOP GSL files.
+     * <p>
+     * Leica GSI files are cleaned up line by line from the read into the written file
+     * ('_[editString].GSI'), LTOP files are cleaned into '_[ltopString].GSI'.
+     *
+     * @param holdStations      hold the station lines
+     * @param holdControlPoints hold the control point lines
+     * @param editString        file name extension of cleaned up GSI files
+     * @param ltopString        file name extension of cleaned up LTOP files
+     * @param context           context of the conversion
+     *
+     * @return file operation of the tidy up
+     */
+    public static BatchExecutor.FileOperation tidyUp(boolean holdStations, boolean holdControlPoints,
+                                                     String editString, String ltopString, ConversionContext context) {
+        return path -> {
+            if (MATCHER_GSI.matches(path)) {
+                String file2write = path.toString().substring(0, path.toString().length() - 4) + "_" + editString + ".GSI";
+
+                // tidy up line by line from the read into the written file
+                try (LineSource lineSource = LineSource.open(path);
+                     PrintWriter printWriter = new PrintWriter(new BufferedWriter(new FileWriter(file2write)))) {
+                    GSITidyUp gsiTidyUp = new GSITidyUp(lineSource, context);
+                    gsiTidyUp.processTidyUp(holdStations, holdControlPoints, printWriter::println);
+
+                    return 1;
+                }
+            } else {
+                LineReader lineReader = new LineReader(path);
+
+                if (lineReader.readFile()) {
+                    if (MATCHER_GSL.matches(path)) {
+                        GSILTOPClean gsiltopClean = new GSILTOPClean(lineReader.getLines(), context);
+                        ArrayList<String> writeFile = gsiltopClean.processLTOPClean();
+                        String file2write = path.toString().substring(0, path.toString().length() - 4) + "_" + ltopString + ".GSI";
+
+                        // write file line by line
+                        LineWriter lineWriter = new LineWriter(file2write);
+                        if (lineWriter.writeFile(writeFile)) {
+                            return 1;
+                        }
+                    }
+                } else {
+                    System.err.println("File " + path.getFileName() + " could not be read.");
+                }
+
+                return 0;
+            }
+        };
+    }
+
+    /*
+     * Returns the path of the output file of one code ('_[codeString]-[code].[suffix]').
+     */
+    private static Path getCodeFile2Write(Path file2read, int code, String suffix) {
+        final String paramCodeString = DefaultKeys.PARAM_CODE_STRING.getValue();
+
+        return Paths.get(file2read.toString().substring(0, file2read.toString().length() - 4) + "_" +
+                paramCodeString + "-" + code + suffix);
+    }
+
+} // end of BatchOperations
@@ -18,22 +18,33 @@
 package de.ryanthara.ja.rycon.core;
 
 import de.ryanthara.ja.rycon.converter.gsi.BaseToolsGSI;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.ConversionSettings;
 import de.ryanthara.ja.rycon.elements.GSIBlock;
 import de.ryanthara.ja.rycon.elements.RyBlock;
-import de.ryanthara.ja.rycon.tools.SortHelper;
+import de.ryanthara.ja.rycon.io.CodeSplitWriter;
+import de.ryanthara.ja.rycon.util.CodePartitioner;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.TreeSet;
 
 /**
  * Instances of this class provides functions to split a Leica GSI file by code into separate files.
+ * <p>
+ * The split can be done in memory with {@link #processCodeSplit(boolean, boolean)} or line by line into a
+ * {@link CodeSplitWriter} with {@link #processCodeSplit(CodeSplitWriter, boolean, boolean)}.
  *
  * @author sebastian
- * @version 2
+ * @version 5
  * @since 12
  */
 public class GSICodeSplit {
 
+    private static final int NO_CODE = 987789;
+
+    private final ConversionContext context;
+    private Iterable<String> lines;
     private ArrayList<String> readStringLines;
     private TreeSet<Integer> foundCodes;
 
@@ -41,12 +52,28 @@ public class GSICodeSplit {
      * Constructs a new instance of this class given a read line based text file in Leica GSI format.
      *
      * @param readStringLines {@code ArrayList<String>} with lines as {@code String}
+     * @param context         context of the conversion
      */
-    public GSICodeSplit(ArrayList<String> readStringLines) {
+    public GSICodeSplit(ArrayList<String> readStringLines, ConversionContext context) {
+        this.context = context;
+        this.lines = readStringLines;
         this.readStringLines = readStringLines;
         foundCodes = new TreeSet<>();
     }
 
+    /**
+     * Constructs a new instance of this class given a source of lines in Leica GSI format (e.g. a
+     * {@link de.ryanthara.ja.rycon.io.LineSource}), which is read only once.
+     *
+     * @param lines   source of the lines in Leica GSI format
+     * @param context context of the conversion
+     */
+    public GSICodeSplit(Iterable<String> lines, ConversionContext context) {
+        this.context = context;
+        this.lines = lines;
+        foundCodes = new TreeSet<>();
+    }
+
     /**
      * Returns the found codes as {@code TreeSet<Integer>}.
      * <p>
@@ -70,105 +97,138 @@ public class GSICodeSplit {
      * @return converted {@code ArrayList<ArrayList<String>>} for writing
      */
     public ArrayList<ArrayList<String>> processCodeSplit(boolean insertCodeBlock, boolean writeLinesWithoutCode) {
-        ArrayList<ArrayList<String>> result = new ArrayList<>();
-        ArrayList<RyBlock> linesWithCode = new ArrayList<>();
-        ArrayList<RyBlock> linesWithOutCode = new ArrayList<>();
+        if (readStringLines == null) {
+            readStringLines = new ArrayList<>();
+
+            for (String line : lines) {
+                readStringLines.add(line);
+            }
+        }
+
+        ArrayList<ArrayList<String>> result;
+        CodePartitioner linesWithCode = new CodePartitioner(readStringLines.size());
+        ArrayList<String> linesWithOutCode = new ArrayList<>();
+        ConversionSettings settings = context.getSettings();
 
         // transform lines into GSI-Blocks
-        BaseToolsGSI baseToolsGSI = new BaseToolsGSI(readStringLines);
+        BaseToolsGSI baseToolsGSI = new BaseToolsGSI(readStringLines, settings);
         ArrayList<ArrayList<GSIBlock>> gsiBlocks = baseToolsGSI.getEncodedLinesOfGSIBlocks();
 
         for (ArrayList<GSIBlock> blocksInLines : gsiBlocks) {
-            // helper for code handling inside the switch statements
-            int code = -1;
-            int validCheckHelperValue = 0;
-            String newLine = null;
-
-            for (GSIBlock block : blocksInLines) {
-                switch (block.getWordIndex()) {
-                    case 11:
-                        newLine = block.toString();
-                        break;
-
-                    case 71:
-                        code = Integer.parseInt(block.getDataGSI());
-                        if (insertCodeBlock) {
-                            newLine = newLine != null ? newLine.concat(" " + block.toString()) : null;
-                        }
-                        break;
-
-                    case 81:
-                        assert newLine != null;
-                        newLine = newLine.concat(" " + block.toString());
-                        validCheckHelperValue += 1;
-                        break;
-
-                    case 82:
-                        assert newLine != null;
-                        newLine = newLine.concat(" " + block.toString());
-                        validCheckHelperValue += 3;
-                        break;
-
-                    case 83:
-                        assert newLine != null;
-                        newLine = newLine.concat(" " + block.toString());
-                        validCheckHelperValue += 6;
-                        break;
-
-                    default:
-                        System.err.println("GSICodeSplit.processCodeSplit() : found wrong word index " + block.toPrintFormatCSV());
-                }
-            }
-
-            newLine = BaseToolsGSI.prepareLineEnding(newLine);
+            RyBlock splitLine = splitLine(blocksInLines, insertCodeBlock, settings);
 
             // split lines with and without code
-            if (((code != -1) & (newLine != null)) & validCheckHelperValue > 1) {
-                foundCodes.add(code);
-                linesWithCode.add(new RyBlock(code, newLine));
+            if (splitLine.getNumber() != -NO_CODE) {
+                linesWithCode.add(splitLine.getNumber(), splitLine.getString());
             } else {
-                // use 'blind' code '987789' for this
-                linesWithOutCode.add(new RyBlock(-987789, newLine));
+                linesWithOutCode.add(splitLine.getString());
             }
         }
 
-        SortHelper.sortByCode(linesWithCode);
+        // groups of lines ordered by code, each group keeps the order of the lines
+        result = linesWithCode.getGroups();
 
-        // helpers for generating a new array for every found code
-        if (linesWithCode.size() > 0) {
-            int code = linesWithCode.get(0).getNumber();
-            ArrayList<String> lineStorage = new ArrayList<>();
+        // insert lines without code for writing
+        if (writeLinesWithoutCode && (linesWithOutCode.size() > 0)) {
+            foundCodes.add(NO_CODE);
+            result.add(linesWithOutCode);
+        }
 
-            // fill in the sorted textBlocks into an ArrayList<ArrayList<String>> for writing it out
-            for (RyBlock ryBlock : linesWithCode) {
-                if (code == ryBlock.getNumber()) {
-                    lineStorage.add(ryBlock.getString());
-                } else {
-                    result.add(lineStorage);
-                    lineStorage = new ArrayList<>(); // do not use temp.clear()!!!
-                    lineStorage.add(ryBlock.getString());
-                }
+        context.getProgress().processed(readStringLines.size());
 
-                code = ryBlock.getNumber();
-            }
+        return result;
+    }
 
-            // insert last element
-            result.add(lineStorage);
-        }
+    /**
+     * Splits a code based Leica GSI file line by line into separate files by code.
+     * <p>
+     * Every line is appended to the file of it's code in the {@link CodeSplitWriter} as soon as it is read,
+     * therefore the lines are not held in memory. The files are the same as the ones of
+     * {@link #processCodeSplit(boolean, boolean)}.
+     *
+     * @param codeSplitWriter       writer for the files of the codes
+     * @param insertCodeBlock       if code block is insert into the result string
+     * @param writeLinesWithoutCode if lines without code should be written to a separate file
+     *
+     * @throws IOException if one of the files could not be written
+     */
+    public void processCodeSplit(CodeSplitWriter codeSplitWriter, boolean insertCodeBlock,
+                                 boolean writeLinesWithoutCode) throws IOException {
+        ConversionSettings settings = context.getSettings();
+        int processedLines = 0;
 
-        // insert lines without code for writing
-        if (writeLinesWithoutCode && (linesWithOutCode.size() > 0)) {
-            ArrayList<String> temp = new ArrayList<>();
+        for (String line : lines) {
+            processedLines = processedLines + 1;
+
+            RyBlock splitLine = splitLine(BaseToolsGSI.encodeLine(line), insertCodeBlock, settings);
 
-            for (RyBlock ryBlock : linesWithOutCode) {
-                temp.add(ryBlock.getString());
+            if (splitLine.getNumber() != -NO_CODE) {
+                codeSplitWriter.write(splitLine.getNumber(), splitLine.getString());
+            } else if (writeLinesWithoutCode) {
+                foundCodes.add(NO_CODE);
+                codeSplitWriter.write(NO_CODE, splitLine.getString());
             }
+        }
+
+        context.getProgress().processed(processedLines);
+    }
 
-            foundCodes.add(987789);
-            result.add(temp);
+    /*
+     * Builds the line to write of the encoded GSI blocks of one line. The number of the returned block is the code
+     * of the line, or the 'blind' code '-987789' for lines without code.
+     */
+    private RyBlock splitLine(ArrayList<GSIBlock> blocksInLines, boolean insertCodeBlock, ConversionSettings settings) {
+        // helper for code handling inside the switch statements
+        int code = -1;
+        int validCheckHelperValue = 0;
+        String newLine = null;
+
+        for (GSIBlock block : blocksInLines) {
+            switch (block.getWordIndex()) {
+                case 11:
+                    newLine = block.toString();
+                    break;
+
+                case 71:
+                    code = Integer.parseInt(block.getDataGSI());
+                    if (insertCodeBlock) {
+                        newLine = newLine != null ? newLine.concat(" " + block.toString()) : null;
+                    }
+                    break;
+
+                case 81:
+                    assert newLine != null;
+                    newLine = newLine.concat(" " + block.toString());
+                    validCheckHelperValue += 1;
+                    break;
+
+                case 82:
+                    assert newLine != null;
+                    newLine = newLine.concat(" " + block.toString());
+                    validCheckHelperValue += 3;
+                    break;
+
+                case 83:
+                    assert newLine != null;
+                    newLine = newLine.concat(" " + block.toString());
+                    validCheckHelperValue += 6;
+                    break;
+
+                default:
+                    System.err.println("GSICodeSplit.processCodeSplit() : found wrong word index " + block.toPrintFormatCSV());
+            }
         }
 
-        return result;
+        newLine = BaseToolsGSI.prepareLineEnding(newLine, settings);
+
+        if (((code != -1) & (newLine != null)) & validCheckHelperValue > 1) {
+            foundCodes.add(code);
+
+            return new RyBlock(code, newLine);
+        } else {
+            // use 'blind' code '987789' for this
+            return new RyBlock(-NO_CODE, newLine);
+        }
     }
 
 } // end of GSICodeSplit
@@ -17,20 +17,17 @@
  */
 package de.ryanthara.ja.rycon.core;
 
-import de.ryanthara.ja.rycon.Main;
 import de.ryanthara.ja.rycon.converter.gsi.BaseToolsGSI;
-import de.ryanthara.ja.rycon.data.DefaultKeys;
-import de.ryanthara.ja.rycon.gui.custom.MessageBoxes;
-import de.ryanthara.ja.rycon.i18n.Labels;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.ConversionSettings;
 import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
 import de.ryanthara.ja.rycon.i18n.Warnings;
-import org.eclipse.swt.SWT;
+import de.ryanthara.ja.rycon.util.IdentifierMatcher;
 
 import java.util.ArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
 import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WARNINGS;
 
 /**
@@ -48,24 +45,31 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WARNINGS;
  * <li>measurement points</li>
  * <li>control point ('STKE')</li>
  * </ul>
+ * <p>
+ * The free station and control point identifiers are taken from the {@link ConversionSettings} and every line is
+ * scanned once for both of them with the precompiled {@link IdentifierMatcher}. Stations without a control point
+ * are reported as warning to the {@link ConversionContext}, instead of interrupting the clean up with a dialog.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
 public class GSILTOPClean {
 
     private final static Logger logger = Logger.getLogger(GSILTOPClean.class.getName());
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
 
     /**
      * Constructs a new instance of this class given a read line based Leica GSI formatted file.
      *
      * @param readStringLines {@code ArrayList<String>} with lines as {@code String}
+     * @param context         context of the conversion
      */
-    public GSILTOPClean(ArrayList<String> readStringLines) {
+    public GSILTOPClean(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -84,14 +88,17 @@ public class GSILTOPClean {
      * <li>control point ('STKE')</li>
      * </ul>
      * <p>
-     * Free Station lines are identified by the defined free station parameter.
+     * Free Station lines are identified by the free station identifier of the settings.
      *
      * @return clean up LTOP MES file
      */
     public ArrayList<String> processLTOPClean() {
 
-        final String paramFreeStationString = DefaultKeys.PARAM_FREE_STATION_STRING.getValue();
-        final String paramControlPointString = DefaultKeys.PARAM_CONTROL_POINT_STRING.getValue();
+        ConversionSettings settings = context.getSettings();
+
+        // the identifiers are searched without the leading zeros, therefore the GSI8 matcher fits for both formats
+        final String paramFreeStationString = settings.getFreeStationIdentifier();
+        final IdentifierMatcher identifierMatcher = settings.getIdentifierMatcher(false);
 
         ArrayList<String> result = new ArrayList<>();
 
@@ -103,7 +110,8 @@ public class GSILTOPClean {
          */
 
         int range = 0, status = 0;
-        String currentStation = "", previousLine = "";
+        int previousMask = 0;
+        String currentStation = "";
 
         for (String line : readStringLines) {
             int size = BaseToolsGSI.getBlockSize(line);
@@ -113,11 +121,12 @@ public class GSILTOPClean {
             }
 
             int tokens = (line.length() + size - 1) / size;
+            int mask = identifierMatcher.match(line);
 
             switch (tokens) {
                 case 5:         // station line
                     // detect two free station lines and delete the first one of them from the result array list
-                    if (previousLine.contains(paramFreeStationString)) {
+                    if ((previousMask & ConversionSettings.FREE_STATION_NAME) != 0) {
                         result.remove(result.size() - 1);
                     }
 
@@ -131,20 +140,19 @@ public class GSILTOPClean {
                 case 6:         // polar measurement line
                     // previous line contains a free station and a maximum of 4 reference points is used
                     if ((status == 0) & (range < 4)) {
-                        if (line.contains(paramControlPointString)) {     // control point
+                        if ((mask & ConversionSettings.CONTROL_POINT) != 0) {     // control point
                             range = range + 1;
                             status = 5;
                         } else {                                                    // reference point
                             range = range + 1;
                         }
                     } else if ((status == 0) & (range == 4)) {                       // no control point in range
-                        MessageBoxes.showMessageBox(Main.shell, SWT.ICON_WARNING,
-                                ResourceBundleUtils.getLangString(LABELS, Labels.warningTextMsgBox),
-                                String.format(ResourceBundleUtils.getLangString(WARNINGS, Warnings.noControlPointsLTOP), currentStation));
+                        context.warning(String.format(ResourceBundleUtils.getLangString(WARNINGS,
+                                Warnings.noControlPointsLTOP), currentStation));
 
                         range = range + 1;
                     } else {
-                        if (!line.contains(paramControlPointString)) {
+                        if ((mask & ConversionSettings.CONTROL_POINT) == 0) {
                             result.add(line);
                         }
                     }
@@ -154,9 +162,11 @@ public class GSILTOPClean {
                     logger.log(Level.FINE, "line contains less or more tokens than expected. " + line);
             }
 
-            previousLine = line;
+            previousMask = mask;
         }
 
+        context.getProgress().processed(readStringLines.size());
+
         return result;
     }
 
@@ -18,6 +18,8 @@
 package de.ryanthara.ja.rycon.core;
 
 import de.ryanthara.ja.rycon.converter.gsi.BaseToolsGSI;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.ConversionSettings;
 import de.ryanthara.ja.rycon.elements.GSIBlock;
 
 import java.util.ArrayList;
@@ -30,20 +32,23 @@ import java.util.List;
  * Therefore a raising northing and easting coordinate value is added to every read height line.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class GSILevelling2Cad {
 
+    private final ConversionContext context;
     private ArrayList<String> readStringLines;
 
     /**
      * Constructs a new instance of this class given a read line based text file in the Leica GSI format.
      *
      * @param readStringLines {@code ArrayList<String>} with lines in Leica GSI format
+     * @param context         context of the conversion
      */
-    public GSILevelling2Cad(ArrayList<String> readStringLines) {
+    public GSILevelling2Cad(ArrayList<String> readStringLines, ConversionContext context) {
         this.readStringLines = readStringLines;
+        this.context = context;
     }
 
     /**
@@ -63,6 +68,7 @@ public class GSILevelling2Cad {
         String newLine;
 
         ArrayList<String> result = new ArrayList<>();
+        ConversionSettings settings = context.getSettings();
 
         /*
         Strategy:
@@ -118,7 +124,7 @@ public class GSILevelling2Cad {
                         String leveledRounded = leveled.substring(0, 4) + "26" + leveled.substring(6, 7) + "0" + leveled.substring(7, leveled.length() - 1);
 
                         newLine = newLine.concat(" " + leveledRounded);
-                        newLine = BaseToolsGSI.prepareLineEnding(newLine);
+                        newLine = BaseToolsGSI.prepareLineEnding(newLine, settings);
 
                         result.add(newLine);
                         lineCounter = lineCounter + 1;
@@ -129,6 +135,8 @@ public class GSILevelling2Cad {
                     System.err.println("GSILevelling2Cad.processLevelling2Cad() : line contains less or more tokens " + lineSplit);
             }
         }
+        context.getProgress().processed(readStringLines.size());
+
         return result;
     }
 
@@ -17,31 +17,71 @@
  */
 package de.ryanthara.ja.rycon.core;
 
-import de.ryanthara.ja.rycon.Main;
 import de.ryanthara.ja.rycon.converter.gsi.BaseToolsGSI;
-import de.ryanthara.ja.rycon.data.PreferenceKeys;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.ConversionSettings;
+import de.ryanthara.ja.rycon.util.IdentifierMatcher;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.function.Consumer;
 
 /**
  * Instances of this class provides functions to clean up a Leica GSI formatted file with some smart functions.
+ * <p>
+ * The tidy up works in one pass over the lines with a look-behind of one line. A line is handed out as soon as
+ * the following line has been classified, because a target line can change the type of the line above. Therefore
+ * the lines can come from a {@link de.ryanthara.ja.rycon.io.LineSource} and can be written directly, without
+ * holding the file in memory.
+ * <p>
+ * The station and control point identifiers are found with the precompiled {@link IdentifierMatcher} of the
+ * {@link ConversionSettings}, so a line is scanned once for all identifiers. The settings are taken from the
+ * {@link ConversionContext}, which receives the number of processed lines, too.
  *
  * @author sebastian
- * @version 2
+ * @version 5
  * @since 12
  */
 public class GSITidyUp {
 
-    private ArrayList<String> readStringLines;
+    /*
+     * Types of the classified lines.
+     *
+     * type:
+     * =================================
+     * 1: target measurement
+     * 2: free station
+     * 3: stake out value / control points
+     * 9: measurement value
+     */
+    private static final int TARGET = 1;
+    private static final int STATION = 2;
+    private static final int CONTROL_POINT = 3;
+    private static final int MEASUREMENT = 9;
+
+    private final ConversionContext context;
+    private Iterable<String> lines;
 
     /**
      * Constructs a new instance of this class given read line based Leica GSI formatted file.
      *
      * @param readStringLines {@code ArrayList<String>} with lines as {@code String}
+     * @param context         context of the conversion
+     */
+    public GSITidyUp(ArrayList<String> readStringLines, ConversionContext context) {
+        this.lines = readStringLines;
+        this.context = context;
+    }
+
+    /**
+     * Constructs a new instance of this class given a source of lines in Leica GSI format (e.g. a
+     * {@link de.ryanthara.ja.rycon.io.LineSource}), which is read only once.
+     *
+     * @param lines   source of the lines in Leica GSI format
+     * @param context context of the conversion
      */
-    public GSITidyUp(ArrayList<String> readStringLines) {
-        this.readStringLines = readStringLines;
+    public GSITidyUp(Iterable<String> lines, ConversionContext context) {
+        this.lines = lines;
+        this.context = context;
     }
 
     /**
@@ -58,52 +98,33 @@ public class GSITidyUp {
      * @return converted {@code ArrayList<ArrayList<String>>} for writing
      */
     public ArrayList<String> processTidyUp(boolean holdStations, boolean holdControlPoints) {
-        // initialize values and prepare string with additional zeros for identification
-        String controlPointIdentifier = Main.pref.getUserPreference(PreferenceKeys.PARAM_CONTROL_POINT_STRING);
-        String freeStationIdentifier = "000" + Main.pref.getUserPreference(PreferenceKeys.PARAM_FREE_STATION_STRING);
-        String stationIdentifier = "000" + Main.pref.getUserPreference(PreferenceKeys.PARAM_KNOWN_STATION_STRING);
-
         ArrayList<String> result = new ArrayList<>();
 
-        // handle special case / exception when the file starts with one or more free station or (station) lines
-        String firstRow = readStringLines.get(0).toUpperCase();
+        processTidyUp(holdStations, holdControlPoints, result::add);
 
-        if (firstRow.startsWith("*")) {
-            freeStationIdentifier = "00000000" + freeStationIdentifier;
-            stationIdentifier = "00000000" + stationIdentifier;
-        }
+        return result;
+    }
 
-        // breaking out of nested loops with a label called 'breakOut'
-        breakOut:
+    /**
+     * Tidy up resurrection (stations) and control point measurements line by line.
+     * <p>
+     * Works like {@link #processTidyUp(boolean, boolean)}, but every result line is handed out to the consumer
+     * as soon as it's type is final. Only the current and the previous line are held in memory.
+     *
+     * @param holdStations      decide to hold station lines
+     * @param holdControlPoints decide to hold control points
+     * @param output            consumer for the result lines
+     */
+    public void processTidyUp(boolean holdStations, boolean holdControlPoints, Consumer<String> output) {
+        ConversionSettings settings = context.getSettings();
 
-        if (firstRow.contains(freeStationIdentifier) || firstRow.contains(stationIdentifier)) {
-            for (Iterator<String> iter = readStringLines.iterator(); iter.hasNext(); ) {
-                firstRow = iter.next();
-                if (firstRow.toUpperCase().contains(freeStationIdentifier) || firstRow.toUpperCase().contains(stationIdentifier)) {
-                    if (!holdStations) {
-                        iter.remove();
-                    }
-                } else if (firstRow.toUpperCase().contains(controlPointIdentifier)) {
-                    if (!holdControlPoints) {
-                        iter.remove();
-                    }
-                } else {
-                    break breakOut;
-                }
-            }
-        }
+        // precompiled identifiers, the station identifiers are prepared with additional zeros for identification
+        IdentifierMatcher identifierMatcher = null;
 
-        /*
-         * Use a helper array to identify the different lines by 'type'.
-         *
-         * type:
-         * =================================
-         * 1: target measurement
-         * 2: free station
-         * 3: stake out value / control points
-         * 9: measurement value
-         */
-        int[] helperArray = new int[readStringLines.size()];
+        final int stations = ConversionSettings.FREE_STATION | ConversionSettings.KNOWN_STATION;
+
+        boolean isFirstLine = true;
+        boolean isLeadingStationLine = false;
 
         /*
          * Try to detect single and two face measurements of control points.
@@ -115,80 +136,115 @@ public class GSITidyUp {
          *
          * The first comparison is made with the biggest integer value.
          */
-        String currentLine;
-        String previousLine = "12345678901234567890" + Integer.toString(Integer.MAX_VALUE);
+        String previousPointNumber = BaseToolsGSI.getPointNumber("12345678901234567890" + Integer.toString(Integer.MAX_VALUE));
+        int previousPointNumberMask = 0;
+
+        // look-behind of one line, the type of the previous line is final after the current line
+        String pendingLine = null;
+        int pendingType = 0;
+        boolean isPendingStakeOutCandidate = false;
+        int processedLines = 0;
 
-        // The operations starts with the last line outside the for-loop!
-        for (int i = 0; i < readStringLines.size(); i++) {
-            currentLine = readStringLines.get(i);
+        for (String currentLine : lines) {
+            processedLines = processedLines + 1;
+
+            if (isFirstLine) {
+                // the format of the first line decides about the identifiers
+                identifierMatcher = settings.getIdentifierMatcher(currentLine.startsWith("*"));
+
+                isLeadingStationLine = (identifierMatcher.matchUpperCase(currentLine) & stations) != 0;
+                previousPointNumberMask = identifierMatcher.match(previousPointNumber);
+                isFirstLine = false;
+            }
+
+            // handle special case / exception when the file starts with one or more free station or (station) lines
+            if (isLeadingStationLine) {
+                int upperCaseMask = identifierMatcher.matchUpperCase(currentLine);
+
+                if ((upperCaseMask & stations) != 0) {
+                    if (!holdStations) {
+                        continue;
+                    }
+                } else if ((upperCaseMask & ConversionSettings.CONTROL_POINT) != 0) {
+                    if (!holdControlPoints) {
+                        continue;
+                    }
+                } else {
+                    isLeadingStationLine = false;
+                }
+            }
 
             // detect two face measurement for target measurement
             String currentPointNumber = BaseToolsGSI.getPointNumber(currentLine);
-            String previousPointNumber = BaseToolsGSI.getPointNumber(previousLine);
+
+            // all identifiers of the line and of the point number in one scan each
+            int lineMask = identifierMatcher.match(currentLine);
+            int pointNumberMask = identifierMatcher.match(currentPointNumber);
+
+            int currentType;
+            boolean isStakeOutCandidate = false;
 
             // detect line type
             if (BaseToolsGSI.isTargetLine(currentLine)) {
-                helperArray[i] = 1;
+                currentType = TARGET;
 
-                if (currentPointNumber.equals(previousPointNumber)) {
-                    helperArray[i - 1] = 1;
-                } else if (previousPointNumber.contains(controlPointIdentifier)) {
-                    helperArray[i - 1] = 3;
+                if (pendingLine != null) {
+                    if (currentPointNumber.equals(previousPointNumber)) {
+                        pendingType = TARGET;
+                    } else if ((previousPointNumberMask & ConversionSettings.CONTROL_POINT) != 0) {
+                        pendingType = CONTROL_POINT;
+                    }
                 }
-            } else if (currentLine.contains(freeStationIdentifier) || currentLine.contains(stationIdentifier)) {
-                helperArray[i] = 2;
-            } else if (currentLine.contains(controlPointIdentifier)) {
+            } else if ((lineMask & stations) != 0) {
+                currentType = STATION;
+            } else if ((lineMask & ConversionSettings.CONTROL_POINT) != 0) {
 
                 // line above is free station
-                if (previousPointNumber.contains(freeStationIdentifier) || currentPointNumber.contains(stationIdentifier)) {
-                    helperArray[i] = 3;
+                if ((previousPointNumberMask & ConversionSettings.FREE_STATION) != 0
+                        || (pointNumberMask & ConversionSettings.KNOWN_STATION) != 0) {
+                    currentType = CONTROL_POINT;
                 }
                 // line above is the same control point -> stake out point is marked as target point
                 else if (currentPointNumber.equals(previousPointNumber)) {
-                    if (holdControlPoints) {
-                        helperArray[i] = 3;
-                    } else {
-                        helperArray[i] = 1;
-                    }
+                    currentType = holdControlPoints ? CONTROL_POINT : TARGET;
                 }
                 // line above is control point and not last line -> stake out point is measurement value
                 else {
-                    if (i < readStringLines.size() - 1) {
-                        helperArray[i] = 9;
-                    } else {
-                        helperArray[i] = 3;
-                    }
+                    currentType = MEASUREMENT;
+                    isStakeOutCandidate = true;
                 }
             } else {
-                helperArray[i] = 9;
+                currentType = MEASUREMENT;
             }
-            previousLine = currentLine;
-        }
 
-        // preparing the result lines
-        for (int i = 0; i < helperArray.length; i++) {
-            int value = helperArray[i];
-
-            String resultLine = BaseToolsGSI.prepareLineEnding(readStringLines.get(i));
+            if (pendingLine != null) {
+                emit(pendingLine, pendingType, holdStations, holdControlPoints, settings, output);
+            }
 
-            if (value == 9) {
-                result.add(resultLine);
-            } else {
-                if (holdStations) {
-                    if (value == 2) {
-                        result.add(resultLine);
-                    }
-                }
+            pendingLine = currentLine;
+            pendingType = currentType;
+            isPendingStakeOutCandidate = isStakeOutCandidate;
+            previousPointNumber = currentPointNumber;
+            previousPointNumberMask = pointNumberMask;
+        }
 
-                if (holdControlPoints) {
-                    if (value == 3) {
-                        result.add(resultLine);
-                    }
-                }
+        if (pendingLine != null) {
+            // a control point in the last line is a stake out value
+            if (isPendingStakeOutCandidate) {
+                pendingType = CONTROL_POINT;
             }
+
+            emit(pendingLine, pendingType, holdStations, holdControlPoints, settings, output);
         }
 
-        return result;
+        context.getProgress().processed(processedLines);
+    }
+
+    private void emit(String line, int type, boolean holdStations, boolean holdControlPoints,
+                      ConversionSettings settings, Consumer<String> output) {
+        if (type == MEASUREMENT || (holdStations && type == STATION) || (holdControlPoints && type == CONTROL_POINT)) {
+            output.accept(BaseToolsGSI.prepareLineEnding(line, settings));
+        }
     }
 
 } // end of GSITidyUp
@@ -17,9 +17,12 @@
  */
 package de.ryanthara.ja.rycon.core;
 
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import de.ryanthara.ja.rycon.elements.RyBlock;
-import de.ryanthara.ja.rycon.tools.SortHelper;
+import de.ryanthara.ja.rycon.io.CodeSplitWriter;
+import de.ryanthara.ja.rycon.util.CodePartitioner;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.StringTokenizer;
 import java.util.TreeSet;
@@ -29,24 +32,43 @@ import java.util.TreeSet;
  * by code into separate files.
  * <p>
  * Therefore a couple of methods and helpers are implemented to do the conversions and
- * operations on the given text files.
+ * operations on the given text files. The split can be done in memory or line by line into a
+ * {@link CodeSplitWriter}.
  *
  * @author sebastian
- * @version 5
+ * @version 8
  * @since 1
  */
 public class TextCodeSplit {
 
-    private ArrayList<String> readStringLines;
+    private static final int NO_CODE = 987789;
+
+    private final ConversionContext context;
+    private Iterable<String> lines;
     private TreeSet<Integer> foundCodes;
 
     /**
      * Constructs a new instance of this class given a read line based text file with a specified format.
      *
      * @param arrayList {@code ArrayList<String>} with lines in text format
+     * @param context   context of the conversion
+     */
+    public TextCodeSplit(ArrayList<String> arrayList, ConversionContext context) {
+        this.context = context;
+        this.lines = arrayList;
+        foundCodes = new TreeSet<>();
+    }
+
+    /**
+     * Constructs a new instance of this class given a source of lines with a specified format (e.g. a
+     * {@link de.ryanthara.ja.rycon.io.LineSource}), which is read only once.
+     *
+     * @param lines   source of the lines in text format
+     * @param context context of the conversion
      */
-    public TextCodeSplit(ArrayList<String> arrayList) {
-        this.readStringLines = arrayList;
+    public TextCodeSplit(Iterable<String> lines, ConversionContext context) {
+        this.context = context;
+        this.lines = lines;
         foundCodes = new TreeSet<>();
     }
 
@@ -73,97 +95,131 @@ public class TextCodeSplit {
      * @return converted {@code ArrayList<ArrayList<String>>} for writing
      */
     public ArrayList<ArrayList<String>> processCodeSplit(boolean insertCodeBlock, boolean writeLinesWithoutCode) {
-        StringTokenizer stringTokenizer;
-
-        ArrayList<ArrayList<String>> result = new ArrayList<>();
-        ArrayList<RyBlock> linesWithCode = new ArrayList<>();
+        ArrayList<ArrayList<String>> result;
+        CodePartitioner linesWithCode = new CodePartitioner();
         ArrayList<String> linesWithOutCode = new ArrayList<>();
 
-        for (String line : readStringLines) {
-            stringTokenizer = new StringTokenizer(line);
+        int processedLines = 0;
 
-            if (stringTokenizer.countTokens() == 4) {
-                // a line without code contains 4 tokens (no, y, y, z)
-                // number
-                String resultLine = stringTokenizer.nextToken();
+        for (String line : lines) {
+            processedLines = processedLines + 1;
 
-                if (insertCodeBlock) {
-                    resultLine = resultLine.concat(" 987789");
-                }
+            RyBlock splitLine = splitLine(line, insertCodeBlock);
 
-                String easting = stringTokenizer.nextToken();
-                resultLine = resultLine.concat(" " + easting);
+            if (splitLine == null) {
+                continue;
+            }
 
-                String northing = stringTokenizer.nextToken();
-                resultLine = resultLine.concat(" " + northing);
+            if (splitLine.getNumber() != -NO_CODE) {
+                linesWithCode.add(splitLine.getNumber(), splitLine.getString());
+            } else {
+                linesWithOutCode.add(splitLine.getString());
+            }
+        }
 
-                String height = stringTokenizer.nextToken();
-                resultLine = resultLine.concat(" " + height);
+        // groups of lines ordered by code, each group keeps the order of the lines
+        result = linesWithCode.getGroups();
 
-                linesWithOutCode.add(resultLine);
-            } else if (stringTokenizer.countTokens() == 5) {
-                // a line with code contains 5 tokens (no, code, y, y, z)
+        // insert lines without code for writing
+        if (writeLinesWithoutCode && (linesWithOutCode.size() > 0)) {
+            foundCodes.add(NO_CODE);
+            result.add(linesWithOutCode);
+        }
 
-                // number
-                String resultLine = stringTokenizer.nextToken();
+        context.getProgress().processed(processedLines);
 
-                String code = stringTokenizer.nextToken();
-                foundCodes.add(Integer.parseInt(code));
+        return result;
+    }
 
-                if (insertCodeBlock) {
-                    resultLine = resultLine.concat(" " + code);
-                }
+    /**
+     * Splits a code based text file line by line into separate files by code.
+     * <p>
+     * Every line is appended to the file of it's code in the {@link CodeSplitWriter} as soon as it is read,
+     * therefore the lines are not held in memory. The files are the same as the ones of
+     * {@link #processCodeSplit(boolean, boolean)}.
+     *
+     * @param codeSplitWriter       writer for the files of the codes
+     * @param insertCodeBlock       if code block is insert into the result string
+     * @param writeLinesWithoutCode if lines without code should be written to a separate file
+     *
+     * @throws IOException if one of the files could not be written
+     */
+    public void processCodeSplit(CodeSplitWriter codeSplitWriter, boolean insertCodeBlock,
+                                 boolean writeLinesWithoutCode) throws IOException {
+        int processedLines = 0;
 
-                String easting = stringTokenizer.nextToken();
-                resultLine = resultLine.concat(" " + easting);
+        for (String line : lines) {
+            processedLines = processedLines + 1;
 
-                String northing = stringTokenizer.nextToken();
-                resultLine = resultLine.concat(" " + northing);
+            RyBlock splitLine = splitLine(line, insertCodeBlock);
 
-                String height = stringTokenizer.nextToken();
-                resultLine = resultLine.concat(" " + height);
+            if (splitLine == null) {
+                continue;
+            }
 
-                linesWithCode.add(new RyBlock(Integer.parseInt(code), resultLine));
+            if (splitLine.getNumber() != -NO_CODE) {
+                codeSplitWriter.write(splitLine.getNumber(), splitLine.getString());
+            } else if (writeLinesWithoutCode) {
+                foundCodes.add(NO_CODE);
+                codeSplitWriter.write(NO_CODE, splitLine.getString());
             }
         }
 
-        SortHelper.sortByCode(linesWithCode);
+        context.getProgress().processed(processedLines);
+    }
 
-        if (linesWithCode.size() > 0) {
-            // helpers for generating a new array for every found code
-            int code = linesWithCode.get(0).getNumber();
-            ArrayList<String> lineStorage = new ArrayList<>();
+    /*
+     * Builds the line to write of one read line. The number of the returned block is the code of the line, or the
+     * 'blind' code '-987789' for lines without code. Lines with an unknown format are skipped (null).
+     */
+    private RyBlock splitLine(String line, boolean insertCodeBlock) {
+        StringTokenizer stringTokenizer = new StringTokenizer(line);
 
-            // fill in the sorted textBlocks into an ArrayList<ArrayList<String>> for writing
-            for (RyBlock ryBlock : linesWithCode) {
-                if (code == ryBlock.getNumber()) {
-                    lineStorage.add(ryBlock.getString());
-                } else {
-                    result.add(lineStorage);
-                    lineStorage = new ArrayList<>();
-                    lineStorage.add(ryBlock.getString());
-                }
+        if (stringTokenizer.countTokens() == 4) {
+            // a line without code contains 4 tokens (no, y, y, z)
+            // number
+            String resultLine = stringTokenizer.nextToken();
 
-                code = ryBlock.getNumber();
+            if (insertCodeBlock) {
+                resultLine = resultLine.concat(" 987789");
             }
 
-            // insert last element
-            result.add(lineStorage);
-        }
+            String easting = stringTokenizer.nextToken();
+            resultLine = resultLine.concat(" " + easting);
 
-        // insert lines without code for writing
-        if (writeLinesWithoutCode && (linesWithOutCode.size() > 0)) {
-            ArrayList<String> lineStorage = new ArrayList<>();
+            String northing = stringTokenizer.nextToken();
+            resultLine = resultLine.concat(" " + northing);
+
+            String height = stringTokenizer.nextToken();
+            resultLine = resultLine.concat(" " + height);
+
+            return new RyBlock(-NO_CODE, resultLine);
+        } else if (stringTokenizer.countTokens() == 5) {
+            // a line with code contains 5 tokens (no, code, y, y, z)
+
+            // number
+            String resultLine = stringTokenizer.nextToken();
+
+            String code = stringTokenizer.nextToken();
+            foundCodes.add(Integer.parseInt(code));
 
-            for (String textBlock : linesWithOutCode) {
-                lineStorage.add(textBlock);
+            if (insertCodeBlock) {
+                resultLine = resultLine.concat(" " + code);
             }
 
-            foundCodes.add(987789);
-            result.add(lineStorage);
+            String easting = stringTokenizer.nextToken();
+            resultLine = resultLine.concat(" " + easting);
+
+            String northing = stringTokenizer.nextToken();
+            resultLine = resultLine.concat(" " + northing);
+
+            String height = stringTokenizer.nextToken();
+            resultLine = resultLine.concat(" " + height);
+
+            return new RyBlock(Integer.parseInt(code), resultLine);
         }
 
-        return result;
+        return null;
     }
 
 }  // end of TextFileTools
@@ -0,0 +1,150 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.data
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.data;
+
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Instances of this class holds everything a converter of <tt>RyCON</tt> needs from outside of it's input lines.
+ * <p>
+ * A context carries the {@link ConversionSettings} snapshot, a {@link DiagnosticsSink} for warnings and a
+ * {@link ProgressSink} for the number of processed lines. It is immutable and is handed over to the converters
+ * of the packages {@code converter} and {@code core} instead of reading the static fields of
+ * {@link de.ryanthara.ja.rycon.Main}. Therefore the converters do not show any dialog, can run headless and
+ * one context can be shared by the workers of a batch, as long as the sinks are thread safe.
+ *
+ * @author sebastian
+ * @version 1
+ * @see DiagnosticsCollector
+ * @since 25
+ */
+public final class ConversionContext {
+
+    private final static Logger logger = Logger.getLogger(ConversionContext.class.getName());
+
+    /**
+     * Progress sink that ignores the progress.
+     */
+    public static final ProgressSink NO_PROGRESS = lines -> {
+    };
+
+    /**
+     * Diagnostics sink that writes the messages to the log.
+     */
+    public static final DiagnosticsSink LOG_DIAGNOSTICS = (level, message) -> logger.log(level, message);
+
+    private final ConversionSettings settings;
+    private final DiagnosticsSink diagnostics;
+    private final ProgressSink progress;
+
+    /**
+     * Constructs a new instance of this class with the given settings and sinks.
+     *
+     * @param settings    snapshot of the conversion settings
+     * @param diagnostics receiver of the warnings
+     * @param progress    receiver of the progress
+     */
+    public ConversionContext(ConversionSettings settings, DiagnosticsSink diagnostics, ProgressSink progress) {
+        this.settings = Objects.requireNonNull(settings, "settings");
+        this.diagnostics = Objects.requireNonNull(diagnostics, "diagnostics");
+        this.progress = Objects.requireNonNull(progress, "progress");
+    }
+
+    /**
+     * Returns a new context with the given settings, which writes the warnings to the log and ignores the progress.
+     *
+     * @param settings snapshot of the conversion settings
+     *
+     * @return new context
+     */
+    public static ConversionContext of(ConversionSettings settings) {
+        return new ConversionContext(settings, LOG_DIAGNOSTICS, NO_PROGRESS);
+    }
+
+    /**
+     * Returns the receiver of the warnings.
+     *
+     * @return diagnostics sink
+     */
+    public DiagnosticsSink getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Returns the receiver of the progress.
+     *
+     * @return progress sink
+     */
+    public ProgressSink getProgress() {
+        return progress;
+    }
+
+    /**
+     * Returns the snapshot of the conversion settings.
+     *
+     * @return conversion settings
+     */
+    public ConversionSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Reports a warning to the diagnostics sink.
+     *
+     * @param message warning message
+     */
+    public void warning(String message) {
+        diagnostics.report(Level.WARNING, message);
+    }
+
+    /**
+     * Receiver of the messages of a conversion. An implementation has to be thread safe, if the context is
+     * shared by several threads.
+     */
+    @FunctionalInterface
+    public interface DiagnosticsSink {
+
+        /**
+         * Reports a message with the given level.
+         *
+         * @param level   level of the message
+         * @param message message text
+         */
+        void report(Level level, String message);
+
+    } // end of DiagnosticsSink
+
+    /**
+     * Receiver of the progress of a conversion. An implementation has to be thread safe, if the context is
+     * shared by several threads.
+     */
+    @FunctionalInterface
+    public interface ProgressSink {
+
+        /**
+         * Reports the number of lines, that are processed since the last report.
+         *
+         * @param lines number of processed lines
+         */
+        void processed(int lines);
+
+    } // end of ProgressSink
+
+} // end of ConversionContext
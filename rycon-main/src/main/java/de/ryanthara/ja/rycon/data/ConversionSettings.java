@@ -0,0 +1,336 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.data
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.data;
+
+import de.ryanthara.ja.rycon.util.IdentifierMatcher;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Instances of this class holds an immutable and typed snapshot of the user preferences that are used by
+ * the converters of <tt>RyCON</tt>.
+ * <p>
+ * Reading a preference goes through the backing store of {@link java.util.prefs.Preferences} and has to be
+ * parsed afterwards. Therefore a snapshot is taken once when a conversion starts and is used for every line.
+ * The {@link PreferenceHandler} caches the snapshot and drops it when a preference is changed.
+ * <p>
+ * Values which are missing or could not be parsed are replaced by the values of the {@link DefaultKeys}.
+ * <p>
+ * The identifiers for stations and control points are compiled once into an {@link IdentifierMatcher} for each
+ * GSI format. The bits of the matcher result are {@link #CONTROL_POINT}, {@link #FREE_STATION},
+ * {@link #KNOWN_STATION} and {@link #FREE_STATION_NAME}.
+ *
+ * @author sebastian
+ * @version 7
+ * @see PreferenceHandler#getConversionSettings()
+ * @since 25
+ */
+public final class ConversionSettings {
+
+    /**
+     * Bit of the control point identifier (e.g. 'STKE') in the result of the identifier matcher.
+     */
+    public static final int CONTROL_POINT = 1;
+
+    /**
+     * Bit of the free station identifier as part of a point number (e.g. '000FS') in the result of the
+     * identifier matcher.
+     */
+    public static final int FREE_STATION = 2;
+
+    /**
+     * Bit of the known station identifier as part of a point number (e.g. '000ST') in the result of the
+     * identifier matcher.
+     */
+    public static final int KNOWN_STATION = 4;
+
+    /**
+     * Bit of the free station identifier itself (e.g. 'FS') in the result of the identifier matcher.
+     */
+    public static final int FREE_STATION_NAME = 8;
+
+    private final static Logger logger = Logger.getLogger(ConversionSettings.class.getName());
+
+    private final int batchWorkers;
+    private final boolean eliminateZeroCoordinate;
+    private final int excelRowWindow;
+    private final boolean lineEndingWithBlank;
+    private final boolean ltopUseZenithDistance;
+    private final int maxOpenFiles;
+    private final int odsStreamingThreshold;
+    private final int parallelThreshold;
+    private final double pointIdenticalDistance;
+    private final int sortRunSize;
+    private final String controlPointIdentifier;
+    private final String freeStationIdentifier;
+    private final String knownStationIdentifier;
+    private final IdentifierMatcher identifierMatcherGSI8;
+    private final IdentifierMatcher identifierMatcherGSI16;
+
+    /**
+     * Constructs a new snapshot of the conversion settings from the given {@link PreferenceHandler}.
+     *
+     * @param preferenceHandler preference handler to read the settings from
+     */
+    ConversionSettings(PreferenceHandler preferenceHandler) {
+        eliminateZeroCoordinate = Boolean.parseBoolean(read(preferenceHandler, PreferenceKeys.CONVERTER_SETTING_ELIMINATE_ZERO_COORDINATE,
+                DefaultKeys.CONVERTER_SETTING_ELIMINATE_ZERO_COORDINATE));
+        lineEndingWithBlank = Boolean.parseBoolean(read(preferenceHandler, PreferenceKeys.GSI_SETTING_LINE_ENDING_WITH_BLANK,
+                DefaultKeys.GSI_SETTING_LINE_ENDING_WITH_BLANK));
+        ltopUseZenithDistance = Boolean.parseBoolean(read(preferenceHandler, PreferenceKeys.CONVERTER_SETTING_LTOP_USE_ZENITH_DISTANCE,
+                DefaultKeys.CONVERTER_SETTING_LTOP_USE_ZENITH_DISTANCE));
+
+        String threshold = read(preferenceHandler, PreferenceKeys.CONVERTER_SETTING_PARALLEL_THRESHOLD,
+                DefaultKeys.CONVERTER_SETTING_PARALLEL_THRESHOLD);
+        String distance = read(preferenceHandler, PreferenceKeys.CONVERTER_SETTING_POINT_IDENTICAL_DISTANCE,
+                DefaultKeys.CONVERTER_SETTING_POINT_IDENTICAL_DISTANCE);
+
+        String openFiles = read(preferenceHandler, PreferenceKeys.SPLITTER_SETTING_MAX_OPEN_FILES,
+                DefaultKeys.SPLITTER_SETTING_MAX_OPEN_FILES);
+
+        String streamingThreshold = read(preferenceHandler, PreferenceKeys.CONVERTER_SETTING_ODS_STREAMING_THRESHOLD,
+                DefaultKeys.CONVERTER_SETTING_ODS_STREAMING_THRESHOLD);
+
+        String rowWindow = read(preferenceHandler, PreferenceKeys.CONVERTER_SETTING_EXCEL_ROW_WINDOW,
+                DefaultKeys.CONVERTER_SETTING_EXCEL_ROW_WINDOW);
+
+        String workers = read(preferenceHandler, PreferenceKeys.CONVERTER_SETTING_BATCH_WORKERS,
+                DefaultKeys.CONVERTER_SETTING_BATCH_WORKERS);
+
+        String runSize = read(preferenceHandler, PreferenceKeys.CONVERTER_SETTING_SORT_RUN_SIZE,
+                DefaultKeys.CONVERTER_SETTING_SORT_RUN_SIZE);
+
+        int parsedOpenFiles;
+        int parsedWorkers;
+        int parsedRowWindow;
+        int parsedStreamingThreshold;
+        int parsedRunSize;
+        int parsedThreshold;
+        double parsedDistance;
+
+        try {
+            parsedWorkers = Integer.parseInt(workers);
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "can't convert number of batch workers to int: " + workers);
+            parsedWorkers = Integer.parseInt(DefaultKeys.CONVERTER_SETTING_BATCH_WORKERS.getValue());
+        }
+
+        try {
+            parsedOpenFiles = Integer.parseInt(openFiles);
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "can't convert maximum number of open files to int: " + openFiles);
+            parsedOpenFiles = Integer.parseInt(DefaultKeys.SPLITTER_SETTING_MAX_OPEN_FILES.getValue());
+        }
+
+        try {
+            parsedRowWindow = Integer.parseInt(rowWindow);
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "can't convert excel row window to int: " + rowWindow);
+            parsedRowWindow = Integer.parseInt(DefaultKeys.CONVERTER_SETTING_EXCEL_ROW_WINDOW.getValue());
+        }
+
+        try {
+            parsedStreamingThreshold = Integer.parseInt(streamingThreshold);
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "can't convert ods streaming threshold to int: " + streamingThreshold);
+            parsedStreamingThreshold = Integer.parseInt(DefaultKeys.CONVERTER_SETTING_ODS_STREAMING_THRESHOLD.getValue());
+        }
+
+        try {
+            parsedRunSize = Integer.parseInt(runSize);
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "can't convert sort run size to int: " + runSize);
+            parsedRunSize = Integer.parseInt(DefaultKeys.CONVERTER_SETTING_SORT_RUN_SIZE.getValue());
+        }
+
+        try {
+            parsedThreshold = Integer.parseInt(threshold);
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "can't convert parallel threshold to int: " + threshold);
+            parsedThreshold = Integer.parseInt(DefaultKeys.CONVERTER_SETTING_PARALLEL_THRESHOLD.getValue());
+        }
+
+        try {
+            parsedDistance = Double.parseDouble(distance);
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "can't convert point identical distance to double: " + distance);
+            parsedDistance = Double.parseDouble(DefaultKeys.CONVERTER_SETTING_POINT_IDENTICAL_DISTANCE.getValue());
+        }
+
+        batchWorkers = Math.max(1, parsedWorkers);
+        excelRowWindow = Math.max(1, parsedRowWindow);
+        maxOpenFiles = Math.max(1, parsedOpenFiles);
+        odsStreamingThreshold = parsedStreamingThreshold;
+        parallelThreshold = parsedThreshold;
+        pointIdenticalDistance = parsedDistance;
+        sortRunSize = Math.max(1, parsedRunSize);
+
+        controlPointIdentifier = read(preferenceHandler, PreferenceKeys.PARAM_CONTROL_POINT_STRING,
+                DefaultKeys.PARAM_CONTROL_POINT_STRING);
+        freeStationIdentifier = read(preferenceHandler, PreferenceKeys.PARAM_FREE_STATION_STRING,
+                DefaultKeys.PARAM_FREE_STATION_STRING);
+        knownStationIdentifier = read(preferenceHandler, PreferenceKeys.PARAM_KNOWN_STATION_STRING,
+                DefaultKeys.PARAM_KNOWN_STATION_STRING);
+
+        // station identifiers are filled up with zeros for the identification in the point number
+        identifierMatcherGSI8 = new IdentifierMatcher(controlPointIdentifier,
+                "000" + freeStationIdentifier, "000" + knownStationIdentifier, freeStationIdentifier);
+        identifierMatcherGSI16 = new IdentifierMatcher(controlPointIdentifier,
+                "00000000000" + freeStationIdentifier, "00000000000" + knownStationIdentifier, freeStationIdentifier);
+    }
+
+    private static String read(PreferenceHandler preferenceHandler, PreferenceKeys key, DefaultKeys defaultKey) {
+        String value = preferenceHandler.getUserPreference(key);
+
+        return value.trim().isEmpty() ? defaultKey.getValue() : value;
+    }
+
+    /**
+     * Returns the number of worker threads, that process the files of a batch (e.g. dropped files) in parallel.
+     *
+     * @return number of batch workers
+     */
+    public int getBatchWorkers() {
+        return batchWorkers;
+    }
+
+    /**
+     * Returns the identifier for control points (e.g. 'STKE').
+     *
+     * @return control point identifier
+     */
+    public String getControlPointIdentifier() {
+        return controlPointIdentifier;
+    }
+
+    /**
+     * Returns the number of rows, that are held in memory while a XLSX file is written with a streaming workbook.
+     * Older rows are flushed to a temporary file.
+     *
+     * @return row window of the streaming workbook
+     */
+    public int getExcelRowWindow() {
+        return excelRowWindow;
+    }
+
+    /**
+     * Returns the identifier for free stations (e.g. 'FS').
+     *
+     * @return free station identifier
+     */
+    public String getFreeStationIdentifier() {
+        return freeStationIdentifier;
+    }
+
+    /**
+     * Returns the precompiled matcher for the station and control point identifiers of the GSI format.
+     * <p>
+     * The station identifiers of GSI16 lines are filled up with eight additional zeros.
+     *
+     * @param isGSI16 true for GSI16 formatted lines
+     *
+     * @return identifier matcher
+     */
+    public IdentifierMatcher getIdentifierMatcher(boolean isGSI16) {
+        return isGSI16 ? identifierMatcherGSI16 : identifierMatcherGSI8;
+    }
+
+    /**
+     * Returns the identifier for known stations (e.g. 'ST').
+     *
+     * @return known station identifier
+     */
+    public String getKnownStationIdentifier() {
+        return knownStationIdentifier;
+    }
+
+    /**
+     * Returns the maximum number of files that are held open at the same time by a streaming code split.
+     *
+     * @return maximum number of open files
+     */
+    public int getMaxOpenFiles() {
+        return maxOpenFiles;
+    }
+
+    /**
+     * Returns the number of lines, from which on Open Document spreadsheet files are streamed directly into the file
+     * instead of building the document in memory.
+     *
+     * @return ods streaming threshold in lines
+     */
+    public int getOdsStreamingThreshold() {
+        return odsStreamingThreshold;
+    }
+
+    /**
+     * Returns the number of lines from which on a GSI file is encoded in parallel.
+     *
+     * @return parallel threshold in lines
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Returns the distance in meters up to which two points are handled as identical.
+     *
+     * @return point identical distance
+     */
+    public double getPointIdenticalDistance() {
+        return pointIdenticalDistance;
+    }
+
+    /**
+     * Returns the maximum number of lines, that are sorted in memory by an external sort.
+     *
+     * @return sort run size in lines
+     */
+    public int getSortRunSize() {
+        return sortRunSize;
+    }
+
+    /**
+     * Returns true if coordinates with only zero values have to be eliminated.
+     *
+     * @return true if zero coordinates are eliminated
+     */
+    public boolean isEliminateZeroCoordinate() {
+        return eliminateZeroCoordinate;
+    }
+
+    /**
+     * Returns true if a line of a written GSI file has to end with an additional white space character.
+     *
+     * @return true if a line ends with a white space character
+     */
+    public boolean isLineEndingWithBlank() {
+        return lineEndingWithBlank;
+    }
+
+    /**
+     * Returns true if the zenith distance is used instead of the height difference for LTOP.
+     *
+     * @return true if the zenith distance is used
+     */
+    public boolean isLtopUseZenithDistance() {
+        return ltopUseZenithDistance;
+    }
+
+} // end of ConversionSettings
@@ -34,9 +34,14 @@ import java.util.logging.Logger;
  */
 public enum DefaultKeys {
 
+    CONVERTER_SETTING_BATCH_WORKERS("4"),
     CONVERTER_SETTING_ELIMINATE_ZERO_COORDINATE("true"),
+    CONVERTER_SETTING_EXCEL_ROW_WINDOW("100"),
     CONVERTER_SETTING_LTOP_USE_ZENITH_DISTANCE("false"),
+    CONVERTER_SETTING_ODS_STREAMING_THRESHOLD("20000"),
+    CONVERTER_SETTING_PARALLEL_THRESHOLD("50000"),
     CONVERTER_SETTING_POINT_IDENTICAL_DISTANCE("0.03"),
+    CONVERTER_SETTING_SORT_RUN_SIZE("100000"),
     CONVERTER_SETTING_ZEISS_DIALECT("M5"),
 
     DIR_ADMIN("./admin"),
@@ -61,6 +66,8 @@ public enum DefaultKeys {
 
     OVERWRITE_EXISTING("false"),
 
+    SPLITTER_SETTING_MAX_OPEN_FILES("64"),
+
     RyCON_UPDATE_URL("https://code.ryanthara.de/content/3-RyCON/_current.version"),
     RyCON_WEBSITE("https://code.ryanthara.de/RyCON"),
     RyCON_WEBSITE_HELP("https://code.ryanthara.de/RyCON/help"),
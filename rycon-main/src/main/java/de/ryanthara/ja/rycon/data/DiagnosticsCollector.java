@@ -0,0 +1,77 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.data
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Instances of this class collect the warnings of one or more conversions, which can run in parallel.
+ * <p>
+ * Instead of a modal dialog in the middle of a conversion, the collected warnings are shown once after the
+ * conversions have finished (e.g. by a widget or the command line interface). Messages below the level
+ * {@link Level#WARNING} are only written to the log.
+ *
+ * @author sebastian
+ * @version 1
+ * @see ConversionContext
+ * @since 25
+ */
+public class DiagnosticsCollector implements ConversionContext.DiagnosticsSink {
+
+    private final static Logger logger = Logger.getLogger(DiagnosticsCollector.class.getName());
+
+    private final ConcurrentLinkedQueue<String> warnings = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Returns the collected warnings in the order of their arrival.
+     *
+     * @return collected warnings
+     */
+    public List<String> getWarnings() {
+        return new ArrayList<>(warnings);
+    }
+
+    /**
+     * Returns true if at least one warning is collected.
+     *
+     * @return true if a warning is collected
+     */
+    public boolean hasWarnings() {
+        return !warnings.isEmpty();
+    }
+
+    /**
+     * Reports a message with the given level. Warnings and errors are collected.
+     *
+     * @param level   level of the message
+     * @param message message text
+     */
+    @Override
+    public void report(Level level, String message) {
+        logger.log(level, message);
+
+        if (level.intValue() >= Level.WARNING.intValue()) {
+            warnings.add(message);
+        }
+    }
+
+} // end of DiagnosticsCollector
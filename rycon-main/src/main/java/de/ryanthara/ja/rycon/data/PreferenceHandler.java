@@ -42,13 +42,14 @@ import java.util.prefs.Preferences;
  * - Under *nix in a location /etc/.java/.systemPrefs
  *
  * @author sebastian
- * @version 8
+ * @version 10
  * @since 1
  */
 public class PreferenceHandler implements PreferenceChangeListener {
     private final static Logger logger = Logger.getLogger(PreferenceHandler.class.getName());
     private boolean isDefaultSettingsGenerated = false;
     private Preferences userPreferences;
+    private volatile ConversionSettings conversionSettings = null;
 
     /**
      * Constructs a new instance of this class and initializes the configuration handling.
@@ -87,6 +88,27 @@ public class PreferenceHandler implements PreferenceChangeListener {
         }
     }
 
+    /**
+     * Returns an immutable snapshot of the settings that are used by the converters.
+     * <p>
+     * The snapshot is created on the first call and cached until a preference is changed. A conversion should
+     * take the snapshot once when it starts, instead of reading the user preferences line by line.
+     *
+     * @return snapshot of the conversion settings
+     *
+     * @since 25
+     */
+    public ConversionSettings getConversionSettings() {
+        ConversionSettings settings = conversionSettings;
+
+        if (settings == null) {
+            settings = new ConversionSettings(this);
+            conversionSettings = settings;
+        }
+
+        return settings;
+    }
+
     /**
      * Returns a system preference by given name.
      *
@@ -129,6 +151,9 @@ public class PreferenceHandler implements PreferenceChangeListener {
     @Override
     public void preferenceChange(PreferenceChangeEvent evt) {
         logger.log(Level.FINE, "called preferenceChange");
+
+        // the cached conversion settings are invalid now
+        conversionSettings = null;
     }
 
     /**
@@ -141,6 +166,9 @@ public class PreferenceHandler implements PreferenceChangeListener {
      */
     public void setUserPreference(final PreferenceKeys preference, final String value) {
         userPreferences.put(preference.name(), value);
+
+        // change events are delivered asynchronously, therefore the settings are dropped here too
+        conversionSettings = null;
     }
 
     /**
@@ -158,8 +186,13 @@ public class PreferenceHandler implements PreferenceChangeListener {
      * <li>'DIR_BIG_DATA_TEMPLATE' - './big_data/template-folder' </li>
      * <li>'DIR_PROJECT' - './project' </li>
      * <li>'DIR_PROJECT_TEMPLATE' - './project/template-folder' </li>
+     * <li>'CONVERTER_SETTING_BATCH_WORKERS' -  '4' </li>
      * <li>'CONVERTER_SETTING_ELIMINATE_ZERO_COORDINATE' -  'true' </li>
+     * <li>'CONVERTER_SETTING_EXCEL_ROW_WINDOW' -  '100' </li>
      * <li>'CONVERTER_SETTING_LTOP_USE_ZENITH_DISTANCE' -  'false' </li>
+     * <li>'CONVERTER_SETTING_ODS_STREAMING_THRESHOLD' -  '20000' </li>
+     * <li>'CONVERTER_SETTING_PARALLEL_THRESHOLD' -  '50000' </li>
+     * <li>'CONVERTER_SETTING_SORT_RUN_SIZE' -  '100000' </li>
      * <li>'CONVERTER_SETTING_ZEISS_DIALECT' - 'M5' </li>
      * <li>'GSI_SETTING_LINE_ENDING_WITH_BLANK' -  'true' </li>
      * <li>'OVERWRITE_EXISTING' - 'false' </li>
@@ -169,6 +202,7 @@ public class PreferenceHandler implements PreferenceChangeListener {
      * <li>'PARAM_FREE_STATION_STRING' - 'FS' </li>
      * <li>'PARAM_LTOP_STRING' - 'LTOP' </li>
      * <li>'PARAM_STAKE_OUT_STRING' - 'ST' </li>
+     * <li>'SPLITTER_SETTING_MAX_OPEN_FILES' - '64' </li>
      * <li>'LAST_USED_DISPLAY' - '-1' </li>
      * <li>'LAST_USED_PROJECTS' - '[]' </li>
      * <li>'LAST_POS_PRIMARY_MONITOR' - '-9999,-9999' </li>
@@ -214,9 +248,17 @@ public class PreferenceHandler implements PreferenceChangeListener {
         setUserPreference(PreferenceKeys.PARAM_KNOWN_STATION_STRING, DefaultKeys.PARAM_KNOWN_STATION_STRING.getValue());
         setUserPreference(PreferenceKeys.PARAM_LTOP_STRING, DefaultKeys.PARAM_LTOP_STRING.getValue());
 
+        // parameters for module #4 - code splitter
+        setUserPreference(PreferenceKeys.SPLITTER_SETTING_MAX_OPEN_FILES, DefaultKeys.SPLITTER_SETTING_MAX_OPEN_FILES.getValue());
+
         // parameters for module #6 - converter
+        setUserPreference(PreferenceKeys.CONVERTER_SETTING_BATCH_WORKERS, DefaultKeys.CONVERTER_SETTING_BATCH_WORKERS.getValue());
         setUserPreference(PreferenceKeys.CONVERTER_SETTING_ELIMINATE_ZERO_COORDINATE, DefaultKeys.CONVERTER_SETTING_ELIMINATE_ZERO_COORDINATE.getValue());
+        setUserPreference(PreferenceKeys.CONVERTER_SETTING_EXCEL_ROW_WINDOW, DefaultKeys.CONVERTER_SETTING_EXCEL_ROW_WINDOW.getValue());
         setUserPreference(PreferenceKeys.CONVERTER_SETTING_LTOP_USE_ZENITH_DISTANCE, DefaultKeys.CONVERTER_SETTING_LTOP_USE_ZENITH_DISTANCE.getValue());
+        setUserPreference(PreferenceKeys.CONVERTER_SETTING_ODS_STREAMING_THRESHOLD, DefaultKeys.CONVERTER_SETTING_ODS_STREAMING_THRESHOLD.getValue());
+        setUserPreference(PreferenceKeys.CONVERTER_SETTING_PARALLEL_THRESHOLD, DefaultKeys.CONVERTER_SETTING_PARALLEL_THRESHOLD.getValue());
+        setUserPreference(PreferenceKeys.CONVERTER_SETTING_SORT_RUN_SIZE, DefaultKeys.CONVERTER_SETTING_SORT_RUN_SIZE.getValue());
         setUserPreference(PreferenceKeys.CONVERTER_SETTING_ZEISS_DIALECT, DefaultKeys.CONVERTER_SETTING_ZEISS_DIALECT.getValue());
 
         // GSI file format settings
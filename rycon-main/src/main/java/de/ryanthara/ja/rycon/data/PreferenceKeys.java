@@ -28,9 +28,14 @@ package de.ryanthara.ja.rycon.data;
 public enum PreferenceKeys {
 
     BUILD_VERSION,
+    CONVERTER_SETTING_BATCH_WORKERS,
     CONVERTER_SETTING_ELIMINATE_ZERO_COORDINATE,
+    CONVERTER_SETTING_EXCEL_ROW_WINDOW,
     CONVERTER_SETTING_LTOP_USE_ZENITH_DISTANCE,
+    CONVERTER_SETTING_ODS_STREAMING_THRESHOLD,
+    CONVERTER_SETTING_PARALLEL_THRESHOLD,
     CONVERTER_SETTING_POINT_IDENTICAL_DISTANCE,
+    CONVERTER_SETTING_SORT_RUN_SIZE,
     CONVERTER_SETTING_ZEISS_DIALECT,
     DIR_ADMIN,
     DIR_ADMIN_TEMPLATE,
@@ -61,6 +66,7 @@ public enum PreferenceKeys {
     PARAM_FREE_STATION_STRING,
     PARAM_KNOWN_STATION_STRING,
     PARAM_LTOP_STRING,
+    SPLITTER_SETTING_MAX_OPEN_FILES,
     USER_LAST_USED_DIR
 
 } // end of PreferenceKeys
@@ -0,0 +1,55 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.data
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.data;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instances of this class count the processed lines of one or more conversions, which can run in parallel.
+ * <p>
+ * The count can be read at any time, e.g. to show the progress of a running batch on the status bar.
+ *
+ * @author sebastian
+ * @version 1
+ * @see ConversionContext
+ * @since 25
+ */
+public class ProgressCounter implements ConversionContext.ProgressSink {
+
+    private final LongAdder lines = new LongAdder();
+
+    /**
+     * Returns the number of processed lines up to now.
+     *
+     * @return number of processed lines
+     */
+    public long getLines() {
+        return lines.sum();
+    }
+
+    /**
+     * Adds the number of lines, that are processed since the last report.
+     *
+     * @param lines number of processed lines
+     */
+    @Override
+    public void processed(int lines) {
+        this.lines.add(lines);
+    }
+
+} // end of ProgressCounter
@@ -0,0 +1,635 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.elements
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.elements;
+
+import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
+import de.ryanthara.ja.rycon.i18n.WordIndices;
+
+import java.nio.CharBuffer;
+
+import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WORDINDICES;
+
+/**
+ * Instances of this class represents a reusable (flyweight) Leica GSI block, that stores it's values as primitives.
+ * <p>
+ * In difference to the {@link GSIBlock}, which holds four strings per block, a flyweight block holds the word index
+ * as {@code byte}, the information field packed into an {@code int}, the sign as {@code boolean} and the data as
+ * {@code long} value. Data fields with letters (e.g. point numbers or codes) are stored as packed ISO 8859-1
+ * characters. Only a block with a character beyond U+00FF (e.g. a '€' in a code) keeps it's characters from the
+ * information field on as {@code String}, so that they are not corrupted by the packing.
+ * <p>
+ * One instance is meant to be filled again and again with the {@code set} methods. The print format methods
+ * write directly into a caller supplied {@link StringBuilder} or {@link CharBuffer} and produce the same output
+ * as {@link GSIBlock#toPrintFormatTXT()} and {@link GSIBlock#toPrintFormatCSV()}, without creating objects.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class FlyweightGSIBlock {
+
+    private static final int NO_WIDTH = -1;
+
+    private final char[] dataChars = new char[20];
+    private final char[] output = new char[24];
+    private boolean isGSI16;
+    private boolean isNegative;
+    private boolean isNumeric;
+    private byte dataLength;
+    private byte wordIndex;
+    private int information;
+    private long data;
+    private long dataExtension;
+    private int outputStart;
+    private String wideText;
+
+    /**
+     * Constructs a new and empty instance of this class.
+     */
+    public FlyweightGSIBlock() {
+    }
+
+    /**
+     * Packs the four characters of an information field (pos 3-6) into an int value. Only characters up to
+     * U+00FF can be packed.
+     *
+     * @param information information field with four characters
+     *
+     * @return packed information field
+     */
+    public static int packInformation(CharSequence information) {
+        return ((information.charAt(0) & 0xFF) << 24) | ((information.charAt(1) & 0xFF) << 16)
+                | ((information.charAt(2) & 0xFF) << 8) | (information.charAt(3) & 0xFF);
+    }
+
+    /**
+     * Appends the block in the origin GSI8 or GSI16 format to a {@link StringBuilder}.
+     * <p>
+     * Due to issues of the format, leading zeros are added or values are cut off. The output is the same
+     * as the one of {@link GSIBlock#toString(boolean)}.
+     *
+     * @param stringBuilder builder to append to
+     * @param isGSI16       true for GSI16 format
+     *
+     * @return the given builder
+     */
+    public StringBuilder appendGSI(StringBuilder stringBuilder, boolean isGSI16) {
+        int length = writeDataChars();
+
+        stringBuilder.append(wordIndex);
+        appendInformation(stringBuilder);
+        stringBuilder.append(isNegative ? '-' : '+');
+
+        if (isGSI16) {
+            if (length == 8) {
+                stringBuilder.append("00000000");
+            }
+            stringBuilder.append(dataChars, 0, length);
+        } else {
+            int start = length > 8 ? length - 8 : 0;
+            stringBuilder.append(dataChars, start, length - start);
+        }
+
+        return stringBuilder;
+    }
+
+    /**
+     * Appends the block in csv format without separation sign to a {@link StringBuilder}.
+     *
+     * @param stringBuilder builder to append to
+     *
+     * @return the given builder
+     */
+    public StringBuilder appendPrintFormatCSV(StringBuilder stringBuilder) {
+        int length = format(false);
+
+        return stringBuilder.append(output, outputStart, length);
+    }
+
+    /**
+     * Appends the block in a column based printable format, filled up with invisible spaces, to a
+     * {@link StringBuilder}.
+     *
+     * @param stringBuilder builder to append to
+     *
+     * @return the given builder
+     */
+    public StringBuilder appendPrintFormatTXT(StringBuilder stringBuilder) {
+        int length = format(true);
+
+        return stringBuilder.append(output, outputStart, length);
+    }
+
+    /**
+     * Returns the data as long value, without sign.
+     * <p>
+     * If {@link #isNumeric()} returns false, the value contains the first eight characters of the data field
+     * as packed ASCII characters.
+     *
+     * @return data as long value
+     */
+    public long getData() {
+        return data;
+    }
+
+    /**
+     * Returns the characters nine till sixteen of a not numeric data field as packed ASCII characters.
+     *
+     * @return packed characters or zero for a numeric data field
+     */
+    public long getDataExtension() {
+        return dataExtension;
+    }
+
+    /**
+     * Returns the length of the data field (8 for GSI8 and 16 for GSI16).
+     *
+     * @return length of the data field
+     */
+    public int getDataLength() {
+        return dataLength;
+    }
+
+    /**
+     * Returns the packed information field (pos 3-6).
+     *
+     * @return packed information field
+     */
+    public int getInformation() {
+        return information;
+    }
+
+    /**
+     * Returns the characters from the information field (pos 3-6) till the end of the data field of a block, which
+     * contains a character beyond U+00FF. In this case the packed information field and the packed data are not
+     * used.
+     *
+     * @return characters from pos 3 till the end of the data field or null, if the block contains only characters
+     * up to U+00FF
+     */
+    public String getWideText() {
+        return wideText;
+    }
+
+    /**
+     * Returns the word index as integer value.
+     *
+     * @return word index as integer value
+     */
+    public int getWordIndex() {
+        return wordIndex;
+    }
+
+    /**
+     * Returns true if the block is GSI16 formatted.
+     *
+     * @return true if the block is GSI16 formatted
+     */
+    public boolean isGSI16() {
+        return isGSI16;
+    }
+
+    /**
+     * Returns true if the sign of the block is a '-'.
+     *
+     * @return true if the value is negative
+     */
+    public boolean isNegative() {
+        return isNegative;
+    }
+
+    /**
+     * Returns true if the data field contains only digits and could be read as long value.
+     *
+     * @return true if the data field is numeric
+     */
+    public boolean isNumeric() {
+        return isNumeric;
+    }
+
+    /**
+     * Writes the block in csv format without separation sign into a {@link CharBuffer}.
+     *
+     * @param charBuffer buffer to write into
+     *
+     * @return the given buffer
+     */
+    public CharBuffer putPrintFormatCSV(CharBuffer charBuffer) {
+        int length = format(false);
+
+        return charBuffer.put(output, outputStart, length);
+    }
+
+    /**
+     * Writes the block in a column based printable format, filled up with invisible spaces, into a
+     * {@link CharBuffer}.
+     *
+     * @param charBuffer buffer to write into
+     *
+     * @return the given buffer
+     */
+    public CharBuffer putPrintFormatTXT(CharBuffer charBuffer) {
+        int length = format(true);
+
+        return charBuffer.put(output, outputStart, length);
+    }
+
+    /**
+     * Fills the block with a numeric value.
+     *
+     * @param isGSI16     true for GSI16 format
+     * @param wordIndex   word index (pos 1-2)
+     * @param information packed information field (pos 3-6)
+     * @param isNegative  true if the sign (pos 7) is a '-'
+     * @param data        data value without leading zeros
+     *
+     * @return this block
+     */
+    public FlyweightGSIBlock set(boolean isGSI16, int wordIndex, int information, boolean isNegative, long data) {
+        this.isGSI16 = isGSI16;
+        this.wordIndex = (byte) wordIndex;
+        this.information = information;
+        this.isNegative = isNegative;
+        this.isNumeric = true;
+        this.data = data;
+        this.dataExtension = 0L;
+        this.dataLength = (byte) (isGSI16 ? 16 : 8);
+        this.wideText = null;
+
+        return this;
+    }
+
+    /**
+     * Fills the block with values, that were taken from another flyweight block before.
+     *
+     * @param isGSI16       true for GSI16 format
+     * @param wordIndex     word index (pos 1-2)
+     * @param information   packed information field (pos 3-6)
+     * @param isNegative    true if the sign (pos 7) is a '-'
+     * @param isNumeric     true if the data field contains only digits
+     * @param data          data value or packed characters
+     * @param dataExtension packed characters nine till sixteen
+     * @param dataLength    length of the data field
+     *
+     * @return this block
+     */
+    public FlyweightGSIBlock set(boolean isGSI16, int wordIndex, int information, boolean isNegative,
+                                 boolean isNumeric, long data, long dataExtension, int dataLength) {
+        return set(isGSI16, wordIndex, information, isNegative, isNumeric, data, dataExtension, dataLength, null);
+    }
+
+    /**
+     * Fills the block with values, that were taken from another flyweight block before, including the characters
+     * of a block with a character beyond U+00FF.
+     *
+     * @param isGSI16       true for GSI16 format
+     * @param wordIndex     word index (pos 1-2)
+     * @param information   packed information field (pos 3-6)
+     * @param isNegative    true if the sign (pos 7) is a '-'
+     * @param isNumeric     true if the data field contains only digits
+     * @param data          data value or packed characters
+     * @param dataExtension packed characters nine till sixteen
+     * @param dataLength    length of the data field
+     * @param wideText      characters from pos 3 till the end of the data field or null (see {@link #getWideText()})
+     *
+     * @return this block
+     */
+    public FlyweightGSIBlock set(boolean isGSI16, int wordIndex, int information, boolean isNegative,
+                                 boolean isNumeric, long data, long dataExtension, int dataLength, String wideText) {
+        this.isGSI16 = isGSI16;
+        this.wordIndex = (byte) wordIndex;
+        this.information = information;
+        this.isNegative = isNegative;
+        this.isNumeric = isNumeric;
+        this.data = data;
+        this.dataExtension = dataExtension;
+        this.dataLength = (byte) dataLength;
+        this.wideText = wideText;
+
+        return this;
+    }
+
+    /**
+     * Fills the block from a part of a read GSI line without creating substrings.
+     * <p>
+     * The block starts at the given offset and ends at the given end or after the data field. If the information
+     * or data field contains a character beyond U+00FF, the characters from pos 3 are kept as {@code String}.
+     *
+     * @param line   read GSI line
+     * @param offset offset of the first character of the block (word index)
+     * @param end    end of the block, exclusive, trailing white spaces are ignored
+     *
+     * @return this block
+     */
+    public FlyweightGSIBlock set(CharSequence line, int offset, int end) {
+        while (end > offset && Character.isWhitespace(line.charAt(end - 1))) {
+            end = end - 1;
+        }
+
+        int dataStart = offset + 7;
+        int length = Math.min(end - dataStart, 16);
+
+        this.wordIndex = (byte) ((line.charAt(offset) - '0') * 10 + (line.charAt(offset + 1) - '0'));
+        this.information = ((line.charAt(offset + 2) & 0xFF) << 24) | ((line.charAt(offset + 3) & 0xFF) << 16)
+                | ((line.charAt(offset + 4) & 0xFF) << 8) | (line.charAt(offset + 5) & 0xFF);
+        this.isNegative = line.charAt(offset + 6) == '-';
+        this.isGSI16 = end - offset == 23;
+        this.dataLength = (byte) length;
+
+        // first try to read the data field as number
+        long value = 0L;
+        boolean numeric = length > 0;
+
+        for (int i = dataStart; i < dataStart + length; i++) {
+            char c = line.charAt(i);
+
+            if (c < '0' || c > '9') {
+                numeric = false;
+                break;
+            }
+
+            value = value * 10 + (c - '0');
+        }
+
+        this.isNumeric = numeric;
+
+        if (numeric) {
+            this.data = value;
+            this.dataExtension = 0L;
+        } else {
+            // pack the characters, eight of them in one long value
+            long first = 0L;
+            long second = 0L;
+
+            for (int i = 0; i < length; i++) {
+                long c = line.charAt(dataStart + i) & 0xFF;
+
+                if (i < 8) {
+                    first = first | (c << (56 - 8 * i));
+                } else {
+                    second = second | (c << (56 - 8 * (i - 8)));
+                }
+            }
+
+            this.data = first;
+            this.dataExtension = second;
+        }
+
+        this.wideText = length >= 0 && containsWideChar(line, offset + 2, dataStart + length)
+                ? line.subSequence(offset + 2, dataStart + length).toString() : null;
+
+        return this;
+    }
+
+    /**
+     * Returns the block in a printable csv format as {@code String}. Creates a new object.
+     *
+     * @return formatted {@code String} for CSV output
+     */
+    public String toPrintFormatCSV() {
+        return appendPrintFormatCSV(new StringBuilder(24)).toString();
+    }
+
+    /**
+     * Returns the block in a column based printable format as {@code String}. Creates a new object.
+     *
+     * @return formatted {@code String} for column based TXT output
+     */
+    public String toPrintFormatTXT() {
+        return appendPrintFormatTXT(new StringBuilder(24)).toString();
+    }
+
+    /**
+     * Returns the block as String in the origin format. Creates a new object.
+     *
+     * @return block as String
+     */
+    public String toString() {
+        return appendGSI(new StringBuilder(24), dataLength == 16).toString();
+    }
+
+    /*
+     * Returns true if one of the characters from start till end (exclusive) can not be packed into one byte.
+     */
+    private static boolean containsWideChar(CharSequence line, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (line.charAt(i) > 0xFF) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void appendInformation(StringBuilder stringBuilder) {
+        if (wideText != null) {
+            stringBuilder.append(wideText, 0, 4);
+            return;
+        }
+
+        stringBuilder.append((char) ((information >>> 24) & 0xFF));
+        stringBuilder.append((char) ((information >>> 16) & 0xFF));
+        stringBuilder.append((char) ((information >>> 8) & 0xFF));
+        stringBuilder.append((char) (information & 0xFF));
+    }
+
+    /*
+     * Builds the print format in the output array and returns it's length. The start position is stored
+     * in 'outputStart'. The rules are the same as in GSIBlock.toPrintFormatTXT() and for the csv format
+     * the result is trimmed.
+     */
+    private int format(boolean fillWithSpaces) {
+        int length = writeDataChars();
+        char lastInformation = wideText != null ? wideText.charAt(3) : (char) (information & 0xFF);
+
+        switch (wordIndex) {
+            case 11:        // point number
+            case 71:        // comment 1, mostly used for code
+            case 72:        // attribute 1
+            case 73:        // attribute 2
+            case 74:        // attribute 3
+            case 75:        // attribute 4
+            case 76:        // attribute 5
+            case 77:        // attribute 6
+            case 78:        // attribute 7
+            case 79:        // attribute 8
+            case 41:        // code
+                return write((char) 0, true, length, length, fillWithSpaces);
+
+            case 21:        // angle Hz
+            case 22:        // angle Vz
+            case 24:        // angle Hz0
+            case 25:        // angle difference (Hz0 - Hz)
+                if (lastInformation == '2' || lastInformation == '3') {
+                    length = insertDot(length, 5);
+                    return write((char) 0, true, length, length, fillWithSpaces);
+                }
+                return write((char) 0, false, length, NO_WIDTH, fillWithSpaces);
+
+            case 26:        // offset
+            case 27:        // angle Vz0
+            case 28:        // angle difference (Vz0 - Vz)
+                return write((char) 0, false, length, NO_WIDTH, fillWithSpaces);
+
+            case 31:        // slope distance
+            case 32:        // horizontal distance
+            case 33:        // height difference
+                int width = length + 2;
+
+                if (lastInformation == '6') {
+                    length = insertDot(length, 4);
+                } else if (lastInformation == '8') {
+                    length = insertDot(length, 5);
+                } else {
+                    length = insertDot(length, 3);
+                }
+
+                return write(isNegative ? '-' : (char) 0, true, length, width, fillWithSpaces);
+
+            case 58:        // addition constant in 1/10 mm
+                int widthAdditionConstant = length;
+                length = insertDot(length, 4);
+
+                return write(isNegative ? '-' : '+', true, length, widthAdditionConstant, fillWithSpaces);
+
+            case 81:        // easting E
+            case 82:        // northing N
+            case 83:        // height H
+            case 84:        // easting E0
+            case 85:        // northing N0
+            case 86:        // height H0
+            case 87:        // target height
+            case 88:        // instrument height
+                int widthCoordinate = length + 2;
+
+                if (lastInformation == '0') {                   // mm
+                    length = insertDot(length, 3);
+                } else if (lastInformation == '6') {            // 1/10 mm
+                    length = insertDot(length, 4);
+                }
+
+                return write(isNegative ? '-' : (char) 0, true, length, widthCoordinate, fillWithSpaces);
+
+            default:
+                String s = ResourceBundleUtils.getLangString(WORDINDICES, WordIndices.WI9999);
+                System.err.println("FlyweightGSIBlock.format() : block contains the wrong word index " + wordIndex);
+
+                int size = Math.min(s.length(), dataChars.length);
+                s.getChars(0, size, dataChars, 0);
+
+                return write((char) 0, false, size, NO_WIDTH, fillWithSpaces);
+        }
+    }
+
+    private int insertDot(int length, int positionFromEnd) {
+        int position = Math.max(length - positionFromEnd, 0);
+
+        System.arraycopy(dataChars, position, dataChars, position + 1, length - position);
+        dataChars[position] = '.';
+
+        return length + 1;
+    }
+
+    /*
+     * Writes the prepared data characters with an optional sign into the output array. Leading zeros
+     * are cut off (at least one character is left and a leading dot gets a zero before). If a width is
+     * given, the result is cut or filled up with spaces to this width (like '%width.widths').
+     */
+    private int write(char sign, boolean trimLeadingZeros, int length, int width, boolean fillWithSpaces) {
+        int start = 0;
+        boolean zeroBeforeDot = false;
+
+        if (trimLeadingZeros) {
+            while (start < length - 1 && dataChars[start] == '0') {
+                start = start + 1;
+            }
+
+            if (dataChars[start] == '.') {
+                if (start > 0) {
+                    start = start - 1;
+                } else {
+                    zeroBeforeDot = true;
+                }
+            }
+        }
+
+        // assemble sign and content at the end of the output array, so that spaces can be put in front
+        int contentLength = (sign != 0 ? 1 : 0) + (zeroBeforeDot ? 1 : 0) + (length - start);
+
+        if (width != NO_WIDTH && contentLength > width) {
+            contentLength = width;
+        }
+
+        int position = output.length - contentLength;
+        int end = output.length;
+        int i = position;
+
+        if (sign != 0 && i < end) {
+            output[i++] = sign;
+        }
+        if (zeroBeforeDot && i < end) {
+            output[i++] = '0';
+        }
+        for (int j = start; i < end; j++) {
+            output[i++] = dataChars[j];
+        }
+
+        if (fillWithSpaces) {
+            while (width != NO_WIDTH && end - position < width) {
+                output[--position] = ' ';
+            }
+        } else {
+            // same as trim() on the result
+            while (position < end && output[position] <= ' ') {
+                position = position + 1;
+            }
+            while (end > position && output[end - 1] <= ' ') {
+                end = end - 1;
+            }
+        }
+
+        outputStart = position;
+
+        return end - position;
+    }
+
+    private int writeDataChars() {
+        int length = dataLength;
+
+        if (wideText != null) {
+            wideText.getChars(5, 5 + length, dataChars, 0);
+        } else if (isNumeric) {
+            long value = data;
+
+            for (int i = length - 1; i >= 0; i--) {
+                dataChars[i] = (char) ('0' + (value % 10));
+                value = value / 10;
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                long packed = i < 8 ? data : dataExtension;
+                int shift = 56 - 8 * (i < 8 ? i : i - 8);
+
+                dataChars[i] = (char) ((packed >>> shift) & 0xFF);
+            }
+        }
+
+        return length;
+    }
+
+} // end of FlyweightGSIBlock
@@ -0,0 +1,198 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.file
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Instances of this class split a comma separated values (CSV) file row by row into it's fields.
+ * <p>
+ * The characters are read in blocks and the fields of the current row are collected in one reusable buffer.
+ * Only the current row is held in memory, which is handed over as string array by {@link #toArray()}. Therefore
+ * a reader can process every row as soon as it is read, e.g. with a row handler.
+ * <p>
+ * The separator sign is given as parameter (e.g. ',' or ';'). Fields can be enclosed in double quotes, then they
+ * can contain separators, line breaks and quotes, which are written twice ("a ""quoted"" text"). Line breaks can be
+ * LF, CRLF or CR. An empty line is returned as row with one empty field.
+ * <p>
+ * At the moment, there is no thread safety implemented.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class CSVTokenizer implements Closeable {
+
+    private static final char QUOTE = '"';
+
+    private final Reader reader;
+    private final char separator;
+    private final char[] readBuffer;
+    private char[] rowBuffer;
+    private int[] fieldStarts;
+    private int[] fieldEnds;
+    private int fieldCount = 0;
+    private int readPosition = 0;
+    private int readLimit = 0;
+    private boolean isEndOfFile = false;
+
+    /**
+     * Constructs a new instance of this class for the given reader and separator sign.
+     *
+     * @param reader    reader of the CSV file
+     * @param separator separator sign (e.g. ',' or ';')
+     */
+    public CSVTokenizer(Reader reader, char separator) {
+        this.reader = reader;
+        this.separator = separator;
+        this.readBuffer = new char[8192];
+        this.rowBuffer = new char[256];
+        this.fieldStarts = new int[16];
+        this.fieldEnds = new int[16];
+    }
+
+    /**
+     * Closes the underlying reader.
+     *
+     * @throws IOException if the reader could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the next row of the CSV file.
+     *
+     * @return true if a row was read, false at the end of the file
+     *
+     * @throws IOException if the file could not be read
+     */
+    public boolean nextRow() throws IOException {
+        if (!fill()) {
+            fieldCount = 0;
+            return false;
+        }
+
+        int length = 0;
+        boolean isQuoted = false;
+        boolean isLineEnd = false;
+
+        fieldCount = 0;
+        startField(0);
+
+        while (!isLineEnd && fill()) {
+            char c = readBuffer[readPosition];
+            readPosition = readPosition + 1;
+
+            if (isQuoted) {
+                if (c == QUOTE) {
+                    // a doubled quote is a quote character, otherwise the quoted part ends
+                    if (fill() && readBuffer[readPosition] == QUOTE) {
+                        readPosition = readPosition + 1;
+                        length = append(length, QUOTE);
+                    } else {
+                        isQuoted = false;
+                    }
+                } else {
+                    length = append(length, c);
+                }
+            } else if (c == separator) {
+                fieldEnds[fieldCount - 1] = length;
+                startField(length);
+            } else if (c == '\n') {
+                isLineEnd = true;
+            } else if (c == '\r') {
+                if (fill() && readBuffer[readPosition] == '\n') {
+                    readPosition = readPosition + 1;
+                }
+                isLineEnd = true;
+            } else if (c == QUOTE && length == fieldStarts[fieldCount - 1]) {
+                isQuoted = true;
+            } else {
+                length = append(length, c);
+            }
+        }
+
+        fieldEnds[fieldCount - 1] = length;
+
+        return true;
+    }
+
+    /**
+     * Returns the fields of the current row as new string array.
+     *
+     * @return fields as string array
+     */
+    public String[] toArray() {
+        String[] values = new String[fieldCount];
+
+        for (int i = 0; i < fieldCount; i++) {
+            values[i] = new String(rowBuffer, fieldStarts[i], fieldEnds[i] - fieldStarts[i]);
+        }
+
+        return values;
+    }
+
+    private int append(int length, char c) {
+        if (length == rowBuffer.length) {
+            rowBuffer = Arrays.copyOf(rowBuffer, rowBuffer.length * 2);
+        }
+
+        rowBuffer[length] = c;
+
+        return length + 1;
+    }
+
+    /*
+     * Makes sure that at least one character is available in the read buffer and returns false at the end of file.
+     */
+    private boolean fill() throws IOException {
+        while (readPosition >= readLimit) {
+            if (isEndOfFile) {
+                return false;
+            }
+
+            int count = reader.read(readBuffer, 0, readBuffer.length);
+
+            if (count < 0) {
+                isEndOfFile = true;
+                return false;
+            }
+
+            readPosition = 0;
+            readLimit = count;
+        }
+
+        return true;
+    }
+
+    private void startField(int start) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+
+        fieldStarts[fieldCount] = start;
+        fieldCount = fieldCount + 1;
+    }
+
+} // end of CSVTokenizer
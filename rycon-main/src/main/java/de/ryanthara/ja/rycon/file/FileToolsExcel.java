@@ -18,16 +18,21 @@
 package de.ryanthara.ja.rycon.file;
 
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Path;
 
 /**
  * Instances of this class provides basic file operations to write Microsoft xls, xlsx, ... files.
+ * <p>
+ * A streaming XLSX workbook ({@link SXSSFWorkbook}) can be written only once. The temporary files of it's flushed
+ * rows are deleted after writing or with {@link #dispose()}, if the workbook is not written at all.
  *
  * @author sebastian
- * @version 2
+ * @version 3
  * @since 9
  */
 public class FileToolsExcel {
@@ -44,6 +49,15 @@ public class FileToolsExcel {
         this.workbook = workbook;
     }
 
+    /**
+     * Deletes the temporary files of a streaming XLSX workbook. Other workbooks are not touched.
+     */
+    public void dispose() {
+        if (workbook instanceof SXSSFWorkbook) {
+            ((SXSSFWorkbook) workbook).dispose();
+        }
+    }
+
     /**
      * Writes the converted XLS file to the file system.
      *
@@ -67,6 +81,9 @@ public class FileToolsExcel {
 
     /**
      * Writes the converted XLSX file to the file system.
+     * <p>
+     * The rows of a streaming workbook are copied from the temporary files into the output file, which are deleted
+     * afterwards.
      *
      * @param writeFile path to be written
      *
@@ -75,7 +92,7 @@ public class FileToolsExcel {
     public boolean writeXLSX(Path writeFile) {
         boolean writeSuccess = false;
 
-        try (FileOutputStream fileOut = new FileOutputStream(writeFile.toFile())) {
+        try (BufferedOutputStream fileOut = new BufferedOutputStream(new FileOutputStream(writeFile.toFile()))) {
             workbook.write(fileOut);
 
             fileOut.close();
@@ -83,6 +100,8 @@ public class FileToolsExcel {
         } catch (IOException e) {
             System.err.println("Error while writing XLSX file to disk.");
             e.printStackTrace();
+        } finally {
+            dispose();
         }
 
         return writeSuccess;
@@ -19,17 +19,27 @@ package de.ryanthara.ja.rycon.file;
 
 import org.odftoolkit.simple.SpreadsheetDocument;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 /**
  * Instances of this class provides basic file operations to write Open Document Format spreadsheet files.
+ * <p>
+ * The spreadsheet is either a {@link SpreadsheetDocument} of the Simple ODF object model, or a complete file,
+ * which was streamed by an {@link ODSStreamWriter} into a temporary file before. The temporary file is moved to
+ * it's destination with {@link #writeODS(String)} or deleted with {@link #dispose()}.
  *
  * @author sebastian
- * @version 2
+ * @version 3
  * @since 9
  */
 public class FileToolsODF {
 
     private final SpreadsheetDocument spreadsheetDocument;
+    private final Path streamedFile;
 
     /**
      * Constructs a new instance of this class given a {@link SpreadsheetDocument} object for writing the filled table
@@ -39,6 +49,31 @@ public class FileToolsODF {
      */
     public FileToolsODF(SpreadsheetDocument spreadsheetDocument) {
         this.spreadsheetDocument = spreadsheetDocument;
+        this.streamedFile = null;
+    }
+
+    /**
+     * Constructs a new instance of this class given a spreadsheet file, that was written by an
+     * {@link ODSStreamWriter}.
+     *
+     * @param streamedFile complete spreadsheet file (e.g. a temporary file)
+     */
+    public FileToolsODF(Path streamedFile) {
+        this.spreadsheetDocument = null;
+        this.streamedFile = streamedFile;
+    }
+
+    /**
+     * Deletes the streamed spreadsheet file, if it is not written with {@link #writeODS(String)}.
+     */
+    public void dispose() {
+        if (streamedFile != null) {
+            try {
+                Files.deleteIfExists(streamedFile);
+            } catch (IOException e) {
+                System.err.println("unable to delete temporary Open Document Spreadsheet file " + streamedFile);
+            }
+        }
     }
 
     /**
@@ -50,7 +85,12 @@ public class FileToolsODF {
      */
     public boolean writeODS(String fileName) {
         try {
-            spreadsheetDocument.save(fileName);
+            if (streamedFile != null) {
+                Files.move(streamedFile, Paths.get(fileName), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                spreadsheetDocument.save(fileName);
+            }
+
             return true;
         } catch (Exception e) {
             System.err.println("unable to save Open Document Spreadsheet file to disk.");
@@ -0,0 +1,248 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.file
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.file;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Instances of this class read the first table of an Open Document Format spreadsheet file (ODS) row by row,
+ * without the object model of Simple ODF.
+ * <p>
+ * The 'content.xml' entry is parsed with StAX and every row is handed over as string array as soon as it is
+ * complete, therefore only the current row is held in memory. Float, percentage and currency cells are read
+ * from their unformatted value, all other cells from their text.
+ * <p>
+ * Repeated rows and cells (e.g. 'table:number-rows-repeated') are expanded, except empty rows and empty cells
+ * at the end of a row, which are skipped.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class ODSStreamReader {
+
+    private static final String NS_OFFICE = "urn:oasis:names:tc:opendocument:xmlns:office:1.0";
+    private static final String NS_TABLE = "urn:oasis:names:tc:opendocument:xmlns:table:1.0";
+    private static final String NS_TEXT = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+
+    private final Path file;
+
+    /**
+     * Constructs a new instance of this class for the given file.
+     *
+     * @param file spreadsheet file to read
+     */
+    public ODSStreamReader(Path file) {
+        this.file = file;
+    }
+
+    /*
+     * Returns the value of a repeat attribute (e.g. 'table:number-columns-repeated'), which is 1 if it is not set.
+     */
+    private static int getRepeat(XMLStreamReader reader, String attribute) {
+        String repeat = reader.getAttributeValue(NS_TABLE, attribute);
+
+        return repeat == null ? 1 : Integer.parseInt(repeat);
+    }
+
+    /**
+     * Reads the first table of the spreadsheet file and hands over every row to the given row handler.
+     *
+     * @param rowHandler receiver of the read rows
+     *
+     * @throws IOException if the file could not be read or is not an Open Document spreadsheet
+     */
+    public void read(Consumer<String[]> rowHandler) throws IOException {
+        try (ZipFile zipFile = new ZipFile(file.toFile())) {
+            ZipEntry contentEntry = zipFile.getEntry("content.xml");
+
+            if (contentEntry == null) {
+                throw new IOException("no content.xml found in " + file);
+            }
+
+            try (InputStream inputStream = new BufferedInputStream(zipFile.getInputStream(contentEntry))) {
+                XMLInputFactory factory = XMLInputFactory.newInstance();
+                factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+                factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+                XMLStreamReader reader = factory.createXMLStreamReader(inputStream);
+
+                try {
+                    readFirstTable(reader, rowHandler);
+                } finally {
+                    reader.close();
+                }
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("unable to parse Open Document spreadsheet file " + file, e);
+        }
+    }
+
+    private void readFirstTable(XMLStreamReader reader, Consumer<String[]> rowHandler) throws XMLStreamException {
+        boolean isTableOpen = false;
+        boolean isCellOpen = false;
+        boolean isFirstParagraph = true;
+        int rowRepeat = 1;
+        int columnRepeat = 1;
+        int pendingEmptyCells = 0;
+        String cellValue = null;
+        ArrayList<String> row = new ArrayList<>();
+        StringBuilder cellText = new StringBuilder();
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String namespace = reader.getNamespaceURI();
+                String name = reader.getLocalName();
+
+                if (NS_TABLE.equals(namespace)) {
+                    switch (name) {
+                        case "table":
+                            isTableOpen = true;
+                            break;
+
+                        case "table-row":
+                            rowRepeat = getRepeat(reader, "number-rows-repeated");
+                            pendingEmptyCells = 0;
+                            row.clear();
+                            break;
+
+                        case "table-cell":
+                        case "covered-table-cell":
+                            isCellOpen = true;
+                            isFirstParagraph = true;
+                            columnRepeat = getRepeat(reader, "number-columns-repeated");
+                            cellValue = readValueAttribute(reader);
+                            cellText.setLength(0);
+                            break;
+                    }
+                } else if (isCellOpen && NS_TEXT.equals(namespace)) {
+                    switch (name) {
+                        case "p":
+                            if (!isFirstParagraph) {
+                                cellText.append('\n');
+                            }
+                            isFirstParagraph = false;
+                            break;
+
+                        case "s":
+                            String count = reader.getAttributeValue(NS_TEXT, "c");
+                            for (int i = 0; i < (count == null ? 1 : Integer.parseInt(count)); i++) {
+                                cellText.append(' ');
+                            }
+                            break;
+
+                        case "tab":
+                            cellText.append('\t');
+                            break;
+
+                        case "line-break":
+                            cellText.append('\n');
+                            break;
+                    }
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                if (isCellOpen) {
+                    cellText.append(reader.getText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && NS_TABLE.equals(reader.getNamespaceURI())) {
+                switch (reader.getLocalName()) {
+                    case "table":
+                        // only the first table is read
+                        return;
+
+                    case "table-row":
+                        if (isTableOpen && !row.isEmpty()) {
+                            String[] values = row.toArray(new String[0]);
+
+                            for (int i = 0; i < rowRepeat; i++) {
+                                rowHandler.accept(i == 0 ? values : values.clone());
+                            }
+                        }
+                        break;
+
+                    case "table-cell":
+                    case "covered-table-cell":
+                        String value = cellValue != null ? cellValue : cellText.toString();
+
+                        // empty cells are only added in front of a following value
+                        if (value.isEmpty()) {
+                            pendingEmptyCells = pendingEmptyCells + columnRepeat;
+                        } else {
+                            for (int i = 0; i < pendingEmptyCells; i++) {
+                                row.add("");
+                            }
+                            for (int i = 0; i < columnRepeat; i++) {
+                                row.add(value);
+                            }
+                            pendingEmptyCells = 0;
+                        }
+
+                        isCellOpen = false;
+                        break;
+                }
+            }
+        }
+    }
+
+    /*
+     * Returns the unformatted value of a cell from it's attributes or null, if the value is given by the cell text.
+     */
+    private String readValueAttribute(XMLStreamReader reader) {
+        String valueType = reader.getAttributeValue(NS_OFFICE, "value-type");
+
+        if (valueType == null) {
+            return null;
+        }
+
+        switch (valueType) {
+            case "float":
+            case "percentage":
+            case "currency":
+                return reader.getAttributeValue(NS_OFFICE, "value");
+
+            case "boolean":
+                return reader.getAttributeValue(NS_OFFICE, "boolean-value");
+
+            case "date":
+                return reader.getAttributeValue(NS_OFFICE, "date-value");
+
+            case "time":
+                return reader.getAttributeValue(NS_OFFICE, "time-value");
+
+            case "string":
+                return reader.getAttributeValue(NS_OFFICE, "string-value");
+
+            default:
+                return null;
+        }
+    }
+
+} // end of ODSStreamReader
@@ -0,0 +1,419 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.file
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.file;
+
+import de.ryanthara.ja.rycon.converter.odf.SpreadsheetWriter;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Instances of this class write an Open Document Format spreadsheet file (ODS) directly to the file system,
+ * without the object model of Simple ODF.
+ * <p>
+ * The cells are written with StAX into the 'content.xml' entry of a {@link ZipOutputStream} as soon as they are set,
+ * therefore only the current cell is held in memory. The 'mimetype' entry, the manifest and the 'styles.xml' with
+ * one cell style for every used number format are written by this class itself.
+ * <p>
+ * Because of the streaming, the cells have to be set row by row and from the left to the right. Skipped cells and
+ * rows are written as empty ones. A stream writer has to be closed after usage to finish the file, therefore it is
+ * recommended to use it within a try-with-resources statement. At the moment, there is no thread safety
+ * implemented.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class ODSStreamWriter implements SpreadsheetWriter, Closeable {
+
+    private static final String MIMETYPE = "application/vnd.oasis.opendocument.spreadsheet";
+    private static final String ODF_VERSION = "1.2";
+
+    private static final String NS_MANIFEST = "urn:oasis:names:tc:opendocument:xmlns:manifest:1.0";
+    private static final String NS_NUMBER = "urn:oasis:names:tc:opendocument:xmlns:datastyle:1.0";
+    private static final String NS_OFFICE = "urn:oasis:names:tc:opendocument:xmlns:office:1.0";
+    private static final String NS_STYLE = "urn:oasis:names:tc:opendocument:xmlns:style:1.0";
+    private static final String NS_TABLE = "urn:oasis:names:tc:opendocument:xmlns:table:1.0";
+    private static final String NS_TEXT = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+
+    private final ZipOutputStream zipOutputStream;
+    private final XMLStreamWriter content;
+    private final LinkedHashMap<String, String> cellStyles;
+    private boolean isTableOpen = false;
+    private boolean isRowOpen = false;
+    private int currentRow = -1;
+    private int nextColumn = 0;
+    private IOException failure = null;
+
+    /**
+     * Constructs a new instance of this class, that writes the spreadsheet into the given file.
+     *
+     * @param file file to write, an existing file will be overwritten
+     *
+     * @throws IOException if the file could not be opened
+     */
+    public ODSStreamWriter(Path file) throws IOException {
+        zipOutputStream = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile())));
+        cellStyles = new LinkedHashMap<>();
+
+        try {
+            writeMimetype();
+
+            zipOutputStream.putNextEntry(new ZipEntry("content.xml"));
+
+            content = XMLOutputFactory.newInstance().createXMLStreamWriter(zipOutputStream, "UTF-8");
+            content.writeStartDocument("UTF-8", "1.0");
+            content.writeStartElement("office", "document-content", NS_OFFICE);
+            content.writeNamespace("office", NS_OFFICE);
+            content.writeNamespace("table", NS_TABLE);
+            content.writeNamespace("text", NS_TEXT);
+            content.writeAttribute("office", NS_OFFICE, "version", ODF_VERSION);
+            content.writeStartElement("office", "body", NS_OFFICE);
+            content.writeStartElement("office", "spreadsheet", NS_OFFICE);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            zipOutputStream.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("unable to start spreadsheet file", e);
+        }
+    }
+
+    /*
+     * Returns the number of decimal places of a number format (e.g. 3 for '#,##0.000').
+     */
+    private static int getDecimalPlaces(String format) {
+        int point = format.indexOf('.');
+
+        return point < 0 ? 0 : format.length() - point - 1;
+    }
+
+    /*
+     * Returns the minimal number of integer digits of a number format (e.g. 1 for '#,##0.000').
+     */
+    private static int getMinIntegerDigits(String format) {
+        int end = format.indexOf('.') < 0 ? format.length() : format.indexOf('.');
+        int digits = 0;
+
+        for (int i = 0; i < end; i++) {
+            if (format.charAt(i) == '0') {
+                digits = digits + 1;
+            }
+        }
+
+        return digits;
+    }
+
+    /**
+     * Finishes the content and writes the styles and the manifest. The file is complete after closing.
+     *
+     * @throws IOException if the file could not be written or one of the cells failed before
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (failure == null) {
+                endTable();
+
+                content.writeEndElement();      // office:spreadsheet
+                content.writeEndElement();      // office:body
+                content.writeEndElement();      // office:document-content
+                content.writeEndDocument();
+                content.close();
+                zipOutputStream.closeEntry();
+
+                writeStyles();
+                writeManifest();
+            }
+        } catch (XMLStreamException e) {
+            failure = new IOException("unable to finish spreadsheet file", e);
+        } finally {
+            zipOutputStream.close();
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Sets a float value into the cell at the given position.
+     *
+     * @param colIndex column of the cell
+     * @param rowIndex row of the cell
+     * @param value    value to set
+     */
+    @Override
+    public void setDoubleValue(int colIndex, int rowIndex, double value) {
+        setDoubleValue(colIndex, rowIndex, value, null);
+    }
+
+    /**
+     * Sets a float value with a number format (e.g. '#,##0.000') into the cell at the given position.
+     *
+     * @param colIndex column of the cell
+     * @param rowIndex row of the cell
+     * @param value    value to set
+     * @param format   number format of the cell, or null for the default format
+     */
+    @Override
+    public void setDoubleValue(int colIndex, int rowIndex, double value, String format) {
+        String text = Double.isNaN(value) || Double.isInfinite(value) ?
+                Double.toString(value) : BigDecimal.valueOf(value).toPlainString();
+
+        try {
+            moveTo(colIndex, rowIndex);
+
+            content.writeStartElement("table", "table-cell", NS_TABLE);
+
+            if (format != null) {
+                content.writeAttribute("table", NS_TABLE, "style-name", getCellStyle(format));
+            }
+
+            content.writeAttribute("office", NS_OFFICE, "value-type", "float");
+            content.writeAttribute("office", NS_OFFICE, "value", text);
+            writeParagraph(text);
+            content.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw fail(e);
+        }
+    }
+
+    /**
+     * Sets a string value into the cell at the given position.
+     *
+     * @param colIndex column of the cell
+     * @param rowIndex row of the cell
+     * @param value    value to set
+     */
+    @Override
+    public void setStringValue(int colIndex, int rowIndex, String value) {
+        try {
+            moveTo(colIndex, rowIndex);
+
+            content.writeStartElement("table", "table-cell", NS_TABLE);
+            content.writeAttribute("office", NS_OFFICE, "value-type", "string");
+            writeParagraph(value);
+            content.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw fail(e);
+        }
+    }
+
+    /**
+     * Starts a new table. All following cells are written into this table, an open table is finished before.
+     *
+     * @param tableName name of the table (file name from input file)
+     *
+     * @throws IOException if the table could not be written
+     */
+    @Override
+    public void startTable(String tableName) throws IOException {
+        try {
+            endTable();
+
+            content.writeStartElement("table", "table", NS_TABLE);
+            content.writeAttribute("table", NS_TABLE, "name", tableName);
+
+            // at least one column definition is needed before the first row
+            content.writeEmptyElement("table", "table-column", NS_TABLE);
+
+            isTableOpen = true;
+            currentRow = -1;
+        } catch (XMLStreamException e) {
+            throw new IOException("unable to start table " + tableName, e);
+        }
+    }
+
+    private void endTable() throws XMLStreamException {
+        if (isRowOpen) {
+            content.writeEndElement();
+            isRowOpen = false;
+        }
+
+        if (isTableOpen) {
+            content.writeEndElement();
+            isTableOpen = false;
+        }
+    }
+
+    private UncheckedIOException fail(XMLStreamException e) {
+        failure = new IOException("unable to write cell into spreadsheet file", e);
+
+        return new UncheckedIOException(failure);
+    }
+
+    private String getCellStyle(String format) {
+        String styleName = cellStyles.get(format);
+
+        if (styleName == null) {
+            styleName = "RyCON_CE" + (cellStyles.size() + 1);
+            cellStyles.put(format, styleName);
+        }
+
+        return styleName;
+    }
+
+    /*
+     * Moves to the cell position and fills skipped rows and cells with empty ones.
+     */
+    private void moveTo(int colIndex, int rowIndex) throws XMLStreamException {
+        if (!isTableOpen) {
+            throw new IllegalStateException("no table started");
+        }
+
+        if (rowIndex < currentRow || (rowIndex == currentRow && colIndex < nextColumn)) {
+            throw new IllegalStateException("cells have to be written in order, found column " + colIndex +
+                    " in row " + rowIndex);
+        }
+
+        if (rowIndex > currentRow) {
+            if (isRowOpen) {
+                content.writeEndElement();
+            }
+
+            int skippedRows = rowIndex - currentRow - 1;
+
+            if (skippedRows > 0) {
+                content.writeStartElement("table", "table-row", NS_TABLE);
+                content.writeAttribute("table", NS_TABLE, "number-rows-repeated", Integer.toString(skippedRows));
+                content.writeEmptyElement("table", "table-cell", NS_TABLE);
+                content.writeEndElement();
+            }
+
+            content.writeStartElement("table", "table-row", NS_TABLE);
+
+            isRowOpen = true;
+            currentRow = rowIndex;
+            nextColumn = 0;
+        }
+
+        if (colIndex > nextColumn) {
+            content.writeEmptyElement("table", "table-cell", NS_TABLE);
+            content.writeAttribute("table", NS_TABLE, "number-columns-repeated", Integer.toString(colIndex - nextColumn));
+        }
+
+        nextColumn = colIndex + 1;
+    }
+
+    /*
+     * Writes the manifest, which lists the entries of the file.
+     */
+    private void writeManifest() throws IOException, XMLStreamException {
+        zipOutputStream.putNextEntry(new ZipEntry("META-INF/manifest.xml"));
+
+        XMLStreamWriter manifest = XMLOutputFactory.newInstance().createXMLStreamWriter(zipOutputStream, "UTF-8");
+        manifest.writeStartDocument("UTF-8", "1.0");
+        manifest.writeStartElement("manifest", "manifest", NS_MANIFEST);
+        manifest.writeNamespace("manifest", NS_MANIFEST);
+        manifest.writeAttribute("manifest", NS_MANIFEST, "version", ODF_VERSION);
+
+        manifest.writeEmptyElement("manifest", "file-entry", NS_MANIFEST);
+        manifest.writeAttribute("manifest", NS_MANIFEST, "full-path", "/");
+        manifest.writeAttribute("manifest", NS_MANIFEST, "version", ODF_VERSION);
+        manifest.writeAttribute("manifest", NS_MANIFEST, "media-type", MIMETYPE);
+
+        for (String entry : new String[]{"content.xml", "styles.xml"}) {
+            manifest.writeEmptyElement("manifest", "file-entry", NS_MANIFEST);
+            manifest.writeAttribute("manifest", NS_MANIFEST, "full-path", entry);
+            manifest.writeAttribute("manifest", NS_MANIFEST, "media-type", "text/xml");
+        }
+
+        manifest.writeEndElement();
+        manifest.writeEndDocument();
+        manifest.close();
+
+        zipOutputStream.closeEntry();
+    }
+
+    /*
+     * The mimetype has to be the first and uncompressed entry of the file.
+     */
+    private void writeMimetype() throws IOException {
+        byte[] bytes = MIMETYPE.getBytes(StandardCharsets.US_ASCII);
+
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes);
+
+        ZipEntry entry = new ZipEntry("mimetype");
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        entry.setCompressedSize(bytes.length);
+        entry.setCrc(crc32.getValue());
+
+        zipOutputStream.putNextEntry(entry);
+        zipOutputStream.write(bytes);
+        zipOutputStream.closeEntry();
+    }
+
+    private void writeParagraph(String text) throws XMLStreamException {
+        content.writeStartElement("text", "p", NS_TEXT);
+        content.writeCharacters(text);
+        content.writeEndElement();
+    }
+
+    /*
+     * Writes one number style and one cell style for every used number format. The entry is written after the
+     * content, therefore the used formats are known.
+     */
+    private void writeStyles() throws IOException, XMLStreamException {
+        zipOutputStream.putNextEntry(new ZipEntry("styles.xml"));
+
+        XMLStreamWriter styles = XMLOutputFactory.newInstance().createXMLStreamWriter(zipOutputStream, "UTF-8");
+        styles.writeStartDocument("UTF-8", "1.0");
+        styles.writeStartElement("office", "document-styles", NS_OFFICE);
+        styles.writeNamespace("office", NS_OFFICE);
+        styles.writeNamespace("style", NS_STYLE);
+        styles.writeNamespace("number", NS_NUMBER);
+        styles.writeAttribute("office", NS_OFFICE, "version", ODF_VERSION);
+        styles.writeStartElement("office", "styles", NS_OFFICE);
+
+        for (Map.Entry<String, String> cellStyle : cellStyles.entrySet()) {
+            String format = cellStyle.getKey();
+            String numberStyleName = cellStyle.getValue() + "_N";
+
+            styles.writeStartElement("number", "number-style", NS_NUMBER);
+            styles.writeAttribute("style", NS_STYLE, "name", numberStyleName);
+            styles.writeEmptyElement("number", "number", NS_NUMBER);
+            styles.writeAttribute("number", NS_NUMBER, "decimal-places", Integer.toString(getDecimalPlaces(format)));
+            styles.writeAttribute("number", NS_NUMBER, "min-integer-digits", Integer.toString(getMinIntegerDigits(format)));
+            styles.writeAttribute("number", NS_NUMBER, "grouping", Boolean.toString(format.indexOf(',') > -1));
+            styles.writeEndElement();
+
+            styles.writeEmptyElement("style", "style", NS_STYLE);
+            styles.writeAttribute("style", NS_STYLE, "name", cellStyle.getValue());
+            styles.writeAttribute("style", NS_STYLE, "family", "table-cell");
+            styles.writeAttribute("style", NS_STYLE, "data-style-name", numberStyleName);
+        }
+
+        styles.writeEndElement();
+        styles.writeEndElement();
+        styles.writeEndDocument();
+        styles.close();
+
+        zipOutputStream.closeEntry();
+    }
+
+} // end of ODSStreamWriter
@@ -0,0 +1,172 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.file
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.file;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Instances of this class read the first sheet of a Microsoft Excel file (XLSX) row by row, without building
+ * a workbook object.
+ * <p>
+ * The sheet is parsed with the SAX based event model of Apache POI ({@link XSSFReader} and
+ * {@link XSSFSheetXMLHandler}) and every row is handed over as string array as soon as it is complete, therefore
+ * only the current row and the shared strings table are held in memory. Number cells are read with their
+ * unformatted value (e.g. '2600000.123' instead of '2,600,000.123'), all other cells as shown by Excel.
+ * <p>
+ * Empty rows and empty cells at the end of a row are skipped, missing cells in front of a value are
+ * filled with empty strings.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class XLSXStreamReader {
+
+    private final Path file;
+
+    /**
+     * Constructs a new instance of this class for the given file.
+     *
+     * @param file Microsoft Excel file to read
+     */
+    public XLSXStreamReader(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the first sheet of the Microsoft Excel file and hands over every row to the given row handler.
+     *
+     * @param rowHandler receiver of the read rows
+     *
+     * @throws IOException if the file could not be read or is not a Microsoft Excel file
+     */
+    public void read(Consumer<String[]> rowHandler) throws IOException {
+        OPCPackage opcPackage = null;
+
+        try {
+            opcPackage = OPCPackage.open(file.toFile(), PackageAccess.READ);
+
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+            StylesTable styles = xssfReader.getStylesTable();
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+
+            if (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader xmlReader = SAXHelper.newXMLReader();
+                    xmlReader.setContentHandler(new XSSFSheetXMLHandler(styles, null, sharedStrings,
+                            new RowCollector(rowHandler), new RawValueFormatter(), false));
+                    xmlReader.parse(new InputSource(sheet));
+                }
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("unable to parse Microsoft Excel file " + file, e);
+        } finally {
+            // a read only package is closed without saving
+            if (opcPackage != null) {
+                opcPackage.revert();
+            }
+        }
+    }
+
+    /*
+     * Collects the cells of one row and hands over the complete row.
+     */
+    private static class RowCollector implements SheetContentsHandler {
+
+        private final Consumer<String[]> rowHandler;
+        private final ArrayList<String> row = new ArrayList<>();
+
+        RowCollector(Consumer<String[]> rowHandler) {
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            row.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!row.isEmpty()) {
+                rowHandler.accept(row.toArray(new String[0]));
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (formattedValue == null || formattedValue.isEmpty()) {
+                return;
+            }
+
+            // cells without value are not part of the sheet xml
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : row.size();
+
+            while (row.size() < column) {
+                row.add("");
+            }
+
+            row.add(formattedValue);
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+        }
+
+    } // end of RowCollector
+
+    /*
+     * Formats number cells without their number format, so that coordinates are not rounded or grouped.
+     */
+    private static class RawValueFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (value == 0) {
+                return "0";
+            }
+
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+
+    } // end of RawValueFormatter
+
+} // end of XLSXStreamReader
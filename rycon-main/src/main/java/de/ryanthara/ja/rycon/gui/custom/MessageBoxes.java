@@ -17,6 +17,7 @@
  */
 package de.ryanthara.ja.rycon.gui.custom;
 
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.MessageBox;
 import org.eclipse.swt.widgets.Shell;
 
@@ -24,13 +25,18 @@ import org.eclipse.swt.widgets.Shell;
  * This class provides simple {@link MessageBox} with static access for RyCON's gui elements.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class MessageBoxes {
 
+    private static final Object LOCK = new Object();
+
     /**
      * Shows a swt {@link MessageBox} and returns an integer value as indicator for being shown.
+     * <p>
+     * When called from a worker thread (e.g. a write task of the converter), the message box is shown
+     * synchronously by the user interface thread and message boxes of several workers are shown one by one.
      *
      * @param innerShell the inner shell object
      * @param icon       the icon of the message box
@@ -40,6 +46,20 @@ public class MessageBoxes {
      * @return int value
      */
     public static int showMessageBox(final Shell innerShell, final int icon, final String text, final String message) {
+        if (Display.getCurrent() == null) {
+            final int[] returnValue = new int[1];
+
+            synchronized (LOCK) {
+                innerShell.getDisplay().syncExec(() -> returnValue[0] = open(innerShell, icon, text, message));
+            }
+
+            return returnValue[0];
+        }
+
+        return open(innerShell, icon, text, message);
+    }
+
+    private static int open(Shell innerShell, int icon, String text, String message) {
         MessageBox messageBox = new MessageBox(innerShell, icon);
 
         messageBox.setText(text);
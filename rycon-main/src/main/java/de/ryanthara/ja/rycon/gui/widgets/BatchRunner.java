@@ -0,0 +1,173 @@
+/*
+ * License: GPL. Copyright 2016- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.gui.widgets
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.gui.widgets;
+
+import de.ryanthara.ja.rycon.Main;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.DiagnosticsCollector;
+import de.ryanthara.ja.rycon.data.ProgressCounter;
+import de.ryanthara.ja.rycon.gui.custom.MessageBoxes;
+import de.ryanthara.ja.rycon.i18n.Labels;
+import de.ryanthara.ja.rycon.i18n.Messages;
+import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
+import de.ryanthara.ja.rycon.util.BatchExecutor;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import static de.ryanthara.ja.rycon.gui.custom.Status.OK;
+import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
+import static de.ryanthara.ja.rycon.i18n.ResourceBundles.MESSAGES;
+
+/**
+ * This class starts the file operations of RyCON's widgets as {@link BatchExecutor} in the background, so that
+ * the user interface is not blocked while large batches are processed.
+ * <p>
+ * The progress is shown on the status bar and the finish is handed over to the user interface thread with
+ * {@link Display#asyncExec(Runnable)}. The number of worker threads is read from the conversion settings.
+ * <p>
+ * The converters of a batch share one {@link ConversionContext}, which collects their warnings and counts the
+ * processed lines. The warnings are shown together after the batch instead of one dialog per warning, the lines
+ * are shown with the progress on the status bar.
+ *
+ * @author sebastian
+ * @version 2
+ * @since 25
+ */
+final class BatchRunner {
+
+    private BatchRunner() {
+    }
+
+    /**
+     * Starts the file operation for all files in the background and returns the running batch, which can be
+     * cancelled.
+     * <p>
+     * The finisher is called in the user interface thread, when all files are processed. A cancelled batch is
+     * only reported on the status bar.
+     *
+     * @param files         files to process
+     * @param fileOperation operation for every file, called from the worker threads
+     * @param finisher      receiver of the finished batch, called from the user interface thread
+     *
+     * @return running batch
+     */
+    static BatchExecutor start(Path[] files, BatchExecutor.FileOperation fileOperation, Consumer<BatchExecutor> finisher) {
+        return start(files, fileOperation, null, finisher);
+    }
+
+    /**
+     * Starts the file operation for all files in the background and returns the running batch, which can be
+     * cancelled. The processed lines of the given counter are shown with the progress.
+     *
+     * @param files         files to process
+     * @param fileOperation operation for every file, called from the worker threads
+     * @param progress      counter of the processed lines or null, if no lines are shown
+     * @param finisher      receiver of the finished batch, called from the user interface thread
+     *
+     * @return running batch
+     *
+     * @see #createContext(DiagnosticsCollector, ProgressCounter)
+     */
+    static BatchExecutor start(Path[] files, BatchExecutor.FileOperation fileOperation, ProgressCounter progress,
+                               Consumer<BatchExecutor> finisher) {
+        final Display display = Main.shell.getDisplay();
+        final int workers = Main.pref.getConversionSettings().getBatchWorkers();
+
+        BatchExecutor batchExecutor = new BatchExecutor(files, workers, fileOperation);
+
+        batchExecutor.start(new BatchExecutor.Listener() {
+            @Override
+            public void finished(BatchExecutor batch) {
+                asyncExec(display, () -> {
+                    if (batch.isCancelled()) {
+                        setStatus(String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.batchCancelledStatus),
+                                batch.getProcessedFiles(), batch.getFileCount()));
+                    } else {
+                        finisher.accept(batch);
+                    }
+                });
+            }
+
+            @Override
+            public void progress(BatchExecutor batch) {
+                final int processedFiles = batch.getProcessedFiles() + batch.getSkippedFiles();
+
+                asyncExec(display, () -> {
+                    if (!batch.isFinished()) {
+                        if (progress != null) {
+                            setStatus(String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.batchProgressLinesStatus),
+                                    processedFiles, batch.getFileCount(), progress.getLines()));
+                        } else {
+                            setStatus(String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.batchProgressStatus),
+                                    processedFiles, batch.getFileCount()));
+                        }
+                    }
+                });
+            }
+        });
+
+        return batchExecutor;
+    }
+
+    /**
+     * Returns a new context for the converters of a batch with the current conversion settings. The warnings of
+     * all files are collected and the processed lines are counted by the given sinks.
+     *
+     * @param diagnostics collector for the warnings of the batch
+     * @param progress    counter of the processed lines of the batch
+     *
+     * @return new conversion context
+     */
+    static ConversionContext createContext(DiagnosticsCollector diagnostics, ProgressCounter progress) {
+        return new ConversionContext(Main.pref.getConversionSettings(), diagnostics, progress);
+    }
+
+    /**
+     * Shows the collected warnings of a finished batch in one message box.
+     *
+     * @param shell       parent shell of the message box
+     * @param diagnostics collector for the warnings of the batch
+     */
+    static void showWarnings(Shell shell, DiagnosticsCollector diagnostics) {
+        if (diagnostics.hasWarnings() && !shell.isDisposed()) {
+            MessageBoxes.showMessageBox(shell, SWT.ICON_WARNING,
+                    ResourceBundleUtils.getLangString(LABELS, Labels.warningTextMsgBox),
+                    String.join(System.lineSeparator(), diagnostics.getWarnings()));
+        }
+    }
+
+    private static void asyncExec(Display display, Runnable runnable) {
+        if (!display.isDisposed()) {
+            display.asyncExec(runnable);
+        }
+    }
+
+    /*
+     * The status bar can be disposed, when RyCON is closed while a batch is running.
+     */
+    private static void setStatus(String text) {
+        if (Main.statusBar != null && !Main.statusBar.isDisposed()) {
+            Main.statusBar.setStatus(text, OK);
+        }
+    }
+
+} // end of BatchRunner
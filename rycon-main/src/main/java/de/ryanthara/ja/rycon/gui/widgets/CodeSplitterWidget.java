@@ -20,25 +20,21 @@ package de.ryanthara.ja.rycon.gui.widgets;
 import de.ryanthara.ja.rycon.Main;
 import de.ryanthara.ja.rycon.check.PathCheck;
 import de.ryanthara.ja.rycon.check.TextCheck;
-import de.ryanthara.ja.rycon.core.GSICodeSplit;
-import de.ryanthara.ja.rycon.core.TextCodeSplit;
-import de.ryanthara.ja.rycon.data.DefaultKeys;
+import de.ryanthara.ja.rycon.core.BatchOperations;
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import de.ryanthara.ja.rycon.data.PreferenceKeys;
 import de.ryanthara.ja.rycon.gui.Sizes;
 import de.ryanthara.ja.rycon.gui.custom.*;
 import de.ryanthara.ja.rycon.i18n.*;
-import de.ryanthara.ja.rycon.io.LineReader;
-import de.ryanthara.ja.rycon.io.LineWriter;
 import de.ryanthara.ja.rycon.tools.ShellPositioner;
 import de.ryanthara.ja.rycon.tools.StringUtils;
+import de.ryanthara.ja.rycon.util.BatchExecutor;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.*;
 
 import java.nio.file.*;
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -59,7 +55,7 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.*;
  * </ul>
  *
  * @author sebastian
- * @version 7
+ * @version 11
  * @since 1
  */
 public class CodeSplitterWidget extends AbstractWidget {
@@ -67,10 +63,12 @@ public class CodeSplitterWidget extends AbstractWidget {
     private final static Logger logger = Logger.getLogger(CodeSplitterWidget.class.getName());
 
     private final String[] acceptableFileSuffixes = new String[]{"*.gsi", "*.txt"};
+    private BatchExecutor batchExecutor;
     private Button chkBoxInsertCodeColumn, chkBoxWriteCodeZero;
     private Path[] files2read;
     private InputFieldsComposite inputFieldsComposite;
     private Shell innerShell;
+    private boolean isExitAfterBatch = false;
 
     /**
      * Constructs the {@link CodeSplitterWidget} without any parameters.
@@ -102,31 +100,28 @@ public class CodeSplitterWidget extends AbstractWidget {
      */
     public void executeDropInjection() {
         if ((files2read != null) && (files2read.length > 0)) {
-            if (processFileOperationsDND()) {
-                String status;
-
-                final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.splitFilesStatus), Main.countFileOps);
-
-                // use counter to display different text on the status bar
-                if (Main.countFileOps == 1) {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
-                } else {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
-                }
-
-                Main.statusBar.setStatus(status, Status.OK);
-            }
+            // no code column and write file for lines without code
+            batchExecutor = BatchRunner.start(files2read, prepareFileOperation(false, true), this::showStatus);
         }
-
     }
 
     void actionBtnCancel() {
+        // files, which are processed at the moment, are finished
+        if (batchExecutor != null && !batchExecutor.isFinished()) {
+            batchExecutor.cancel();
+        }
+
         Main.setSubShellStatus(false);
         Main.statusBar.setStatus("", Status.OK);
         innerShell.dispose();
     }
 
     boolean actionBtnOk() {
+        // only one batch at a time
+        if (batchExecutor != null && !batchExecutor.isFinished()) {
+            return false;
+        }
+
         if (TextCheck.isEmpty(inputFieldsComposite.getSourceTextField()) ||
                 TextCheck.isEmpty(inputFieldsComposite.getTargetTextField())) {
             return false;
@@ -142,20 +137,9 @@ public class CodeSplitterWidget extends AbstractWidget {
         }
 
         if ((files2read != null) && (files2read.length > 0)) {
-            if (processFileOperations()) {
-                String status;
-
-                final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.splitFilesStatus), Main.countFileOps);
-
-                // use counter to display different text on the status bar
-                if (Main.countFileOps == 1) {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
-                } else {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
-                }
-
-                Main.statusBar.setStatus(status, Status.OK);
-            }
+            batchExecutor = BatchRunner.start(files2read,
+                    prepareFileOperation(chkBoxInsertCodeColumn.getSelection(), chkBoxWriteCodeZero.getSelection()),
+                    this::finishFileOperations);
 
             return true;
         }
@@ -164,11 +148,9 @@ public class CodeSplitterWidget extends AbstractWidget {
     }
 
     void actionBtnOkAndExit() {
+        // the widget is closed, when the started batch is finished
         if (actionBtnOk()) {
-            Main.setSubShellStatus(false);
-            Main.statusBar.setStatus("", Status.OK);
-
-            innerShell.dispose();
+            isExitAfterBatch = true;
         }
     }
 
@@ -299,100 +281,13 @@ public class CodeSplitterWidget extends AbstractWidget {
         chkBoxWriteCodeZero.setText(ResourceBundleUtils.getLangString(CHECKBOXES, CheckBoxes.writeCodeZeroSplitter));
     }
 
-    private int executeSplitGSI(boolean insertCodeColumn, boolean writeFileWithCodeZero, int counter, Path file2read,
-                                ArrayList<String> readFile) {
-        final String paramCodeString = DefaultKeys.PARAM_CODE_STRING.getValue();
-
-        GSICodeSplit gsiCodeSplit = new GSICodeSplit(readFile);
-        ArrayList<ArrayList<String>> writeFile = gsiCodeSplit.processCodeSplit(insertCodeColumn, writeFileWithCodeZero);
-
-        Iterator<Integer> codeIterator = gsiCodeSplit.getFoundCodes().iterator();
-
-        // write file by file with one code
-        for (ArrayList<String> lines : writeFile) {
-            int code = codeIterator.next();
-
-            String file2write = file2read.toString().substring(0, file2read.toString().length() - 4) + "_" +
-                    paramCodeString + "-" + code + ".GSI";
-
-            LineWriter lineWriter = new LineWriter(file2write);
-
-            if (lineWriter.writeFile(lines)) {
-                counter = counter + 1;
-            }
-        }
-
-        return counter;
-    }
-
-    private int executeSplitTxt(boolean insertCodeColumn, boolean writeFileWithCodeZero, int counter, Path file2read,
-                                ArrayList<String> readFile) {
-
-        final String paramCodeString = DefaultKeys.PARAM_CODE_STRING.getValue();
-
-        TextCodeSplit textCodeSplit = new TextCodeSplit(readFile);
-        ArrayList<ArrayList<String>> writeFile = textCodeSplit.processCodeSplit(insertCodeColumn, writeFileWithCodeZero);
-
-        Iterator<Integer> codeIterator = textCodeSplit.getFoundCodes().iterator();
+    private void finishFileOperations(BatchExecutor batch) {
+        final int counter = batch.getWrittenFiles();
 
-        // write file by file with one code
-        for (ArrayList<String> lines : writeFile) {
-            int code = codeIterator.next();
-
-            String file2write = file2read.toString().substring(0, file2read.toString().length() - 4) + "_" +
-                    paramCodeString + "-" + code + ".TXT";
-
-            LineWriter lineWriter = new LineWriter(file2write);
-
-            if (lineWriter.writeFile(lines)) {
-                counter = counter + 1;
-            }
+        if (innerShell.isDisposed()) {
+            return;
         }
 
-        return counter;
-    }
-
-    private int fileOperations(boolean insertCodeColumn, boolean writeFileWithCodeZero) {
-        int counter = 0;
-
-        for (Path path : files2read) {
-            LineReader lineReader = new LineReader(path);
-
-            if (lineReader.readFile()) {
-                ArrayList<String> readFile = lineReader.getLines();
-
-                // processFileOperations by differ between txt oder gsi files
-
-                // processFileOperations and differ between 'normal' GSI files and LTOP 'GSL' files
-                PathMatcher matcherGSI = FileSystems.getDefault().getPathMatcher("regex:(?iu:.+\\.GSI)");
-                PathMatcher matcherTXT = FileSystems.getDefault().getPathMatcher("regex:(?iu:.+\\.TXT)");
-
-                if (matcherGSI.matches(path)) {
-                    counter = executeSplitGSI(insertCodeColumn, writeFileWithCodeZero, counter, path, readFile);
-                } else if (matcherTXT.matches(path)) {
-                    counter = executeSplitTxt(insertCodeColumn, writeFileWithCodeZero, counter, path, readFile);
-                } else {
-                    System.err.println("File format of " + path.getFileName() + " are not supported.");
-                }
-            } else {
-                System.err.println("File " + path.getFileName() + " could not be read.");
-            }
-        }
-
-        return counter;
-    }
-
-    private void handleFileInjection() {
-        String files = Main.getCLIInputFiles();
-
-        if (files != null) {
-            inputFieldsComposite.setSourceTextFieldText(files);
-        }
-    }
-
-    private boolean processFileOperations() {
-        int counter = fileOperations(chkBoxInsertCodeColumn.getSelection(), chkBoxWriteCodeZero.getSelection());
-
         if (counter > 0) {
             String message;
 
@@ -407,31 +302,52 @@ public class CodeSplitterWidget extends AbstractWidget {
             MessageBoxes.showMessageBox(innerShell, SWT.ICON_INFORMATION,
                     ResourceBundleUtils.getLangString(LABELS, Labels.successTextMsgBox), message);
 
-            // set the counter for status bar information
-            Main.countFileOps = counter;
-
-            return true;
+            showStatus(batch);
         } else {
             MessageBoxes.showMessageBox(innerShell, SWT.ICON_WARNING,
                     ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
                     ResourceBundleUtils.getLangString(ERRORS, Errors.codeSplitFailed));
+        }
 
-            return false;
+        if (isExitAfterBatch) {
+            Main.setSubShellStatus(false);
+            Main.statusBar.setStatus("", Status.OK);
+
+            innerShell.dispose();
         }
     }
 
-    private boolean processFileOperationsDND() {
-        // no code column and write file for lines without code
-        int counter = fileOperations(false, true);
+    private void handleFileInjection() {
+        String files = Main.getCLIInputFiles();
 
-        if (counter > 0) {
-            // set the counter for status bar information
-            Main.countFileOps = counter;
+        if (files != null) {
+            inputFieldsComposite.setSourceTextFieldText(files);
+        }
+    }
 
-            return true;
+    /*
+     * The conversion settings are read once in the user interface thread, the files are processed by the batch workers.
+     */
+    private BatchExecutor.FileOperation prepareFileOperation(boolean insertCodeColumn, boolean writeFileWithCodeZero) {
+        final ConversionContext context = ConversionContext.of(Main.pref.getConversionSettings());
+
+        return BatchOperations.codeSplit(insertCodeColumn, writeFileWithCodeZero, context);
+    }
+
+    private void showStatus(BatchExecutor batch) {
+        String status;
+
+        final int counter = batch.getWrittenFiles();
+        final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.splitFilesStatus), counter);
+
+        // use counter to display different text on the status bar
+        if (counter == 1) {
+            status = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
         } else {
-            return false;
+            status = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
         }
+
+        Main.statusBar.setStatus(status, Status.OK);
     }
 
 } // end of CodeSplitterWidget
@@ -20,24 +20,26 @@ package de.ryanthara.ja.rycon.gui.widgets;
 import de.ryanthara.ja.rycon.Main;
 import de.ryanthara.ja.rycon.check.TextCheck;
 import de.ryanthara.ja.rycon.converter.csv.BaseToolsCSV;
-import de.ryanthara.ja.rycon.converter.excel.BaseToolsExcel;
 import de.ryanthara.ja.rycon.converter.text.BaseToolsTXT;
 import de.ryanthara.ja.rycon.converter.zeiss.ZeissDialect;
+import de.ryanthara.ja.rycon.data.DiagnosticsCollector;
 import de.ryanthara.ja.rycon.data.PreferenceKeys;
+import de.ryanthara.ja.rycon.data.ProgressCounter;
 import de.ryanthara.ja.rycon.gui.Sizes;
 import de.ryanthara.ja.rycon.gui.custom.BottomButtonBar;
 import de.ryanthara.ja.rycon.gui.custom.DirectoryDialogs;
 import de.ryanthara.ja.rycon.gui.custom.InputFieldsComposite;
 import de.ryanthara.ja.rycon.gui.custom.MessageBoxes;
+import de.ryanthara.ja.rycon.gui.widgets.convert.ConvertOperation;
 import de.ryanthara.ja.rycon.gui.widgets.convert.FileFilterIndex;
 import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
 import de.ryanthara.ja.rycon.gui.widgets.convert.TargetButton;
-import de.ryanthara.ja.rycon.gui.widgets.convert.read.*;
 import de.ryanthara.ja.rycon.gui.widgets.convert.write.*;
 import de.ryanthara.ja.rycon.i18n.*;
 import de.ryanthara.ja.rycon.tools.RadioHelper;
 import de.ryanthara.ja.rycon.tools.ShellPositioner;
 import de.ryanthara.ja.rycon.tools.StringUtils;
+import de.ryanthara.ja.rycon.util.BatchExecutor;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
@@ -50,10 +52,7 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.EnumSet;
 
 import static de.ryanthara.ja.rycon.gui.custom.Status.OK;
 import static de.ryanthara.ja.rycon.gui.widgets.convert.FileFilterIndex.*;
@@ -67,11 +66,12 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.*;
  * e.g. coordinate files from governmental services in Switzerland
  *
  * @author sebastian
- * @version 9
+ * @version 14
  * @since 1
  */
 public class ConverterWidget extends AbstractWidget {
 
+    private BatchExecutor batchExecutor;
     private Button chkBoxCadworkUseZeroHeights;
     private Button chkBoxCSVSemiColonSeparator;
     private Button chkBoxKFormatUseSimpleFormat;
@@ -82,10 +82,12 @@ public class ConverterWidget extends AbstractWidget {
     private Button chkBoxWriteCodeColumn;
     private Button chkBoxWriteCommentLine;
     private Path[] files2read;
+    private Group groupAdditionalTarget;
     private Group groupSource;
     private Group groupTarget;
     private InputFieldsComposite inputFieldsComposite;
     private Shell innerShell;
+    private boolean isExitAfterBatch = false;
 
     /**
      * Constructs the {@link ConverterWidget} without any parameters.
@@ -99,6 +101,11 @@ public class ConverterWidget extends AbstractWidget {
     }
 
     void actionBtnCancel() {
+        // files, which are processed at the moment, are finished
+        if (batchExecutor != null && !batchExecutor.isFinished()) {
+            batchExecutor.cancel();
+        }
+
         Main.setSubShellStatus(false);
         Main.statusBar.setStatus("", OK);
         innerShell.dispose();
@@ -125,6 +132,11 @@ public class ConverterWidget extends AbstractWidget {
     }
 
     boolean actionBtnOk() {
+        // only one batch at a time
+        if (batchExecutor != null && !batchExecutor.isFinished()) {
+            return false;
+        }
+
         if (TextCheck.isEmpty(inputFieldsComposite.getSourceTextField()) ||
                 TextCheck.isEmpty(inputFieldsComposite.getTargetTextField())) {
             return false;
@@ -139,20 +151,7 @@ public class ConverterWidget extends AbstractWidget {
                     inputFieldsComposite.getTargetTextField(), files2read);
         }
         if ((files2read != null) && (files2read.length > 0)) {
-            if (processFileOperations()) {
-                String status;
-
-                final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.conversionStatus), Main.countFileOps);
-
-                // use counter to display different text on the status bar
-                if (Main.countFileOps == 1) {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
-                } else {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
-                }
-
-                Main.statusBar.setStatus(status, OK);
-            }
+            processFileOperations();
 
             return true;
         }
@@ -164,11 +163,9 @@ public class ConverterWidget extends AbstractWidget {
      * This method is used from the class BottomButtonBar!
      */
     void actionBtnOkAndExit() {
+        // the widget is closed, when the started batch is finished
         if (actionBtnOk()) {
-            Main.setSubShellStatus(false);
-            Main.statusBar.setStatus("", OK);
-
-            innerShell.dispose();
+            isExitAfterBatch = true;
         }
     }
 
@@ -263,6 +260,28 @@ public class ConverterWidget extends AbstractWidget {
         createRadioButtonsTarget(selectionListenerTarget, groupTarget);
     }
 
+    /*
+     * The additional targets are converted from the same read file as the selected target (fan-out).
+     */
+    private void createAdditionalTargets(int width) {
+        groupAdditionalTarget = new Group(innerShell, SWT.NONE);
+        groupAdditionalTarget.setText(ResourceBundleUtils.getLangString(LABELS, Labels.additionalTargetFormatText));
+
+        GridLayout gridLayout = new GridLayout(4, true);
+
+        GridData gridData = new GridData(GridData.FILL, GridData.CENTER, true, true);
+        gridData.widthHint = width - 24;
+
+        groupAdditionalTarget.setLayout(gridLayout);
+        groupAdditionalTarget.setLayoutData(gridData);
+
+        for (TargetButton button : TargetButton.values()) {
+            Button chkBox = new Button(groupAdditionalTarget, SWT.CHECK);
+            chkBox.setSelection(false);
+            chkBox.setText(button.getText());
+        }
+    }
+
     private void createDescription(int width) {
         Group group = new Group(innerShell, SWT.NONE);
         group.setText(ResourceBundleUtils.getLangString(LABELS, Labels.adviceText));
@@ -382,12 +401,62 @@ public class ConverterWidget extends AbstractWidget {
             case BASEL_LANDSCHAFT:
                 fileDialog.setFilterIndex(TXT.ordinal());
                 break;
+            case XLSX:
+                fileDialog.setFilterIndex(XLSX.ordinal());
+                break;
+            case ODS:
+                fileDialog.setFilterIndex(ODS.ordinal());
+                break;
             default:
                 fileDialog.setFilterIndex(GSI.ordinal());
                 System.err.println("ConverterWidget.determineFilterIndex() : set default filter index to " + GSI.toString());
         }
     }
 
+    private void finishFileOperations(BatchExecutor batch, FanOutWriter fanOutWriter, DiagnosticsCollector diagnostics) {
+        final int counter = batch.getWrittenFiles();
+
+        fanOutWriter.close();
+
+        if (innerShell.isDisposed()) {
+            return;
+        }
+
+        BatchRunner.showWarnings(innerShell, diagnostics);
+
+        if (counter > 0) {
+            String message;
+            String status;
+
+            final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.conversionMessage), counter);
+            final String statusHelper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.conversionStatus), counter);
+
+            if (counter == 1) {
+                message = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
+                status = StringUtils.singularPluralMessage(statusHelper, Main.TEXT_SINGULAR);
+            } else {
+                message = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
+                status = StringUtils.singularPluralMessage(statusHelper, Main.TEXT_PLURAL);
+            }
+
+            MessageBoxes.showMessageBox(innerShell, SWT.ICON_INFORMATION,
+                    ResourceBundleUtils.getLangString(LABELS, Labels.successTextMsgBox), message);
+
+            Main.statusBar.setStatus(status, OK);
+        } else {
+            MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR,
+                    ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
+                    ResourceBundleUtils.getLangString(ERRORS, Errors.conversionFailed));
+        }
+
+        if (isExitAfterBatch) {
+            Main.setSubShellStatus(false);
+            Main.statusBar.setStatus("", OK);
+
+            innerShell.dispose();
+        }
+    }
+
     @SuppressWarnings("MethodCanBeVariableArityMethod")
     private SelectionListener getSelectionListener(final Control[] children1, final Control[] children2) {
         return new SelectionAdapter() {
@@ -437,6 +506,7 @@ public class ConverterWidget extends AbstractWidget {
         inputFieldsComposite = new InputFieldsComposite(this, innerShell);
         inputFieldsComposite.setLayout(gridLayout);
 
+        createAdditionalTargets(width);
         createOptions(width);
         createDescription(width);
 
@@ -450,43 +520,37 @@ public class ConverterWidget extends AbstractWidget {
         innerShell.open();
     }
 
-    private Map<Integer, ReadFile> prepareReadFileMaps() {
-        Map<Integer, ReadFile> readFileMap = new HashMap<>();
-        readFileMap.put(0, new GSIReadFile(innerShell));
-        readFileMap.put(1, new GSIReadFile(innerShell));
-        readFileMap.put(2, new TXTReadFile(innerShell));
-        readFileMap.put(3, new CSVReadFile(innerShell, chkBoxCSVSemiColonSeparator.getSelection()));
-        readFileMap.put(4, new CaplanReadFile(innerShell));
-        readFileMap.put(5, new ZeissReadFile(innerShell));
-        readFileMap.put(6, new CadworkReadFile(innerShell));
-        readFileMap.put(7, new BaselStadtCSVReadFile(innerShell));
-        readFileMap.put(8, new BaselLandschaftTXTReadFile(innerShell));
-
-        return readFileMap;
-    }
+    /*
+     * Returns the selected target and the checked additional targets. GSI8 and GSI16 are written into the same
+     * file name, therefore an additional GSI target is skipped, when the other GSI format is already selected.
+     */
+    private EnumSet<TargetButton> prepareTargets(int targetNumber) {
+        EnumSet<TargetButton> targets = EnumSet.of(TargetButton.fromIndex(targetNumber));
+
+        Control[] children = groupAdditionalTarget.getChildren();
+
+        for (int i = 0; i < children.length; i++) {
+            if (((Button) children[i]).getSelection()) {
+                TargetButton target = TargetButton.fromIndex(i);
+
+                if ((target == TargetButton.GSI8 && targets.contains(TargetButton.GSI16)) ||
+                        (target == TargetButton.GSI16 && targets.contains(TargetButton.GSI8))) {
+                    System.err.println("ConverterWidget.prepareTargets() : skip additional target " + target);
+                } else {
+                    targets.add(target);
+                }
+            }
+        }
 
-    private Map<Integer, WriteFile> prepareWriteFile(Path path, ArrayList<String> readStringFile, List<String[]> readCSVFile, WriteParameter parameter) {
-        Map<Integer, WriteFile> writeFileMap = new HashMap<>();
-        writeFileMap.put(0, new GSIWriteFile(path, readStringFile, readCSVFile, parameter, Main.getGSI8()));
-        writeFileMap.put(1, new GSIWriteFile(path, readStringFile, readCSVFile, parameter, Main.getGSI16()));
-        writeFileMap.put(2, new TXTWriteFile(path, readStringFile, readCSVFile, parameter));
-        writeFileMap.put(3, new CSVWriteFile(path, readStringFile, readCSVFile, parameter));
-        writeFileMap.put(4, new CaplanWriteFile(path, readStringFile, readCSVFile, parameter));
-        writeFileMap.put(5, new ZeissWriteFile(path, readStringFile, readCSVFile, parameter));
-        writeFileMap.put(6, new LtopKOOWriteFile(path, readStringFile, readCSVFile, parameter));
-        writeFileMap.put(7, new LtopMESWriteFile(path, readStringFile, parameter));
-        writeFileMap.put(8, new ExcelWriteFile(path, readStringFile, readCSVFile, parameter, BaseToolsExcel.isXLSX));
-        writeFileMap.put(9, new ExcelWriteFile(path, readStringFile, readCSVFile, parameter, BaseToolsExcel.isXLS));
-        writeFileMap.put(10, new ODFWriteFile(path, readStringFile, readCSVFile, parameter));
-
-        return writeFileMap;
+        return targets;
     }
 
-    private boolean processFileOperations() {
-        boolean success;
+    /*
+     * The options are read in the user interface thread, the files are processed by the batch workers.
+     */
+    private void processFileOperations() {
         boolean GSIFormat;
 
-        int counter = 0;
         int sourceNumber = RadioHelper.getSelectedBtn(groupSource.getChildren());
         int targetNumber = RadioHelper.getSelectedBtn(groupTarget.getChildren());
 
@@ -497,7 +561,10 @@ public class ConverterWidget extends AbstractWidget {
         String separatorTXT = chkBoxTXTSpaceSeparator.getSelection() ? BaseToolsTXT.SEPARATOR_SPACE : BaseToolsTXT.SEPARATOR_TAB;
         ZeissDialect dialect = ZeissDialect.valueOf(Main.pref.getUserPreference(PreferenceKeys.CONVERTER_SETTING_ZEISS_DIALECT));
 
-        WriteParameter parameter = new WriteParameter(sourceNumber, GSIFormat,
+        final DiagnosticsCollector diagnostics = new DiagnosticsCollector();
+        final ProgressCounter progress = new ProgressCounter();
+
+        final WriteParameter parameter = new WriteParameter(sourceNumber, GSIFormat,
                 chkBoxCadworkUseZeroHeights.getSelection(),
                 chkBoxKFormatUseSimpleFormat.getSelection(),
                 chkBoxLTOPEliminateDuplicatePoints.getSelection(),
@@ -505,69 +572,17 @@ public class ConverterWidget extends AbstractWidget {
                 chkBoxSourceContainsCode.getSelection(),
                 chkBoxWriteCodeColumn.getSelection(),
                 chkBoxWriteCommentLine.getSelection(),
-                separatorCSV, separatorTXT, dialect);
-
-        Map<Integer, ReadFile> readFileMap = prepareReadFileMaps();
-
-        for (Path file2read : files2read) {
-            boolean readFileSuccess = false;
+                separatorCSV, separatorTXT, dialect, BatchRunner.createContext(diagnostics, progress), OverwriteMode.ASK);
 
-            List<String[]> readCSVFile = null;
-            ArrayList<String> readStringFile = null;
+        final boolean useSemicolonAsSeparator = chkBoxCSVSemiColonSeparator.getSelection();
+        final EnumSet<TargetButton> targets = prepareTargets(targetNumber);
 
-            // read files (new version)
-            if (readFileMap.containsKey(sourceNumber)) {
-                if (readFileMap.get(sourceNumber).readFile(file2read)) {
-                    if ((readCSVFile = readFileMap.get(sourceNumber).getReadCSVFile()) != null) {
-                        readFileSuccess = true;
-                    } else if ((readStringFile = readFileMap.get(sourceNumber).getReadStringLines()) != null) {
-                        readFileSuccess = true;
-                    }
-                }
-            }
+        final FanOutWriter fanOutWriter = new FanOutWriter();
 
-            // write files (new version)
-            if (readFileSuccess) {
-                Map<Integer, WriteFile> writeFileMap = prepareWriteFile(file2read, readStringFile, readCSVFile, parameter);
-                if (writeFileMap.containsKey(targetNumber)) {
-                    if (writeFileMap.get(targetNumber).writeSpreadsheetDocument()) {
-                        counter = counter + 1;
-                    } else if (writeFileMap.get(targetNumber).writeStringFile()) {
-                        counter = counter + 1;
-                    } else if (writeFileMap.get(targetNumber).writeWorkbookFile()) {
-                        counter = counter + 1;
-                    }
-                }
-            }
-        }
-
-        if (counter > 0) {
-            String message;
-
-            final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.conversionMessage), counter);
-
-            if (counter == 1) {
-                message = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
-            } else {
-                message = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
-            }
-
-            MessageBoxes.showMessageBox(innerShell, SWT.ICON_INFORMATION,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.successTextMsgBox), message);
-
-            // set the counter for status bar information
-            Main.countFileOps = counter;
-
-            success = true;
-        } else {
-            MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
-                    ResourceBundleUtils.getLangString(ERRORS, Errors.conversionFailed));
-
-            success = false;
-        }
-
-        return success;
+        batchExecutor = BatchRunner.start(files2read,
+                new ConvertOperation(SourceButton.fromIndex(sourceNumber), targets, useSemicolonAsSeparator,
+                        parameter, fanOutWriter, innerShell), progress,
+                batch -> finishFileOperations(batch, fanOutWriter, diagnostics));
     }
 
     @SuppressWarnings("MethodCanBeVariableArityMethod")
@@ -628,6 +643,20 @@ public class ConverterWidget extends AbstractWidget {
                 }
                 break;
 
+            case XLSX:
+                // prevent button change for Microsoft Excel files
+                if (RadioHelper.getSelectedBtn(childrenSource) != 9) {
+                    RadioHelper.selectBtn(childrenSource, 9);
+                }
+                break;
+
+            case ODS:
+                // prevent button change for OpenDocument spreadsheet files
+                if (RadioHelper.getSelectedBtn(childrenSource) != 10) {
+                    RadioHelper.selectBtn(childrenSource, 10);
+                }
+                break;
+
             default:
                 System.err.println("ConverterWidget.toggleRadioButtons(): Unknown format for buttons");
                 break;
@@ -20,16 +20,15 @@ package de.ryanthara.ja.rycon.gui.widgets;
 import de.ryanthara.ja.rycon.Main;
 import de.ryanthara.ja.rycon.check.PathCheck;
 import de.ryanthara.ja.rycon.check.TextCheck;
-import de.ryanthara.ja.rycon.converter.gsi.Nigra2GSI;
-import de.ryanthara.ja.rycon.core.GSILevelling2Cad;
+import de.ryanthara.ja.rycon.core.BatchOperations;
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import de.ryanthara.ja.rycon.data.PreferenceKeys;
 import de.ryanthara.ja.rycon.gui.Sizes;
 import de.ryanthara.ja.rycon.gui.custom.*;
 import de.ryanthara.ja.rycon.i18n.*;
-import de.ryanthara.ja.rycon.io.LineReader;
-import de.ryanthara.ja.rycon.io.LineWriter;
 import de.ryanthara.ja.rycon.tools.ShellPositioner;
 import de.ryanthara.ja.rycon.tools.StringUtils;
+import de.ryanthara.ja.rycon.util.BatchExecutor;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
@@ -38,7 +37,6 @@ import org.eclipse.swt.widgets.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -57,7 +55,7 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.*;
  * On later versions of RyCON there will be support for more levelling formats.
  *
  * @author sebastian
- * @version 8
+ * @version 11
  * @since 1
  */
 public class LevellingWidget extends AbstractWidget {
@@ -65,10 +63,12 @@ public class LevellingWidget extends AbstractWidget {
     private final static Logger logger = Logger.getLogger(LevellingWidget.class.getName());
 
     private final String[] acceptableFileSuffixes = new String[]{"*.gsi", "*.asc"};
+    private BatchExecutor batchExecutor;
     private Button chkBoxHoldChangePoint;
     private Path[] files2read;
     private InputFieldsComposite inputFieldsComposite;
     private Shell innerShell;
+    private boolean isExitAfterBatch = false;
 
     /**
      * Constructs a new instance of this class without any parameters.
@@ -101,24 +101,17 @@ public class LevellingWidget extends AbstractWidget {
      */
     public void executeDropInjection() {
         if ((files2read != null) && (files2read.length > 0)) {
-            if (processFileOperationsDND()) {
-                String status;
-
-                final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.levellingStatus), Main.countFileOps);
-
-                // use counter to display different text on the status bar
-                if (Main.countFileOps == 1) {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
-                } else {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
-                }
-
-                Main.statusBar.setStatus(status, OK);
-            }
+            // change points are ignored
+            batchExecutor = BatchRunner.start(files2read, prepareFileOperation(false), this::showStatus);
         }
     }
 
     void actionBtnCancel() {
+        // files, which are processed at the moment, are finished
+        if (batchExecutor != null && !batchExecutor.isFinished()) {
+            batchExecutor.cancel();
+        }
+
         Main.setSubShellStatus(false);
         Main.statusBar.setStatus("", OK);
         innerShell.dispose();
@@ -145,6 +138,11 @@ public class LevellingWidget extends AbstractWidget {
     }
 
     boolean actionBtnOk() {
+        // only one batch at a time
+        if (batchExecutor != null && !batchExecutor.isFinished()) {
+            return false;
+        }
+
         if (TextCheck.isEmpty(inputFieldsComposite.getSourceTextField()) ||
                 TextCheck.isEmpty(inputFieldsComposite.getTargetTextField())) {
             return false;
@@ -160,20 +158,8 @@ public class LevellingWidget extends AbstractWidget {
         }
 
         if ((files2read != null) && (files2read.length > 0)) {
-            if (processFileOperations()) {
-                String status;
-
-                final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.levellingStatus), Main.countFileOps);
-
-                // use counter to display different text on the status bar
-                if (Main.countFileOps == 1) {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
-                } else {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
-                }
-
-                Main.statusBar.setStatus(status, OK);
-            }
+            batchExecutor = BatchRunner.start(files2read, prepareFileOperation(chkBoxHoldChangePoint.getSelection()),
+                    this::finishFileOperations);
 
             return true;
         }
@@ -185,11 +171,9 @@ public class LevellingWidget extends AbstractWidget {
      * This method is used from the class BottomButtonBar!
      */
     void actionBtnOkAndExit() {
+        // the widget is closed, when the started batch is finished
         if (actionBtnOk()) {
-            Main.setSubShellStatus(false);
-            Main.statusBar.setStatus("", OK);
-
-            innerShell.dispose();
+            isExitAfterBatch = true;
         }
     }
 
@@ -261,43 +245,40 @@ public class LevellingWidget extends AbstractWidget {
         chkBoxHoldChangePoint.setText(ResourceBundleUtils.getLangString(CHECKBOXES, CheckBoxes.levellingIgnoreChangePoints));
     }
 
-    private int fileOperations(boolean holdChangePoints) {
-        int counter = 0;
+    private void finishFileOperations(BatchExecutor batch) {
+        final int counter = batch.getWrittenFiles();
 
-        for (Path file2read : files2read) {
-            LineReader lineReader = new LineReader(file2read);
+        if (innerShell.isDisposed()) {
+            return;
+        }
 
-            if (lineReader.readFile()) {
-                ArrayList<String> readFile = lineReader.getLines();
+        if (counter > 0) {
+            String message;
 
-                String[] fileNameAndSuffix = file2read.getFileName().toString().split("\\.(?=[^.]+$)");
+            final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.levellingMessage), counter);
 
-                ArrayList<String> writeFile;
+            if (counter == 1) {
+                message = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
+            } else {
+                message = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
+            }
 
-                if (fileNameAndSuffix[1].equalsIgnoreCase("GSI")) {
-                    GSILevelling2Cad gsiLevelling2Cad = new GSILevelling2Cad(readFile);
-                    writeFile = gsiLevelling2Cad.processLevelling2Cad(holdChangePoints);
-                } else if (fileNameAndSuffix[1].equalsIgnoreCase("ASC")) {
-                    Nigra2GSI nigra2GSI = new Nigra2GSI(readFile);
-                    writeFile = nigra2GSI.convertNIGRA2GSI(Main.getGSI16());
-                } else {
-                    System.err.println("File " + file2read.getFileName() + " is not supported (yet).");
-                    break;
-                }
+            MessageBoxes.showMessageBox(innerShell, SWT.ICON_INFORMATION,
+                    ResourceBundleUtils.getLangString(LABELS, Labels.successTextMsgBox), message);
 
-                String file2write = file2read.toString().substring(0, file2read.toString().length() - 4) + "_LEVEL.GSI";
+            showStatus(batch);
+        } else {
+            MessageBoxes.showMessageBox(innerShell, SWT.ICON_WARNING,
+                    ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
+                    ResourceBundleUtils.getLangString(ERRORS, Errors.levellingPreparationFailed));
+        }
 
-                LineWriter lineWriter = new LineWriter(file2write);
+        if (isExitAfterBatch) {
+            Main.setSubShellStatus(false);
+            Main.statusBar.setStatus("", OK);
 
-                if (lineWriter.writeFile(writeFile)) {
-                    counter = counter + 1;
-                }
-            } else {
-                System.err.println("File " + file2read.getFileName() + " could not be read.");
-            }
+            innerShell.dispose();
         }
-
-        return counter;
     }
 
     private void handleFileInjection() {
@@ -344,50 +325,29 @@ public class LevellingWidget extends AbstractWidget {
         innerShell.open();
     }
 
-    private boolean processFileOperations() {
-        boolean success;
+    /*
+     * The conversion settings are read once in the user interface thread, the files are processed by the batch workers.
+     */
+    private BatchExecutor.FileOperation prepareFileOperation(boolean holdChangePoints) {
+        final ConversionContext context = ConversionContext.of(Main.pref.getConversionSettings());
 
-        int counter = fileOperations(chkBoxHoldChangePoint.getSelection());
+        return BatchOperations.levelling(holdChangePoints, context);
+    }
 
-        if (counter > 0) {
-            String message;
+    private void showStatus(BatchExecutor batch) {
+        String status;
 
-            final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.levellingMessage), counter);
+        final int counter = batch.getWrittenFiles();
+        final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.levellingStatus), counter);
 
-            if (counter == 1) {
-                message = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
-            } else {
-                message = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
-            }
-
-            MessageBoxes.showMessageBox(innerShell, SWT.ICON_INFORMATION,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.successTextMsgBox), message);
-
-            // set the counter for status bar information
-            Main.countFileOps = counter;
-            success = true;
+        // use counter to display different text on the status bar
+        if (counter == 1) {
+            status = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
         } else {
-            MessageBoxes.showMessageBox(innerShell, SWT.ICON_WARNING,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
-                    ResourceBundleUtils.getLangString(ERRORS, Errors.levellingPreparationFailed));
-
-            success = false;
+            status = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
         }
 
-        return success;
-    }
-
-    private boolean processFileOperationsDND() {
-        // change points are ignored
-        int counter = fileOperations(false);
-
-        if (counter > 0) {
-            // set the counter for status bar information
-            Main.countFileOps = counter;
-            return true;
-        } else {
-            return false;
-        }
+        Main.statusBar.setStatus(status, OK);
     }
 
 } // end of LevellingWidget.java
@@ -21,23 +21,24 @@ package de.ryanthara.ja.rycon.gui.widgets;
 import de.ryanthara.ja.rycon.Main;
 import de.ryanthara.ja.rycon.check.PathCheck;
 import de.ryanthara.ja.rycon.check.TextCheck;
-import de.ryanthara.ja.rycon.core.GSILTOPClean;
-import de.ryanthara.ja.rycon.core.GSITidyUp;
+import de.ryanthara.ja.rycon.core.BatchOperations;
+import de.ryanthara.ja.rycon.data.ConversionContext;
+import de.ryanthara.ja.rycon.data.DiagnosticsCollector;
 import de.ryanthara.ja.rycon.data.PreferenceKeys;
+import de.ryanthara.ja.rycon.data.ProgressCounter;
 import de.ryanthara.ja.rycon.gui.Sizes;
 import de.ryanthara.ja.rycon.gui.custom.*;
 import de.ryanthara.ja.rycon.i18n.*;
-import de.ryanthara.ja.rycon.io.LineReader;
-import de.ryanthara.ja.rycon.io.LineWriter;
 import de.ryanthara.ja.rycon.tools.ShellPositioner;
 import de.ryanthara.ja.rycon.tools.StringUtils;
+import de.ryanthara.ja.rycon.util.BatchExecutor;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.*;
 
+import java.io.*;
 import java.nio.file.*;
-import java.util.ArrayList;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -52,7 +53,7 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.*;
  * measurement files with a simple 'intelligence'.
  *
  * @author sebastian
- * @version 8
+ * @version 12
  * @since 1
  */
 public class TidyUpWidget extends AbstractWidget {
@@ -62,9 +63,11 @@ public class TidyUpWidget extends AbstractWidget {
     private final String[] acceptableFileSuffixes = new String[]{"*.gsi", "*.gsl"};
     private Button chkBoxHoldControlPoints;
     private Button chkBoxHoldStations;
+    private BatchExecutor batchExecutor;
     private Path[] files2read;
     private InputFieldsComposite inputFieldsComposite;
     private Shell innerShell;
+    private boolean isExitAfterBatch = false;
 
     /**
      * Constructs the {@link TidyUpWidget} without parameters.
@@ -100,30 +103,35 @@ public class TidyUpWidget extends AbstractWidget {
      */
     public void executeDropInjection() {
         if ((files2read != null) && (files2read.length > 0)) {
-            if (processFileOperationsDND()) {
-                String status;
-
-                final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.tidyUpStatus), Main.countFileOps);
-
-                // use counter to display different text on the status bar
-                if (Main.countFileOps == 1) {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
-                } else {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
-                }
-
-                Main.statusBar.setStatus(status, OK);
-            }
+            final DiagnosticsCollector diagnostics = new DiagnosticsCollector();
+            final ProgressCounter progress = new ProgressCounter();
+
+            // stations and control points are not hold
+            batchExecutor = BatchRunner.start(files2read, prepareFileOperation(false, false, diagnostics, progress),
+                    progress, batch -> {
+                        BatchRunner.showWarnings(Main.shell, diagnostics);
+                        showStatus(batch);
+                    });
         }
     }
 
     void actionBtnCancel() {
+        // files, which are processed at the moment, are finished
+        if (batchExecutor != null && !batchExecutor.isFinished()) {
+            batchExecutor.cancel();
+        }
+
         Main.setSubShellStatus(false);
         Main.statusBar.setStatus("", OK);
         innerShell.dispose();
     }
 
     boolean actionBtnOk() {
+        // only one batch at a time
+        if (batchExecutor != null && !batchExecutor.isFinished()) {
+            return false;
+        }
+
         if (TextCheck.isEmpty(inputFieldsComposite.getSourceTextField()) ||
                 TextCheck.isEmpty(inputFieldsComposite.getTargetTextField())) {
             return false;
@@ -139,20 +147,14 @@ public class TidyUpWidget extends AbstractWidget {
         }
 
         if ((files2read != null) && (files2read.length > 0)) {
-            if (processFileOperations()) {
-                String status;
+            final DiagnosticsCollector diagnostics = new DiagnosticsCollector();
+            final ProgressCounter progress = new ProgressCounter();
 
-                final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.tidyUpStatus), Main.countFileOps);
+            batchExecutor = BatchRunner.start(files2read,
+                    prepareFileOperation(chkBoxHoldStations.getSelection(), chkBoxHoldControlPoints.getSelection(),
+                            diagnostics, progress),
+                    progress, batch -> finishFileOperations(batch, diagnostics));
 
-                // use counter to display different text on the status bar
-                if (Main.countFileOps == 1) {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
-                } else {
-                    status = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
-                }
-
-                Main.statusBar.setStatus(status, OK);
-            }
             return true;
         }
 
@@ -163,11 +165,9 @@ public class TidyUpWidget extends AbstractWidget {
      * This method is used from the class BottomButtonBar!
      */
     void actionBtnOkAndExit() {
+        // the widget is closed, when the started batch is finished
         if (actionBtnOk()) {
-            Main.setSubShellStatus(false);
-            Main.statusBar.setStatus("", OK);
-
-            innerShell.dispose();
+            isExitAfterBatch = true;
         }
     }
 
@@ -265,46 +265,43 @@ public class TidyUpWidget extends AbstractWidget {
         chkBoxHoldStations.setText(ResourceBundleUtils.getLangString(CHECKBOXES, CheckBoxes.HoldStationsTidyUp));
     }
 
-    private int fileOperations(boolean holdStations, boolean holdControlPoints) {
-        int counter = 0;
-        LineReader lineReader;
-        String editString = Main.pref.getUserPreference(PreferenceKeys.PARAM_EDIT_STRING);
-        String ltopString = Main.pref.getUserPreference(PreferenceKeys.PARAM_LTOP_STRING);
-
-        for (Path path : files2read) {
-            lineReader = new LineReader(path);
-
-            if (lineReader.readFile()) {
-                ArrayList<String> readFile = lineReader.getLines();
-                ArrayList<String> writeFile = null;
-                String file2write = null;
-
-                // processFileOperations and differ between 'normal' GSI files and LTOP 'GSL' files (case insensitive)
-                PathMatcher matcherGSI = FileSystems.getDefault().getPathMatcher("regex:(?iu:.+\\.GSI)");
-                PathMatcher matcherGSL = FileSystems.getDefault().getPathMatcher("regex:(?iu:.+\\.GSL)");
-
-                if (matcherGSL.matches(path)) {
-                    GSILTOPClean gsiltopClean = new GSILTOPClean(readFile);
-                    writeFile = gsiltopClean.processLTOPClean();
-                    file2write = path.toString().substring(0, path.toString().length() - 4) + "_" + ltopString + ".GSI";
-                } else if (matcherGSI.matches(path)) {
-                    GSITidyUp gsiTidyUp = new GSITidyUp(readFile);
-                    writeFile = gsiTidyUp.processTidyUp(holdStations, holdControlPoints);
-                    file2write = path.toString().substring(0, path.toString().length() - 4) + "_" + editString + ".GSI";
-                }
-
-                // write file line by line
-                if (file2write != null) {
-                    LineWriter lineWriter = new LineWriter(file2write);
-                    if (lineWriter.writeFile(writeFile)) {
-                        counter = counter + 1;
-                    }
-                }
+    private void finishFileOperations(BatchExecutor batch, DiagnosticsCollector diagnostics) {
+        final int counter = batch.getWrittenFiles();
+
+        if (innerShell.isDisposed()) {
+            return;
+        }
+
+        BatchRunner.showWarnings(innerShell, diagnostics);
+
+        if (counter > 0) {
+            String message;
+
+            final String helper = ResourceBundleUtils.getLangString(MESSAGES, Messages.tidyUpMessage);
+
+            if (counter == 1) {
+                message = String.format(StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR), counter);
             } else {
-                System.err.println("File " + path.getFileName() + " could not be read.");
+                message = String.format(StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL), counter);
             }
+
+            MessageBoxes.showMessageBox(innerShell, SWT.ICON_INFORMATION,
+                    ResourceBundleUtils.getLangString(LABELS, Labels.successTextMsgBox), message);
+
+            showStatus(batch);
+        } else {
+            final String message = String.format(ResourceBundleUtils.getLangString(ERRORS, Errors.tidyUpFailed), counter);
+
+            MessageBoxes.showMessageBox(innerShell, SWT.ICON_WARNING,
+                    ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox), message);
+        }
+
+        if (isExitAfterBatch) {
+            Main.setSubShellStatus(false);
+            Main.statusBar.setStatus("", OK);
+
+            innerShell.dispose();
         }
-        return counter;
     }
 
     private void handleFileInjection() {
@@ -351,50 +348,33 @@ public class TidyUpWidget extends AbstractWidget {
         innerShell.open();
     }
 
-    private boolean processFileOperations() {
-        boolean success;
+    /*
+     * The preferences are read once in the user interface thread, the files are processed by the batch workers.
+     * The warnings of the clean up are collected and shown after the batch, the processed lines are counted.
+     */
+    private BatchExecutor.FileOperation prepareFileOperation(boolean holdStations, boolean holdControlPoints,
+                                                             DiagnosticsCollector diagnostics, ProgressCounter progress) {
+        final ConversionContext context = BatchRunner.createContext(diagnostics, progress);
+        final String editString = Main.pref.getUserPreference(PreferenceKeys.PARAM_EDIT_STRING);
+        final String ltopString = Main.pref.getUserPreference(PreferenceKeys.PARAM_LTOP_STRING);
 
-        final int counter = fileOperations(chkBoxHoldStations.getSelection(), chkBoxHoldControlPoints.getSelection());
+        return BatchOperations.tidyUp(holdStations, holdControlPoints, editString, ltopString, context);
+    }
 
-        if (counter > 0) {
-            String message;
+    private void showStatus(BatchExecutor batch) {
+        String status;
 
-            final String helper = ResourceBundleUtils.getLangString(MESSAGES, Messages.tidyUpMessage);
+        final int counter = batch.getWrittenFiles();
+        final String helper = String.format(ResourceBundleUtils.getLangString(MESSAGES, Messages.tidyUpStatus), counter);
 
-            if (counter == 1) {
-                message = String.format(StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR), counter);
-            } else {
-                message = String.format(StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL), counter);
-            }
-
-            MessageBoxes.showMessageBox(innerShell, SWT.ICON_INFORMATION,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.successTextMsgBox), message);
-
-            // set the counter for status bar information
-            Main.countFileOps = counter;
-            success = true;
+        // use counter to display different text on the status bar
+        if (counter == 1) {
+            status = StringUtils.singularPluralMessage(helper, Main.TEXT_SINGULAR);
         } else {
-            final String message = String.format(ResourceBundleUtils.getLangString(ERRORS, Errors.tidyUpFailed), counter);
-
-            MessageBoxes.showMessageBox(innerShell, SWT.ICON_WARNING,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox), message);
-
-            success = false;
+            status = StringUtils.singularPluralMessage(helper, Main.TEXT_PLURAL);
         }
 
-        return success;
-    }
-
-    private boolean processFileOperationsDND() {
-        int counter = fileOperations(false, false);
-
-        if (counter > 0) {
-            // set the counter for status bar information
-            Main.countFileOps = counter;
-            return true;
-        } else {
-            return false;
-        }
+        Main.statusBar.setStatus(status, OK);
     }
 
 } // end of TidyUpWidget
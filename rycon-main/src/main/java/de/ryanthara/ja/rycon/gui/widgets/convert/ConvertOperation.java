@@ -0,0 +1,186 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.gui.widgets.convert
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.gui.widgets.convert;
+
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
+import de.ryanthara.ja.rycon.gui.widgets.convert.read.*;
+import de.ryanthara.ja.rycon.gui.widgets.convert.write.FanOutWriter;
+import de.ryanthara.ja.rycon.gui.widgets.convert.write.WriteParameter;
+import de.ryanthara.ja.rycon.util.BatchExecutor;
+import org.eclipse.swt.widgets.Shell;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Instances of this class convert one file from a source format into one or more target formats and are used as
+ * {@link BatchExecutor.FileOperation} by the {@link de.ryanthara.ja.rycon.gui.widgets.ConverterWidget} and the
+ * command line batch mode of <tt>RyCON</tt>.
+ * <p>
+ * Every file is read once and written into all targets by a shared {@link FanOutWriter}. GSI8 and GSI16 files
+ * are decoded once into a {@link GSIDataset}, which is used by the converters of all targets, and are transcoded
+ * directly from file to file, if only GSI targets are given. The rows of CSV, XLSX and ODS files are tokenized once
+ * and handed over to the targets while the file is read, without keeping the read file. For the other sources every
+ * target parses the read lines by it's own converter.
+ * <p>
+ * Without an inner shell, read errors are only written to the console and existing files are handled by the
+ * {@link de.ryanthara.ja.rycon.gui.widgets.convert.write.OverwriteMode} of the write parameter. Therefore an
+ * operation can run without a display.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class ConvertOperation implements BatchExecutor.FileOperation {
+
+    private final SourceButton source;
+    private final Set<TargetButton> targets;
+    private final boolean useSemicolonAsSeparator;
+    private final boolean isGSISource;
+    private final boolean isGSITranscoding;
+    private final WriteParameter parameter;
+    private final FanOutWriter fanOutWriter;
+    private final Shell innerShell;
+
+    /**
+     * Constructs a new instance of this class with the given source and target formats.
+     *
+     * @param source                  source format
+     * @param targets                 target formats
+     * @param useSemicolonAsSeparator read CSV files with a semicolon as separator sign
+     * @param parameter               the write parameter object
+     * @param fanOutWriter            writer of the target formats, which can be shared by the batch workers
+     * @param innerShell              reference to the inner shell or null, if no error message box is shown
+     */
+    public ConvertOperation(SourceButton source, Set<TargetButton> targets, boolean useSemicolonAsSeparator,
+                            WriteParameter parameter, FanOutWriter fanOutWriter, Shell innerShell) {
+        this.source = source;
+        this.targets = EnumSet.copyOf(targets);
+        this.useSemicolonAsSeparator = useSemicolonAsSeparator;
+        this.parameter = parameter;
+        this.fanOutWriter = fanOutWriter;
+        this.innerShell = innerShell;
+
+        isGSISource = source == SourceButton.GSI8 || source == SourceButton.GSI16;
+
+        isGSITranscoding = isGSISource && EnumSet.of(TargetButton.GSI8, TargetButton.GSI16).containsAll(targets);
+    }
+
+    /*
+     * Returns a new read file object, because the batch workers can not share them.
+     */
+    private ReadFile createReadFile() {
+        switch (source) {
+            case TXT:
+                return new TXTReadFile(innerShell);
+
+            case CAPLAN_K:
+                return new CaplanReadFile(innerShell);
+
+            case ZEISS_REC:
+                return new ZeissReadFile(innerShell);
+
+            case CADWORK:
+                return new CadworkReadFile(innerShell);
+
+            case BASEL_STADT:
+                return new BaselStadtCSVReadFile(innerShell);
+
+            case BASEL_LANDSCHAFT:
+                return new BaselLandschaftTXTReadFile(innerShell);
+
+            default:
+                System.err.println("ConvertOperation.createReadFile() : unknown source format " + source);
+                return null;
+        }
+    }
+
+    /*
+     * Returns a new row read file object for the sources, which are converted row by row, otherwise null.
+     */
+    private RowReadFile createRowReadFile() {
+        switch (source) {
+            case CSV:
+                return new CSVReadFile(innerShell, useSemicolonAsSeparator);
+
+            case XLSX:
+                return new XLSXReadFile(innerShell);
+
+            case ODS:
+                return new ODSReadFile(innerShell);
+
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Reads one file once and writes it into all targets. Returns the number of written files.
+     *
+     * @param file2read file to convert
+     *
+     * @return number of written files
+     */
+    @Override
+    public int process(Path file2read) {
+        boolean readFileSuccess = false;
+
+        List<String[]> readCSVFile = null;
+        ArrayList<String> readStringFile = null;
+
+        RowReadFile rowReadFile = createRowReadFile();
+
+        // the rows are handed over to all targets while the file is read
+        if (rowReadFile != null) {
+            return fanOutWriter.write(targets, file2read, rowReadFile, parameter);
+        }
+
+        // GSI8 and GSI16 are transcoded directly from file to file
+        if (isGSITranscoding) {
+            readFileSuccess = true;
+        } else if (isGSISource) {
+            GSIReadFile gsiReadFile = new GSIReadFile(innerShell);
+
+            // decoded once for all targets
+            if (gsiReadFile.readFile(file2read)) {
+                return fanOutWriter.write(targets, file2read, gsiReadFile.getGSIDataset(), parameter);
+            }
+        } else {
+            ReadFile readFile = createReadFile();
+
+            if (readFile != null && readFile.readFile(file2read)) {
+                if ((readCSVFile = readFile.getReadCSVFile()) != null) {
+                    readFileSuccess = true;
+                } else if ((readStringFile = readFile.getReadStringLines()) != null) {
+                    readFileSuccess = true;
+                }
+            }
+        }
+
+        // the targets share the read file
+        if (readFileSuccess) {
+            return fanOutWriter.write(targets, file2read, readStringFile, readCSVFile, parameter);
+        }
+
+        return 0;
+    }
+
+} // end of ConvertOperation
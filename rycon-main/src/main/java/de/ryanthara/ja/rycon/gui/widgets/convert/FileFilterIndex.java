@@ -29,7 +29,7 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.FILECHOOSERS;
  * This enumeration is used for file filter indices in the {@link ConverterWidget}.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public enum FileFilterIndex {
@@ -39,7 +39,9 @@ public enum FileFilterIndex {
     CSV("*.csv", ResourceBundleUtils.getLangString(FILECHOOSERS, FileChoosers.filterNameCSV)),
     K("*.K", ResourceBundleUtils.getLangString(FILECHOOSERS, FileChoosers.filterNameK)),
     DAT("*.dat", ResourceBundleUtils.getLangString(FILECHOOSERS, FileChoosers.filterNameCadwork)),
-    REC("*.REC", ResourceBundleUtils.getLangString(FILECHOOSERS, FileChoosers.filterNameZeiss));
+    REC("*.REC", ResourceBundleUtils.getLangString(FILECHOOSERS, FileChoosers.filterNameZeiss)),
+    XLSX("*.xlsx", ResourceBundleUtils.getLangString(FILECHOOSERS, FileChoosers.filterNameXLSX)),
+    ODS("*.ods", ResourceBundleUtils.getLangString(FILECHOOSERS, FileChoosers.filterNameODS));
 
     private final String extension;
     private final String filterName;
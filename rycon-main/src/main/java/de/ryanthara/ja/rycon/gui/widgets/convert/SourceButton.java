@@ -23,7 +23,7 @@ import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
  * This enumeration is used for the source radio buttons of the {@link ConverterWidget}.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public enum SourceButton {
@@ -36,7 +36,9 @@ public enum SourceButton {
     ZEISS_REC("Zeiss (.REC)"),
     CADWORK("cadwork (node.dat)"),
     BASEL_STADT("Basel Stadt (.CSV)"),
-    BASEL_LANDSCHAFT("Basel Landschaft (.TXT)");
+    BASEL_LANDSCHAFT("Basel Landschaft (.TXT)"),
+    XLSX("Excel (.XLSX)"),
+    ODS("OpenDocument (.ODS)");
 
     private final String text;
 
@@ -38,7 +38,7 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
  * Kanton Basel Landschaft (Switzerland) from the {@link ConverterWidget} of RyCON.
  *
  * @author sebastian
- * @version 2
+ * @version 3
  * @since 12
  */
 public class BaselLandschaftTXTReadFile implements ReadFile {
@@ -49,7 +49,7 @@ public class BaselLandschaftTXTReadFile implements ReadFile {
     /**
      * Constructs a new instance of this class given a reference to the inner shell of the calling object.
      *
-     * @param innerShell reference to the inner shell
+     * @param innerShell reference to the inner shell or null, if no error message box is shown
      */
     public BaselLandschaftTXTReadFile(Shell innerShell) {
         this.innerShell = innerShell;
@@ -102,9 +102,11 @@ public class BaselLandschaftTXTReadFile implements ReadFile {
             }
         } else {
             System.err.println("File " + file2Read.getFileName() + " could not be read.");
-            MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox), 
-                    ResourceBundleUtils.getLangString(ERRORS, Errors.txtBLReadingFailed));
+            if (innerShell != null) {
+                MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR,
+                        ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox), 
+                        ResourceBundleUtils.getLangString(ERRORS, Errors.txtBLReadingFailed));
+            }
 
         }
 
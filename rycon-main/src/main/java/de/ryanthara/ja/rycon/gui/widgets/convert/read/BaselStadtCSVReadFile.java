@@ -17,7 +17,7 @@
  */
 package de.ryanthara.ja.rycon.gui.widgets.convert.read;
 
-import com.opencsv.CSVReader;
+import de.ryanthara.ja.rycon.file.CSVTokenizer;
 import de.ryanthara.ja.rycon.gui.custom.MessageBoxes;
 import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
 import de.ryanthara.ja.rycon.i18n.Errors;
@@ -38,9 +38,12 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
 /**
  * Instances of this class are used for reading coordinate files (CSV format) from the geodata server
  * Kanton Basel Stadt (Switzerland) from the {@link ConverterWidget} of RyCON.
+ * <p>
+ * Unlike the {@link CSVReadFile}, the read rows are collected in a {@link List}, because the converters of this
+ * format remove the comment row from the read lines.
  *
  * @author sebastian
- * @version 2
+ * @version 4
  * @since 12
  */
 public class BaselStadtCSVReadFile implements ReadFile {
@@ -51,7 +54,7 @@ public class BaselStadtCSVReadFile implements ReadFile {
     /**
      * Constructs a new instance of this class given a reference to the inner shell of the calling object.
      *
-     * @param innerShell reference to the inner shell
+     * @param innerShell reference to the inner shell or null, if no error message box is shown
      */
     public BaselStadtCSVReadFile(Shell innerShell) {
         this.innerShell = innerShell;
@@ -96,16 +99,23 @@ public class BaselStadtCSVReadFile implements ReadFile {
     public boolean readFile(Path file2Read) {
         boolean success = false;
 
-        try {
-            CSVReader reader = new CSVReader(new FileReader(file2Read.toFile()), ';', '"', 0); // do not skip first line!
-            readCSVFile = reader.readAll();
+        try (CSVTokenizer tokenizer = new CSVTokenizer(new FileReader(file2Read.toFile()), ';')) {
+            List<String[]> readRows = new ArrayList<>();
+
+            while (tokenizer.nextRow()) {
+                readRows.add(tokenizer.toArray());
+            }
+
+            readCSVFile = readRows;
 
             success = true;
         } catch (IOException e) {
             System.err.println("File " + file2Read.getFileName() + " could not be read.");
-            MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
-                    ResourceBundleUtils.getLangString(ERRORS, Errors.csvBSReadingFailed));
+            if (innerShell != null) {
+                MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR,
+                        ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
+                        ResourceBundleUtils.getLangString(ERRORS, Errors.csvBSReadingFailed));
+            }
         }
 
         return success;
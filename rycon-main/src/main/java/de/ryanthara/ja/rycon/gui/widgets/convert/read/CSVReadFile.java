@@ -17,7 +17,7 @@
  */
 package de.ryanthara.ja.rycon.gui.widgets.convert.read;
 
-import com.opencsv.CSVReader;
+import de.ryanthara.ja.rycon.file.CSVTokenizer;
 import de.ryanthara.ja.rycon.gui.custom.MessageBoxes;
 import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
 import de.ryanthara.ja.rycon.i18n.Errors;
@@ -29,8 +29,7 @@ import org.eclipse.swt.widgets.Shell;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
 
 import static de.ryanthara.ja.rycon.i18n.ResourceBundles.ERRORS;
 import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
@@ -38,21 +37,22 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
 /**
  * Instances of this class are used for reading comma separated values (CSV) files from
  * the {@link ConverterWidget} of RyCON.
+ * <p>
+ * The rows are handed over one by one while the file is read, therefore the read file is not held in memory.
  *
  * @author sebastian
- * @version 1
+ * @version 3
  * @since 12
  */
-public class CSVReadFile implements ReadFile {
+public class CSVReadFile implements RowReadFile {
 
     private boolean useSemicolonAsSeparator;
-    private List<String[]> readCSVFile;
     private Shell innerShell;
 
     /**
      * Constructs a new instance of this class given a reference to the inner shell of the calling object.
      *
-     * @param innerShell reference to the inner shell
+     * @param innerShell reference to the inner shell or null, if no error message box is shown
      */
     public CSVReadFile(Shell innerShell, boolean useSemicolonAsSeparator) {
         this.innerShell = innerShell;
@@ -60,55 +60,31 @@ public class CSVReadFile implements ReadFile {
     }
 
     /**
-     * Returns the read CSV lines as {@link List}.
-     * * <p>
-     * This method is used vise versa with method {@link #getReadStringLines()}. The one which is not used,
-     * returns null for indication.
+     * Reads the comma separated values (CSV) file given as parameter row by row and returns the read file success.
      *
-     * @return read CSV lines
-     */
-    @Override
-    public List<String[]> getReadCSVFile() {
-        return readCSVFile;
-    }
-
-    /**
-     * Returns the read string lines as {@link ArrayList}.
-     * <p>
-     * This method is used vise versa with method {@link #getReadCSVFile()}. The one which is not used,
-     * returns null for indication.
-     *
-     * @return read string lines
-     */
-    @Override
-    // TODO correct return null
-    public ArrayList<String> getReadStringLines() {
-        return null;
-    }
-
-    /**
-     * Reads the comma separated values (CSV) file given as parameter and returns the read file success.
-     *
-     * @param file2Read read path reference
+     * @param file2Read  read path reference
+     * @param rowHandler handler of every read row
      *
      * @return read file success
      */
     @Override
-    public boolean readFile(Path file2Read) {
+    public boolean readRows(Path file2Read, Consumer<String[]> rowHandler) {
         boolean success = false;
         char separatorCSV = useSemicolonAsSeparator ? ';' : ',';
 
-        // use opencsv project for reading -> could this be done better?
-        try {
-            CSVReader reader = new CSVReader(new FileReader(file2Read.toFile()), separatorCSV);
-            readCSVFile = reader.readAll();
+        try (CSVTokenizer tokenizer = new CSVTokenizer(new FileReader(file2Read.toFile()), separatorCSV)) {
+            while (tokenizer.nextRow()) {
+                rowHandler.accept(tokenizer.toArray());
+            }
 
             success = true;
         } catch (IOException e) {
             System.err.println("File " + file2Read.getFileName() + " could not be read.");
-            MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
-                    ResourceBundleUtils.getLangString(ERRORS, Errors.readerCSVFailed));
+            if (innerShell != null) {
+                MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR,
+                        ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
+                        ResourceBundleUtils.getLangString(ERRORS, Errors.readerCSVFailed));
+            }
         }
 
         return success;
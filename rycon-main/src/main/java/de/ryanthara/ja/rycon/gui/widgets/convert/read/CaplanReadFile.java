@@ -37,7 +37,7 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
  * Instances of this class are used for reading Caplan K files from the {@link ConverterWidget} of RyCON.
  *
  * @author sebastian
- * @version 2
+ * @version 3
  * @since 12
  */
 public class CaplanReadFile implements ReadFile {
@@ -48,7 +48,7 @@ public class CaplanReadFile implements ReadFile {
     /**
      * Constructs a new instance of this class given a reference to the inner shell of the calling object.
      *
-     * @param innerShell reference to the inner shell
+     * @param innerShell reference to the inner shell or null, if no error message box is shown
      */
     public CaplanReadFile(Shell innerShell) {
         this.innerShell = innerShell;
@@ -100,8 +100,10 @@ public class CaplanReadFile implements ReadFile {
             }
         } else {
             System.err.println("File " + file2Read.getFileName() + " could not be read.");
-            MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR, ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
-                    ResourceBundleUtils.getLangString(ERRORS, Errors.caplanReadingFailed));
+            if (innerShell != null) {
+                MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR, ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
+                        ResourceBundleUtils.getLangString(ERRORS, Errors.caplanReadingFailed));
+            }
 
         }
 
@@ -17,15 +17,16 @@
  */
 package de.ryanthara.ja.rycon.gui.widgets.convert.read;
 
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
 import de.ryanthara.ja.rycon.gui.custom.MessageBoxes;
 import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
 import de.ryanthara.ja.rycon.i18n.Errors;
 import de.ryanthara.ja.rycon.i18n.Labels;
 import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
-import de.ryanthara.ja.rycon.io.LineReader;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Shell;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -35,25 +36,37 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
 
 /**
  * Instances of this class are used for reading Leica GSI files from the {@link ConverterWidget} of RyCON.
+ * <p>
+ * The file is decoded directly into a {@link GSIDataset}, which is shared by the converters of all targets.
+ * Therefore no read string lines are given back.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 12
  */
 public class GSIReadFile implements ReadFile {
 
-    private ArrayList<String> readStringFile;
+    private GSIDataset gsiDataset;
     private Shell innerShell;
 
     /**
      * Constructs a new instance of this class given a reference to the inner shell of the calling object.
      *
-     * @param innerShell reference to the inner shell
+     * @param innerShell reference to the inner shell or null, if no error message box is shown
      */
     public GSIReadFile(Shell innerShell) {
         this.innerShell = innerShell;
     }
 
+    /**
+     * Returns the decoded Leica GSI file or null, if the file was not read.
+     *
+     * @return decoded GSI file
+     */
+    public GSIDataset getGSIDataset() {
+        return gsiDataset;
+    }
+
     /**
      * Returns the read CSV lines as {@link List}.
      * * <p>
@@ -69,16 +82,13 @@ public class GSIReadFile implements ReadFile {
     }
 
     /**
-     * Returns the read string lines as {@link ArrayList}.
-     * <p>
-     * This method is used vise versa with method {@link #getReadCSVFile()}. The one which is not used,
-     * returns null for indication.
+     * Returns null, because the file is decoded into a {@link GSIDataset} (see {@link #getGSIDataset()}).
      *
-     * @return read string lines
+     * @return null
      */
     @Override
     public ArrayList<String> getReadStringLines() {
-        return readStringFile;
+        return null;
     }
 
     /**
@@ -92,17 +102,16 @@ public class GSIReadFile implements ReadFile {
     public boolean readFile(Path file2Read) {
         boolean success = false;
 
-        LineReader lineReader = new LineReader(file2Read);
-
-        if (lineReader.readFile()) {
-            if ((readStringFile = lineReader.getLines()) != null) {
-                success = true;
-            }
-        } else {
+        try {
+            gsiDataset = GSIDataset.build(file2Read);
+            success = true;
+        } catch (IOException e) {
             System.err.println("File " + file2Read.getFileName() + " could not be read.");
-            MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
-                    ResourceBundleUtils.getLangString(ERRORS, Errors.gsiReadingFailed));
+            if (innerShell != null) {
+                MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR,
+                        ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
+                        ResourceBundleUtils.getLangString(ERRORS, Errors.gsiReadingFailed));
+            }
         }
 
         return success;
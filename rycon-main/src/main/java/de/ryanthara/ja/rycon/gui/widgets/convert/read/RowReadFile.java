@@ -0,0 +1,45 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.gui.widgets.convert.read
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.gui.widgets.convert.read;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Interface for reading operations, which hand over the rows of a file one by one instead of a read line list.
+ * <p>
+ * A row is handed over as soon as it is read and is not kept by the reader. Therefore large files are converted
+ * with a bounded memory footprint, if the row handler doesn't collect the rows.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public interface RowReadFile {
+
+    /**
+     * Reads the file given as parameter row by row and returns the read file success.
+     *
+     * @param file2Read  {@link Path} reference to file
+     * @param rowHandler handler of every read row
+     *
+     * @return read file success
+     */
+    boolean readRows(Path file2Read, Consumer<String[]> rowHandler);
+
+} // end of RowReadFile
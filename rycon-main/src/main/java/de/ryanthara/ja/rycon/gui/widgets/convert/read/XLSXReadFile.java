@@ -0,0 +1,89 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.gui.widgets.convert.read
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.gui.widgets.convert.read;
+
+import de.ryanthara.ja.rycon.file.XLSXStreamReader;
+import de.ryanthara.ja.rycon.gui.custom.MessageBoxes;
+import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
+import de.ryanthara.ja.rycon.i18n.Errors;
+import de.ryanthara.ja.rycon.i18n.Labels;
+import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Shell;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import static de.ryanthara.ja.rycon.i18n.ResourceBundles.ERRORS;
+import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
+
+/**
+ * Instances of this class are used for reading the first sheet of Microsoft Excel files (XLSX) from
+ * the {@link ConverterWidget} of RyCON.
+ * <p>
+ * The rows are read with the {@link XLSXStreamReader} without building a document or workbook object and are
+ * handed over one by one like the rows of a comma separated values (CSV) file. The read rows are not kept,
+ * therefore large sheets are converted with a bounded memory footprint.
+ *
+ * @author sebastian
+ * @version 2
+ * @since 25
+ */
+public class XLSXReadFile implements RowReadFile {
+
+    private Shell innerShell;
+
+    /**
+     * Constructs a new instance of this class given a reference to the inner shell of the calling object.
+     *
+     * @param innerShell reference to the inner shell or null, if no error message box is shown
+     */
+    public XLSXReadFile(Shell innerShell) {
+        this.innerShell = innerShell;
+    }
+
+    /**
+     * Reads the Microsoft Excel file (XLSX) given as parameter row by row and returns the read file success.
+     *
+     * @param file2Read  read path reference
+     * @param rowHandler handler of every read row
+     *
+     * @return read file success
+     */
+    @Override
+    public boolean readRows(Path file2Read, Consumer<String[]> rowHandler) {
+        boolean success = false;
+
+        try {
+            new XLSXStreamReader(file2Read).read(rowHandler);
+
+            success = true;
+        } catch (IOException e) {
+            System.err.println("File " + file2Read.getFileName() + " could not be read.");
+            if (innerShell != null) {
+                MessageBoxes.showMessageBox(innerShell, SWT.ICON_ERROR,
+                        ResourceBundleUtils.getLangString(LABELS, Labels.errorTextMsgBox),
+                        ResourceBundleUtils.getLangString(ERRORS, Errors.readerXLSXFailed));
+            }
+        }
+
+        return success;
+    }
+
+} // end of XLSXReadFile
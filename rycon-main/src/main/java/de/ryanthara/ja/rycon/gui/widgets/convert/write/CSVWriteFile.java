@@ -17,6 +17,7 @@
  */
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
 import de.ryanthara.ja.rycon.converter.csv.*;
 import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
 import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
@@ -32,7 +33,7 @@ import java.util.List;
  * from the {@link ConverterWidget} of RyCON.
  *
  * @author sebastian
- * @version 2
+ * @version 4
  * @since 12
  */
 public class CSVWriteFile implements WriteFile {
@@ -40,6 +41,7 @@ public class CSVWriteFile implements WriteFile {
     private final Path path;
     private final ArrayList<String> readStringFile;
     private final List<String[]> readCSVFile;
+    private final GSIDataset gsiDataset;
     private final WriteParameter parameter;
 
     /**
@@ -54,6 +56,22 @@ public class CSVWriteFile implements WriteFile {
         this.path = path;
         this.readStringFile = readStringFile;
         this.readCSVFile = readCSVFile;
+        this.gsiDataset = null;
+        this.parameter = parameter;
+    }
+
+    /**
+     * Constructs the {@link CSVWriteFile} for a Leica GSI file, which is given as decoded {@link GSIDataset}.
+     *
+     * @param path       read file object for writing
+     * @param gsiDataset decoded GSI file
+     * @param parameter  the write parameter object
+     */
+    public CSVWriteFile(Path path, GSIDataset gsiDataset, WriteParameter parameter) {
+        this.path = path;
+        this.readStringFile = null;
+        this.readCSVFile = null;
+        this.gsiDataset = gsiDataset;
         this.parameter = parameter;
     }
 
@@ -80,7 +98,7 @@ public class CSVWriteFile implements WriteFile {
         switch (SourceButton.fromIndex(parameter.getSourceNumber())) {
             case GSI8:
             case GSI16:
-                GSI2CSV gsi2CSV = new GSI2CSV(readStringFile);
+                GSI2CSV gsi2CSV = new GSI2CSV(gsiDataset);
                 writeFile = gsi2CSV.convertGSI2CSV(parameter.getSeparatorCSV(), parameter.isWriteCommentLine());
                 break;
 
@@ -92,6 +110,15 @@ public class CSVWriteFile implements WriteFile {
             case CSV:
                 break;
 
+            case XLSX:
+            case ODS:
+                // the rows of a spreadsheet file are written as they are read
+                writeFile = new ArrayList<>(readCSVFile.size());
+                for (String[] row : readCSVFile) {
+                    writeFile.add(BaseToolsCSV.joinRow(row, parameter.getSeparatorCSV()));
+                }
+                break;
+
             case CAPLAN_K:
                 Caplan2CSV caplan2CSV = new Caplan2CSV(readStringFile);
                 writeFile = caplan2CSV.convertK2CSV(parameter.getSeparatorCSV(), parameter.isKFormatUseSimpleFormat(), parameter.isWriteCommentLine(), parameter.isWriteCodeColumn());
@@ -122,7 +149,7 @@ public class CSVWriteFile implements WriteFile {
                 System.err.println("CSVWriteFile.writeStringFile() : unknown file format " + SourceButton.fromIndex(parameter.getSourceNumber()));
         }
 
-        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".CSV")) {
+        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".CSV", parameter.getOverwriteMode())) {
             success = true;
         }
 
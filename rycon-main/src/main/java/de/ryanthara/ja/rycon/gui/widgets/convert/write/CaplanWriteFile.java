@@ -18,6 +18,7 @@
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
 import de.ryanthara.ja.rycon.converter.caplan.*;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
 import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
 import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -31,7 +32,7 @@ import java.util.List;
  * Instances of this class are used for writing Caplan K files from the {@link ConverterWidget} of RyCON.
  *
  * @author sebastian
- * @version 2
+ * @version 5
  * @since 12
  */
 public class CaplanWriteFile implements WriteFile {
@@ -39,6 +40,7 @@ public class CaplanWriteFile implements WriteFile {
     private final Path path;
     private final ArrayList<String> readStringFile;
     private final List<String[]> readCSVFile;
+    private final GSIDataset gsiDataset;
     private final WriteParameter parameter;
 
     /**
@@ -53,6 +55,22 @@ public class CaplanWriteFile implements WriteFile {
         this.path = path;
         this.readStringFile = readStringFile;
         this.readCSVFile = readCSVFile;
+        this.gsiDataset = null;
+        this.parameter = parameter;
+    }
+
+    /**
+     * Constructs the {@link CaplanWriteFile} for a Leica GSI file, which is given as decoded {@link GSIDataset}.
+     *
+     * @param path       read file object for writing
+     * @param gsiDataset decoded GSI file
+     * @param parameter  the write parameter object
+     */
+    public CaplanWriteFile(Path path, GSIDataset gsiDataset, WriteParameter parameter) {
+        this.path = path;
+        this.readStringFile = null;
+        this.readCSVFile = null;
+        this.gsiDataset = gsiDataset;
         this.parameter = parameter;
     }
 
@@ -79,7 +97,7 @@ public class CaplanWriteFile implements WriteFile {
         switch (SourceButton.fromIndex(parameter.getSourceNumber())) {
             case GSI8:
             case GSI16:
-                GSI2K gsi2K = new GSI2K(readStringFile);
+                GSI2K gsi2K = new GSI2K(gsiDataset);
                 writeFile = gsi2K.convertGSI2K(parameter.isKFormatUseSimpleFormat(), parameter.isWriteCommentLine());
                 break;
 
@@ -89,6 +107,8 @@ public class CaplanWriteFile implements WriteFile {
                 break;
 
             case CSV:
+            case XLSX:
+            case ODS:
                 CSV2K csv2K = new CSV2K(readCSVFile);
                 writeFile = csv2K.convertCSV2K(parameter.isKFormatUseSimpleFormat(), parameter.isWriteCommentLine(), parameter.isWriteCodeColumn());
                 break;
@@ -121,7 +141,7 @@ public class CaplanWriteFile implements WriteFile {
                 System.err.println("CaplanWriteFile.writeStringFile() : unknown file format " + SourceButton.fromIndex(parameter.getSourceNumber()));
         }
 
-        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".K")) {
+        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".K", parameter.getOverwriteMode())) {
             success = true;
         }
 
@@ -0,0 +1,110 @@
+/*
+ * License: GPL. Copyright 2016- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.gui.widget.convert.write
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.gui.widgets.convert.write;
+
+import de.ryanthara.ja.rycon.converter.excel.CSV2Excel;
+import de.ryanthara.ja.rycon.file.FileToolsExcel;
+
+import java.nio.file.Path;
+
+/**
+ * Instances of this class write the rows of a CSV (also XLSX and ODS) file into a Microsoft Excel (XLS or XLSX)
+ * file, while the file is read.
+ * <p>
+ * The rows are converted into the workbook of the {@link de.ryanthara.ja.rycon.data.ConversionSettings}, therefore
+ * a streaming XLSX workbook holds only a window of rows in memory.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+class ExcelRowWriteFile implements RowWriteFile {
+
+    private final boolean isXLS;
+    private final Path path;
+    private final WriteParameter parameter;
+    private CSV2Excel csv2Excel;
+
+    /**
+     * Constructs the {@link ExcelRowWriteFile} with a set of parameters.
+     *
+     * @param path      read path object for writing
+     * @param parameter the write parameter object
+     * @param isXLS     true if is XLS
+     */
+    ExcelRowWriteFile(Path path, WriteParameter parameter, boolean isXLS) {
+        this.path = path;
+        this.parameter = parameter;
+        this.isXLS = isXLS;
+    }
+
+    /**
+     * Deletes the temporary files of a streaming workbook.
+     */
+    @Override
+    public void dispose() {
+        if (csv2Excel != null) {
+            new FileToolsExcel(csv2Excel.getWorkbook()).dispose();
+            csv2Excel = null;
+        }
+    }
+
+    /**
+     * Finishes the workbook after the last row and writes it to the file system. Returns write success.
+     *
+     * @return write success
+     */
+    @Override
+    public boolean finish() {
+        if (!csv2Excel.finishWorkbook()) {
+            dispose();
+            return false;
+        }
+
+        String suffix = isXLS ? ".xls" : ".xlsx";
+        boolean success = WriteExcel2Disk.writeExcel2Disk(path, csv2Excel.getWorkbook(), suffix,
+                parameter.getOverwriteMode());
+        csv2Excel = null;
+
+        return success;
+    }
+
+    /**
+     * Starts the workbook, an existing file is handled by {@link #finish()}.
+     *
+     * @return true
+     */
+    @Override
+    public boolean open() {
+        csv2Excel = new CSV2Excel(parameter.getContext());
+        csv2Excel.startWorkbook(isXLS, path.getFileName().toString());
+
+        return true;
+    }
+
+    /**
+     * Converts one read row into a row of the workbook.
+     *
+     * @param row fields of the row
+     */
+    @Override
+    public void writeRow(String[] row) {
+        csv2Excel.convertRow(row);
+    }
+
+} // end of ExcelRowWriteFile
@@ -18,6 +18,7 @@
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
 import de.ryanthara.ja.rycon.converter.excel.*;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
 import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
 import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -32,7 +33,7 @@ import java.util.List;
  * from the {@link ConverterWidget} of RyCON.
  *
  * @author sebastian
- * @version 2
+ * @version 5
  * @since 12
  */
 public class ExcelWriteFile implements WriteFile {
@@ -41,6 +42,7 @@ public class ExcelWriteFile implements WriteFile {
     private final ArrayList<String> readStringFile;
     private final Path path;
     private final List<String[]> readCSVFile;
+    private final GSIDataset gsiDataset;
     private final WriteParameter parameter;
 
     /**
@@ -57,6 +59,24 @@ public class ExcelWriteFile implements WriteFile {
         this.path = path;
         this.readStringFile = readStringFile;
         this.readCSVFile = readCSVFile;
+        this.gsiDataset = null;
+        this.parameter = parameter;
+        this.isXLS = isXLS;
+    }
+
+    /**
+     * Constructs the {@link ExcelWriteFile} for a Leica GSI file, which is given as decoded {@link GSIDataset}.
+     *
+     * @param path       read file object for writing
+     * @param gsiDataset decoded GSI file
+     * @param parameter  the write parameter object
+     * @param isXLS      true if is XLS
+     */
+    public ExcelWriteFile(Path path, GSIDataset gsiDataset, WriteParameter parameter, boolean isXLS) {
+        this.path = path;
+        this.readStringFile = null;
+        this.readCSVFile = null;
+        this.gsiDataset = gsiDataset;
         this.parameter = parameter;
         this.isXLS = isXLS;
     }
@@ -94,56 +114,58 @@ public class ExcelWriteFile implements WriteFile {
         switch (SourceButton.fromIndex(parameter.getSourceNumber())) {
             case GSI8:
             case GSI16:
-                GSI2Excel gsi2Excel = new GSI2Excel(readStringFile);
+                GSI2Excel gsi2Excel = new GSI2Excel(gsiDataset, parameter.getContext());
                 if (gsi2Excel.convertGSI2Excel(isXLS, path.getFileName().toString(), parameter.isWriteCommentLine())) {
                     workbook = gsi2Excel.getWorkbook();
                 }
                 break;
 
             case TXT:
-                TXT2Excel txt2Excel = new TXT2Excel(readStringFile);
+                TXT2Excel txt2Excel = new TXT2Excel(readStringFile, parameter.getContext());
                 if (txt2Excel.convertTXT2Excel(isXLS, path.getFileName().toString())) {
                     workbook = txt2Excel.getWorkbook();
                 }
                 break;
 
             case CSV:
-                CSV2Excel csv2Excel = new CSV2Excel(readCSVFile);
+            case XLSX:
+            case ODS:
+                CSV2Excel csv2Excel = new CSV2Excel(readCSVFile, parameter.getContext());
                 if (csv2Excel.convertCSV2Excel(isXLS, path.getFileName().toString())) {
                     workbook = csv2Excel.getWorkbook();
                 }
                 break;
 
             case CAPLAN_K:
-                Caplan2Excel caplan2Excel = new Caplan2Excel(readStringFile);
+                Caplan2Excel caplan2Excel = new Caplan2Excel(readStringFile, parameter.getContext());
                 if (caplan2Excel.convertCaplan2Excel(isXLS, path.getFileName().toString(), parameter.isWriteCommentLine())) {
                     workbook = caplan2Excel.getWorkbook();
                 }
                 break;
 
             case ZEISS_REC:
-                Zeiss2Excel zeiss2Excel = new Zeiss2Excel(readStringFile);
+                Zeiss2Excel zeiss2Excel = new Zeiss2Excel(readStringFile, parameter.getContext());
                 if (zeiss2Excel.convertZeiss2Excel(isXLS, path.getFileName().toString(), parameter.isWriteCommentLine())) {
                     workbook = zeiss2Excel.getWorkbook();
                 }
                 break;
 
             case CADWORK:
-                Cadwork2Excel cadwork2Excel = new Cadwork2Excel(readStringFile);
+                Cadwork2Excel cadwork2Excel = new Cadwork2Excel(readStringFile, parameter.getContext());
                 if (cadwork2Excel.convertCadwork2Excel(isXLS, path.getFileName().toString(), parameter.isWriteCommentLine())) {
                     workbook = cadwork2Excel.getWorkbook();
                 }
                 break;
 
             case BASEL_STADT:
-                CSVBaselStadt2Excel csvBaselStadt2Excel = new CSVBaselStadt2Excel(readCSVFile);
+                CSVBaselStadt2Excel csvBaselStadt2Excel = new CSVBaselStadt2Excel(readCSVFile, parameter.getContext());
                 if (csvBaselStadt2Excel.convertCSVBaselStadt2Excel(isXLS, path.getFileName().toString(), parameter.isWriteCommentLine())) {
                     workbook = csvBaselStadt2Excel.getWorkbook();
                 }
                 break;
 
             case BASEL_LANDSCHAFT:
-                TXTBaselLandschaft2Excel txtBaselLandschaft2Excel = new TXTBaselLandschaft2Excel(readStringFile);
+                TXTBaselLandschaft2Excel txtBaselLandschaft2Excel = new TXTBaselLandschaft2Excel(readStringFile, parameter.getContext());
                 if (txtBaselLandschaft2Excel.convertTXTBaselLand2Excel(isXLS, path.getFileName().toString(), parameter.isWriteCommentLine())) {
                     workbook = txtBaselLandschaft2Excel.getWorkbook();
                 }
@@ -157,7 +179,7 @@ public class ExcelWriteFile implements WriteFile {
 
         String suffix = isXLS ? ".xls" : ".xlsx";
 
-        if (WriteExcel2Disk.writeExcel2Disk(path, workbook, suffix)) {
+        if (WriteExcel2Disk.writeExcel2Disk(path, workbook, suffix, parameter.getOverwriteMode())) {
             success = true;
         }
 
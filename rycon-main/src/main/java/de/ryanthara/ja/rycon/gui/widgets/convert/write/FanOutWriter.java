@@ -0,0 +1,457 @@
+/*
+ * License: GPL. Copyright 2016- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.gui.widget.convert.write
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.gui.widgets.convert.write;
+
+import de.ryanthara.ja.rycon.converter.caplan.CSV2K;
+import de.ryanthara.ja.rycon.converter.csv.BaseToolsCSV;
+import de.ryanthara.ja.rycon.converter.excel.BaseToolsExcel;
+import de.ryanthara.ja.rycon.converter.gsi.CSV2GSI;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
+import de.ryanthara.ja.rycon.converter.text.CSV2TXT;
+import de.ryanthara.ja.rycon.converter.zeiss.CSV2Zeiss;
+import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
+import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
+import de.ryanthara.ja.rycon.gui.widgets.convert.TargetButton;
+import de.ryanthara.ja.rycon.gui.widgets.convert.read.RowReadFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Instances of this class write one read file into several target formats (fan-out) for the
+ * {@link ConverterWidget} of RyCON.
+ * <p>
+ * The source file is read once and only the {@link WriteFile} objects of the selected targets are built. A Leica
+ * GSI file is decoded once into a {@link GSIDataset}, which is shared by the converters of all targets and not
+ * changed by them. For the other line based sources every target gets it's own copy of the read line list,
+ * because some converters remove header lines, and parses the shared lines by it's own converter. The targets are
+ * converted and written concurrently in a small thread pool, whose threads end after a short idle time. One
+ * instance can be used by several threads (e.g. the workers of a batch).
+ * <p>
+ * The rows of a CSV, XLSX or ODS file are tokenized once and not collected in a list, but handed over to the
+ * {@link RowWriteFile} objects of all targets while the file is read.
+ * <p>
+ * The read lines (or rows) of a file are reported once to the progress sink of the conversion context. A GSI
+ * target, which is transcoded directly from the read file, reports the lines of it's own reading pass.
+ * <p>
+ * Existing files are handled by the {@link OverwriteMode} of the {@link WriteParameter}. Only the mode
+ * {@link OverwriteMode#ASK} shows a question by {@link de.ryanthara.ja.rycon.gui.custom.MessageBoxes}, the other
+ * modes are used by the command line batch mode, which runs without a display.
+ *
+ * @author sebastian
+ * @version 3
+ * @since 25
+ */
+public class FanOutWriter implements AutoCloseable {
+
+    private final ThreadPoolExecutor executorService;
+
+    /**
+     * Constructs a new instance of this class.
+     */
+    public FanOutWriter() {
+        final int threads = Math.max(1, Math.min(TargetButton.values().length, Runtime.getRuntime().availableProcessors()));
+        final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        executorService = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "RyCON-writer-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        // idle threads end, even if the writer is not closed (e.g. a cancelled batch)
+        executorService.allowCoreThreadTimeOut(true);
+    }
+
+    /*
+     * Builds the write file object of a target format with it's own copy of the read line list.
+     */
+    private static WriteFile createWriteFile(TargetButton target, Path path, ArrayList<String> readStringFile,
+                                             List<String[]> readCSVFile, WriteParameter parameter) {
+        ArrayList<String> stringFile = readStringFile != null ? new ArrayList<>(readStringFile) : null;
+        List<String[]> csvFile = readCSVFile != null ? new ArrayList<>(readCSVFile) : null;
+
+        switch (target) {
+            case GSI8:
+            case GSI16:
+                return new GSIWriteFile(path, stringFile, csvFile, parameter, target == TargetButton.GSI16);
+
+            case TXT:
+                return new TXTWriteFile(path, stringFile, csvFile, parameter);
+
+            case CSV:
+                return new CSVWriteFile(path, stringFile, csvFile, parameter);
+
+            case CAPLAN_K:
+                return new CaplanWriteFile(path, stringFile, csvFile, parameter);
+
+            case ZEISS_REC:
+                return new ZeissWriteFile(path, stringFile, csvFile, parameter);
+
+            case LTOP_KOO:
+                return new LtopKOOWriteFile(path, stringFile, csvFile, parameter);
+
+            case LTOP_MES:
+                return new LtopMESWriteFile(path, stringFile, parameter);
+
+            case EXCEL_XLSX:
+                return new ExcelWriteFile(path, stringFile, csvFile, parameter, BaseToolsExcel.isXLSX);
+
+            case EXCEL_XLS:
+                return new ExcelWriteFile(path, stringFile, csvFile, parameter, BaseToolsExcel.isXLS);
+
+            case ODF_ODS:
+                return new ODFWriteFile(path, stringFile, csvFile, parameter);
+
+            default:
+                System.err.println("FanOutWriter.createWriteFile() : unknown target format " + target);
+                return null;
+        }
+    }
+
+    /*
+     * Builds the write file object of a target format for a decoded GSI file. The dataset is shared by all targets.
+     */
+    private static WriteFile createWriteFile(TargetButton target, Path path, GSIDataset gsiDataset,
+                                             WriteParameter parameter) {
+        switch (target) {
+            case GSI8:
+            case GSI16:
+                // GSI is transcoded from file to file
+                return new GSIWriteFile(path, null, null, parameter, target == TargetButton.GSI16);
+
+            case TXT:
+                return new TXTWriteFile(path, gsiDataset, parameter);
+
+            case CSV:
+                return new CSVWriteFile(path, gsiDataset, parameter);
+
+            case CAPLAN_K:
+                return new CaplanWriteFile(path, gsiDataset, parameter);
+
+            case ZEISS_REC:
+                return new ZeissWriteFile(path, gsiDataset, parameter);
+
+            case LTOP_KOO:
+                return new LtopKOOWriteFile(path, gsiDataset, parameter);
+
+            case LTOP_MES:
+                return new LtopMESWriteFile(path, gsiDataset, parameter);
+
+            case EXCEL_XLSX:
+                return new ExcelWriteFile(path, gsiDataset, parameter, BaseToolsExcel.isXLSX);
+
+            case EXCEL_XLS:
+                return new ExcelWriteFile(path, gsiDataset, parameter, BaseToolsExcel.isXLS);
+
+            case ODF_ODS:
+                return new ODFWriteFile(path, gsiDataset, parameter);
+
+            default:
+                System.err.println("FanOutWriter.createWriteFile() : unknown target format " + target);
+                return null;
+        }
+    }
+
+    /*
+     * Builds the row write file object of a target format for a CSV (also XLSX and ODS) file. Returns null for
+     * a target, which is not written from these sources.
+     */
+    private static RowWriteFile createRowWriteFile(TargetButton target, Path path, WriteParameter parameter) {
+        final SourceButton source = SourceButton.fromIndex(parameter.getSourceNumber());
+        final OverwriteMode overwriteMode = parameter.getOverwriteMode();
+
+        switch (target) {
+            case GSI8:
+            case GSI16:
+                final boolean isGSI16 = target == TargetButton.GSI16;
+                final CSV2GSI csv2GSI = new CSV2GSI(parameter.getContext());
+                return new LineRowWriteFile(path, ".GSI", Collections.emptyList(),
+                        row -> csv2GSI.convertRow(row, isGSI16, parameter.sourceContainsCode()), overwriteMode);
+
+            case TXT:
+                final CSV2TXT csv2TXT = new CSV2TXT();
+                return new LineRowWriteFile(path, ".TXT", Collections.emptyList(),
+                        row -> csv2TXT.convertRow(row, parameter.getSeparatorTXT()), overwriteMode);
+
+            case CSV:
+                // a CSV file is not written into a CSV file again
+                if (source == SourceButton.CSV) {
+                    return null;
+                }
+
+                // the rows of a spreadsheet file are written as they are read
+                return new LineRowWriteFile(path, ".CSV", Collections.emptyList(),
+                        row -> BaseToolsCSV.joinRow(row, parameter.getSeparatorCSV()), overwriteMode);
+
+            case CAPLAN_K:
+                final CSV2K csv2K = new CSV2K();
+                return new LineRowWriteFile(path, ".K", csv2K.convertCommentLines(parameter.isWriteCommentLine()),
+                        row -> csv2K.convertRow(row, parameter.isKFormatUseSimpleFormat(), parameter.isWriteCodeColumn()),
+                        overwriteMode);
+
+            case ZEISS_REC:
+                final CSV2Zeiss csv2Zeiss = new CSV2Zeiss();
+                return new LineRowWriteFile(path, ".REC", Collections.emptyList(),
+                        row -> csv2Zeiss.convertRow(row, parameter.getDialect()), overwriteMode);
+
+            case LTOP_KOO:
+                return new LtopKOORowWriteFile(path, parameter);
+
+            case EXCEL_XLSX:
+                return new ExcelRowWriteFile(path, parameter, BaseToolsExcel.isXLSX);
+
+            case EXCEL_XLS:
+                return new ExcelRowWriteFile(path, parameter, BaseToolsExcel.isXLS);
+
+            case ODF_ODS:
+                return new ODFRowWriteFile(path, parameter);
+
+            default:
+                System.err.println("FanOutWriter.createRowWriteFile() : target format " + target +
+                        " is not written from " + source);
+                return null;
+        }
+    }
+
+    /*
+     * Finishes the target and returns write success, a failed target is disposed.
+     */
+    private static boolean finish(RowWriteFile rowWriteFile, Path path) {
+        try {
+            return rowWriteFile.finish();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("FanOutWriter.finish() : target could not be written for " + path);
+            e.printStackTrace();
+            rowWriteFile.dispose();
+            return false;
+        }
+    }
+
+    /*
+     * Opens the target and returns true if it is written, a failed or skipped target is disposed.
+     */
+    private static boolean open(RowWriteFile rowWriteFile, Path path) {
+        try {
+            if (rowWriteFile.open()) {
+                return true;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("FanOutWriter.open() : target could not be opened for " + path);
+            e.printStackTrace();
+        }
+
+        rowWriteFile.dispose();
+
+        return false;
+    }
+
+    /*
+     * Writes the target file in the first matching kind and returns write success.
+     */
+    private static boolean write(WriteFile writeFile) {
+        return writeFile != null && (writeFile.writeSpreadsheetDocument() || writeFile.writeStringFile() ||
+                writeFile.writeWorkbookFile());
+    }
+
+    /*
+     * Hands over the row to all targets, a failed target is disposed and removed.
+     */
+    private static void writeRow(List<RowWriteFile> rowWriteFiles, String[] row, Path path) {
+        Iterator<RowWriteFile> iterator = rowWriteFiles.iterator();
+
+        while (iterator.hasNext()) {
+            RowWriteFile rowWriteFile = iterator.next();
+
+            try {
+                rowWriteFile.writeRow(row);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("FanOutWriter.writeRow() : target could not be written for " + path);
+                e.printStackTrace();
+                iterator.remove();
+                rowWriteFile.dispose();
+            }
+        }
+    }
+
+    /**
+     * Shuts down the thread pool. Already started targets are finished.
+     */
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    /*
+     * Converts and writes all targets, which are built by the factory. A single target is written directly in the
+     * calling thread, otherwise the targets are written by the thread pool. Returns the number of written files.
+     */
+    private int writeTargets(Set<TargetButton> targets, Path path, Function<TargetButton, WriteFile> writeFileFactory) {
+        int counter = 0;
+
+        if (targets.size() == 1) {
+            return write(writeFileFactory.apply(targets.iterator().next())) ? 1 : 0;
+        }
+
+        List<Future<Boolean>> futures = new ArrayList<>(targets.size());
+
+        for (TargetButton target : targets) {
+            futures.add(executorService.submit(() -> write(writeFileFactory.apply(target))));
+        }
+
+        for (Future<Boolean> future : futures) {
+            try {
+                if (future.get()) {
+                    counter = counter + 1;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println("FanOutWriter.write() : interrupted while waiting for " + path);
+                break;
+            } catch (ExecutionException e) {
+                System.err.println("FanOutWriter.write() : target could not be written for " + path);
+                e.getCause().printStackTrace();
+            }
+        }
+
+        return counter;
+    }
+
+    /**
+     * Converts the read file into all given target formats and returns the number of written files.
+     * <p>
+     * Every target parses the shared read lines by it's own converter. A single target is written directly in the
+     * calling thread.
+     *
+     * @param targets        target formats to write
+     * @param path           read path object for writing
+     * @param readStringFile read string file
+     * @param readCSVFile    read csv file
+     * @param parameter      the write parameter object
+     *
+     * @return number of written files
+     */
+    public int write(Set<TargetButton> targets, Path path, ArrayList<String> readStringFile,
+                     List<String[]> readCSVFile, WriteParameter parameter) {
+        if (readStringFile != null) {
+            parameter.getContext().getProgress().processed(readStringFile.size());
+        } else if (readCSVFile != null) {
+            parameter.getContext().getProgress().processed(readCSVFile.size());
+        }
+
+        return writeTargets(targets, path, target ->
+                createWriteFile(target, path, readStringFile, readCSVFile, parameter));
+    }
+
+    /**
+     * Converts a decoded Leica GSI file into all given target formats and returns the number of written files.
+     * <p>
+     * The file is decoded only once, all target converters read the same {@link GSIDataset}. The GSI targets
+     * are transcoded from the read file directly.
+     *
+     * @param targets    target formats to write
+     * @param path       read path object for reading and writing
+     * @param gsiDataset decoded GSI file
+     * @param parameter  the write parameter object
+     *
+     * @return number of written files
+     */
+    public int write(Set<TargetButton> targets, Path path, GSIDataset gsiDataset, WriteParameter parameter) {
+        parameter.getContext().getProgress().processed(gsiDataset.getLineCount());
+
+        return writeTargets(targets, path, target -> createWriteFile(target, path, gsiDataset, parameter));
+    }
+
+    /**
+     * Converts the rows of a CSV (also XLSX and ODS) file into all given target formats, while the file is read
+     * once by the row read file, and returns the number of written files.
+     * <p>
+     * Every row is handed over to all targets in the reading thread and is not kept. Therefore the memory footprint
+     * doesn't grow with the number of rows, except for the targets, which need all points (e.g. LTOP KOO). A target,
+     * which fails while writing, is disposed and the other targets are continued.
+     *
+     * @param targets     target formats to write
+     * @param path        read path object for reading and writing
+     * @param rowReadFile reader of the rows
+     * @param parameter   the write parameter object
+     *
+     * @return number of written files
+     */
+    public int write(Set<TargetButton> targets, Path path, RowReadFile rowReadFile, WriteParameter parameter) {
+        int counter = 0;
+        final AtomicInteger readRows = new AtomicInteger();
+        final List<RowWriteFile> rowWriteFiles = new ArrayList<>(targets.size());
+
+        try {
+            for (TargetButton target : targets) {
+                RowWriteFile rowWriteFile = createRowWriteFile(target, path, parameter);
+
+                if (rowWriteFile != null && open(rowWriteFile, path)) {
+                    rowWriteFiles.add(rowWriteFile);
+                }
+            }
+
+            if (rowWriteFiles.isEmpty()) {
+                return 0;
+            }
+
+            boolean success = rowReadFile.readRows(path, row -> {
+                readRows.incrementAndGet();
+                writeRow(rowWriteFiles, row, path);
+            });
+
+            parameter.getContext().getProgress().processed(readRows.get());
+
+            if (!success) {
+                return 0;
+            }
+
+            Iterator<RowWriteFile> iterator = rowWriteFiles.iterator();
+
+            while (iterator.hasNext()) {
+                RowWriteFile rowWriteFile = iterator.next();
+                iterator.remove();
+
+                if (finish(rowWriteFile, path)) {
+                    counter = counter + 1;
+                }
+            }
+        } finally {
+            // the targets of a failed file are not finished
+            for (RowWriteFile rowWriteFile : rowWriteFiles) {
+                rowWriteFile.dispose();
+            }
+        }
+
+        return counter;
+    }
+
+} // end of FanOutWriter
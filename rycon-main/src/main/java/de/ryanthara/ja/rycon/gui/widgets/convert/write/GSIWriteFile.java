@@ -31,7 +31,7 @@ import java.util.List;
  * Instances of this class are used for writing Leica GSI files from the {@link ConverterWidget} of RyCON.
  *
  * @author sebastian
- * @version 1
+ * @version 5
  * @since 12
  */
 public class GSIWriteFile implements WriteFile {
@@ -81,42 +81,44 @@ public class GSIWriteFile implements WriteFile {
         switch (SourceButton.fromIndex(parameter.getSourceNumber())) {
             case GSI8:
             case GSI16:
-                GSI8vsGSI16 gsi8vsGSI16 = new GSI8vsGSI16(readStringFile);
-                writeFile = gsi8vsGSI16.convertGSI8vsGSI16(isGSI16);
-                break;
+                // transcoded from file to file without reading the whole file into the memory
+                return WriteFile2Disk.transcodeGSIFile2Disk(path, isGSI16, ".GSI", parameter.getContext(),
+                        parameter.getOverwriteMode());
 
             case TXT:
-                TXT2GSI txt2GSI = new TXT2GSI(readStringFile);
+                TXT2GSI txt2GSI = new TXT2GSI(readStringFile, parameter.getContext());
                 writeFile = txt2GSI.convertTXT2GSI(isGSI16, parameter.sourceContainsCode());
                 break;
 
             case CSV:
-                CSV2GSI csv2GSI = new CSV2GSI(readCSVFile);
+            case XLSX:
+            case ODS:
+                CSV2GSI csv2GSI = new CSV2GSI(readCSVFile, parameter.getContext());
                 writeFile = csv2GSI.convertCSV2GSI(isGSI16, parameter.sourceContainsCode());
                 break;
 
             case CAPLAN_K:
-                Caplan2GSI caplan2GSI = new Caplan2GSI(readStringFile);
+                Caplan2GSI caplan2GSI = new Caplan2GSI(readStringFile, parameter.getContext());
                 writeFile = caplan2GSI.convertK2GSI(isGSI16, parameter.isWriteCodeColumn());
                 break;
 
             case ZEISS_REC:
-                Zeiss2GSI zeiss2GSI = new Zeiss2GSI(readStringFile);
+                Zeiss2GSI zeiss2GSI = new Zeiss2GSI(readStringFile, parameter.getContext());
                 writeFile = zeiss2GSI.convertZeiss2GSI(isGSI16);
                 break;
 
             case CADWORK:
-                Cadwork2GSI cadwork2GSI = new Cadwork2GSI(readStringFile);
+                Cadwork2GSI cadwork2GSI = new Cadwork2GSI(readStringFile, parameter.getContext());
                 writeFile = cadwork2GSI.convertCadwork2GSI(isGSI16, parameter.isWriteCodeColumn(), parameter.isCadworkUseZeroHeights());
                 break;
 
             case BASEL_STADT:
-                CSVBaselStadt2GSI csvBaselStadt2GSI = new CSVBaselStadt2GSI(readCSVFile);
+                CSVBaselStadt2GSI csvBaselStadt2GSI = new CSVBaselStadt2GSI(readCSVFile, parameter.getContext());
                 writeFile = csvBaselStadt2GSI.convertCSVBaselStadt2GSI(isGSI16, parameter.sourceContainsCode());
                 break;
 
             case BASEL_LANDSCHAFT:
-                TXTBaselLandschaft2GSI txtBaselLandschaft2GSI = new TXTBaselLandschaft2GSI(readStringFile);
+                TXTBaselLandschaft2GSI txtBaselLandschaft2GSI = new TXTBaselLandschaft2GSI(readStringFile, parameter.getContext());
                 writeFile = txtBaselLandschaft2GSI.convertTXTBaselLandschaft2GSI(isGSI16, parameter.isWriteCodeColumn());
                 break;
 
@@ -126,7 +128,7 @@ public class GSIWriteFile implements WriteFile {
 
         }
 
-        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".GSI")) {
+        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".GSI", parameter.getOverwriteMode())) {
             success = true;
         }
 
@@ -0,0 +1,140 @@
+/*
+ * License: GPL. Copyright 2016- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.gui.widget.convert.write
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.gui.widgets.convert.write;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Instances of this class write the rows of a read file line by line into a line based target file (e.g. GSI, TXT
+ * or K), while the file is read. Only the current line is held in memory.
+ * <p>
+ * Every row is converted by a row converter, which returns the line of the target format or null for a skipped
+ * row. Header lines (e.g. a comment line) are written before the first row.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+class LineRowWriteFile implements RowWriteFile {
+
+    private final Path path;
+    private final String suffix;
+    private final List<String> headerLines;
+    private final Function<String[], String> rowConverter;
+    private final OverwriteMode overwriteMode;
+    private BufferedWriter writer;
+
+    /**
+     * Constructs the {@link LineRowWriteFile} with a set of parameters.
+     *
+     * @param path          read path object for writing
+     * @param suffix        file suffix
+     * @param headerLines   lines, which are written before the first row
+     * @param rowConverter  converter of a row into a line or null for a skipped row
+     * @param overwriteMode handling of an existing output file
+     */
+    LineRowWriteFile(Path path, String suffix, List<String> headerLines, Function<String[], String> rowConverter,
+                     OverwriteMode overwriteMode) {
+        this.path = path;
+        this.suffix = suffix;
+        this.headerLines = headerLines;
+        this.rowConverter = rowConverter;
+        this.overwriteMode = overwriteMode;
+    }
+
+    /**
+     * Closes the not finished target file, which stays incomplete.
+     */
+    @Override
+    public void dispose() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("LineRowWriteFile.dispose() : unable to close file for " + path);
+            }
+
+            writer = null;
+        }
+    }
+
+    /**
+     * Closes the target file after the last row and returns write success.
+     *
+     * @return write success
+     *
+     * @throws IOException if the file could not be written
+     */
+    @Override
+    public boolean finish() throws IOException {
+        // a failed file is not closed again by dispose()
+        BufferedWriter lineWriter = writer;
+        writer = null;
+        lineWriter.close();
+
+        return true;
+    }
+
+    /**
+     * Opens the target file and writes the header lines. Returns false, if the file must not be written.
+     *
+     * @return true if the file is opened
+     *
+     * @throws IOException if the file could not be opened
+     */
+    @Override
+    public boolean open() throws IOException {
+        writer = WriteFile2Disk.openFile2Disk(path, suffix, overwriteMode);
+
+        if (writer == null) {
+            return false;
+        }
+
+        for (String line : headerLines) {
+            writeLine(line);
+        }
+
+        return true;
+    }
+
+    /**
+     * Converts one read row into a line of the target file.
+     *
+     * @param row fields of the row
+     *
+     * @throws IOException if the file could not be written
+     */
+    @Override
+    public void writeRow(String[] row) throws IOException {
+        String line = rowConverter.apply(row);
+
+        if (line != null) {
+            writeLine(line);
+        }
+    }
+
+    private void writeLine(String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+    }
+
+} // end of LineRowWriteFile
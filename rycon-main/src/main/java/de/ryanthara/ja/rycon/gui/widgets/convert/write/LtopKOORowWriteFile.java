@@ -0,0 +1,96 @@
+/*
+ * License: GPL. Copyright 2016- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.gui.widget.convert.write
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.gui.widgets.convert.write;
+
+import de.ryanthara.ja.rycon.converter.codec.CSVPointDecoder;
+import de.ryanthara.ja.rycon.converter.codec.PointTable;
+import de.ryanthara.ja.rycon.converter.ltop.LTOPPointEncoder;
+
+import java.nio.file.Path;
+
+/**
+ * Instances of this class write the rows of a CSV (also XLSX and ODS) file into a LTOP KOO file, while the file
+ * is read.
+ * <p>
+ * The rows are decoded into a {@link PointTable}, which holds the points in primitive arrays instead of the read
+ * rows. The whole table is needed for the duplicate elimination, therefore the KOO file is encoded and written
+ * after the last row.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+class LtopKOORowWriteFile implements RowWriteFile {
+
+    private final Path path;
+    private final WriteParameter parameter;
+    private final PointTable pointTable;
+
+    /**
+     * Constructs the {@link LtopKOORowWriteFile} with a set of parameters.
+     *
+     * @param path      read path object for writing
+     * @param parameter the write parameter object
+     */
+    LtopKOORowWriteFile(Path path, WriteParameter parameter) {
+        this.path = path;
+        this.parameter = parameter;
+        this.pointTable = new PointTable();
+    }
+
+    /**
+     * Nothing to release, the point table is collected by the garbage collector.
+     */
+    @Override
+    public void dispose() {
+    }
+
+    /**
+     * Encodes the decoded points into the KOO file and returns write success.
+     *
+     * @return write success
+     */
+    @Override
+    public boolean finish() {
+        final LTOPPointEncoder ltopPointEncoder = LtopKOOWriteFile.createPointEncoder(parameter);
+
+        return LtopKOOWriteFile.writeKOOFile2Disk(path,
+                lineHandler -> ltopPointEncoder.encode(pointTable, lineHandler), parameter);
+    }
+
+    /**
+     * The KOO file is opened after the last row, therefore an existing file is handled by {@link #finish()}.
+     *
+     * @return true
+     */
+    @Override
+    public boolean open() {
+        return true;
+    }
+
+    /**
+     * Decodes one read row into the point table.
+     *
+     * @param row fields of the row
+     */
+    @Override
+    public void writeRow(String[] row) {
+        CSVPointDecoder.decodeRow(pointTable, row);
+    }
+
+} // end of LtopKOORowWriteFile
@@ -17,6 +17,12 @@
  */
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
+import de.ryanthara.ja.rycon.converter.codec.CSVBaselStadtPointDecoder;
+import de.ryanthara.ja.rycon.converter.codec.CSVPointDecoder;
+import de.ryanthara.ja.rycon.converter.codec.GSIPointDecoder;
+import de.ryanthara.ja.rycon.converter.codec.PointTable;
+import de.ryanthara.ja.rycon.converter.codec.TXTPointDecoder;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
 import de.ryanthara.ja.rycon.converter.ltop.*;
 import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
 import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
@@ -29,9 +35,13 @@ import java.util.List;
 
 /**
  * Instances of this class are used for writing LTOP KOO files from the {@link ConverterWidget} of RyCON.
+ * <p>
+ * GSI, text, CSV (also XLSX and ODS) and CSV Basel Stadt files are decoded into a {@link PointTable} and encoded
+ * by the {@link LTOPPointEncoder}, which hands over the KOO lines directly to the file or to the external sort while
+ * writing. The other sources are converted by their own converters into a list of lines.
  *
  * @author sebastian
- * @version 2
+ * @version 7
  * @since 12
  */
 public class LtopKOOWriteFile implements WriteFile {
@@ -39,6 +49,7 @@ public class LtopKOOWriteFile implements WriteFile {
     private final Path path;
     private final ArrayList<String> readStringFile;
     private final List<String[]> readCSVFile;
+    private final GSIDataset gsiDataset;
     private final WriteParameter parameter;
 
     /**
@@ -53,9 +64,45 @@ public class LtopKOOWriteFile implements WriteFile {
         this.path = path;
         this.readStringFile = readStringFile;
         this.readCSVFile = readCSVFile;
+        this.gsiDataset = null;
         this.parameter = parameter;
     }
 
+    /**
+     * Constructs the {@link LtopKOOWriteFile} for a Leica GSI file, which is given as decoded {@link GSIDataset}.
+     *
+     * @param path       read file object for writing
+     * @param gsiDataset decoded GSI file
+     * @param parameter  the write parameter object
+     */
+    public LtopKOOWriteFile(Path path, GSIDataset gsiDataset, WriteParameter parameter) {
+        this.path = path;
+        this.readStringFile = null;
+        this.readCSVFile = null;
+        this.gsiDataset = gsiDataset;
+        this.parameter = parameter;
+    }
+
+    /*
+     * The encoder doesn't sort, the output is sorted by an external sort while writing.
+     */
+    static LTOPPointEncoder createPointEncoder(WriteParameter parameter) {
+        return new LTOPPointEncoder(parameter.isLtopEliminateDuplicatePoints(), false, parameter.getContext());
+    }
+
+    /*
+     * Writes the KOO file while the lines are produced, which is sorted by point number if selected, and returns
+     * write success.
+     */
+    static boolean writeKOOFile2Disk(Path path, WriteFile2Disk.LineProducer lineProducer, WriteParameter parameter) {
+        if (parameter.isLtopSortOutputFileByNumber()) {
+            return WriteFile2Disk.writeSortedFile2Disk(path, lineProducer, ".KOO", parameter.getContext(),
+                    parameter.getOverwriteMode());
+        } else {
+            return WriteFile2Disk.writeFile2Disk(path, lineProducer, ".KOO", parameter.getOverwriteMode());
+        }
+    }
+
     /**
      * Returns true if the prepared {@link SpreadsheetDocument} for file writing was written to the file system.
      *
@@ -74,65 +121,68 @@ public class LtopKOOWriteFile implements WriteFile {
     @Override
     public boolean writeStringFile() {
         boolean success = false;
-        ArrayList<String> writeFile;
+        ArrayList<String> writeFile = null;
+        PointTable pointTable = null;
+
+        // the converters don't sort, the output is sorted by an external sort while writing
+        final boolean sortOutputFile = false;
 
         switch (SourceButton.fromIndex(parameter.getSourceNumber())) {
             case GSI8:
             case GSI16:
-                GSI2LTOP gsi2LTOP = new GSI2LTOP(readStringFile);
-                writeFile = gsi2LTOP.convertGSI2KOO(parameter.isLtopEliminateDuplicatePoints(),
-                        parameter.isLtopSortOutputFileByNumber());
+                pointTable = new GSIPointDecoder(gsiDataset).decode();
                 break;
 
             case TXT:
-                TXT2LTOP txt2LTOP = new TXT2LTOP(readStringFile);
-                writeFile = txt2LTOP.convertTXT2KOO(parameter.isLtopEliminateDuplicatePoints(),
-                        parameter.isLtopSortOutputFileByNumber());
+                pointTable = new TXTPointDecoder(readStringFile).decode();
                 break;
 
             case CSV:
-                CSV2LTOP csv2LTOP = new CSV2LTOP(readCSVFile);
-                writeFile = csv2LTOP.convertCSV2KOO(parameter.isLtopEliminateDuplicatePoints(),
-                        parameter.isLtopSortOutputFileByNumber());
+            case XLSX:
+            case ODS:
+                pointTable = new CSVPointDecoder(readCSVFile).decode();
                 break;
 
             case CAPLAN_K:
-                Caplan2LTOP caplan2LTOP = new Caplan2LTOP(readStringFile);
+                Caplan2LTOP caplan2LTOP = new Caplan2LTOP(readStringFile, parameter.getContext());
                 writeFile = caplan2LTOP.convertK2KOO(parameter.isLtopEliminateDuplicatePoints(),
-                        parameter.isLtopSortOutputFileByNumber());
+                        sortOutputFile);
                 break;
 
             case ZEISS_REC:
                 Zeiss2LTOP zeiss2LTOP = new Zeiss2LTOP(readStringFile);
                 writeFile = zeiss2LTOP.convertZeiss2KOO(parameter.isLtopEliminateDuplicatePoints(),
-                        parameter.isLtopSortOutputFileByNumber());
+                        sortOutputFile);
                 break;
 
             case CADWORK:
-                Cadwork2LTOP cadwork2LTOP = new Cadwork2LTOP(readStringFile);
+                Cadwork2LTOP cadwork2LTOP = new Cadwork2LTOP(readStringFile, parameter.getContext());
                 writeFile = cadwork2LTOP.convertCadwork2KOO(parameter.isCadworkUseZeroHeights(),
-                        parameter.isLtopEliminateDuplicatePoints(), parameter.isLtopSortOutputFileByNumber());
+                        parameter.isLtopEliminateDuplicatePoints(), sortOutputFile);
                 break;
 
             case BASEL_STADT:
-                CSVBaselStadt2LTOP csvBaselStadt2LTOP = new CSVBaselStadt2LTOP(readCSVFile);
-                writeFile = csvBaselStadt2LTOP.convertCSVBaselStadt2KOO(parameter.isLtopEliminateDuplicatePoints(),
-                        parameter.isLtopSortOutputFileByNumber());
+                pointTable = new CSVBaselStadtPointDecoder(readCSVFile).decode();
                 break;
 
             case BASEL_LANDSCHAFT:
-                TXTBaselLandschaft2LTOP txtBaselLandschaft2LTOP = new TXTBaselLandschaft2LTOP(readStringFile);
+                TXTBaselLandschaft2LTOP txtBaselLandschaft2LTOP = new TXTBaselLandschaft2LTOP(readStringFile, parameter.getContext());
                 writeFile = txtBaselLandschaft2LTOP.convertTXTBaselLandschaft2KOO(parameter.isLtopEliminateDuplicatePoints(),
-                        parameter.isLtopSortOutputFileByNumber());
+                        sortOutputFile);
                 break;
 
             default:
-                writeFile = null;
                 System.err.println("LtopKOOWriteFile.writeStringFile() : unknown file format " + SourceButton.fromIndex(parameter.getSourceNumber()));
         }
 
-        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".KOO")) {
-            success = true;
+        if (pointTable != null) {
+            // point based formats are decoded into a point table, which is encoded line by line while writing
+            final PointTable points = pointTable;
+            final LTOPPointEncoder ltopPointEncoder = createPointEncoder(parameter);
+
+            success = writeKOOFile2Disk(path, lineHandler -> ltopPointEncoder.encode(points, lineHandler), parameter);
+        } else if (writeFile != null) {
+            success = writeKOOFile2Disk(path, writeFile::forEach, parameter);
         }
 
         return success;
@@ -17,10 +17,9 @@
  */
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
-import de.ryanthara.ja.rycon.Main;
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
 import de.ryanthara.ja.rycon.converter.ltop.GSI2MES;
 import de.ryanthara.ja.rycon.converter.ltop.Zeiss2LTOP;
-import de.ryanthara.ja.rycon.data.PreferenceKeys;
 import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
 import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -33,13 +32,14 @@ import java.util.ArrayList;
  * Instances of this class are used for writing LTOP MES files from the {@link ConverterWidget} of RyCON.
  *
  * @author sebastian
- * @version 2
+ * @version 4
  * @since 12
  */
 public class LtopMESWriteFile implements WriteFile {
 
     private final Path path;
     private ArrayList<String> readStringFile;
+    private GSIDataset gsiDataset;
     private WriteParameter parameter;
 
     /**
@@ -55,6 +55,19 @@ public class LtopMESWriteFile implements WriteFile {
         this.parameter = parameter;
     }
 
+    /**
+     * Constructs the {@link LtopMESWriteFile} for a Leica GSI file, which is given as decoded {@link GSIDataset}.
+     *
+     * @param path       read file object for writing
+     * @param gsiDataset decoded GSI file
+     * @param parameter  the write parameter object
+     */
+    public LtopMESWriteFile(Path path, GSIDataset gsiDataset, WriteParameter parameter) {
+        this.path = path;
+        this.gsiDataset = gsiDataset;
+        this.parameter = parameter;
+    }
+
     /**
      * Returns true if the prepared {@link SpreadsheetDocument} for file writing was written to the file system.
      *
@@ -78,15 +91,13 @@ public class LtopMESWriteFile implements WriteFile {
         switch (SourceButton.fromIndex(parameter.getSourceNumber())) {
             case GSI8:
             case GSI16:
-                GSI2MES gsi2MES = new GSI2MES(readStringFile);
-                writeFile = gsi2MES.convertGSI2MES(Boolean.parseBoolean(Main.pref.getUserPreference(
-                        PreferenceKeys.CONVERTER_SETTING_LTOP_USE_ZENITH_DISTANCE)));
+                GSI2MES gsi2MES = new GSI2MES(gsiDataset);
+                writeFile = gsi2MES.convertGSI2MES(parameter.getContext().getSettings().isLtopUseZenithDistance());
                 break;
 
             case ZEISS_REC:
                 Zeiss2LTOP zeiss2LTOP = new Zeiss2LTOP(readStringFile);
-                writeFile = zeiss2LTOP.convertZeiss2MES(Boolean.parseBoolean(Main.pref.getUserPreference(
-                        PreferenceKeys.CONVERTER_SETTING_LTOP_USE_ZENITH_DISTANCE)));
+                writeFile = zeiss2LTOP.convertZeiss2MES(parameter.getContext().getSettings().isLtopUseZenithDistance());
                 break;
 
             default:
@@ -94,7 +105,7 @@ public class LtopMESWriteFile implements WriteFile {
                 System.err.println("LtopMESWriteFile.writeStringFile() : unknown file format " + SourceButton.fromIndex(parameter.getSourceNumber()));
         }
 
-        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".MES")) {
+        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".MES", parameter.getOverwriteMode())) {
             success = true;
         }
 
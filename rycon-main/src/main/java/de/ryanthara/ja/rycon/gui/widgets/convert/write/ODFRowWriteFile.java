@@ -0,0 +1,133 @@
+/*
+ * License: GPL. Copyright 2016- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.gui.widget.convert.write
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.gui.widgets.convert.write;
+
+import de.ryanthara.ja.rycon.converter.odf.CSV2ODF;
+import de.ryanthara.ja.rycon.file.FileToolsODF;
+import de.ryanthara.ja.rycon.file.ODSStreamWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Instances of this class write the rows of a CSV (also XLSX and ODS) file into an Open Document spreadsheet,
+ * while the file is read.
+ * <p>
+ * The number of rows is not known before the end of the file, therefore the cells are always streamed by an
+ * {@link ODSStreamWriter} into a temporary file, which is moved to the output file after the last row.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+class ODFRowWriteFile implements RowWriteFile {
+
+    private final Path path;
+    private final WriteParameter parameter;
+    private CSV2ODF csv2ODF;
+    private FileToolsODF fileToolsODF;
+    private ODSStreamWriter writer;
+
+    /**
+     * Constructs the {@link ODFRowWriteFile} with a set of parameters.
+     *
+     * @param path      read path object for writing
+     * @param parameter the write parameter object
+     */
+    ODFRowWriteFile(Path path, WriteParameter parameter) {
+        this.path = path;
+        this.parameter = parameter;
+    }
+
+    /**
+     * Closes the stream and deletes the temporary file.
+     */
+    @Override
+    public void dispose() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("ODFRowWriteFile.dispose() : unable to close streamed file for " + path);
+            }
+
+            writer = null;
+        }
+
+        if (fileToolsODF != null) {
+            fileToolsODF.dispose();
+            fileToolsODF = null;
+        }
+    }
+
+    /**
+     * Completes the streamed file after the last row and moves it to the output file. Returns write success.
+     *
+     * @return write success
+     *
+     * @throws IOException if the streamed file could not be completed
+     */
+    @Override
+    public boolean finish() throws IOException {
+        // a failed stream is not closed again by dispose()
+        ODSStreamWriter streamWriter = writer;
+        writer = null;
+        streamWriter.close();
+
+        if (!csv2ODF.finishTable()) {
+            dispose();
+            return false;
+        }
+
+        boolean success = WriteODS2Disk.writeODS2Disk(path, fileToolsODF, parameter.getOverwriteMode());
+        fileToolsODF = null;
+
+        return success;
+    }
+
+    /**
+     * Starts the table in a temporary file, an existing output file is handled by {@link #finish()}.
+     *
+     * @return true
+     *
+     * @throws IOException if the temporary file could not be created
+     */
+    @Override
+    public boolean open() throws IOException {
+        Path streamedFile = Files.createTempFile("RyCON_", ".ods");
+
+        fileToolsODF = new FileToolsODF(streamedFile);
+        writer = new ODSStreamWriter(streamedFile);
+        csv2ODF = new CSV2ODF();
+        csv2ODF.startTable(writer, path.getFileName());
+
+        return true;
+    }
+
+    /**
+     * Converts one read row into a row of the table.
+     *
+     * @param row fields of the row
+     */
+    @Override
+    public void writeRow(String[] row) {
+        csv2ODF.convertRow(row);
+    }
+
+} // end of ODFRowWriteFile
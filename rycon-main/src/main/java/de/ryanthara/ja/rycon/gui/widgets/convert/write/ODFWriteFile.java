@@ -17,12 +17,18 @@
  */
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
 import de.ryanthara.ja.rycon.converter.odf.*;
+import de.ryanthara.ja.rycon.file.FileToolsODF;
+import de.ryanthara.ja.rycon.file.ODSStreamWriter;
 import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
 import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.odftoolkit.simple.SpreadsheetDocument;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,7 +38,7 @@ import java.util.List;
  * from the {@link ConverterWidget} of RyCON.
  *
  * @author sebastian
- * @version 1
+ * @version 5
  * @since 12
  */
 public class ODFWriteFile implements WriteFile {
@@ -40,6 +46,7 @@ public class ODFWriteFile implements WriteFile {
     private Path path;
     private ArrayList<String> readStringFile;
     private List<String[]> readCSVFile;
+    private GSIDataset gsiDataset;
     private WriteParameter parameter;
 
     /**
@@ -57,84 +64,63 @@ public class ODFWriteFile implements WriteFile {
         this.parameter = parameter;
     }
 
+    /**
+     * Constructs the {@link ODFWriteFile} for a Leica GSI file, which is given as decoded {@link GSIDataset}.
+     *
+     * @param path       read file object for writing
+     * @param gsiDataset decoded GSI file
+     * @param parameter  the write parameter object
+     */
+    public ODFWriteFile(Path path, GSIDataset gsiDataset, WriteParameter parameter) {
+        this.path = path;
+        this.gsiDataset = gsiDataset;
+        this.parameter = parameter;
+    }
+
     /**
      * Returns true if the prepared {@link SpreadsheetDocument} for file writing was written to the file system.
+     * <p>
+     * Large files (see {@link de.ryanthara.ja.rycon.data.ConversionSettings#getOdsStreamingThreshold()}) are streamed
+     * with the {@link ODSStreamWriter} into a temporary file, which is moved to the output file afterwards.
      *
      * @return write success
      */
     @Override
     public boolean writeSpreadsheetDocument() {
-        boolean success = false;
-        SpreadsheetDocument spreadsheetDocument = null;
-
-        switch (SourceButton.fromIndex(parameter.getSourceNumber())) {
-            case GSI8:
-            case GSI16:
-                GSI2ODF gsi2ODF = new GSI2ODF(readStringFile);
-                if (gsi2ODF.convertGSI2ODS(path.getFileName(), parameter.isWriteCommentLine())) {
-                    spreadsheetDocument = gsi2ODF.getSpreadsheetDocument();
-                }
-                break;
-
-            case TXT:
-                TXT2ODF txt2ODF = new TXT2ODF(readStringFile);
-                if (txt2ODF.convertTXT2ODS(path.getFileName())) {
-                    spreadsheetDocument = txt2ODF.getSpreadsheetDocument();
-                }
-                break;
-
-            case CSV:
-                CSV2ODF csv2ODF = new CSV2ODF(readCSVFile);
-                if (csv2ODF.convertCSV2ODS(path.getFileName())) {
-                    spreadsheetDocument = csv2ODF.getSpreadsheetDocument();
-                }
-                break;
-
-            case CAPLAN_K:
-                Caplan2ODF caplan2ODF = new Caplan2ODF(readStringFile);
-                if (caplan2ODF.convertCaplan2ODS(path.getFileName(), parameter.isWriteCommentLine())) {
-                    spreadsheetDocument = caplan2ODF.getSpreadsheetDocument();
-                }
-                break;
-
-            case ZEISS_REC:
-                Zeiss2ODF zeiss2ODF = new Zeiss2ODF(readStringFile);
-                if (zeiss2ODF.convertZeiss2ODS(path.getFileName())) {
-                    spreadsheetDocument = zeiss2ODF.getSpreadsheetDocument();
-                }
-                break;
-
-            case CADWORK:
-                Cadwork2ODF cadwork2ODF = new Cadwork2ODF(readStringFile);
-                if (cadwork2ODF.convertCadwork2ODS(path.getFileName(), parameter.isWriteCommentLine())) {
-                    spreadsheetDocument = cadwork2ODF.getSpreadsheetDocument();
-                }
-                break;
-
-            case BASEL_STADT:
-                CSVBaselStadt2ODF csvBaselStadt2ODF = new CSVBaselStadt2ODF(readCSVFile);
-                if (csvBaselStadt2ODF.convertCSVBaselStadt2ODS(path.getFileName(), parameter.isWriteCommentLine())) {
-                    spreadsheetDocument = csvBaselStadt2ODF.getSpreadsheetDocument();
-                }
-                break;
-
-            case BASEL_LANDSCHAFT:
-                TXTBaselLandschaft2ODF txtBaselLandschaft2ODF = new TXTBaselLandschaft2ODF(readStringFile);
-                if (txtBaselLandschaft2ODF.convertTXTBaselLandschaft2ODS(path.getFileName(), parameter.isWriteCommentLine())) {
-                    spreadsheetDocument = txtBaselLandschaft2ODF.getSpreadsheetDocument();
-                }
-                break;
-
-            default:
-                spreadsheetDocument = null;
-                System.err.println("ODFWriteFile.writeStringFile() : unknown file format " + SourceButton.fromIndex(parameter.getSourceNumber()));
+        int lineCount = readStringFile != null ? readStringFile.size() : readCSVFile != null ? readCSVFile.size() : 0;
+
+        if (lineCount >= parameter.getContext().getSettings().getOdsStreamingThreshold()) {
+            Path streamedFile;
+            boolean success;
+
+            try {
+                streamedFile = Files.createTempFile("RyCON_", ".ods");
+            } catch (IOException e) {
+                System.err.println("ODFWriteFile.writeSpreadsheetDocument() : unable to create temporary file");
+                return false;
+            }
+
+            FileToolsODF fileToolsODF = new FileToolsODF(streamedFile);
+
+            try (ODSStreamWriter writer = new ODSStreamWriter(streamedFile)) {
+                success = convert(writer);
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("ODFWriteFile.writeSpreadsheetDocument() : unable to stream file " + streamedFile);
+                success = false;
+            }
+
+            if (!success) {
+                fileToolsODF.dispose();
+                return false;
+            }
+
+            return WriteODS2Disk.writeODS2Disk(path, fileToolsODF, parameter.getOverwriteMode());
+        } else {
+            DocumentSpreadsheetWriter writer = new DocumentSpreadsheetWriter();
+
+            return convert(writer) && WriteODS2Disk.writeODS2Disk(path, writer.getSpreadsheetDocument(),
+                    parameter.getOverwriteMode());
         }
-
-        if (WriteODS2Disk.writeODS2Disk(path, spreadsheetDocument)) {
-            success = true;
-        }
-
-        return success;
     }
 
     /**
@@ -157,4 +143,46 @@ public class ODFWriteFile implements WriteFile {
         return false;
     }
 
+    /*
+     * Fills the given writer with the cells of the read file by the matching converter.
+     */
+    private boolean convert(SpreadsheetWriter writer) {
+        final Path sheetName = path.getFileName();
+
+        switch (SourceButton.fromIndex(parameter.getSourceNumber())) {
+            case GSI8:
+            case GSI16:
+                return new GSI2ODF(gsiDataset).convertGSI2ODS(writer, sheetName, parameter.isWriteCommentLine());
+
+            case TXT:
+                return new TXT2ODF(readStringFile).convertTXT2ODS(writer, sheetName);
+
+            case CSV:
+            case XLSX:
+            case ODS:
+                return new CSV2ODF(readCSVFile).convertCSV2ODS(writer, sheetName);
+
+            case CAPLAN_K:
+                return new Caplan2ODF(readStringFile).convertCaplan2ODS(writer, sheetName, parameter.isWriteCommentLine());
+
+            case ZEISS_REC:
+                return new Zeiss2ODF(readStringFile).convertZeiss2ODS(writer, sheetName);
+
+            case CADWORK:
+                return new Cadwork2ODF(readStringFile).convertCadwork2ODS(writer, sheetName, parameter.isWriteCommentLine());
+
+            case BASEL_STADT:
+                return new CSVBaselStadt2ODF(readCSVFile).convertCSVBaselStadt2ODS(writer, sheetName,
+                        parameter.isWriteCommentLine());
+
+            case BASEL_LANDSCHAFT:
+                return new TXTBaselLandschaft2ODF(readStringFile).convertTXTBaselLandschaft2ODS(writer, sheetName,
+                        parameter.isWriteCommentLine());
+
+            default:
+                System.err.println("ODFWriteFile.writeSpreadsheetDocument() : unknown file format " + SourceButton.fromIndex(parameter.getSourceNumber()));
+                return false;
+        }
+    }
+
 } // end of ODFWriteFile
@@ -0,0 +1,48 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.gui.widgets.convert.write
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.gui.widgets.convert.write;
+
+/**
+ * This enumeration is used to decide, how the writing classes of the package
+ * {@link de.ryanthara.ja.rycon.gui.widgets.convert.write} handle an already existing output file.
+ * <p>
+ * Only {@link #ASK} shows a dialog, the other modes can be used without a display (e.g. in the command line
+ * batch mode of <tt>RyCON</tt>).
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public enum OverwriteMode {
+
+    /**
+     * Asks the user with a message box.
+     */
+    ASK,
+
+    /**
+     * Overwrites the existing file without a question.
+     */
+    OVERWRITE,
+
+    /**
+     * Keeps the existing file and skips the writing.
+     */
+    SKIP
+
+} // end of OverwriteMode
@@ -0,0 +1,68 @@
+/*
+ * License: GPL. Copyright 2016- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.gui.widget.convert.write
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.gui.widgets.convert.write;
+
+import java.io.IOException;
+
+/**
+ * Interface for writing operations, which convert the rows of a read file one by one into a target format, while
+ * the file is read (e.g. by a {@link de.ryanthara.ja.rycon.gui.widgets.convert.read.RowReadFile}).
+ * <p>
+ * A target is opened before the first row and finished after the last row. An opened target, which is not
+ * finished (e.g. after a read error), is disposed.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+interface RowWriteFile {
+
+    /**
+     * Releases the resources of an opened, but not finished target. Temporary files are deleted.
+     */
+    void dispose();
+
+    /**
+     * Finishes the target after the last row and returns write success.
+     *
+     * @return write success
+     *
+     * @throws IOException if the target could not be written
+     */
+    boolean finish() throws IOException;
+
+    /**
+     * Opens the target before the first row. Returns false, if the target is not written (e.g. an existing file
+     * is skipped).
+     *
+     * @return true if the target is opened
+     *
+     * @throws IOException if the target could not be opened
+     */
+    boolean open() throws IOException;
+
+    /**
+     * Converts one read row into the target.
+     *
+     * @param row fields of the row
+     *
+     * @throws IOException if the target could not be written
+     */
+    void writeRow(String[] row) throws IOException;
+
+} // end of RowWriteFile
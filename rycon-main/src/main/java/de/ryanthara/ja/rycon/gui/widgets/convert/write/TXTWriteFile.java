@@ -17,6 +17,7 @@
  */
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
 import de.ryanthara.ja.rycon.converter.text.*;
 import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
 import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
@@ -31,7 +32,7 @@ import java.util.List;
  * Instances of this class are used for writing text files from the {@link ConverterWidget} of RyCON.
  *
  * @author sebastian
- * @version 2
+ * @version 4
  * @since 12
  */
 public class TXTWriteFile implements WriteFile {
@@ -39,6 +40,7 @@ public class TXTWriteFile implements WriteFile {
     private final Path path;
     private final ArrayList<String> readStringFile;
     private final List<String[]> readCSVFile;
+    private final GSIDataset gsiDataset;
     private final WriteParameter parameter;
 
     /**
@@ -53,6 +55,22 @@ public class TXTWriteFile implements WriteFile {
         this.path = path;
         this.readStringFile = readStringFile;
         this.readCSVFile = readCSVFile;
+        this.gsiDataset = null;
+        this.parameter = parameter;
+    }
+
+    /**
+     * Constructs the {@link TXTWriteFile} for a Leica GSI file, which is given as decoded {@link GSIDataset}.
+     *
+     * @param path       read file object for writing
+     * @param gsiDataset decoded GSI file
+     * @param parameter  the write parameter object
+     */
+    public TXTWriteFile(Path path, GSIDataset gsiDataset, WriteParameter parameter) {
+        this.path = path;
+        this.readStringFile = null;
+        this.readCSVFile = null;
+        this.gsiDataset = gsiDataset;
         this.parameter = parameter;
     }
 
@@ -79,7 +97,7 @@ public class TXTWriteFile implements WriteFile {
         switch (SourceButton.fromIndex(parameter.getSourceNumber())) {
             case GSI8:
             case GSI16:
-                GSI2TXT gsi2TXT = new GSI2TXT(readStringFile);
+                GSI2TXT gsi2TXT = new GSI2TXT(gsiDataset);
                 writeFile = gsi2TXT.convertGSI2TXT(parameter.getSeparatorTXT(), parameter.isGSI16(), parameter.isWriteCommentLine());
                 break;
 
@@ -87,6 +105,8 @@ public class TXTWriteFile implements WriteFile {
                 break;
 
             case CSV:
+            case XLSX:
+            case ODS:
                 CSV2TXT csv2TXT = new CSV2TXT(readCSVFile);
                 writeFile = csv2TXT.convertCSV2TXT(parameter.getSeparatorTXT());
                 break;
@@ -123,7 +143,7 @@ public class TXTWriteFile implements WriteFile {
                 System.err.println("TXTWriteFile.writeStringFile() : unknown file format " + SourceButton.fromIndex(parameter.getSourceNumber()));
         }
 
-        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".TXT")) {
+        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".TXT", parameter.getOverwriteMode())) {
             success = true;
         }
 
@@ -17,28 +17,18 @@
  */
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
-import de.ryanthara.ja.rycon.Main;
 import de.ryanthara.ja.rycon.data.DefaultKeys;
 import de.ryanthara.ja.rycon.file.FileToolsExcel;
-import de.ryanthara.ja.rycon.gui.custom.MessageBoxes;
-import de.ryanthara.ja.rycon.i18n.Labels;
-import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
-import de.ryanthara.ja.rycon.i18n.Warnings;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.eclipse.swt.SWT;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
-import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
-import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WARNINGS;
-
 /**
  * This class implements static file writing functions for line based files.
  *
  * @author sebastian
- * @version 2
+ * @version 4
  * @since 12
  */
 class WriteExcel2Disk {
@@ -52,36 +42,28 @@ class WriteExcel2Disk {
     /**
      * Writes a Microsoft Excel (.XLS or .XLSX) file from a {@link Workbook} to the file system and returns write success.
      *
-     * @param path     path object
-     * @param workbook prepared {@link Workbook} for writing
-     * @param suffix   file suffix
+     * @param path          path object
+     * @param workbook      prepared {@link Workbook} for writing
+     * @param suffix        file suffix
+     * @param overwriteMode handling of an existing output file
      *
      * @return write success
      */
-    static boolean writeExcel2Disk(Path path, Workbook workbook, String suffix) {
+    static boolean writeExcel2Disk(Path path, Workbook workbook, String suffix, OverwriteMode overwriteMode) {
         boolean writeSuccess;
         String outputFileName = prepareOutputFileName(path, suffix);
 
         FileToolsExcel fileToolsExcel = new FileToolsExcel(workbook);
 
-        if (Files.exists(Paths.get(outputFileName))) {
-            int returnValue = MessageBoxes.showMessageBox(Main.shell, SWT.ICON_WARNING | SWT.YES | SWT.NO,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.warningTextMsgBox),
-                    String.format(ResourceBundleUtils.getLangString(WARNINGS, Warnings.fileExists), outputFileName));
-
-            if (returnValue == SWT.YES) {
-                if (suffix.equalsIgnoreCase(".xls")) {
-                    writeSuccess = fileToolsExcel.writeXLS(Paths.get(outputFileName));
-                } else
-                    writeSuccess = suffix.equalsIgnoreCase(".xlsx") && fileToolsExcel.writeXLSX(Paths.get(outputFileName));
-            } else {
-                writeSuccess = false;
-            }
-        } else {
+        if (WriteFile2Disk.isWriteAllowed(outputFileName, overwriteMode)) {
             if (suffix.equalsIgnoreCase(".xls")) {
                 writeSuccess = fileToolsExcel.writeXLS(Paths.get(outputFileName));
             } else
                 writeSuccess = suffix.equalsIgnoreCase(".xlsx") && fileToolsExcel.writeXLSX(Paths.get(outputFileName));
+        } else {
+            // the temporary files of a streaming workbook are not needed anymore
+            fileToolsExcel.dispose();
+            writeSuccess = false;
         }
 
         return writeSuccess;
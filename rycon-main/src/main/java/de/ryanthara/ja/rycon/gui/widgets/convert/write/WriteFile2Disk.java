@@ -18,18 +18,27 @@
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
 import de.ryanthara.ja.rycon.Main;
+import de.ryanthara.ja.rycon.converter.gsi.GSI8vsGSI16;
+import de.ryanthara.ja.rycon.data.ConversionContext;
 import de.ryanthara.ja.rycon.data.DefaultKeys;
 import de.ryanthara.ja.rycon.gui.custom.MessageBoxes;
 import de.ryanthara.ja.rycon.i18n.Labels;
 import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
 import de.ryanthara.ja.rycon.i18n.Warnings;
+import de.ryanthara.ja.rycon.io.ExternalSorter;
 import de.ryanthara.ja.rycon.io.LineWriter;
 import org.eclipse.swt.SWT;
 
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 
 import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
 import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WARNINGS;
@@ -38,7 +47,7 @@ import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WARNINGS;
  * This class implements static file writing functions for line based files.
  *
  * @author sebastian
- * @version 2
+ * @version 6
  * @since 12
  */
 class WriteFile2Disk {
@@ -49,36 +58,213 @@ class WriteFile2Disk {
         return path.toString().substring(0, path.toString().length() - 4) + "_" + paramEditString + suffix;
     }
 
+    /*
+     * Returns true if the output file does not exist or may be overwritten. Only the overwrite mode ASK shows
+     * a message box, therefore the other modes can be used without a display.
+     */
+    static boolean isWriteAllowed(String outputFileName, OverwriteMode overwriteMode) {
+        if (Files.exists(Paths.get(outputFileName))) {
+            switch (overwriteMode) {
+                case OVERWRITE:
+                    return true;
+
+                case SKIP:
+                    System.err.println("File " + outputFileName + " already exists and is skipped.");
+                    return false;
+
+                default:
+                    int returnValue = MessageBoxes.showMessageBox(Main.shell, SWT.ICON_WARNING | SWT.YES | SWT.NO,
+                            ResourceBundleUtils.getLangString(LABELS, Labels.warningTextMsgBox),
+                            String.format(ResourceBundleUtils.getLangString(WARNINGS, Warnings.fileExists), outputFileName));
+
+                    return returnValue == SWT.YES;
+            }
+        } else {
+            return true;
+        }
+    }
+
+    /**
+     * Opens a line based string file for writing line by line (e.g. while the read file is converted row by row)
+     * and returns the writer or null, if the file must not be written.
+     *
+     * @param path          {@link Path} object
+     * @param suffix        file suffix
+     * @param overwriteMode handling of an existing output file
+     *
+     * @return writer of the opened file or null
+     *
+     * @throws IOException if the file could not be opened
+     */
+    static BufferedWriter openFile2Disk(Path path, String suffix, OverwriteMode overwriteMode) throws IOException {
+        String outputFileName = prepareOutputFileName(path, suffix);
+
+        if (isWriteAllowed(outputFileName, overwriteMode)) {
+            return new BufferedWriter(new FileWriter(outputFileName));
+        }
+
+        return null;
+    }
+
+    /**
+     * Transcodes a Leica GSI8 file into a GSI16 file and vice versa directly from file to file and returns
+     * write success.
+     * <p>
+     * A failed transcoding leaves no truncated file and is reported to the diagnostics of the context.
+     *
+     * @param path          {@link Path} object of the read GSI file
+     * @param isGSI16       output file is GSI16 formatted
+     * @param suffix        file suffix
+     * @param context       context of the conversion
+     * @param overwriteMode handling of an existing output file
+     *
+     * @return write success
+     */
+    static boolean transcodeGSIFile2Disk(Path path, boolean isGSI16, String suffix, ConversionContext context,
+                                         OverwriteMode overwriteMode) {
+        boolean success = false;
+        String outputFileName = prepareOutputFileName(path, suffix);
+
+        if (isWriteAllowed(outputFileName, overwriteMode)) {
+            try {
+                GSI8vsGSI16.transcode(path, Paths.get(outputFileName), isGSI16, context);
+                success = true;
+            } catch (IOException e) {
+                context.getDiagnostics().report(Level.SEVERE, String.format("File %s could not be written: %s",
+                        outputFileName, e.getMessage()));
+            }
+        }
+
+        return success;
+    }
+
     /**
      * Writes a line based string file from an {@link ArrayList} to the file system and returns write success.
      *
-     * @param path      {@link Path} object
-     * @param writeFile prepared string lines for writing
-     * @param suffix    file suffix
+     * @param path          {@link Path} object
+     * @param writeFile     prepared string lines for writing
+     * @param suffix        file suffix
+     * @param overwriteMode handling of an existing output file
      *
      * @return write success
      */
-    static boolean writeFile2Disk(Path path, ArrayList<String> writeFile, String suffix) {
-        boolean success;
+    static boolean writeFile2Disk(Path path, ArrayList<String> writeFile, String suffix, OverwriteMode overwriteMode) {
+        boolean success = false;
         String outputFileName = prepareOutputFileName(path, suffix);
 
-        if (Files.exists(Paths.get(outputFileName))) {
-            int returnValue = MessageBoxes.showMessageBox(Main.shell, SWT.ICON_WARNING | SWT.YES | SWT.NO,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.warningTextMsgBox),
-                    String.format(ResourceBundleUtils.getLangString(WARNINGS, Warnings.fileExists), outputFileName));
+        if (isWriteAllowed(outputFileName, overwriteMode)) {
+            success = new LineWriter(outputFileName).writeFile(writeFile);
+        }
 
-            if (returnValue == SWT.YES) {
-                LineWriter lineWriter = new LineWriter(outputFileName);
+        return success;
+    }
+
+    /**
+     * Writes a line based string file to the file system, while the lines are produced, and returns write success.
+     *
+     * @param path          {@link Path} object
+     * @param lineProducer  producer of the string lines for writing
+     * @param suffix        file suffix
+     * @param overwriteMode handling of an existing output file
+     *
+     * @return write success
+     */
+    static boolean writeFile2Disk(Path path, LineProducer lineProducer, String suffix, OverwriteMode overwriteMode) {
+        boolean success = false;
+        String outputFileName = prepareOutputFileName(path, suffix);
 
-                success = lineWriter.writeFile(writeFile);
-            } else {
-                success = false;
+        if (isWriteAllowed(outputFileName, overwriteMode)) {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFileName))) {
+                lineProducer.produceLines(line -> {
+                    try {
+                        writer.write(line);
+                        writer.newLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                success = true;
+            } catch (IOException | UncheckedIOException e) {
+                System.err.format("File %s could not be written to the file system.", outputFileName);
+                e.printStackTrace();
             }
-        } else {
-            success = new LineWriter(outputFileName).writeFile(writeFile);
         }
 
         return success;
     }
 
+    /**
+     * Writes a line based string file from an {@link ArrayList} case insensitive sorted to the file system and
+     * returns write success.
+     *
+     * @param path          {@link Path} object
+     * @param writeFile     prepared string lines for writing
+     * @param suffix        file suffix
+     * @param context       context of the conversion
+     * @param overwriteMode handling of an existing output file
+     *
+     * @return write success
+     */
+    static boolean writeSortedFile2Disk(Path path, ArrayList<String> writeFile, String suffix,
+                                        ConversionContext context, OverwriteMode overwriteMode) {
+        return writeSortedFile2Disk(path, writeFile::forEach, suffix, context, overwriteMode);
+    }
+
+    /**
+     * Writes a line based string file case insensitive sorted to the file system and returns write success.
+     * <p>
+     * The produced lines are handed over directly to an {@link ExternalSorter}, which sorts large files in runs
+     * of {@link de.ryanthara.ja.rycon.data.ConversionSettings#getSortRunSize()} lines. Therefore the unsorted
+     * lines are never held completely.
+     *
+     * @param path          {@link Path} object
+     * @param lineProducer  producer of the string lines for writing
+     * @param suffix        file suffix
+     * @param context       context of the conversion
+     * @param overwriteMode handling of an existing output file
+     *
+     * @return write success
+     */
+    static boolean writeSortedFile2Disk(Path path, LineProducer lineProducer, String suffix,
+                                        ConversionContext context, OverwriteMode overwriteMode) {
+        boolean success = false;
+        String outputFileName = prepareOutputFileName(path, suffix);
+
+        if (isWriteAllowed(outputFileName, overwriteMode)) {
+            try (ExternalSorter externalSorter = new ExternalSorter(context.getSettings().getSortRunSize())) {
+                lineProducer.produceLines(line -> {
+                    try {
+                        externalSorter.add(line);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+                externalSorter.writeTo(Paths.get(outputFileName));
+                success = true;
+            } catch (IOException | UncheckedIOException e) {
+                System.err.format("File %s could not be written to the file system.", outputFileName);
+                e.printStackTrace();
+            }
+        }
+
+        return success;
+    }
+
+    /**
+     * A line producer hands over the lines of a file in their order to a line handler, e.g. while a converter
+     * encodes them.
+     */
+    @FunctionalInterface
+    interface LineProducer {
+
+        /**
+         * Produces the lines and hands over every line to the line handler.
+         *
+         * @param lineHandler handler of the produced lines
+         */
+        void produceLines(Consumer<String> lineHandler);
+
+    } // end of LineProducer
+
 } // end of WriteFile2Disk
@@ -17,28 +17,17 @@
  */
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
-import de.ryanthara.ja.rycon.Main;
 import de.ryanthara.ja.rycon.data.DefaultKeys;
 import de.ryanthara.ja.rycon.file.FileToolsODF;
-import de.ryanthara.ja.rycon.gui.custom.MessageBoxes;
-import de.ryanthara.ja.rycon.i18n.Labels;
-import de.ryanthara.ja.rycon.i18n.ResourceBundleUtils;
-import de.ryanthara.ja.rycon.i18n.Warnings;
-import org.eclipse.swt.SWT;
 import org.odftoolkit.simple.SpreadsheetDocument;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-
-import static de.ryanthara.ja.rycon.i18n.ResourceBundles.LABELS;
-import static de.ryanthara.ja.rycon.i18n.ResourceBundles.WARNINGS;
 
 /**
  * This class implements static file writing functions for Open Document spreadsheet files.
  *
  * @author sebastian
- * @version 2
+ * @version 4
  * @since 12
  */
 class WriteODS2Disk {
@@ -54,23 +43,34 @@ class WriteODS2Disk {
      *
      * @param path                path object
      * @param spreadsheetDocument prepared {@link SpreadsheetDocument} for writing
+     * @param overwriteMode       handling of an existing output file
      *
      * @return write success
      */
-    static boolean writeODS2Disk(Path path, SpreadsheetDocument spreadsheetDocument) {
+    static boolean writeODS2Disk(Path path, SpreadsheetDocument spreadsheetDocument, OverwriteMode overwriteMode) {
+        return writeODS2Disk(path, new FileToolsODF(spreadsheetDocument), overwriteMode);
+    }
+
+    /**
+     * Writes a Open Document spreadsheet, that is prepared in a {@link FileToolsODF} object (e.g. a streamed file),
+     * to the file system and returns write success.
+     *
+     * @param path          path object
+     * @param fileToolsODF  prepared spreadsheet for writing
+     * @param overwriteMode handling of an existing output file
+     *
+     * @return write success
+     */
+    static boolean writeODS2Disk(Path path, FileToolsODF fileToolsODF, OverwriteMode overwriteMode) {
         boolean writeSuccess;
         String outputFileName = prepareOutputFileName(path, ".ods");
 
-        FileToolsODF fileToolsODF = new FileToolsODF(spreadsheetDocument);
-
-        if (Files.exists(Paths.get(outputFileName))) {
-            int returnValue = MessageBoxes.showMessageBox(Main.shell, SWT.ICON_WARNING | SWT.YES | SWT.NO,
-                    ResourceBundleUtils.getLangString(LABELS, Labels.warningTextMsgBox),
-                    String.format(ResourceBundleUtils.getLangString(WARNINGS, Warnings.fileExists), outputFileName));
+        writeSuccess = WriteFile2Disk.isWriteAllowed(outputFileName, overwriteMode) &&
+                fileToolsODF.writeODS(outputFileName);
 
-            writeSuccess = returnValue == SWT.YES && fileToolsODF.writeODS(outputFileName);
-        } else {
-            writeSuccess = fileToolsODF.writeODS(outputFileName);
+        // a not written temporary file is not needed anymore
+        if (!writeSuccess) {
+            fileToolsODF.dispose();
         }
 
         return writeSuccess;
@@ -18,6 +18,7 @@
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
 import de.ryanthara.ja.rycon.converter.zeiss.ZeissDialect;
+import de.ryanthara.ja.rycon.data.ConversionContext;
 
 /**
  * Instances of this class holds parameter for the writing classes in the package {@link de.ryanthara.ja.rycon.gui.widgets.convert.write}
@@ -30,6 +31,8 @@ public class WriteParameter {
     private int sourceNumber;
     private String separatorCSV, separatorTXT;
     private ZeissDialect dialect;
+    private ConversionContext context;
+    private OverwriteMode overwriteMode;
 
     /**
      * Constructs a new instance of this class with a couple of parameters.
@@ -42,7 +45,8 @@ public class WriteParameter {
                           boolean sourceContainsCode,
                           boolean writeCodeColumn,
                           boolean writeCommentLine,
-                          String separatorCSV, String separatorTXT, ZeissDialect dialect) {
+                          String separatorCSV, String separatorTXT, ZeissDialect dialect,
+                          ConversionContext context, OverwriteMode overwriteMode) {
         this.sourceNumber = sourceNumber;
         this.isGSI16 = isGSI16;
         this.cadworkUseZeroHeights = cadworkUseZeroHeights;
@@ -55,6 +59,17 @@ public class WriteParameter {
         this.separatorCSV = separatorCSV;
         this.separatorTXT = separatorTXT;
         this.dialect = dialect;
+        this.context = context;
+        this.overwriteMode = overwriteMode;
+    }
+
+    /**
+     * Returns the context of the conversion, which is handed over to the converters.
+     *
+     * @return conversion context
+     */
+    public ConversionContext getContext() {
+        return context;
     }
 
     /**
@@ -66,6 +81,15 @@ public class WriteParameter {
         return dialect;
     }
 
+    /**
+     * Returns the handling of already existing output files.
+     *
+     * @return overwrite mode
+     */
+    public OverwriteMode getOverwriteMode() {
+        return overwriteMode;
+    }
+
     /**
      * Returns the separator sign for comma separated value (CSV) files.
      *
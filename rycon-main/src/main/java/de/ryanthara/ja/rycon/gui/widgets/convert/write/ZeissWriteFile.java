@@ -17,6 +17,7 @@
  */
 package de.ryanthara.ja.rycon.gui.widgets.convert.write;
 
+import de.ryanthara.ja.rycon.converter.gsi.GSIDataset;
 import de.ryanthara.ja.rycon.converter.zeiss.*;
 import de.ryanthara.ja.rycon.gui.widgets.ConverterWidget;
 import de.ryanthara.ja.rycon.gui.widgets.convert.SourceButton;
@@ -32,7 +33,7 @@ import java.util.List;
  * from the {@link ConverterWidget} of RyCON.
  *
  * @author sebastian
- * @version 2
+ * @version 5
  * @since 12
  */
 public class ZeissWriteFile implements WriteFile {
@@ -40,6 +41,7 @@ public class ZeissWriteFile implements WriteFile {
     private final Path path;
     private final ArrayList<String> readStringFile;
     private final List<String[]> readCSVFile;
+    private final GSIDataset gsiDataset;
     private final WriteParameter parameter;
 
     /**
@@ -54,6 +56,22 @@ public class ZeissWriteFile implements WriteFile {
         this.path = path;
         this.readStringFile = readStringFile;
         this.readCSVFile = readCSVFile;
+        this.gsiDataset = null;
+        this.parameter = parameter;
+    }
+
+    /**
+     * Constructs the {@link ZeissWriteFile} for a Leica GSI file, which is given as decoded {@link GSIDataset}.
+     *
+     * @param path       read file object for writing
+     * @param gsiDataset decoded GSI file
+     * @param parameter  the write parameter object
+     */
+    public ZeissWriteFile(Path path, GSIDataset gsiDataset, WriteParameter parameter) {
+        this.path = path;
+        this.readStringFile = null;
+        this.readCSVFile = null;
+        this.gsiDataset = gsiDataset;
         this.parameter = parameter;
     }
 
@@ -80,7 +98,7 @@ public class ZeissWriteFile implements WriteFile {
         switch (SourceButton.fromIndex(parameter.getSourceNumber())) {
             case GSI8:
             case GSI16:
-                GSI2Zeiss gsi2Zeiss = new GSI2Zeiss(readStringFile);
+                GSI2Zeiss gsi2Zeiss = new GSI2Zeiss(gsiDataset);
                 writeFile = gsi2Zeiss.convertGSI2REC(parameter.getDialect());
                 break;
 
@@ -90,6 +108,8 @@ public class ZeissWriteFile implements WriteFile {
                 break;
 
             case CSV:
+            case XLSX:
+            case ODS:
                 CSV2Zeiss csv2Zeiss = new CSV2Zeiss(readCSVFile);
                 writeFile = csv2Zeiss.convertCSV2REC(parameter.getDialect());
                 break;
@@ -122,7 +142,7 @@ public class ZeissWriteFile implements WriteFile {
                 System.err.println("ZeissWriteFile.writeStringFile() : unknown file format " + SourceButton.fromIndex(parameter.getSourceNumber()));
         }
 
-        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".REC")) {
+        if (WriteFile2Disk.writeFile2Disk(path, writeFile, ".REC", parameter.getOverwriteMode())) {
             success = true;
         }
 
@@ -24,7 +24,7 @@ package de.ryanthara.ja.rycon.i18n;
  * is used to access different enumerations in the class {@link ResourceBundleUtils}.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 2.0
  */
 public enum Errors implements ResourceKeys {
@@ -51,7 +51,9 @@ public enum Errors implements ResourceKeys {
     projectDirDefaultNotFound,
     projectDirNotFound,
     readerCSVFailed,
+    readerODSFailed,
     readerTXTFailed,
+    readerXLSXFailed,
     settingsError,
     tidyUpFailed,
     transferNoDataSelected,
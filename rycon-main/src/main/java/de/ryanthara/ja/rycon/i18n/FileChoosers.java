@@ -24,7 +24,7 @@ package de.ryanthara.ja.rycon.i18n;
  * is used to access different enumerations in the class {@link ResourceBundleUtils}.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 2.0
  */
 public enum FileChoosers implements ResourceKeys {
@@ -53,7 +53,9 @@ public enum FileChoosers implements ResourceKeys {
     filterNameK,
     filterNameLTOP,
     filterNameNIGRA,
+    filterNameODS,
     filterNameTXT,
+    filterNameXLSX,
     filterNameZeiss,
     levellingSourceMessage,
     levellingSourceTitle,
@@ -24,11 +24,12 @@ package de.ryanthara.ja.rycon.i18n;
  * is used to access different enumerations in the class {@link ResourceBundleUtils}.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @since 2.0
  */
 public enum Labels implements ResourceKeys {
 
+    additionalTargetFormatText,
     adminPath,
     adminPathDefault,
     adviceText,
@@ -0,0 +1,169 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.io
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.io;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+
+/**
+ * Instances of this class provides functions to write lines into one file per code while the lines are read.
+ * <p>
+ * Unlike the {@link LineWriter}, which writes a complete {@code ArrayList<String>} at once, every line is appended
+ * to the file of it's code directly. Therefore a file with thousands of codes and millions of lines can be split
+ * in constant memory.
+ * <p>
+ * The buffered writers are held in a pool with the least recently used order. If the maximum number of open files
+ * is reached, the least recently used file is flushed and closed. It is opened again in append mode when the next
+ * line of it's code arrives. The first opening of a file overwrites an existing file, in the same way as the
+ * {@link LineWriter} does.
+ * <p>
+ * A code split writer has to be closed after usage, therefore it is recommended to use it within a
+ * try-with-resources statement. At the moment, there is no thread safety implemented.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class CodeSplitWriter implements Closeable {
+
+    private final IntFunction<Path> pathForCode;
+    private final int maxOpenFiles;
+    private final LinkedHashMap<Integer, BufferedWriter> openWriters;
+    private final TreeSet<Integer> writtenCodes;
+    private int countWrittenLines = 0;
+
+    /**
+     * Constructs a new instance of this class with a function for the file name of a code and the maximum number
+     * of open files.
+     *
+     * @param pathForCode  function that returns the path of the file for a code
+     * @param maxOpenFiles maximum number of files that are open at the same time
+     */
+    public CodeSplitWriter(IntFunction<Path> pathForCode, int maxOpenFiles) {
+        if (maxOpenFiles < 1) {
+            throw new IllegalArgumentException("at least one open file is needed: " + maxOpenFiles);
+        }
+
+        this.pathForCode = pathForCode;
+        this.maxOpenFiles = maxOpenFiles;
+        this.openWriters = new LinkedHashMap<>(16, 0.75f, true);
+        this.writtenCodes = new TreeSet<>();
+    }
+
+    /**
+     * Flushes and closes all open files.
+     *
+     * @throws IOException if one of the files could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+
+        for (BufferedWriter writer : openWriters.values()) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                }
+            }
+        }
+
+        openWriters.clear();
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Returns the number of written files.
+     *
+     * @return number of written files
+     */
+    public int getCountWrittenFiles() {
+        return writtenCodes.size();
+    }
+
+    /**
+     * Returns the number of written lines.
+     *
+     * @return number of written lines
+     */
+    public int getCountWrittenLines() {
+        return countWrittenLines;
+    }
+
+    /**
+     * Returns the codes which has been written as {@code TreeSet<Integer>}.
+     *
+     * @return written codes
+     */
+    public TreeSet<Integer> getWrittenCodes() {
+        return writtenCodes;
+    }
+
+    /**
+     * Appends a line to the file of the code.
+     *
+     * @param code code of the line
+     * @param line line to write
+     *
+     * @throws IOException if the file could not be opened or written
+     */
+    public void write(int code, String line) throws IOException {
+        BufferedWriter writer = openWriters.get(code);
+
+        if (writer == null) {
+            writer = open(code);
+        }
+
+        writer.write(line);
+        writer.newLine();
+
+        countWrittenLines = countWrittenLines + 1;
+    }
+
+    /*
+     * Opens the file of the code. If the pool is full, the least recently used file is closed before.
+     */
+    private BufferedWriter open(int code) throws IOException {
+        if (openWriters.size() >= maxOpenFiles) {
+            Iterator<Map.Entry<Integer, BufferedWriter>> iterator = openWriters.entrySet().iterator();
+            BufferedWriter eldest = iterator.next().getValue();
+            iterator.remove();
+            eldest.close();
+        }
+
+        boolean isAppend = !writtenCodes.add(code);
+
+        BufferedWriter writer = new BufferedWriter(new FileWriter(pathForCode.apply(code).toFile(), isAppend));
+        openWriters.put(code, writer);
+
+        return writer;
+    }
+
+} // end of CodeSplitWriter
@@ -0,0 +1,322 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.io
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Instances of this class implements an external merge sort for text lines, that sorts case insensitive
+ * (same order as {@link String#compareToIgnoreCase(String)}).
+ * <p>
+ * The lines are collected in runs of a defined size. Every full run is sorted in memory and spilled to a
+ * temporary file. At the end, the sorted runs are merged with a heap into the target file. Therefore files
+ * which are larger than the heap can be sorted, only one run has to fit into the memory. The collation key
+ * of a line is computed once, when it is added to a run or read back from a run file.
+ * <p>
+ * The sort is stable, lines with the same collation key keep their order. The temporary files are deleted
+ * when the sorter is closed, therefore it is recommended to use it within a try-with-resources statement.
+ * At the moment, there is no thread safety implemented.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class ExternalSorter implements Closeable {
+
+    private static final int MAX_MERGE_FILES = 64;
+
+    private final int runSize;
+    private final ArrayList<String> run;
+    private final ArrayList<Path> runFiles;
+    private int countLines = 0;
+
+    /**
+     * Constructs a new instance of this class with the maximum number of lines in a run.
+     *
+     * @param runSize maximum number of lines, that are sorted in memory
+     */
+    public ExternalSorter(int runSize) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("run size must be at least one line: " + runSize);
+        }
+
+        this.runSize = runSize;
+        this.run = new ArrayList<>(Math.min(runSize, 1024));
+        this.runFiles = new ArrayList<>();
+    }
+
+    /**
+     * Sorts a text file line by line case insensitive into the target file. Source and target can be the same
+     * file, because the source is read completely before the target is written.
+     *
+     * @param source  file to sort
+     * @param target  sorted file, an existing file will be overwritten
+     * @param runSize maximum number of lines, that are sorted in memory
+     *
+     * @return number of sorted lines
+     *
+     * @throws IOException if the source could not be read or the target could not be written
+     */
+    public static int sortFile(Path source, Path target, int runSize) throws IOException {
+        try (ExternalSorter externalSorter = new ExternalSorter(runSize)) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(source.toFile()))) {
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    externalSorter.add(line);
+                }
+            }
+
+            return externalSorter.writeTo(target);
+        }
+    }
+
+    /*
+     * Returns the collation key of a line. Every character is mapped in the same way, as
+     * String.compareToIgnoreCase() compares it, so the natural order of the keys is the case insensitive
+     * order of the lines.
+     */
+    private static String collationKey(String line) {
+        char[] chars = line.toCharArray();
+
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * Adds a line to the sorter. A full run is sorted and spilled to a temporary file.
+     *
+     * @param line line to add
+     *
+     * @throws IOException if the run could not be spilled
+     */
+    public void add(String line) throws IOException {
+        run.add(line);
+        countLines = countLines + 1;
+
+        if (run.size() >= runSize) {
+            spill();
+        }
+    }
+
+    /**
+     * Deletes the temporary files of the runs.
+     *
+     * @throws IOException if a temporary file could not be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        run.clear();
+
+        for (Path runFile : runFiles) {
+            Files.deleteIfExists(runFile);
+        }
+
+        runFiles.clear();
+    }
+
+    /**
+     * Returns the number of added lines.
+     *
+     * @return number of added lines
+     */
+    public int getCountLines() {
+        return countLines;
+    }
+
+    /**
+     * Writes all added lines sorted into the target file. The lines are separated with the line separator of
+     * the system, in the same way as the {@link LineWriter} does.
+     *
+     * @param target sorted file, an existing file will be overwritten
+     *
+     * @return number of written lines
+     *
+     * @throws IOException if the runs could not be read or the target could not be written
+     */
+    public int writeTo(Path target) throws IOException {
+        if (runFiles.isEmpty()) {
+            // everything fits into one run, no temporary files are needed
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(target.toFile()))) {
+                for (SortEntry entry : sortRun()) {
+                    writer.write(entry.line);
+                    writer.newLine();
+                }
+            }
+        } else {
+            if (!run.isEmpty()) {
+                spill();
+            }
+
+            // merge in passes, if there are too many runs for one merge
+            while (runFiles.size() > MAX_MERGE_FILES) {
+                ArrayList<Path> mergedFiles = new ArrayList<>();
+
+                for (int i = 0; i < runFiles.size(); i += MAX_MERGE_FILES) {
+                    ArrayList<Path> group = new ArrayList<>(runFiles.subList(i, Math.min(runFiles.size(), i + MAX_MERGE_FILES)));
+                    Path mergedFile = Files.createTempFile("RyCON_sort_", ".run");
+                    mergedFiles.add(mergedFile);
+
+                    try (BufferedWriter writer = Files.newBufferedWriter(mergedFile, StandardCharsets.UTF_8)) {
+                        merge(group, writer);
+                    }
+
+                    for (Path runFile : group) {
+                        Files.deleteIfExists(runFile);
+                    }
+                }
+
+                runFiles.clear();
+                runFiles.addAll(mergedFiles);
+            }
+
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(target.toFile()))) {
+                merge(runFiles, writer);
+            }
+        }
+
+        return countLines;
+    }
+
+    /*
+     * K-way merge of sorted run files with a heap. Equal keys are taken from the earlier run first.
+     */
+    private void merge(ArrayList<Path> files, BufferedWriter writer) throws IOException {
+        PriorityQueue<RunReader> heap = new PriorityQueue<>(files.size());
+        ArrayList<RunReader> readers = new ArrayList<>(files.size());
+
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                RunReader reader = new RunReader(files.get(i), i);
+                readers.add(reader);
+
+                if (reader.advance()) {
+                    heap.add(reader);
+                }
+            }
+
+            while (!heap.isEmpty()) {
+                RunReader reader = heap.poll();
+
+                writer.write(reader.line);
+                writer.newLine();
+
+                if (reader.advance()) {
+                    heap.add(reader);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private SortEntry[] sortRun() {
+        SortEntry[] entries = new SortEntry[run.size()];
+
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new SortEntry(collationKey(run.get(i)), run.get(i));
+        }
+
+        run.clear();
+
+        // stable merge sort, lines with equal keys keep their order
+        Arrays.sort(entries);
+
+        return entries;
+    }
+
+    private void spill() throws IOException {
+        Path runFile = Files.createTempFile("RyCON_sort_", ".run");
+        runFiles.add(runFile);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(runFile, StandardCharsets.UTF_8)) {
+            for (SortEntry entry : sortRun()) {
+                writer.write(entry.line);
+                writer.newLine();
+            }
+        }
+    }
+
+    /*
+     * Line with it's precomputed collation key.
+     */
+    private static class SortEntry implements Comparable<SortEntry> {
+
+        private final String key;
+        private final String line;
+
+        private SortEntry(String key, String line) {
+            this.key = key;
+            this.line = line;
+        }
+
+        @Override
+        public int compareTo(SortEntry o) {
+            return key.compareTo(o.key);
+        }
+
+    } // end of SortEntry
+
+    /*
+     * Reader for a sorted run file, that holds the current line and it's collation key.
+     */
+    private static class RunReader implements Comparable<RunReader>, Closeable {
+
+        private final BufferedReader reader;
+        private final int index;
+        private String key;
+        private String line;
+
+        private RunReader(Path runFile, int index) throws IOException {
+            this.reader = Files.newBufferedReader(runFile, StandardCharsets.UTF_8);
+            this.index = index;
+        }
+
+        private boolean advance() throws IOException {
+            line = reader.readLine();
+            key = line == null ? null : collationKey(line);
+
+            return line != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        @Override
+        public int compareTo(RunReader o) {
+            int result = key.compareTo(o.key);
+
+            return result != 0 ? result : Integer.compare(index, o.index);
+        }
+
+    } // end of RunReader
+
+} // end of ExternalSorter
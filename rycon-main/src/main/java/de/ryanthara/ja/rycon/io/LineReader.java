@@ -18,8 +18,8 @@
 
 package de.ryanthara.ja.rycon.io;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -30,9 +30,11 @@ import java.util.ArrayList;
  * <p>
  * A couple of things are implemented as additional functionality. At the moment there is no thread safety
  * implemented or planed due to some reasons.
+ * <p>
+ * For big files, where the complete content should not be hold in memory, use a {@link LineSource} instead.
  *
  * @author sebastian
- * @version 4
+ * @version 5
  * @since 1
  */
 public class LineReader {
@@ -108,62 +110,26 @@ public class LineReader {
     private boolean readFile(String comment) {
         boolean success = false;
         lines = new ArrayList<>();
-        FileInputStream fileInputStream = null;
-        String line;
 
         // check path for a couple of things
         if (path == null || !Files.exists(path) || !Files.isRegularFile(path) || !Files.isReadable(path)) {
             return false;
         } else {
-            try {
-                fileInputStream = new FileInputStream(path.toFile());
-
-                try {
-                    fileInputStream.getChannel().lock(0, Long.MAX_VALUE, true);
-                    try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(fileInputStream, StandardCharsets.UTF_8))) {
-
-                        // read the lines into an ArrayList
-                        while ((line = bufferedReader.readLine()) != null) {
-                            countReadLines = countReadLines + 1;
-                            if (!line.trim().equals("")) {
-                                if (comment == null) {
-                                    lines.add(line);
-                                    countStoredLines = countStoredLines + 1;
-                                } else {
-                                    if (!line.startsWith(comment)) {
-                                        lines.add(line);
-                                        countStoredLines = countStoredLines + 1;
-                                    }
-                                }
-                            }
-                        }
-                        // hack to get rid of the -1 initialization
-                        countReadLines = countReadLines + 1;
-                        countStoredLines = countStoredLines + 1;
+            try (LineSource lineSource = LineSource.open(path, comment)) {
+                // read the lines into an ArrayList
+                for (String line : lineSource) {
+                    lines.add(line);
+                }
 
-                        success = true;
-                    }
+                countReadLines = lineSource.getCountReadLines();
+                countStoredLines = lineSource.getCountStoredLines();
 
-                } catch (IOException e) {
-                    System.err.println("File " + path.getFileName() + " could not be locked.");
-                    e.printStackTrace();
-                }
-            } catch (FileNotFoundException e) {
-                System.err.println("File: " + path.getFileName() + "could not be read.");
+                success = true;
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("File " + path.getFileName() + " could not be read.");
                 e.printStackTrace();
-            } finally {
-                // reset variables back to initialization values
-                countReadLines = -1;
-                countStoredLines = -1;
-                try {
-                    if (fileInputStream != null) {
-                        fileInputStream.close();
-                    }
-                } catch (IOException e) {
-                    System.err.println("File input stream couldn't be closed.");
-                    e.printStackTrace();
-                }
             }
+
             return success;
         }
     }
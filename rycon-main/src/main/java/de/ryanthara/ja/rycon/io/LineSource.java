@@ -0,0 +1,233 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.io
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Instances of this class implements a pull based line source for text based files.
+ * <p>
+ * Unlike the {@link LineReader}, which stores every read line in an {@code ArrayList<String>}, a line source
+ * hands out one line after the other, so that a converter can process a file in constant memory. Blank lines
+ * and lines starting with the (optional) comment sign are skipped in the same way as the {@link LineReader} does.
+ * <p>
+ * The file is locked (shared) while the source is open. A line source has to be closed after usage, therefore
+ * it is recommended to use it within a try-with-resources statement.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class LineSource implements Iterable<String>, Iterator<String>, Closeable {
+
+    private final BufferedReader bufferedReader;
+    private final FileInputStream fileInputStream;
+    private final String comment;
+    private final Path path;
+    private boolean isClosed = false;
+    private int countReadLines = 0;
+    private int countStoredLines = 0;
+    private String nextLine = null;
+
+    private LineSource(Path path, String comment) throws IOException {
+        this.path = path;
+        this.comment = comment;
+
+        fileInputStream = new FileInputStream(path.toFile());
+
+        try {
+            fileInputStream.getChannel().lock(0, Long.MAX_VALUE, true);
+        } catch (IOException e) {
+            fileInputStream.close();
+            throw e;
+        }
+
+        bufferedReader = new BufferedReader(new InputStreamReader(fileInputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens a line source for the given {@link Path} object without comment handling.
+     *
+     * @param path file name as path object
+     *
+     * @return opened line source
+     *
+     * @throws IOException if the file is not readable or could not be locked
+     */
+    public static LineSource open(Path path) throws IOException {
+        return open(path, null);
+    }
+
+    /**
+     * Opens a line source for the given {@link Path} object.
+     * <p>
+     * With the parameter 'comment' there is the possibility to use a {@code String} as comment sign.
+     * Lines starting with this sign will be ignored and not handed out.
+     *
+     * @param path    file name as path object
+     * @param comment String for comment signs, could be null
+     *
+     * @return opened line source
+     *
+     * @throws IOException if the file is not readable or could not be locked
+     */
+    public static LineSource open(Path path, String comment) throws IOException {
+        // check path for a couple of things
+        if (path == null || !Files.exists(path) || !Files.isRegularFile(path) || !Files.isReadable(path)) {
+            throw new FileNotFoundException("File " + path + " could not be read.");
+        }
+
+        return new LineSource(path, comment);
+    }
+
+    /**
+     * Closes the line source and releases the file lock.
+     *
+     * @throws IOException if the underlying reader could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (!isClosed) {
+            isClosed = true;
+            nextLine = null;
+
+            try {
+                bufferedReader.close();
+            } finally {
+                fileInputStream.close();
+            }
+        }
+    }
+
+    /**
+     * Return the number of read lines (including blank and comment lines) up to now.
+     *
+     * @return number of read lines
+     */
+    public int getCountReadLines() {
+        return countReadLines;
+    }
+
+    /**
+     * Return the number of lines handed out up to now.
+     *
+     * @return number of stored lines
+     */
+    public int getCountStoredLines() {
+        return countStoredLines;
+    }
+
+    /**
+     * Returns the path of the read file.
+     *
+     * @return path of the read file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns true if there is one more line to hand out.
+     * <p>
+     * An {@link IOException} during the read operation is wrapped into an {@link UncheckedIOException}.
+     *
+     * @return true if there is one more line
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextLine != null) {
+            return true;
+        } else if (isClosed) {
+            return false;
+        }
+
+        try {
+            String line;
+
+            while ((line = bufferedReader.readLine()) != null) {
+                countReadLines = countReadLines + 1;
+
+                if (!line.trim().equals("")) {
+                    if (comment == null || !line.startsWith(comment)) {
+                        nextLine = line;
+                        return true;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("File " + path.getFileName() + " could not be read.", e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns this line source as {@link Iterator}. The line source can only be iterated once.
+     *
+     * @return this line source
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return this;
+    }
+
+    /**
+     * Returns the line source as sequential {@link Stream}. Closing the stream closes the line source.
+     *
+     * @return lines as stream
+     */
+    public Stream<String> lines() {
+        Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the next line that is neither blank nor a comment line.
+     *
+     * @return next line
+     */
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        String line = nextLine;
+        nextLine = null;
+        countStoredLines = countStoredLines + 1;
+
+        return line;
+    }
+
+} // end of LineSource
@@ -0,0 +1,341 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.io
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Instances of this class record the processed files of the watch folder daemon in a persistent journal, so that
+ * every version of a file is processed exactly once, even if the daemon is restarted.
+ * <p>
+ * A version of a file is identified by it's absolute path, it's size and the time of it's last modification. The
+ * journal is a text file with one entry per line, which is appended and forced to the disk after every entry:
+ * <code>
+ * START    [size]    [last modified]    [path]
+ * DONE     [size]    [last modified]    [path]
+ * FAILED   [size]    [last modified]    [path]
+ * </code>
+ * A failed file is not processed again until it is changed. A started file without a final entry was interrupted
+ * (e.g. by a power failure) and is processed again, which overwrites it's incomplete output files.
+ * <p>
+ * When the journal is opened, it is compacted to the final entries of the latest versions. A lock file
+ * ('[journal].lock') prevents, that two daemons use the same journal.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class ProcessedFileJournal implements Closeable {
+
+    private final static Logger logger = Logger.getLogger(ProcessedFileJournal.class.getName());
+
+    private static final String DONE = "DONE";
+    private static final String FAILED = "FAILED";
+    private static final String START = "START";
+
+    private final Map<Path, FileVersion> finishedFiles;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final FileChannel journalChannel;
+
+    private ProcessedFileJournal(Map<Path, FileVersion> finishedFiles, FileChannel lockChannel, FileLock lock,
+                                 FileChannel journalChannel) {
+        this.finishedFiles = finishedFiles;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.journalChannel = journalChannel;
+    }
+
+    /**
+     * Opens the journal, reads the recorded files and compacts it. A not existing journal is created.
+     *
+     * @param journalFile file of the journal
+     *
+     * @return opened journal
+     *
+     * @throws IOException if the journal could not be read or written or is used by another daemon
+     */
+    public static ProcessedFileJournal open(Path journalFile) throws IOException {
+        final Path lockFile = Paths.get(journalFile.toString() + ".lock");
+        final FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+        try {
+            final FileLock lock = lockChannel.tryLock();
+
+            if (lock == null) {
+                throw new IOException("journal " + journalFile + " is used by another process");
+            }
+
+            final Map<Path, FileVersion> finishedFiles = read(journalFile);
+            compact(journalFile, finishedFiles);
+
+            final FileChannel journalChannel = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+            return new ProcessedFileJournal(finishedFiles, lockChannel, lock, journalChannel);
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /*
+     * Writes the final entries into a temporary file, which is forced to the disk and replaces the journal.
+     */
+    private static void compact(Path journalFile, Map<Path, FileVersion> finishedFiles) throws IOException {
+        final Path tempFile = Paths.get(journalFile.toString() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (FileVersion fileVersion : finishedFiles.values()) {
+                write(channel, createEntry(fileVersion.isFailed ? FAILED : DONE, fileVersion));
+            }
+
+            channel.force(false);
+        }
+
+        Files.move(tempFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String createEntry(String state, FileVersion fileVersion) {
+        return state + "\t" + fileVersion.size + "\t" + fileVersion.lastModified + "\t" + fileVersion.path + "\n";
+    }
+
+    /*
+     * Reads the final entries of the journal, a later entry of a file replaces the earlier ones. An incomplete
+     * last line of an interrupted write is ignored.
+     */
+    private static Map<Path, FileVersion> read(Path journalFile) throws IOException {
+        final Map<Path, FileVersion> finishedFiles = new HashMap<>();
+
+        if (!Files.exists(journalFile)) {
+            return finishedFiles;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber = lineNumber + 1;
+
+                String[] fields = line.split("\t", 4);
+
+                try {
+                    if (fields.length < 4) {
+                        throw new IllegalArgumentException("missing fields");
+                    }
+
+                    FileVersion fileVersion = new FileVersion(Paths.get(fields[3]), Long.parseLong(fields[1]),
+                            Long.parseLong(fields[2]), fields[0].equals(FAILED));
+
+                    switch (fields[0]) {
+                        case DONE:
+                        case FAILED:
+                            finishedFiles.put(fileVersion.path, fileVersion);
+                            break;
+
+                        case START:
+                            finishedFiles.remove(fileVersion.path);
+                            break;
+
+                        default:
+                            throw new IllegalArgumentException("unknown state " + fields[0]);
+                    }
+                } catch (IllegalArgumentException e) {
+                    logger.log(Level.WARNING, "ignored invalid line " + lineNumber + " of the journal " + journalFile +
+                            " (" + e.getMessage() + ")");
+                }
+            }
+        }
+
+        return finishedFiles;
+    }
+
+    private static void write(FileChannel channel, String entry) throws IOException {
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(entry);
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Closes the journal and releases it's lock.
+     *
+     * @throws IOException if the journal could not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            journalChannel.close();
+        } finally {
+            lock.release();
+            lockChannel.close();
+        }
+    }
+
+    /**
+     * Returns true if the version of the file is already processed or failed.
+     *
+     * @param fileVersion version of the file
+     *
+     * @return true if the version is processed
+     */
+    public synchronized boolean isProcessed(FileVersion fileVersion) {
+        FileVersion finished = finishedFiles.get(fileVersion.path);
+
+        return finished != null && finished.size == fileVersion.size && finished.lastModified == fileVersion.lastModified;
+    }
+
+    /**
+     * Records, that the version of the file is processed successfully.
+     *
+     * @param fileVersion version of the file
+     *
+     * @throws IOException if the journal could not be written
+     */
+    public void markDone(FileVersion fileVersion) throws IOException {
+        append(DONE, fileVersion);
+    }
+
+    /**
+     * Records, that the processing of the version of the file failed. The version is not processed again.
+     *
+     * @param fileVersion version of the file
+     *
+     * @throws IOException if the journal could not be written
+     */
+    public void markFailed(FileVersion fileVersion) throws IOException {
+        append(FAILED, new FileVersion(fileVersion.path, fileVersion.size, fileVersion.lastModified, true));
+    }
+
+    /**
+     * Records, that the processing of the version of the file is started.
+     *
+     * @param fileVersion version of the file
+     *
+     * @throws IOException if the journal could not be written
+     */
+    public void markStarted(FileVersion fileVersion) throws IOException {
+        append(START, fileVersion);
+    }
+
+    /**
+     * Returns the number of processed and failed files.
+     *
+     * @return number of processed files
+     */
+    public synchronized int size() {
+        return finishedFiles.size();
+    }
+
+    /*
+     * The entry is forced to the disk before the state is changed in memory.
+     */
+    private synchronized void append(String state, FileVersion fileVersion) throws IOException {
+        write(journalChannel, createEntry(state, fileVersion));
+        journalChannel.force(false);
+
+        if (state.equals(START)) {
+            finishedFiles.remove(fileVersion.path);
+        } else {
+            finishedFiles.put(fileVersion.path, fileVersion);
+        }
+    }
+
+    /**
+     * Instances of this class identify a version of a file by it's absolute path, it's size and the time of it's
+     * last modification.
+     */
+    public static final class FileVersion {
+
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+        private final boolean isFailed;
+
+        private FileVersion(Path path, long size, long lastModified, boolean isFailed) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.isFailed = isFailed;
+        }
+
+        /**
+         * Reads the current version of a file.
+         *
+         * @param file file to read the attributes from
+         *
+         * @return current version of the file
+         *
+         * @throws IOException if the attributes could not be read (e.g. the file is deleted)
+         */
+        public static FileVersion of(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+            return new FileVersion(file.toAbsolutePath().normalize(), attributes.size(),
+                    attributes.lastModifiedTime().toMillis(), false);
+        }
+
+        /**
+         * Returns the time of the last modification in milliseconds since the epoch.
+         *
+         * @return time of the last modification
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Returns the absolute path of the file.
+         *
+         * @return absolute path
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the size of the file in bytes.
+         *
+         * @return size of the file
+         */
+        public long getSize() {
+            return size;
+        }
+
+    } // end of FileVersion
+
+} // end of ProcessedFileJournal
@@ -26,7 +26,7 @@ import java.util.Locale;
  * NumberFormatter implements basic number format operations for string stored double values.
  *
  * @author sebastian
- * @version 3
+ * @version 4
  * @since 8
  */
 public class NumberFormatter {
@@ -42,8 +42,21 @@ public class NumberFormatter {
      * @return filled up string value
      */
     public static String fillDecimalPlace(String doubleAsString, int lastDecimalLength) {
-        double d = Double.parseDouble(doubleAsString);
+        return fillDecimalPlace(Double.parseDouble(doubleAsString), lastDecimalLength);
+    }
 
+    /**
+     * Fills a double value with a number of zeros to a defined last decimal place.
+     * <p>
+     * This method can be used for 1 till 5 last decimal digits. If a value greater than 5 is used,
+     * the default value 4 is used.
+     *
+     * @param d                 value to format
+     * @param lastDecimalLength length of the last decimal place
+     *
+     * @return filled up string value
+     */
+    public static String fillDecimalPlace(double d, int lastDecimalLength) {
         // change the decimal separator sign to '.'
         DecimalFormatSymbols otherSymbols = new DecimalFormatSymbols(Locale.getDefault());
         otherSymbols.setDecimalSeparator('.');
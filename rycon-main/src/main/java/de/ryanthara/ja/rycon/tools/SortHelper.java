@@ -21,6 +21,7 @@ import de.ryanthara.ja.rycon.elements.GSIBlock;
 import de.ryanthara.ja.rycon.elements.RyBlock;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 
@@ -28,13 +29,22 @@ import java.util.Comparator;
  * This class provides static functions to sort different {@link java.util.ArrayList} for RyCON's widgets.
  *
  * @author sebastian
- * @version 1
+ * @version 2
  * @see <a href="https://docs.oracle.com/javase/tutorial/collections/interfaces/order.html">Javadoc</a>
  * @since 12
  */
 // TODO: 29.07.17 implement a clean compare function with equals(), hash() and compare() for RyCON
 public class SortHelper {
 
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int OUTLIER_BUCKET = 100;
+    private static final ThreadLocal<WordIndexBuffer> WORD_INDEX_BUFFER = new ThreadLocal<WordIndexBuffer>() {
+        @Override
+        protected WordIndexBuffer initialValue() {
+            return new WordIndexBuffer();
+        }
+    };
+
     /**
      * Sorts an {@link ArrayList<RyBlock>} of {@link RyBlock} elements by integer value.
      *
@@ -58,21 +68,122 @@ public class SortHelper {
     /**
      * Sorts an {@link ArrayList<GSIBlock>} of {@link GSIBlock} elements by word index (WI).
      * <p>
-     * The line doesn't contains two or more blocks with the same word index.
+     * Most lines are already in order and are only checked. Short lines are sorted in place with a stable
+     * insertion sort. The word indices of a line are bounded (11 to 88 for the common values), so longer lines
+     * are sorted with a stable counting sort in linear time. Every valid two digit word index gets it's own
+     * bucket. Outliers (e.g. WI 571 from the Zeiss conversion) are collected in an extra bucket behind the others
+     * and ordered with a stable insertion sort. Blocks with the same word index keep their order.
+     * <p>
+     * The buckets and the buffer are held per thread and reused, therefore no objects are created for a line and
+     * the method can be used from the parallel block encoding.
      *
      * @param gsiBlocks {@link ArrayList<GSIBlock>} to be sorted by word index (WI)
      */
     public static void sortByWordIndex(ArrayList<GSIBlock> gsiBlocks) {
-        Collections.sort(gsiBlocks, new Comparator<GSIBlock>() {
-            @Override
-            public int compare(GSIBlock o1, GSIBlock o2) {
-                if (o1.getWordIndex() > o2.getWordIndex()) {
-                    return 1;
-                } else {
-                    return -1;
-                }
+        final int size = gsiBlocks.size();
+
+        int lastWordIndex = Integer.MIN_VALUE;
+        boolean isSorted = true;
+
+        for (int i = 0; i < size && isSorted; i++) {
+            int wordIndex = gsiBlocks.get(i).getWordIndex();
+            isSorted = wordIndex >= lastWordIndex;
+            lastWordIndex = wordIndex;
+        }
+
+        // the blocks of most lines are already in order
+        if (isSorted) {
+            return;
+        }
+
+        if (size <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(gsiBlocks, 0, size);
+            return;
+        }
+
+        WordIndexBuffer buffer = WORD_INDEX_BUFFER.get();
+        int[] counts = buffer.counts;
+        GSIBlock[] sorted = buffer.getBlocks(size);
+
+        Arrays.fill(counts, 0);
+
+        for (GSIBlock block : gsiBlocks) {
+            int bucket = bucketOf(block.getWordIndex());
+            counts[bucket + 1] = counts[bucket + 1] + 1;
+        }
+
+        // start positions of the buckets
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] = counts[i] + counts[i - 1];
+        }
+
+        for (GSIBlock block : gsiBlocks) {
+            int bucket = bucketOf(block.getWordIndex());
+            sorted[counts[bucket]] = block;
+            counts[bucket] = counts[bucket] + 1;
+        }
+
+        // the outlier bucket is the last one and is sorted by it's real word index
+        final int outlierStart = counts[OUTLIER_BUCKET - 1];
+
+        for (int i = outlierStart + 1; i < size; i++) {
+            GSIBlock block = sorted[i];
+            int j = i;
+
+            while (j > outlierStart && sorted[j - 1].getWordIndex() > block.getWordIndex()) {
+                sorted[j] = sorted[j - 1];
+                j = j - 1;
             }
-        });
+
+            sorted[j] = block;
+        }
+
+        for (int i = 0; i < size; i++) {
+            gsiBlocks.set(i, sorted[i]);
+            sorted[i] = null;
+        }
+    }
+
+    /*
+     * Stable insertion sort by word index for the range [from, to) of a short line.
+     */
+    private static void insertionSort(ArrayList<GSIBlock> gsiBlocks, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            GSIBlock block = gsiBlocks.get(i);
+            int j = i;
+
+            while (j > from && gsiBlocks.get(j - 1).getWordIndex() > block.getWordIndex()) {
+                gsiBlocks.set(j, gsiBlocks.get(j - 1));
+                j = j - 1;
+            }
+
+            gsiBlocks.set(j, block);
+        }
     }
 
+    /*
+     * Returns the bucket of a word index. Valid word indices have two digits, all others are outliers.
+     */
+    private static int bucketOf(int wordIndex) {
+        return wordIndex >= 0 && wordIndex < OUTLIER_BUCKET ? wordIndex : OUTLIER_BUCKET;
+    }
+
+    /*
+     * Reused buckets and buffer for the counting sort of one thread.
+     */
+    private static class WordIndexBuffer {
+
+        private final int[] counts = new int[OUTLIER_BUCKET + 2];
+        private GSIBlock[] blocks = new GSIBlock[32];
+
+        private GSIBlock[] getBlocks(int size) {
+            if (blocks.length < size) {
+                blocks = new GSIBlock[Math.max(size, blocks.length * 2)];
+            }
+
+            return blocks;
+        }
+
+    } // end of WordIndexBuffer
+
 } // end of SortHelper
@@ -0,0 +1,260 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.util
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Instances of this class process the files of a batch (e.g. dropped files) in parallel by a fixed number of
+ * background worker threads.
+ * <p>
+ * Every file is processed by a {@link FileOperation}, which returns the number of written files. The numbers of
+ * processed, written and failed files are counted thread safe and can be read at any time. The {@link Listener}
+ * is informed from the worker threads after every processed file and once when the batch is finished, so
+ * a user interface has to hand over the information to it's own thread (e.g. with {@code Display.asyncExec()}).
+ * <p>
+ * A running batch can be cancelled. Files, which are processed at the moment, are finished, all other files
+ * are skipped.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class BatchExecutor {
+
+    private final Path[] files;
+    private final FileOperation fileOperation;
+    private final int workers;
+    private final AtomicInteger processedFiles = new AtomicInteger();
+    private final AtomicInteger writtenFiles = new AtomicInteger();
+    private final AtomicInteger failedFiles = new AtomicInteger();
+    private final AtomicInteger skippedFiles = new AtomicInteger();
+    private final AtomicInteger remainingFiles;
+    private final CountDownLatch finishedLatch = new CountDownLatch(1);
+    private volatile boolean isCancelled = false;
+    private boolean isStarted = false;
+
+    /**
+     * Constructs a new instance of this class for the given files.
+     *
+     * @param files         files to process
+     * @param workers       number of worker threads, at least one is used
+     * @param fileOperation operation for every file
+     */
+    public BatchExecutor(Path[] files, int workers, FileOperation fileOperation) {
+        this.files = files.clone();
+        this.fileOperation = fileOperation;
+        this.workers = Math.max(1, Math.min(workers, files.length));
+        this.remainingFiles = new AtomicInteger(files.length);
+    }
+
+    /**
+     * Waits until the batch is finished or cancelled and all started files are finished.
+     *
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public void await() throws InterruptedException {
+        finishedLatch.await();
+    }
+
+    /**
+     * Cancels the batch. Files, which are processed at the moment, are finished, all other files are skipped.
+     */
+    public void cancel() {
+        isCancelled = true;
+    }
+
+    /**
+     * Returns the number of files that could not be processed.
+     *
+     * @return number of failed files
+     */
+    public int getFailedFiles() {
+        return failedFiles.get();
+    }
+
+    /**
+     * Returns the number of files of the batch.
+     *
+     * @return number of files
+     */
+    public int getFileCount() {
+        return files.length;
+    }
+
+    /**
+     * Returns the number of processed files, including the failed ones.
+     *
+     * @return number of processed files
+     */
+    public int getProcessedFiles() {
+        return processedFiles.get();
+    }
+
+    /**
+     * Returns the number of files, that were skipped because the batch was cancelled.
+     *
+     * @return number of skipped files
+     */
+    public int getSkippedFiles() {
+        return skippedFiles.get();
+    }
+
+    /**
+     * Returns the number of written files, which can differ from the number of processed files (e.g. a split
+     * file results in several written files).
+     *
+     * @return number of written files
+     */
+    public int getWrittenFiles() {
+        return writtenFiles.get();
+    }
+
+    /**
+     * Returns true if the batch was cancelled.
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    /**
+     * Returns true if all files of the batch are processed or skipped.
+     *
+     * @return true if finished
+     */
+    public boolean isFinished() {
+        return finishedLatch.getCount() == 0;
+    }
+
+    /**
+     * Starts the processing of the files in the background and returns immediately. A batch can be started once.
+     *
+     * @param listener listener for progress and finish, called from the worker threads
+     */
+    public synchronized void start(Listener listener) {
+        if (isStarted) {
+            throw new IllegalStateException("batch is already started");
+        }
+
+        isStarted = true;
+
+        if (files.length == 0) {
+            finish(listener);
+            return;
+        }
+
+        final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "RyCON-batch-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (Path file : files) {
+            executorService.execute(() -> process(file, listener));
+        }
+
+        // the worker threads end after the last file
+        executorService.shutdown();
+    }
+
+    private void finish(Listener listener) {
+        finishedLatch.countDown();
+        listener.finished(this);
+    }
+
+    private void process(Path file, Listener listener) {
+        boolean isSkipped = isCancelled;
+
+        try {
+            if (!isSkipped) {
+                writtenFiles.addAndGet(fileOperation.process(file));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            failedFiles.incrementAndGet();
+            System.err.println("File " + file.getFileName() + " could not be processed.");
+            e.printStackTrace();
+        } catch (RuntimeException e) {
+            failedFiles.incrementAndGet();
+            System.err.println("Unexpected error while processing file " + file.getFileName());
+            e.printStackTrace();
+        } finally {
+            if (isSkipped) {
+                skippedFiles.incrementAndGet();
+            } else {
+                processedFiles.incrementAndGet();
+            }
+
+            listener.progress(this);
+
+            if (remainingFiles.decrementAndGet() == 0) {
+                finish(listener);
+            }
+        }
+    }
+
+    /**
+     * A file operation processes one file of the batch.
+     */
+    @FunctionalInterface
+    public interface FileOperation {
+
+        /**
+         * Processes the file and returns the number of written files.
+         *
+         * @param file file to process
+         *
+         * @return number of written files
+         *
+         * @throws IOException if the file could not be processed
+         */
+        int process(Path file) throws IOException;
+
+    } // end of FileOperation
+
+    /**
+     * A listener is informed about the progress of a batch. The methods are called from the worker threads.
+     */
+    public interface Listener {
+
+        /**
+         * Is called once when all files are processed or skipped.
+         *
+         * @param batchExecutor finished batch
+         */
+        void finished(BatchExecutor batchExecutor);
+
+        /**
+         * Is called after every processed or skipped file.
+         *
+         * @param batchExecutor running batch
+         */
+        void progress(BatchExecutor batchExecutor);
+
+    } // end of Listener
+
+} // end of BatchExecutor
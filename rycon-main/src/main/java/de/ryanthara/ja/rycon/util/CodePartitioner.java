@@ -0,0 +1,255 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.util
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Instances of this class implements a partitioner that groups string lines by an integer code.
+ * <p>
+ * The codes are held in a hash table with open addressing over primitive int arrays. Every code has a chain of
+ * line indices, so the lines of a code keep their insertion order. Adding a line needs constant time, therefore
+ * grouping a file scales linearly with the number of lines. Only the distinct codes are sorted when the groups
+ * are returned, the lines itself are never compared.
+ * <p>
+ * At the moment, there is no thread safety implemented.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class CodePartitioner {
+
+    private static final int EMPTY = -1;
+
+    // hash table, code -> group
+    private int[] slotCodes;
+    private int[] slotGroups;
+
+    // groups with the first and last line of it's chain
+    private int[] groupCodes;
+    private int[] groupFirstLines;
+    private int[] groupLastLines;
+    private int[] groupSizes;
+    private int groupCount = 0;
+
+    // lines with the index of the next line of the same code
+    private String[] lines;
+    private int[] nextLines;
+    private int lineCount = 0;
+
+    /**
+     * Constructs a new and empty instance of this class.
+     */
+    public CodePartitioner() {
+        this(16);
+    }
+
+    /**
+     * Constructs a new and empty instance of this class with an expected number of lines.
+     *
+     * @param expectedLines expected number of lines
+     */
+    public CodePartitioner(int expectedLines) {
+        lines = new String[Math.max(16, expectedLines)];
+        nextLines = new int[lines.length];
+
+        slotCodes = new int[64];
+        slotGroups = new int[64];
+        Arrays.fill(slotGroups, EMPTY);
+
+        groupCodes = new int[16];
+        groupFirstLines = new int[16];
+        groupLastLines = new int[16];
+        groupSizes = new int[16];
+    }
+
+    /*
+     * Spreads the bits of the code (murmur3 finalizer) for a good distribution of consecutive codes.
+     */
+    private static int hash(int code) {
+        int h = code;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+
+        return h;
+    }
+
+    /**
+     * Adds a line with it's code. The line is appended to the group of the code.
+     *
+     * @param code code of the line
+     * @param line line to add
+     */
+    public void add(int code, String line) {
+        int group = findGroup(code, true);
+
+        if (lineCount == lines.length) {
+            lines = Arrays.copyOf(lines, lineCount * 2);
+            nextLines = Arrays.copyOf(nextLines, lineCount * 2);
+        }
+
+        lines[lineCount] = line;
+        nextLines[lineCount] = EMPTY;
+
+        if (groupSizes[group] == 0) {
+            groupFirstLines[group] = lineCount;
+        } else {
+            nextLines[groupLastLines[group]] = lineCount;
+        }
+
+        groupLastLines[group] = lineCount;
+        groupSizes[group] = groupSizes[group] + 1;
+        lineCount = lineCount + 1;
+    }
+
+    /**
+     * Returns the distinct codes in ascending order.
+     *
+     * @return sorted distinct codes
+     */
+    public int[] getCodes() {
+        int[] codes = Arrays.copyOf(groupCodes, groupCount);
+        Arrays.sort(codes);
+
+        return codes;
+    }
+
+    /**
+     * Returns the lines of one code in insertion order.
+     *
+     * @param code code to look for
+     *
+     * @return lines of the code, the list is empty for an unknown code
+     */
+    public ArrayList<String> getGroup(int code) {
+        int group = findGroup(code, false);
+
+        if (group == EMPTY) {
+            return new ArrayList<>();
+        }
+
+        ArrayList<String> result = new ArrayList<>(groupSizes[group]);
+
+        for (int line = groupFirstLines[group]; line != EMPTY; line = nextLines[line]) {
+            result.add(lines[line]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the lines of all codes, grouped by code in ascending order. Within a group the lines keep their
+     * insertion order.
+     *
+     * @return groups of lines ordered by code
+     */
+    public ArrayList<ArrayList<String>> getGroups() {
+        ArrayList<ArrayList<String>> result = new ArrayList<>(groupCount);
+
+        for (int code : getCodes()) {
+            result.add(getGroup(code));
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of distinct codes.
+     *
+     * @return number of distinct codes
+     */
+    public int getGroupCount() {
+        return groupCount;
+    }
+
+    /**
+     * Returns the number of added lines.
+     *
+     * @return number of added lines
+     */
+    public int size() {
+        return lineCount;
+    }
+
+    /*
+     * Returns the group of the code or EMPTY. A new group is created if the code is unknown and create is true.
+     */
+    private int findGroup(int code, boolean create) {
+        int mask = slotCodes.length - 1;
+        int slot = hash(code) & mask;
+
+        while (slotGroups[slot] != EMPTY) {
+            if (slotCodes[slot] == code) {
+                return slotGroups[slot];
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        if (!create) {
+            return EMPTY;
+        }
+
+        if (groupCount == groupCodes.length) {
+            groupCodes = Arrays.copyOf(groupCodes, groupCount * 2);
+            groupFirstLines = Arrays.copyOf(groupFirstLines, groupCount * 2);
+            groupLastLines = Arrays.copyOf(groupLastLines, groupCount * 2);
+            groupSizes = Arrays.copyOf(groupSizes, groupCount * 2);
+        }
+
+        int group = groupCount;
+        groupCodes[group] = code;
+        groupSizes[group] = 0;
+        groupCount = groupCount + 1;
+
+        slotCodes[slot] = code;
+        slotGroups[slot] = group;
+
+        // load factor of 0.5
+        if (groupCount * 2 > slotCodes.length) {
+            rehash();
+        }
+
+        return group;
+    }
+
+    private void rehash() {
+        slotCodes = new int[slotCodes.length * 2];
+        slotGroups = new int[slotGroups.length * 2];
+        Arrays.fill(slotGroups, EMPTY);
+
+        int mask = slotCodes.length - 1;
+
+        for (int group = 0; group < groupCount; group++) {
+            int slot = hash(groupCodes[group]) & mask;
+
+            while (slotGroups[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+
+            slotCodes[slot] = groupCodes[group];
+            slotGroups[slot] = group;
+        }
+    }
+
+} // end of CodePartitioner
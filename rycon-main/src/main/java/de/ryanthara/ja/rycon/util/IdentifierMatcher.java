@@ -0,0 +1,220 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.util
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Instances of this class implements a precompiled multi pattern matcher (Aho-Corasick automaton) for a small
+ * set of identifiers (e.g. the free station, known station and control point identifiers).
+ * <p>
+ * Every identifier gets one bit in the result mask, in the order of the constructor arguments. A text is scanned
+ * once and the result contains the bits of all identifiers, which are contained in the text. The result is the
+ * same as calling {@link String#contains(CharSequence)} for every identifier, but the costs per character don't
+ * depend on the number or the length of the identifiers.
+ * <p>
+ * The automaton is built as complete transition table over the characters of the identifiers. Instances are
+ * immutable and can be shared between threads.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class IdentifierMatcher {
+
+    private static final int ASCII_SIZE = 128;
+
+    private final int identifierCount;
+    private final int width;
+    private final int[] asciiIndices;
+    private final char[] otherChars;
+    private final int[] transitions;
+    private final int[] outputs;
+
+    /**
+     * Constructs a new matcher for the given identifiers. An empty identifier is contained in every text.
+     *
+     * @param identifiers identifiers to look for, at most 32
+     */
+    public IdentifierMatcher(String... identifiers) {
+        if (identifiers.length > 32) {
+            throw new IllegalArgumentException("at most 32 identifiers are supported: " + identifiers.length);
+        }
+
+        this.identifierCount = identifiers.length;
+
+        // compact alphabet of the identifier characters, index 0 is used for all other characters
+        asciiIndices = new int[ASCII_SIZE];
+        StringBuilder others = new StringBuilder();
+        int alphabetSize = 1;
+
+        for (String identifier : identifiers) {
+            for (int i = 0; i < identifier.length(); i++) {
+                char c = identifier.charAt(i);
+
+                if (c < ASCII_SIZE) {
+                    if (asciiIndices[c] == 0) {
+                        asciiIndices[c] = alphabetSize++;
+                    }
+                } else if (others.indexOf(String.valueOf(c)) < 0) {
+                    others.append(c);
+                }
+            }
+        }
+
+        char[] sortedOthers = others.toString().toCharArray();
+        Arrays.sort(sortedOthers);
+        otherChars = sortedOthers;
+
+        width = alphabetSize + otherChars.length;
+
+        // trie of the identifiers
+        int maxStates = 1;
+
+        for (String identifier : identifiers) {
+            maxStates = maxStates + identifier.length();
+        }
+
+        int[] trie = new int[maxStates * width];
+        int[] output = new int[maxStates];
+        int stateCount = 1;
+
+        Arrays.fill(trie, -1);
+
+        for (int i = 0; i < identifiers.length; i++) {
+            int state = 0;
+
+            for (int j = 0; j < identifiers[i].length(); j++) {
+                int index = indexOf(identifiers[i].charAt(j));
+
+                if (trie[state * width + index] < 0) {
+                    trie[state * width + index] = stateCount++;
+                }
+
+                state = trie[state * width + index];
+            }
+
+            output[state] = output[state] | (1 << i);
+        }
+
+        // breadth first over the trie, missing transitions follow the failure links
+        int[] failures = new int[stateCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        for (int index = 0; index < width; index++) {
+            int next = trie[index];
+
+            if (next < 0) {
+                trie[index] = 0;
+            } else {
+                failures[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] = output[state] | output[failures[state]];
+
+            for (int index = 0; index < width; index++) {
+                int next = trie[state * width + index];
+
+                if (next < 0) {
+                    trie[state * width + index] = trie[failures[state] * width + index];
+                } else {
+                    failures[next] = trie[failures[state] * width + index];
+                    queue.add(next);
+                }
+            }
+        }
+
+        transitions = Arrays.copyOf(trie, stateCount * width);
+        outputs = Arrays.copyOf(output, stateCount);
+    }
+
+    /**
+     * Returns the number of identifiers.
+     *
+     * @return number of identifiers
+     */
+    public int getIdentifierCount() {
+        return identifierCount;
+    }
+
+    /**
+     * Returns the bits of all identifiers, that are contained in the text.
+     *
+     * @param text text to scan
+     *
+     * @return bit mask of the contained identifiers
+     */
+    public int match(CharSequence text) {
+        return match(text, 0, text.length(), false);
+    }
+
+    /**
+     * Returns the bits of all identifiers, that are completely contained in the range [from, to) of the text.
+     *
+     * @param text text to scan
+     * @param from first character of the range
+     * @param to   end of the range (exclusive)
+     *
+     * @return bit mask of the contained identifiers
+     */
+    public int match(CharSequence text, int from, int to) {
+        return match(text, from, to, false);
+    }
+
+    /**
+     * Returns the bits of all identifiers, that are contained in the upper case text. The result is the same as
+     * calling {@link String#contains(CharSequence)} on the upper case text, without creating it.
+     *
+     * @param text text to scan
+     *
+     * @return bit mask of the contained identifiers
+     */
+    public int matchUpperCase(CharSequence text) {
+        return match(text, 0, text.length(), true);
+    }
+
+    private int indexOf(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiIndices[c];
+        }
+
+        int index = Arrays.binarySearch(otherChars, c);
+
+        return index < 0 ? 0 : width - otherChars.length + index;
+    }
+
+    private int match(CharSequence text, int from, int to, boolean isUpperCase) {
+        int state = 0;
+        int mask = outputs[0];
+
+        for (int i = from; i < to; i++) {
+            char c = isUpperCase ? Character.toUpperCase(text.charAt(i)) : text.charAt(i);
+
+            state = transitions[state * width + indexOf(c)];
+            mask = mask | outputs[state];
+        }
+
+        return mask;
+    }
+
+} // end of IdentifierMatcher
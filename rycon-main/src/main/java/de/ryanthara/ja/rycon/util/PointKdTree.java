@@ -0,0 +1,442 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.util
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.util;
+
+import de.ryanthara.ja.rycon.elements.RyPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instances of this class implements a static k-d tree as spatial index over a list of {@link RyPoint} objects.
+ * <p>
+ * The tree is built once and can't be changed afterwards. It is stored implicit in primitive arrays: the
+ * median of every range is the node, the lower half is the left and the upper half the right sub tree. The
+ * splitting axis changes with every level (x, y and, if used, z). Therefore radius, nearest neighbour and
+ * bounding box queries need O(log n) steps for the search path instead of a linear scan over all points.
+ * <p>
+ * The tree is either two dimensional (horizontal distance, the height is ignored) or three dimensional (slope
+ * distance). Points with an undefined coordinate (NaN) in one of the used dimensions are not stored.
+ * The queries are thread safe, because the tree is never changed after construction.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class PointKdTree {
+
+    private final int dimensions;
+    private final double[] coordinates;
+    private final RyPoint[] points;
+
+    /**
+     * Constructs a new k-d tree from the given points.
+     *
+     * @param points    points to index, the list is not changed
+     * @param useHeight true for a three dimensional tree (slope distance), false for a two dimensional tree
+     *                  (horizontal distance)
+     */
+    public PointKdTree(List<RyPoint> points, boolean useHeight) {
+        this.dimensions = useHeight ? 3 : 2;
+
+        ArrayList<RyPoint> definedPoints = new ArrayList<>(points.size());
+
+        for (RyPoint point : points) {
+            if (!(Double.isNaN(point.getX()) || Double.isNaN(point.getY()) || (useHeight && Double.isNaN(point.getZ())))) {
+                definedPoints.add(point);
+            }
+        }
+
+        this.points = definedPoints.toArray(new RyPoint[definedPoints.size()]);
+        this.coordinates = new double[this.points.length * dimensions];
+
+        for (int i = 0; i < this.points.length; i++) {
+            coordinates[i * dimensions] = this.points[i].getX();
+            coordinates[i * dimensions + 1] = this.points[i].getY();
+
+            if (useHeight) {
+                coordinates[i * dimensions + 2] = this.points[i].getZ();
+            }
+        }
+
+        build(0, this.points.length, 0);
+    }
+
+    /**
+     * Returns the k nearest points to the given position, ordered by ascending distance.
+     *
+     * @param x x coordinate of the position
+     * @param y y coordinate of the position
+     * @param z z coordinate of the position, ignored by a two dimensional tree
+     * @param k maximum number of points to return
+     *
+     * @return up to k nearest points
+     */
+    public ArrayList<RyPoint> getNearestPoints(double x, double y, double z, int k) {
+        ArrayList<RyPoint> result = new ArrayList<>();
+
+        if (k <= 0 || points.length == 0) {
+            return result;
+        }
+
+        NearestHeap heap = new NearestHeap(Math.min(k, points.length));
+        nearest(0, points.length, 0, new double[]{x, y, z}, heap);
+
+        for (int index : heap.toSortedIndices()) {
+            result.add(points[index]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the k nearest points to the given point, ordered by ascending distance. The point itself is part
+     * of the result, if it is stored in the tree.
+     *
+     * @param point point to look for
+     * @param k     maximum number of points to return
+     *
+     * @return up to k nearest points
+     */
+    public ArrayList<RyPoint> getNearestPoints(RyPoint point, int k) {
+        return getNearestPoints(point.getX(), point.getY(), point.getZ(), k);
+    }
+
+    /**
+     * Returns all points inside the horizontal bounding box (borders included).
+     *
+     * @param minX minimal x coordinate
+     * @param minY minimal y coordinate
+     * @param maxX maximal x coordinate
+     * @param maxY maximal y coordinate
+     *
+     * @return points inside the bounding box
+     */
+    public ArrayList<RyPoint> getPointsInBox(double minX, double minY, double maxX, double maxY) {
+        return getPointsInBox(minX, minY, Double.NEGATIVE_INFINITY, maxX, maxY, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Returns all points inside the bounding box (borders included). A two dimensional tree ignores the
+     * z coordinates.
+     *
+     * @param minX minimal x coordinate
+     * @param minY minimal y coordinate
+     * @param minZ minimal z coordinate
+     * @param maxX maximal x coordinate
+     * @param maxY maximal y coordinate
+     * @param maxZ maximal z coordinate
+     *
+     * @return points inside the bounding box
+     */
+    public ArrayList<RyPoint> getPointsInBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        ArrayList<RyPoint> result = new ArrayList<>();
+        box(0, points.length, 0, new double[]{minX, minY, minZ}, new double[]{maxX, maxY, maxZ}, result);
+
+        return result;
+    }
+
+    /**
+     * Returns all points within the radius (border included) around the given position.
+     *
+     * @param x      x coordinate of the position
+     * @param y      y coordinate of the position
+     * @param z      z coordinate of the position, ignored by a two dimensional tree
+     * @param radius search radius
+     *
+     * @return points within the radius
+     */
+    public ArrayList<RyPoint> getPointsWithin(double x, double y, double z, double radius) {
+        ArrayList<RyPoint> result = new ArrayList<>();
+
+        if (radius >= 0) {
+            within(0, points.length, 0, new double[]{x, y, z}, radius * radius, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns all points within the radius (border included) around the given point. The point itself is part
+     * of the result, if it is stored in the tree.
+     *
+     * @param point  point to look for
+     * @param radius search radius
+     *
+     * @return points within the radius
+     */
+    public ArrayList<RyPoint> getPointsWithin(RyPoint point, double radius) {
+        return getPointsWithin(point.getX(), point.getY(), point.getZ(), radius);
+    }
+
+    /**
+     * Returns true if the tree uses the height as third dimension.
+     *
+     * @return true for a three dimensional tree
+     */
+    public boolean isUseHeight() {
+        return dimensions == 3;
+    }
+
+    /**
+     * Returns the number of stored points.
+     *
+     * @return number of stored points
+     */
+    public int size() {
+        return points.length;
+    }
+
+    private void box(int from, int to, int depth, double[] min, double[] max, ArrayList<RyPoint> result) {
+        if (from >= to) {
+            return;
+        }
+
+        int node = (from + to) >>> 1;
+        int axis = depth % dimensions;
+        double value = coordinates[node * dimensions + axis];
+
+        boolean isInside = true;
+
+        for (int i = 0; i < dimensions && isInside; i++) {
+            double c = coordinates[node * dimensions + i];
+            isInside = c >= min[i] && c <= max[i];
+        }
+
+        if (isInside) {
+            result.add(points[node]);
+        }
+
+        if (min[axis] <= value) {
+            box(from, node, depth + 1, min, max, result);
+        }
+
+        if (max[axis] >= value) {
+            box(node + 1, to, depth + 1, min, max, result);
+        }
+    }
+
+    /*
+     * Sorts the range so that the median is at the middle position (node), smaller values are left of it and
+     * larger values right of it. Then the sub ranges are built with the next axis.
+     */
+    private void build(int from, int to, int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+
+        int node = (from + to) >>> 1;
+        select(from, to - 1, node, depth % dimensions);
+
+        build(from, node, depth + 1);
+        build(node + 1, to, depth + 1);
+    }
+
+    private double distanceSquared(int index, double[] position) {
+        double sum = 0d;
+
+        for (int i = 0; i < dimensions; i++) {
+            double d = coordinates[index * dimensions + i] - position[i];
+            sum = sum + d * d;
+        }
+
+        return sum;
+    }
+
+    private void nearest(int from, int to, int depth, double[] position, NearestHeap heap) {
+        if (from >= to) {
+            return;
+        }
+
+        int node = (from + to) >>> 1;
+        int axis = depth % dimensions;
+        double difference = position[axis] - coordinates[node * dimensions + axis];
+
+        heap.offer(node, distanceSquared(node, position));
+
+        // search the side of the position first, the other side only if it could contain a nearer point
+        if (difference < 0) {
+            nearest(from, node, depth + 1, position, heap);
+
+            if (!heap.isFull() || difference * difference < heap.getMaximum()) {
+                nearest(node + 1, to, depth + 1, position, heap);
+            }
+        } else {
+            nearest(node + 1, to, depth + 1, position, heap);
+
+            if (!heap.isFull() || difference * difference < heap.getMaximum()) {
+                nearest(from, node, depth + 1, position, heap);
+            }
+        }
+    }
+
+    /*
+     * Quick select (Hoare) of the k-th smallest coordinate on the axis within the range [left, right].
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coordinates[((left + right) >>> 1) * dimensions + axis];
+            int i = left;
+            int j = right;
+
+            while (i <= j) {
+                while (coordinates[i * dimensions + axis] < pivot) {
+                    i++;
+                }
+
+                while (coordinates[j * dimensions + axis] > pivot) {
+                    j--;
+                }
+
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        RyPoint point = points[i];
+        points[i] = points[j];
+        points[j] = point;
+
+        for (int d = 0; d < dimensions; d++) {
+            double c = coordinates[i * dimensions + d];
+            coordinates[i * dimensions + d] = coordinates[j * dimensions + d];
+            coordinates[j * dimensions + d] = c;
+        }
+    }
+
+    private void within(int from, int to, int depth, double[] position, double radiusSquared, ArrayList<RyPoint> result) {
+        if (from >= to) {
+            return;
+        }
+
+        int node = (from + to) >>> 1;
+        int axis = depth % dimensions;
+        double difference = position[axis] - coordinates[node * dimensions + axis];
+
+        if (distanceSquared(node, position) <= radiusSquared) {
+            result.add(points[node]);
+        }
+
+        if (difference <= 0 || difference * difference <= radiusSquared) {
+            within(from, node, depth + 1, position, radiusSquared, result);
+        }
+
+        if (difference >= 0 || difference * difference <= radiusSquared) {
+            within(node + 1, to, depth + 1, position, radiusSquared, result);
+        }
+    }
+
+    /*
+     * Bounded max heap with the k nearest candidates, held in primitive arrays.
+     */
+    private static class NearestHeap {
+
+        private final double[] distances;
+        private final int[] indices;
+        private int size = 0;
+
+        private NearestHeap(int capacity) {
+            distances = new double[capacity];
+            indices = new int[capacity];
+        }
+
+        private double getMaximum() {
+            return distances[0];
+        }
+
+        private boolean isFull() {
+            return size == distances.length;
+        }
+
+        private void offer(int index, double distance) {
+            if (!isFull()) {
+                // sift up
+                int i = size++;
+
+                while (i > 0 && distances[(i - 1) / 2] < distance) {
+                    distances[i] = distances[(i - 1) / 2];
+                    indices[i] = indices[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+
+                distances[i] = distance;
+                indices[i] = index;
+            } else if (distance < distances[0]) {
+                siftDown(index, distance, size);
+            }
+        }
+
+        private void siftDown(int index, double distance, int length) {
+            int i = 0;
+
+            while (2 * i + 1 < length) {
+                int child = 2 * i + 1;
+
+                if (child + 1 < length && distances[child + 1] > distances[child]) {
+                    child = child + 1;
+                }
+
+                if (distances[child] <= distance) {
+                    break;
+                }
+
+                distances[i] = distances[child];
+                indices[i] = indices[child];
+                i = child;
+            }
+
+            distances[i] = distance;
+            indices[i] = index;
+        }
+
+        /*
+         * Empties the heap and returns the indices ordered by ascending distance.
+         */
+        private int[] toSortedIndices() {
+            int[] sorted = new int[size];
+
+            for (int length = size; length > 0; length--) {
+                sorted[length - 1] = indices[0];
+
+                int lastIndex = indices[length - 1];
+                double lastDistance = distances[length - 1];
+
+                siftDown(lastIndex, lastDistance, length - 1);
+            }
+
+            size = 0;
+
+            return sorted;
+        }
+
+    } // end of NearestHeap
+
+} // end of PointKdTree
@@ -0,0 +1,228 @@
+/*
+ * License: GPL. Copyright 2017- (C) by Sebastian Aust (https://www.ryanthara.de/)
+ *
+ * This file is part of the package de.ryanthara.ja.rycon.util
+ *
+ * This package is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This package is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this package. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.ryanthara.ja.rycon.util;
+
+import de.ryanthara.ja.rycon.elements.RyPoint;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Instances of this class implements a uniform spatial hash grid for {@link RyPoint} objects.
+ * <p>
+ * The space is divided into cubic cells with the edge length of the tolerance distance. Every point is stored
+ * in the cell that contains it, together with a key (e.g. the normalized point number). Points that are nearer
+ * than the tolerance distance are always in the same or in one of the 26 neighbouring cells. Therefore a query
+ * only has to look at 27 cells instead of all stored points, which makes the duplicate detection near-linear.
+ * <p>
+ * Points with an undefined coordinate (NaN) are never identical to another point and are not stored.
+ * At the moment, there is no thread safety implemented.
+ *
+ * @author sebastian
+ * @version 1
+ * @since 25
+ */
+public class SpatialHashGrid {
+
+    private final double tolerance;
+    private final HashMap<CellKey, ArrayList<RyPoint>> cells = new HashMap<>();
+    private final CellKey probe = new CellKey(null, 0, 0, 0);
+    private int size = 0;
+
+    /**
+     * Constructs a new instance of this class with the tolerance distance, which is also used as cell size.
+     *
+     * @param tolerance distance up to which two points are identical (exclusive)
+     */
+    public SpatialHashGrid(double tolerance) {
+        if (!(tolerance > 0d) || Double.isInfinite(tolerance)) {
+            throw new IllegalArgumentException("tolerance must be a positive distance: " + tolerance);
+        }
+
+        this.tolerance = tolerance;
+    }
+
+    private static boolean isDefined(RyPoint point) {
+        return !(Double.isNaN(point.getX()) || Double.isNaN(point.getY()) || Double.isNaN(point.getZ()));
+    }
+
+    /**
+     * Adds a point with it's key to the grid.
+     *
+     * @param key   key of the point, only points with equal keys are compared
+     * @param point point to add
+     *
+     * @return true if the point was added, false if it has an undefined coordinate
+     */
+    public boolean add(String key, RyPoint point) {
+        if (!isDefined(point)) {
+            return false;
+        }
+
+        CellKey cellKey = new CellKey(key, cell(point.getX()), cell(point.getY()), cell(point.getZ()));
+        ArrayList<RyPoint> points = cells.get(cellKey);
+
+        if (points == null) {
+            points = new ArrayList<>(1);
+            cells.put(cellKey, points);
+        }
+
+        points.add(point);
+        size = size + 1;
+
+        return true;
+    }
+
+    /**
+     * Returns the first stored point with the same key, which is nearer than the tolerance distance to the given
+     * point, or null if there is no such point.
+     *
+     * @param key   key of the point
+     * @param point point to look for
+     *
+     * @return first identical point or null
+     */
+    public RyPoint getIdenticalPoint(String key, RyPoint point) {
+        return find(key, point, null);
+    }
+
+    /**
+     * Returns all stored points with the same key, which are nearer than the tolerance distance to the given point.
+     *
+     * @param key   key of the point
+     * @param point point to look for
+     *
+     * @return identical points, the list is empty if there is no identical point
+     */
+    public ArrayList<RyPoint> getIdenticalPoints(String key, RyPoint point) {
+        ArrayList<RyPoint> identicalPoints = new ArrayList<>();
+        find(key, point, identicalPoints);
+
+        return identicalPoints;
+    }
+
+    /**
+     * Returns the tolerance distance, which is the edge length of a cell.
+     *
+     * @return tolerance distance
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Returns the number of stored points.
+     *
+     * @return number of stored points
+     */
+    public int size() {
+        return size;
+    }
+
+    private long cell(double coordinate) {
+        return (long) Math.floor(coordinate / tolerance);
+    }
+
+    /*
+     * Returns the first identical point, or collects all identical points if the list is not null.
+     */
+    private RyPoint find(String key, RyPoint point, ArrayList<RyPoint> identicalPoints) {
+        if (!isDefined(point)) {
+            return null;
+        }
+
+        long cellX = cell(point.getX());
+        long cellY = cell(point.getY());
+        long cellZ = cell(point.getZ());
+
+        probe.key = key;
+
+        for (long x = cellX - 1; x <= cellX + 1; x++) {
+            for (long y = cellY - 1; y <= cellY + 1; y++) {
+                for (long z = cellZ - 1; z <= cellZ + 1; z++) {
+                    probe.set(x, y, z);
+
+                    ArrayList<RyPoint> points = cells.get(probe);
+
+                    if (points != null) {
+                        for (RyPoint candidate : points) {
+                            if (point.getSlopeDistance(candidate) < tolerance) {
+                                if (identicalPoints == null) {
+                                    return candidate;
+                                }
+
+                                identicalPoints.add(candidate);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /*
+     * Key of a cell. The probe instance is changed for lookups, stored keys are never changed.
+     */
+    private static class CellKey {
+
+        private String key;
+        private long x, y, z;
+        private int hash;
+
+        private CellKey(String key, long x, long y, long z) {
+            this.key = key;
+            set(x, y, z);
+        }
+
+        private void set(long x, long y, long z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+
+            int h = key == null ? 0 : key.hashCode();
+            h = 31 * h + (int) (x ^ (x >>> 32));
+            h = 31 * h + (int) (y ^ (y >>> 32));
+            h = 31 * h + (int) (z ^ (z >>> 32));
+
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (!(o instanceof CellKey)) {
+                return false;
+            }
+
+            CellKey cellKey = (CellKey) o;
+
+            return x == cellKey.x && y == cellKey.y && z == cellKey.z
+                    && (key == null ? cellKey.key == null : key.equals(cellKey.key));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    } // end of CellKey
+
+} // end of SpatialHashGrid